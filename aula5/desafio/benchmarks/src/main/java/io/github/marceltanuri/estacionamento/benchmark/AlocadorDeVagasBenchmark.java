@@ -0,0 +1,92 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 32 cancelas alocando e liberando vagas ao mesmo tempo: cada operação ocupa a vaga livre mais próxima e a
+ * libera em seguida. Compara o {@link AlocadorDeVagas} com um {@link BitSet} protegido por {@code synchronized}.
+ * Com {@code ocupacao=90} as vagas mais próximas já estão ocupadas e a busca percorre os níveis.
+ * Exemplo: {@code java -jar target/benchmarks.jar AlocadorDeVagas}
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(32)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AlocadorDeVagasBenchmark {
+
+    private static final Veiculo.TipoVeiculo CARRO = Veiculo.TipoVeiculo.CARRO;
+    private static final List<Integer> VAGAS_POR_NIVEL = List.of(200, 200, 100);
+
+    @Param({"0", "90"})
+    private int ocupacao;
+
+    private AlocadorDeVagas alocador;
+    private MapaDeVagasSincronizado sincronizado;
+
+    @Setup
+    public void setup() {
+        alocador = new AlocadorDeVagas(Map.of(CARRO, VAGAS_POR_NIVEL));
+        sincronizado = new MapaDeVagasSincronizado(VAGAS_POR_NIVEL.stream().mapToInt(Integer::intValue).sum());
+        int ocupadas = VAGAS_POR_NIVEL.stream().mapToInt(Integer::intValue).sum() * ocupacao / 100;
+        for (int i = 0; i < ocupadas; i++) {
+            alocador.alocar(CARRO);
+            sincronizado.ocupar();
+        }
+    }
+
+    @Benchmark
+    public Vaga alocarELiberar() {
+        Vaga vaga = alocador.alocar(CARRO).orElseThrow();
+        alocador.liberar(CARRO, vaga);
+        return vaga;
+    }
+
+    @Benchmark
+    public int alocarELiberarSincronizado() {
+        int vaga = sincronizado.ocupar();
+        sincronizado.liberar(vaga);
+        return vaga;
+    }
+
+    private static final class MapaDeVagasSincronizado {
+        private final BitSet ocupadas;
+        private final int vagas;
+
+        private MapaDeVagasSincronizado(int vagas) {
+            this.ocupadas = new BitSet(vagas);
+            this.vagas = vagas;
+        }
+
+        synchronized int ocupar() {
+            int vaga = ocupadas.nextClearBit(0);
+            if (vaga >= vagas) {
+                throw new IllegalStateException("Sem vagas livres.");
+            }
+            ocupadas.set(vaga);
+            return vaga;
+        }
+
+        synchronized void liberar(int vaga) {
+            ocupadas.clear(vaga);
+        }
+    }
+}
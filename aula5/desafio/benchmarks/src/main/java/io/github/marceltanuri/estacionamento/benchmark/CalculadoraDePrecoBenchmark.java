@@ -0,0 +1,60 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link CalculadoraDePreco#calcular} (com a conversão para BigDecimal) e de
+ * {@link CalculadoraDePreco#calcularEmCentavos} por tipo de veículo e permanência (0 a 48 horas).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalculadoraDePrecoBenchmark {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 8, 0, 0);
+
+    @Param({"CAMINHAO", "CARRO", "MOTO"})
+    private Veiculo.TipoVeiculo tipo;
+
+    @Param({"0", "1", "2", "3", "8", "9", "24", "48"})
+    private int horas;
+
+    private CalculadoraDePreco calculadoraDePreco;
+    private Ticket ticket;
+    private LocalDateTime saida;
+
+    @Setup
+    public void setup() {
+        calculadoraDePreco = new CalculadoraDePreco(TarifasConfiguradas.carregar());
+        ticket = Ticket.novo(new Veiculo("ABC1D23", tipo), ENTRADA);
+        // Alguns minutos além da hora cheia para exercitar o arredondamento
+        saida = ENTRADA.plusHours(horas).plusMinutes(horas == 0 ? 0 : 7);
+    }
+
+    @Benchmark
+    public BigDecimal calcular() {
+        return calculadoraDePreco.calcular(ticket, saida);
+    }
+
+    @Benchmark
+    public long calcularEmCentavos() {
+        return calculadoraDePreco.calcularEmCentavos(ticket, saida);
+    }
+}
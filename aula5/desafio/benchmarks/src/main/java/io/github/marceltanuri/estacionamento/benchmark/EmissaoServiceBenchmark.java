@@ -0,0 +1,63 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link EmissaoService#emitir} contra um repositório em memória,
+ * para veículos novos e para veículos que já possuem ticket ativo.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmissaoServiceBenchmark {
+
+    private static final int QUANTIDADE_PLACAS = 1024;
+
+    private TicketRepositoryEmMemoria ticketRepository;
+    private EmissaoService emissaoService;
+    private Veiculo[] veiculos;
+    private Veiculo veiculoNoPatio;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        ticketRepository = new TicketRepositoryEmMemoria();
+        emissaoService = new EmissaoService(ticketRepository, Clock.systemDefaultZone());
+        veiculos = new Veiculo[QUANTIDADE_PLACAS];
+        for (int i = 0; i < QUANTIDADE_PLACAS; i++) {
+            veiculos[i] = new Veiculo(String.format("BEN%d%c%02d", i % 10, (char) ('A' + (i / 100) % 26), i % 100),
+                    Veiculo.TipoVeiculo.CARRO);
+        }
+        veiculoNoPatio = new Veiculo("PAT1O00", Veiculo.TipoVeiculo.CARRO);
+        emissaoService.emitir(veiculoNoPatio);
+    }
+
+    @Benchmark
+    public Ticket emitirVeiculoNovo() {
+        Veiculo veiculo = veiculos[proximo++ & (QUANTIDADE_PLACAS - 1)];
+        Ticket ticket = emissaoService.emitir(veiculo);
+        // Remove o ticket para que a próxima passagem pela mesma placa volte a ser uma emissão nova
+        ticketRepository.delete(ticket);
+        return ticket;
+    }
+
+    @Benchmark
+    public Ticket emitirVeiculoJaNoPatio() {
+        return emissaoService.emitir(veiculoNoPatio);
+    }
+}
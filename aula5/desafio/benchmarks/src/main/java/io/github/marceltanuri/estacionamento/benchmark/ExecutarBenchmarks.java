@@ -0,0 +1,35 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks reportando vazão, tempo médio e taxa de alocação (profiler de GC).
+ * <p>
+ * Aceita as mesmas opções de linha de comando do JMH, por exemplo:
+ * {@code java -jar target/benchmarks.jar CalculadoraDePreco -p tipo=CARRO}
+ */
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+        ChainedOptionsBuilder opcoes = new OptionsBuilder()
+                .parent(linhaDeComando)
+                .addProfiler(GCProfiler.class);
+
+        if (linhaDeComando.getBenchModes().isEmpty()) {
+            opcoes.mode(Mode.Throughput).mode(Mode.AverageTime);
+        }
+        if (linhaDeComando.getIncludes().isEmpty()) {
+            opcoes.include(ExecutarBenchmarks.class.getPackageName() + ".*");
+        }
+
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Vazão de inserção de tickets em uma base H2 em arquivo, com ids UUID aleatórios e com ids do
+ * {@link GeradorSnowflake}. A tabela cresce ao longo da execução, então as últimas iterações medem
+ * inserções sobre centenas de milhares de tickets, onde ids aleatórios espalham as escritas pelo índice da chave.
+ * Exemplo: {@code java -jar target/benchmarks.jar IdsTickets}
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdsTicketsBenchmark {
+
+    private static final int TICKETS_POR_LOTE = 1_000;
+    private static final int PLACAS = 10_000;
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0);
+
+    @Param({"uuid", "snowflake"})
+    private String ids;
+
+    private Path diretorio;
+    private Connection conexao;
+    private PreparedStatement inserir;
+    private Supplier<String> geradorDeIds;
+    private long inseridos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException, IOException {
+        diretorio = Files.createTempDirectory("ids-tickets");
+        String url = "jdbc:h2:file:" + diretorio.resolve("estacionamento") + ";CACHE_SIZE=65536";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        conexao = DriverManager.getConnection(url, "sa", "");
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("insert into veiculos (placa, tipo) "
+                    + "select 'P' || lpad(cast(x as varchar), 6, '0'), 'CARRO' from system_range(0, " + (PLACAS - 1) + ")");
+        }
+        conexao.setAutoCommit(false);
+        inserir = conexao.prepareStatement("insert into tickets (id, veiculo_placa, entrada, saida, pagamento, status, versao) "
+                + "values (?, ?, ?, ?, null, 'FINALIZADO', 0)");
+        GeradorSnowflake snowflake = new GeradorSnowflake(Clock.systemUTC(), 0);
+        geradorDeIds = "uuid".equals(ids) ? () -> UUID.randomUUID().toString() : snowflake::proximo;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException, IOException {
+        System.out.printf("%nTickets na tabela ao final: %d%n", inseridos);
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("shutdown immediately");
+        } catch (SQLException e) {
+            // A conexão é encerrada pelo próprio shutdown
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    /**
+     * Um lote JDBC de {@value #TICKETS_POR_LOTE} tickets por transação, como na emissão em lote.
+     */
+    @Benchmark
+    @OperationsPerInvocation(TICKETS_POR_LOTE)
+    public void inserirLote() throws SQLException {
+        Timestamp entrada = Timestamp.valueOf(ENTRADA);
+        Timestamp saida = Timestamp.valueOf(ENTRADA.plusHours(1));
+        for (int i = 0; i < TICKETS_POR_LOTE; i++) {
+            inserir.setString(1, geradorDeIds.get());
+            inserir.setString(2, String.format("P%06d", (int) (inseridos++ % PLACAS)));
+            inserir.setTimestamp(3, entrada);
+            inserir.setTimestamp(4, saida);
+            inserir.addBatch();
+        }
+        inserir.executeBatch();
+        conexao.commit();
+    }
+}
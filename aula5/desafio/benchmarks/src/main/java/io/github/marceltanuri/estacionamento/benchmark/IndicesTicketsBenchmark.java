@@ -0,0 +1,215 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latência das consultas de tickets em uma base H2 com milhões de tickets, antes e depois da migração
+ * de índices ({@code versaoDoEsquema=1} e {@code 2}).
+ * <p>
+ * Cada placa tem {@value #VISITAS_POR_PLACA} visitas; só a última de uma em cada dez placas continua no pátio.
+ * A carga acontece sobre o esquema inicial e a migração de índices é aplicada depois, como em produção.
+ * As bases carregadas ficam em {@code java.io.tmpdir} e são copiadas para cada execução, pois a carga de
+ * 10 milhões de tickets leva minutos.
+ * Exemplo: {@code java -jar target/benchmarks.jar IndicesTickets -p tickets=10000000}
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndicesTicketsBenchmark {
+
+    private static final int VISITAS_POR_PLACA = 50;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int SEGUNDOS_ENTRE_ENTRADAS = 3;
+    private static final int TICKETS_POR_COMANDO = 1_000_000;
+    private static final String ARQUIVO_DO_BANCO = "estacionamento.mv.db";
+
+    @Param({"10000000"})
+    private int tickets;
+
+    @Param({"1", "2"})
+    private String versaoDoEsquema;
+
+    private Path diretorio;
+    private Connection conexao;
+    private PreparedStatement ativoPeloHistorico;
+    private PreparedStatement ativoPorPlacaAtiva;
+    private PreparedStatement entradasNoPeriodo;
+    private PreparedStatement saidasNoPeriodo;
+    private int placas;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        placas = tickets / VISITAS_POR_PLACA;
+        diretorio = Files.createTempDirectory("indices-tickets");
+        Files.copy(base(versaoDoEsquema).resolve(ARQUIVO_DO_BANCO), diretorio.resolve(ARQUIVO_DO_BANCO));
+        conexao = DriverManager.getConnection(url(diretorio), "sa", "");
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("analyze");
+        }
+        ativoPeloHistorico = conexao.prepareStatement(
+                "select id, status from tickets where veiculo_placa = ? and status <> 'FINALIZADO'");
+        ativoPorPlacaAtiva = conexao.prepareStatement(
+                "select id, status from tickets where placa_ativa = ?");
+        entradasNoPeriodo = conexao.prepareStatement(
+                "select count(*) from tickets where entrada >= ? and entrada < ?");
+        saidasNoPeriodo = conexao.prepareStatement(
+                "select count(*) from tickets where saida >= ? and saida < ?");
+    }
+
+    /**
+     * Base com os tickets carregados e o esquema na versão pedida; a versão 2 parte de uma cópia da versão 1.
+     */
+    private Path base(String versao) throws Exception {
+        Path base = Path.of(System.getProperty("java.io.tmpdir"), "estacionamento-tickets-" + tickets + "-v" + versao);
+        if (Files.exists(base.resolve(ARQUIVO_DO_BANCO))) {
+            return base;
+        }
+        Path preparando = Files.createTempDirectory("estacionamento-tickets-preparando");
+        String url = url(preparando);
+        if ("1".equals(versao)) {
+            Flyway.configure().dataSource(url, "sa", "").target("1").load().migrate();
+            try (Connection carga = DriverManager.getConnection(url, "sa", "")) {
+                inserirTickets(carga);
+            }
+        } else {
+            Files.copy(base("1").resolve(ARQUIVO_DO_BANCO), preparando.resolve(ARQUIVO_DO_BANCO));
+            long inicio = System.nanoTime();
+            Flyway.configure().dataSource(url, "sa", "").target(versao).load().migrate();
+            System.out.printf("%nMigração até a versão %s sobre %d tickets: %d ms%n", versao, tickets,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        }
+        try (Connection conexao = DriverManager.getConnection(url, "sa", ""); Statement comando = conexao.createStatement()) {
+            comando.execute("shutdown compact");
+        }
+        // Só uma base completa é reaproveitada pelas próximas execuções
+        Files.move(preparando, base);
+        return base;
+    }
+
+    private static String url(Path diretorio) {
+        return "jdbc:h2:file:" + diretorio.resolve("estacionamento") + ";CACHE_SIZE=524288";
+    }
+
+    /**
+     * Gera os dados no próprio banco: o ticket {@code x} é a visita {@code x / placas} da placa {@code x % placas},
+     * e as entradas avançam {@value #SEGUNDOS_ENTRE_ENTRADAS} segundos por ticket. Os ids são sequenciais porque
+     * nenhuma das consultas medidas usa a chave primária, e UUIDs aleatórios triplicam o tempo de carga.
+     */
+    private void inserirTickets(Connection carga) throws SQLException {
+        long inicio = System.nanoTime();
+        try (Statement comando = carga.createStatement()) {
+            comando.execute("insert into veiculos (placa, tipo) "
+                    + "select 'P' || lpad(cast(x as varchar), 6, '0'), 'CARRO' from system_range(0, " + (placas - 1) + ")");
+            // Um comando por milhão de tickets, para não acumular uma única transação gigante
+            for (int de = 0; de < tickets; de += TICKETS_POR_COMANDO) {
+                int ate = Math.min(de + TICKETS_POR_COMANDO, tickets) - 1;
+                comando.execute(inserirTickets(de, ate));
+            }
+        }
+        System.out.printf("%nCarga de %d tickets: %d ms%n", tickets, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    private String inserirTickets(int de, int ate) {
+        return "insert into tickets (id, veiculo_placa, entrada, saida, pagamento, status, placa_ativa, versao) "
+                + "select lpad(cast(x as varchar), 36, '0'), placa, entrada, "
+                + "case when ativo then null else dateadd('HOUR', 2, entrada) end, "
+                + "case when ativo then null else dateadd('MINUTE', 110, entrada) end, "
+                + "case when ativo then 'PENDENTE' else 'FINALIZADO' end, "
+                + "case when ativo then placa end, 0 "
+                + "from (select x, 'P' || lpad(cast(mod(x, " + placas + ") as varchar), 6, '0') as placa, "
+                + "dateadd('SECOND', x * " + SEGUNDOS_ENTRE_ENTRADAS + ", timestamp '2024-01-01 00:00:00') as entrada, "
+                + "x >= " + (tickets - placas) + " and mod(x, 10) = 0 as ativo "
+                + "from system_range(" + de + ", " + ate + "))";
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException, IOException {
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("shutdown immediately");
+        } catch (SQLException e) {
+            // A conexão é encerrada pelo próprio shutdown
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    /**
+     * Consulta anterior do repositório: percorre todas as visitas da placa para achar a que não está finalizada.
+     */
+    @Benchmark
+    public String ticketAtivoPeloHistorico() throws SQLException {
+        return primeiroId(ativoPeloHistorico, placaAtiva());
+    }
+
+    @Benchmark
+    public String ticketAtivoPorPlacaAtiva() throws SQLException {
+        return primeiroId(ativoPorPlacaAtiva, placaAtiva());
+    }
+
+    @Benchmark
+    public long entradasEmUmaHora() throws SQLException {
+        return contarNoPeriodo(entradasNoPeriodo);
+    }
+
+    @Benchmark
+    public long saidasEmUmaHora() throws SQLException {
+        return contarNoPeriodo(saidasNoPeriodo);
+    }
+
+    // Placas múltiplas de 10 têm a última visita ainda no pátio
+    private String placaAtiva() {
+        int placa = ThreadLocalRandom.current().nextInt(placas / 10) * 10;
+        return String.format("P%06d", placa);
+    }
+
+    private long contarNoPeriodo(PreparedStatement consulta) throws SQLException {
+        long segundosDaCarga = (long) tickets * SEGUNDOS_ENTRE_ENTRADAS;
+        LocalDateTime de = INICIO.plusSeconds(ThreadLocalRandom.current().nextLong(segundosDaCarga));
+        consulta.setTimestamp(1, Timestamp.valueOf(de));
+        consulta.setTimestamp(2, Timestamp.valueOf(de.plusHours(1)));
+        try (ResultSet resultado = consulta.executeQuery()) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    private static String primeiroId(PreparedStatement consulta, String placa) throws SQLException {
+        consulta.setString(1, placa);
+        try (ResultSet resultado = consulta.executeQuery()) {
+            return resultado.next() ? resultado.getString(1) : null;
+        }
+    }
+}
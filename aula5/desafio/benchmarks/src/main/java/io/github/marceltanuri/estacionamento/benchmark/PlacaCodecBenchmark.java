@@ -0,0 +1,55 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.PlacaCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validação de placa pela expressão regular que o {@code Veiculo} usava e pelo {@link PlacaCodec},
+ * com placas válidas e inválidas, além da decodificação de volta para texto.
+ * Rode pelo {@code ExecutarBenchmarks} para ver a alocação por operação ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlacaCodecBenchmark {
+
+    private static final Pattern PLACA_PADRAO_MERCOSUL = Pattern.compile("[A-Z]{3}[0-9][A-Z0-9][0-9]{2}");
+
+    @Param({"ABC1D23", "ABC1D2X"})
+    private String placa;
+
+    private long codigo;
+
+    @Setup
+    public void setup() {
+        codigo = PlacaCodec.codificar("ABC1D23");
+    }
+
+    @Benchmark
+    public boolean validarComExpressaoRegular() {
+        return PLACA_PADRAO_MERCOSUL.matcher(placa).matches();
+    }
+
+    @Benchmark
+    public long codificar() {
+        return PlacaCodec.codificar(placa);
+    }
+
+    @Benchmark
+    public String decodificar() {
+        return PlacaCodec.decodificar(codigo);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.IndiceDePlacasAproximadas;
+import io.github.marceltanuri.estacionamento.domain.veiculo.DistanciaDePlacas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca das placas ativas próximas a uma leitura errada da câmera (um O/0, I/1 ou B/8 trocado) no
+ * {@link IndiceDePlacasAproximadas}, comparada com a medida da distância até cada placa ativa.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlacasAproximadasBenchmark {
+
+    private static final int LEITURAS = 1024;
+    private static final int LIMITE = 5;
+
+    @Param({"30000"})
+    private int ativas;
+
+    @Param({"2", "4"})
+    private int distanciaMaxima;
+
+    private final IndiceDePlacasAproximadas indice = new IndiceDePlacasAproximadas();
+    private String[] placas;
+    private String[] leituras;
+    private int proxima;
+
+    @Setup
+    public void setup() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        placas = new String[ativas];
+        for (int i = 0; i < ativas; i++) {
+            placas[i] = placaAleatoria(aleatorio);
+            indice.adicionar(placas[i]);
+        }
+        leituras = new String[LEITURAS];
+        for (int i = 0; i < LEITURAS; i++) {
+            leituras[i] = lidaComErro(placas[aleatorio.nextInt(ativas)], aleatorio);
+        }
+    }
+
+    @Benchmark
+    public List<IndiceDePlacasAproximadas.Candidata> indice() {
+        return indice.buscar(leituras[proxima++ & (LEITURAS - 1)], distanciaMaxima, LIMITE);
+    }
+
+    @Benchmark
+    public List<IndiceDePlacasAproximadas.Candidata> todasAsPlacas() {
+        String leitura = leituras[proxima++ & (LEITURAS - 1)];
+        List<IndiceDePlacasAproximadas.Candidata> candidatas = new ArrayList<>();
+        for (String placa : placas) {
+            int distancia = DistanciaDePlacas.calcular(leitura, placa);
+            if (distancia <= distanciaMaxima) {
+                candidatas.add(new IndiceDePlacasAproximadas.Candidata(placa, distancia));
+            }
+        }
+        return candidatas;
+    }
+
+    private static String placaAleatoria(SplittableRandom aleatorio) {
+        return String.format("%c%c%c%d%c%02d", 'A' + aleatorio.nextInt(26), 'A' + aleatorio.nextInt(26), 'A' + aleatorio.nextInt(26),
+                aleatorio.nextInt(10), 'A' + aleatorio.nextInt(26), aleatorio.nextInt(100));
+    }
+
+    // Troca o primeiro símbolo confundível da placa, ou muda o último dígito se ela não tiver nenhum
+    private static String lidaComErro(String placa, SplittableRandom aleatorio) {
+        char[] simbolos = placa.toCharArray();
+        String de = "O0I1B8";
+        String para = "0O1I8B";
+        for (int i = 0; i < simbolos.length; i++) {
+            int confundivel = de.indexOf(simbolos[i]);
+            if (confundivel >= 0) {
+                simbolos[i] = para.charAt(confundivel);
+                return new String(simbolos);
+            }
+        }
+        simbolos[6] = (char) ('0' + (simbolos[6] - '0' + 1 + aleatorio.nextInt(9)) % 10);
+        return new String(simbolos);
+    }
+}
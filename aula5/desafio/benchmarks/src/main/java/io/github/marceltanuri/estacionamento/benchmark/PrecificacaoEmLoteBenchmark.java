@@ -0,0 +1,84 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePrecoEmLote;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a precificação de todos os tickets abertos ticket a ticket
+ * com a API em lote (colunar, com fork/join em lotes grandes).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrecificacaoEmLoteBenchmark {
+
+    private static final LocalDateTime REFERENCIA = LocalDateTime.of(2025, 11, 26, 18, 0, 0);
+
+    @Param({"1000", "10000", "100000"})
+    private int quantidade;
+
+    private CalculadoraDePreco calculadoraDePreco;
+    private CalculadoraDePrecoEmLote calculadoraEmLote;
+    private List<Ticket> tickets;
+    private Veiculo.TipoVeiculo[] tipos;
+    private long[] entradas;
+    private long referencia;
+    private long[] resultado;
+
+    @Setup
+    public void setup() {
+        calculadoraDePreco = new CalculadoraDePreco(TarifasConfiguradas.carregar());
+        calculadoraEmLote = new CalculadoraDePrecoEmLote(calculadoraDePreco);
+        tickets = new ArrayList<>(quantidade);
+        tipos = new Veiculo.TipoVeiculo[quantidade];
+        entradas = new long[quantidade];
+        resultado = new long[quantidade];
+        referencia = REFERENCIA.toEpochSecond(ZoneOffset.UTC);
+        Veiculo.TipoVeiculo[] todosOsTipos = Veiculo.TipoVeiculo.values();
+        for (int i = 0; i < quantidade; i++) {
+            LocalDateTime entrada = REFERENCIA.minusMinutes(i % (48 * 60));
+            Veiculo veiculo = new Veiculo("ABC1D23", todosOsTipos[i % todosOsTipos.length]);
+            tickets.add(Ticket.novo(veiculo, entrada));
+            tipos[i] = veiculo.getTipo();
+            entradas[i] = entrada.toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+
+    @Benchmark
+    public void loopPorTicket(Blackhole blackhole) {
+        for (Ticket ticket : tickets) {
+            blackhole.consume(calculadoraDePreco.calcular(ticket, REFERENCIA));
+        }
+    }
+
+    @Benchmark
+    public long[] loteColunar() {
+        calculadoraEmLote.calcular(tipos, entradas, referencia, resultado);
+        return resultado;
+    }
+
+    @Benchmark
+    public long[] loteDeTickets() {
+        return calculadoraEmLote.calcular(tickets, REFERENCIA);
+    }
+}
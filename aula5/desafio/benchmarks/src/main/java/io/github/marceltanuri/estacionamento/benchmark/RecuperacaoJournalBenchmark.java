@@ -0,0 +1,96 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.config.JournalProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.journal.TicketRepositoryJournal;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tempo de inicialização do {@link TicketRepositoryJournal} depois de uma queda, com um histórico de milhões de
+ * tickets finalizados e {@value #ATIVOS} ativos. Com {@code snapshot=false} o snapshot é apagado e todo o
+ * journal é reaplicado, para comparação.
+ * Exemplo: {@code java -jar target/benchmarks.jar RecuperacaoJournal -p historico=2000000}
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecuperacaoJournalBenchmark {
+
+    private static final int ATIVOS = 10_000;
+    private static final int REGISTROS_POR_SNAPSHOT = 100_000;
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0);
+
+    @Param({"2000000"})
+    private int historico;
+
+    @Param({"true", "false"})
+    private boolean snapshot;
+
+    private Path diretorio;
+
+    @Setup(Level.Trial)
+    public void gravarHistorico() throws IOException {
+        diretorio = Files.createTempDirectory("journal-tickets");
+        TicketRepositoryJournal repositorio = abrir();
+        for (int i = 0; i < historico + ATIVOS; i++) {
+            Ticket ticket = repositorio.save(Ticket.novo(new Veiculo(placa(i), Veiculo.TipoVeiculo.CARRO), ENTRADA));
+            if (i < historico) {
+                ticket.finalizar(ENTRADA.plusHours(1));
+                repositorio.save(ticket);
+            }
+        }
+        // O repositório não é fechado, como em uma queda: o fim do journal não entra em snapshot
+        if (!snapshot) {
+            Files.deleteIfExists(diretorio.resolve("ativos.snapshot"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long recuperar() throws IOException {
+        return abrir().registrosReaplicadosNaRecuperacao();
+    }
+
+    // Placas distintas para cada um dos primeiros 175 milhões de tickets
+    private static String placa(int i) {
+        int letras = i / 10_000;
+        return String.format("%c%c%c%04d", 'A' + letras / 676 % 26, 'A' + letras / 26 % 26, 'A' + letras % 26, i % 10_000);
+    }
+
+    private TicketRepositoryJournal abrir() throws IOException {
+        return new TicketRepositoryJournal(new JournalProperties(true, diretorio, REGISTROS_POR_SNAPSHOT, false),
+                new GeradorSnowflake(Clock.systemUTC(), 0));
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.infrastructure.expiracao.RodaDeTempo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendar e cancelar um prazo de tolerância com centenas de milhares de prazos pendentes, como no pagamento seguido
+ * da saída do veículo. Compara a {@link RodaDeTempo} com uma {@link PriorityQueue}, a fila de prazos de um
+ * {@code ScheduledThreadPoolExecutor}, em que cancelar percorre a fila.
+ * Prazos em ticks de um segundo, espalhados pelas próximas duas horas.
+ * Exemplo: {@code java -jar target/benchmarks.jar RodaDeTempo -p pendentes=500000}
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RodaDeTempoBenchmark {
+
+    private static final int HORIZONTE = 2 * 60 * 60;
+
+    @Param({"100000", "500000"})
+    private int pendentes;
+
+    private RodaDeTempo<Long> roda;
+    private PriorityQueue<Prazo> fila;
+    private final SplittableRandom aleatorio = new SplittableRandom(42);
+    private long proximaChave;
+
+    @Setup
+    public void setup() {
+        roda = new RodaDeTempo<>(0);
+        fila = new PriorityQueue<>();
+        for (proximaChave = 0; proximaChave < pendentes; proximaChave++) {
+            long tick = aleatorio.nextInt(HORIZONTE);
+            roda.agendar(proximaChave, tick);
+            fila.add(new Prazo(proximaChave, tick));
+        }
+    }
+
+    @Benchmark
+    public boolean agendarECancelarNaRoda() {
+        long chave = proximaChave++;
+        roda.agendar(chave, aleatorio.nextInt(HORIZONTE));
+        return roda.cancelar(chave);
+    }
+
+    @Benchmark
+    public boolean agendarECancelarNaFila() {
+        Prazo prazo = new Prazo(proximaChave++, aleatorio.nextInt(HORIZONTE));
+        fila.add(prazo);
+        return fila.remove(prazo);
+    }
+
+    private record Prazo(long chave, long tick) implements Comparable<Prazo> {
+        @Override
+        public int compareTo(Prazo outro) {
+            return Long.compare(tick, outro.tick);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.DecisaoSaida;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.SaidaService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link SaidaService#processarSaida} para cada {@link Status}, incluindo as rejeições, comparado com
+ * {@link SaidaService#registrarSaida}, que devolve a recusa como código em vez de lançar exceção.
+ * Meia hora depois da entrada, PENDENTE, FINALIZADO e os dois status de tolerância expirada são recusados.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SaidaServiceBenchmark {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+    private static final LocalDateTime PAGAMENTO = ENTRADA.plusMinutes(20);
+    private static final LocalDateTime SAIDA = ENTRADA.plusMinutes(30);
+
+    @Param({"PENDENTE", "PAGO", "ISENTO", "ISENTO_FUNCIONARIO", "TOLERANCIA_APOS_PAGAMENTO_EXPIRADO",
+            "TOLERANCIA_APOS_ISENCAO_EXPIRADO", "FINALIZADO"})
+    private Status status;
+
+    private SaidaService saidaService;
+    private Veiculo veiculo;
+
+    @Setup
+    public void setup() {
+        Clock clock = Clock.fixed(SAIDA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        saidaService = new SaidaService(new TicketRepositoryEmMemoria(), clock);
+        veiculo = new Veiculo("ABC1D23", Veiculo.TipoVeiculo.CARRO);
+    }
+
+    @Benchmark
+    public Object processarSaida() {
+        // O serviço altera o ticket, então cada invocação parte de um ticket novo no status parametrizado
+        Ticket ticket = new Ticket("ticket-benchmark", veiculo, ENTRADA, null, PAGAMENTO, status);
+        try {
+            saidaService.processarSaida(ticket);
+            return ticket;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object registrarSaida() {
+        Ticket ticket = new Ticket("ticket-benchmark", veiculo, ENTRADA, null, PAGAMENTO, status);
+        DecisaoSaida decisao = saidaService.registrarSaida(ticket);
+        return decisao.liberada() ? ticket : decisao;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.config.TarifasProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Tarifa;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tarifas do {@code application.properties}, para os benchmarks que criam a calculadora sem subir o contexto do Spring.
+ */
+public final class TarifasConfiguradas {
+
+    private TarifasConfiguradas() {
+    }
+
+    public static Map<Veiculo.TipoVeiculo, Tarifa> carregar() {
+        try {
+            ResourcePropertySource propriedades = new ResourcePropertySource("classpath:application.properties");
+            return new Binder(ConfigurationPropertySources.from(List.of(propriedades)))
+                    .bind("estacionamento", TarifasProperties.class)
+                    .get()
+                    .tarifas();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
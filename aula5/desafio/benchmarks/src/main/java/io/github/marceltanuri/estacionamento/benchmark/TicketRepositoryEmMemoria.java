@@ -0,0 +1,108 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.DistanciaDePlacas;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositório em memória usado para isolar o custo do domínio nos benchmarks.
+ */
+public class TicketRepositoryEmMemoria implements TicketRepository {
+
+    private final Map<String, Ticket> ticketsPorId = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> ativosPorPlaca = new ConcurrentHashMap<>();
+
+    @Override
+    public Ticket save(Ticket ticket) {
+        Ticket salvo = ticket.getId() != null ? ticket : new Ticket(UUID.randomUUID().toString(), ticket.getVeiculo(),
+                ticket.getEntrada(), ticket.getSaida(), ticket.getPagamento(), ticket.getStatus(), 0, ticket.getVaga());
+        ticketsPorId.put(salvo.getId(), salvo);
+        if (salvo.getStatus() == Status.FINALIZADO) {
+            ativosPorPlaca.remove(salvo.getVeiculo().getPlaca());
+        } else {
+            ativosPorPlaca.put(salvo.getVeiculo().getPlaca(), salvo);
+        }
+        return salvo;
+    }
+
+    @Override
+    public List<Ticket> saveAll(List<Ticket> tickets) {
+        return tickets.stream().map(this::save).toList();
+    }
+
+    @Override
+    public Optional<Ticket> findById(String id) {
+        return Optional.ofNullable(ticketsPorId.get(id));
+    }
+
+    @Override
+    public Optional<Ticket> findByVeiculoPlacaAndStatusNotFinalizado(String placa) {
+        return Optional.ofNullable(ativosPorPlaca.get(placa));
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacas(Collection<String> placas) {
+        return placas.stream().map(ativosPorPlaca::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<Ticket> saveTransicoes(List<Ticket> tickets) {
+        return tickets.stream().map(this::save).toList();
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorIds(Collection<String> ids) {
+        return ids.stream().map(ticketsPorId::get).filter(Objects::nonNull)
+                .filter(ticket -> ticket.getStatus() != Status.FINALIZADO).toList();
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorStatus(Collection<Status> status) {
+        return ativosPorPlaca.values().stream().filter(ticket -> status.contains(ticket.getStatus())).toList();
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacaAproximada(String placa, int distanciaMaxima, int limite) {
+        return ativosPorPlaca.values().stream()
+                .filter(ticket -> DistanciaDePlacas.calcular(placa, ticket.getVeiculo().getPlaca()) <= distanciaMaxima)
+                .sorted(Comparator.comparingInt((Ticket ticket) -> DistanciaDePlacas.calcular(placa, ticket.getVeiculo().getPlaca()))
+                        .thenComparing(ticket -> ticket.getVeiculo().getPlaca()))
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, Long> contarAtivosPorTipo() {
+        Map<Veiculo.TipoVeiculo, Long> ativos = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        ativosPorPlaca.values().forEach(ticket -> ativos.merge(ticket.getVeiculo().getTipo(), 1L, Long::sum));
+        return ativos;
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, List<Vaga>> vagasOcupadasPorTipo() {
+        Map<Veiculo.TipoVeiculo, List<Vaga>> vagas = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        ativosPorPlaca.values().stream().filter(ticket -> ticket.getVaga() != null)
+                .forEach(ticket -> vagas.computeIfAbsent(ticket.getVeiculo().getTipo(), tipo -> new ArrayList<>()).add(ticket.getVaga()));
+        return vagas;
+    }
+
+    @Override
+    public void delete(Ticket ticket) {
+        ticketsPorId.remove(ticket.getId());
+        ativosPorPlaca.remove(ticket.getVeiculo().getPlaca(), ticket);
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.marceltanuri.estacionamento.benchmark;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.CadastroDeVeiculos;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.IndiceTicketsAtivos;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.TicketMapper;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.TicketRepositoryImpl;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.VeiculoMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visitas completas (emissão e saída) gravadas no H2 em memória pelo {@link TicketRepositoryImpl}, em uma mistura
+ * em que {@value #FRACAO_RECORRENTES_PERCENTUAL}% dos veículos já visitaram o estacionamento antes. Com
+ * {@code tamanhoCadastro=0} o {@link CadastroDeVeiculos} não guarda nenhuma placa e toda emissão consulta o veículo,
+ * para comparação. Os contadores {@code comandosSql} e {@code visitas} dão os comandos SQL por visita.
+ * Exemplo: {@code java -jar target/benchmarks.jar VisitasRecorrentes -bm avgt}
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VisitasRecorrentesBenchmark {
+
+    private static final int RECORRENTES = 5_000;
+    private static final int FRACAO_RECORRENTES_PERCENTUAL = 80;
+
+    @Param({"0", "100000"})
+    private int tamanhoCadastro;
+
+    private AnnotationConfigApplicationContext contexto;
+    private EmissaoService emissaoService;
+    private TicketRepository ticketRepository;
+    private Statistics estatisticas;
+    private SplittableRandom aleatorio;
+    private int proximaNova;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("estacionamento.cache-veiculos.tamanho-maximo", tamanhoCadastro)));
+        contexto.register(Persistencia.class);
+        contexto.refresh();
+        ticketRepository = contexto.getBean(TicketRepository.class);
+        emissaoService = new EmissaoService(ticketRepository, Clock.systemDefaultZone());
+        estatisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        aleatorio = new SplittableRandom(42);
+        proximaNova = RECORRENTES;
+        for (int i = 0; i < RECORRENTES; i++) {
+            visitar(placa(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Ticket visita(ComandosSql comandos) {
+        String placa = aleatorio.nextInt(100) < FRACAO_RECORRENTES_PERCENTUAL
+                ? placa(aleatorio.nextInt(RECORRENTES))
+                : placa(proximaNova++);
+        long antes = estatisticas.getPrepareStatementCount();
+        Ticket ticket = visitar(placa);
+        comandos.comandosSql += estatisticas.getPrepareStatementCount() - antes;
+        comandos.visitas++;
+        return ticket;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ComandosSql {
+        public long comandosSql;
+        public long visitas;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            comandosSql = 0;
+            visitas = 0;
+        }
+    }
+
+    private Ticket visitar(String placa) {
+        Ticket ticket = emissaoService.emitir(new Veiculo(placa, Veiculo.TipoVeiculo.CARRO));
+        ticket.finalizar(ticket.getEntrada().plusHours(1));
+        return ticketRepository.save(ticket);
+    }
+
+    // Placas distintas para cada um dos primeiros 175 milhões de veículos
+    private static String placa(int i) {
+        int letras = i / 10_000;
+        return String.format("%c%c%c%04d", 'A' + letras / 676 % 26, 'A' + letras / 26 % 26, 'A' + letras % 26, i % 10_000);
+    }
+
+    /**
+     * Só a camada de persistência, sem a aplicação web: H2 em memória com o esquema das migrações do Flyway.
+     */
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackageClasses = TicketJpaRepository.class)
+    @Import({TicketRepositoryImpl.class, TicketMapper.class, VeiculoMapper.class, IndiceTicketsAtivos.class,
+            CadastroDeVeiculos.class, GeradorSnowflake.class})
+    static class Persistencia {
+
+        @Bean
+        DataSource dataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:visitas;DB_CLOSE_DELAY=-1");
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            return dataSource;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+            fabrica.setDataSource(dataSource);
+            fabrica.setPackagesToScan(VeiculoEntity.class.getPackageName());
+            fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            fabrica.setJpaPropertyMap(Map.of(
+                    "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                    "hibernate.implicit_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy",
+                    "hibernate.hbm2ddl.auto", "validate",
+                    "hibernate.generate_statistics", "true",
+                    "hibernate.session.events.log", "false"));
+            return fabrica;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        Clock clock() {
+            return Clock.systemDefaultZone();
+        }
+    }
+}
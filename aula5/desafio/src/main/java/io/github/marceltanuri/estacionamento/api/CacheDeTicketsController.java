@@ -0,0 +1,31 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import io.github.marceltanuri.estacionamento.infrastructure.cache.TicketRepositoryComCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Acertos, faltas e remoções do cache de tickets desde a inicialização. Responde 404 quando o cache está desabilitado.
+ */
+@RestController
+@RequestMapping("/metricas/cache-de-tickets")
+public class CacheDeTicketsController {
+
+    private final ObjectProvider<TicketRepositoryComCache> cache;
+
+    public CacheDeTicketsController(ObjectProvider<TicketRepositoryComCache> cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping
+    public ResponseEntity<TicketRepositoryComCache.Estatisticas> getEstatisticas() {
+        TicketRepositoryComCache repositorio = cache.getIfAvailable();
+        if (repositorio == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(repositorio.estatisticas());
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Ocupacao;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Vagas ocupadas e livres por tipo de veículo, para os painéis da entrada. Lê apenas os contadores em memória,
+ * sem consultar o banco.
+ */
+@RestController
+@RequestMapping("/ocupacao")
+public class OcupacaoController {
+
+    private final Ocupacao ocupacao;
+
+    public OcupacaoController(Ocupacao ocupacao) {
+        this.ocupacao = ocupacao;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<Veiculo.TipoVeiculo, Vagas>> getOcupacao() {
+        Map<Veiculo.TipoVeiculo, Vagas> vagas = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        for (Veiculo.TipoVeiculo tipo : Veiculo.TipoVeiculo.values()) {
+            vagas.put(tipo, Vagas.de(ocupacao.ocupadas(tipo), ocupacao.capacidade(tipo)));
+        }
+        return ResponseEntity.ok(vagas);
+    }
+
+    /**
+     * Capacidade e livres ficam nulos para tipos sem limite.
+     */
+    public record Vagas(int ocupadas, Integer capacidade, Integer livres) {
+
+        static Vagas de(int ocupadas, int capacidade) {
+            if (capacidade == Integer.MAX_VALUE) {
+                return new Vagas(ocupadas, null, null);
+            }
+            return new Vagas(ocupadas, capacidade, Math.max(0, capacidade - ocupadas));
+        }
+    }
+}
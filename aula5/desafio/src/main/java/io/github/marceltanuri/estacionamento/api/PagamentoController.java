@@ -0,0 +1,45 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoAssincronoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Pagamento assíncrono: a solicitação retorna 202 assim que a intenção é registrada,
+ * e o andamento é consultado em {@code Location} até o estado CONFIRMADO ou FALHOU.
+ * Repetir a solicitação devolve a mesma intenção (200 se ela já estiver confirmada).
+ */
+@RestController
+@RequestMapping("/tickets/{id}/payments")
+public class PagamentoController {
+
+    private final PagamentoAssincronoService pagamentoAssincronoService;
+    private final TicketRepository ticketRepository;
+
+    public PagamentoController(PagamentoAssincronoService pagamentoAssincronoService, TicketRepository ticketRepository) {
+        this.pagamentoAssincronoService = pagamentoAssincronoService;
+        this.ticketRepository = ticketRepository;
+    }
+
+    @PostMapping
+    public ResponseEntity<IntencaoPagamento> solicitarPagamento(@PathVariable String id) {
+        Ticket ticket = ticketRepository.findById(id).orElseThrow();
+        IntencaoPagamento intencao = pagamentoAssincronoService.solicitar(ticket);
+        return (intencao.isAberta() ? ResponseEntity.accepted() : ResponseEntity.ok())
+                .location(URI.create("/tickets/" + id + "/payments/" + intencao.getId()))
+                .body(intencao);
+    }
+
+    @GetMapping("/{pagamentoId}")
+    public ResponseEntity<IntencaoPagamento> consultarPagamento(@PathVariable String id, @PathVariable String pagamentoId) {
+        return pagamentoAssincronoService.consultar(pagamentoId)
+                .filter(intencao -> intencao.getTicketId().equals(id))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
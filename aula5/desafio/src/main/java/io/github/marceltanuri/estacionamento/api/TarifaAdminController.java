@@ -0,0 +1,36 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Tarifa;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Troca de tarifas em tempo de execução. Não há autenticação na aplicação: o controlador só existe com o perfil
+ * {@code admin}, e o caminho {@code /admin} deve ficar restrito à rede da administração.
+ */
+@RestController
+@Profile("admin")
+@RequestMapping("/admin/tarifas")
+public class TarifaAdminController {
+
+    private final CalculadoraDePreco calculadoraDePreco;
+
+    public TarifaAdminController(CalculadoraDePreco calculadoraDePreco) {
+        this.calculadoraDePreco = calculadoraDePreco;
+    }
+
+    /**
+     * Substitui todas as tarifas de uma só vez, sem reiniciar a aplicação.
+     * Tarifas incompletas ou inválidas são rejeitadas e as atuais continuam valendo.
+     */
+    @PutMapping
+    public ResponseEntity<Map<Veiculo.TipoVeiculo, Tarifa>> atualizarTarifas(@RequestBody Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+        calculadoraDePreco.atualizarTarifas(tarifas);
+        return ResponseEntity.ok(calculadoraDePreco.getTarifas());
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Tarifa;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/tarifas")
+public class TarifaController {
+
+    private final CalculadoraDePreco calculadoraDePreco;
+
+    public TarifaController(CalculadoraDePreco calculadoraDePreco) {
+        this.calculadoraDePreco = calculadoraDePreco;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<Veiculo.TipoVeiculo, Tarifa>> getTarifas() {
+        return ResponseEntity.ok(calculadoraDePreco.getTarifas());
+    }
+}
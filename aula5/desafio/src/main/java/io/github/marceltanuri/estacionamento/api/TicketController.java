@@ -2,32 +2,54 @@ package io.github.marceltanuri.estacionamento.api;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Cotacao;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CotacaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.DecisaoSaida;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.IsencaoService;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.ResultadoEmissao;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.SaidaService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.DistanciaDePlacas;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/tickets")
 public class TicketController {
 
+    static final int LIMITE_LOTE = 1000;
+    static final int DISTANCIA_MAXIMA_BUSCA = 4;
+    static final int LIMITE_CANDIDATOS = 5;
+
     private final EmissaoService emissaoService;
     private final PagamentoService pagamentoService;
     private final SaidaService saidaService;
     private final IsencaoService isencaoService;
     private final TicketRepository ticketRepository;
+    private final CotacaoService cotacaoService;
+    private final Clock clock;
 
-    public TicketController(EmissaoService emissaoService, PagamentoService pagamentoService, SaidaService saidaService, IsencaoService isencaoService, TicketRepository ticketRepository) {
+    public TicketController(EmissaoService emissaoService, PagamentoService pagamentoService, SaidaService saidaService, IsencaoService isencaoService,
+                            TicketRepository ticketRepository, CotacaoService cotacaoService, Clock clock) {
         this.emissaoService = emissaoService;
         this.pagamentoService = pagamentoService;
         this.saidaService = saidaService;
         this.isencaoService = isencaoService;
         this.ticketRepository = ticketRepository;
+        this.cotacaoService = cotacaoService;
+        this.clock = clock;
     }
 
     @PostMapping
@@ -36,6 +58,35 @@ public class TicketController {
         return ResponseEntity.ok(ticketEmitido);
     }
 
+    /**
+     * Emissão das leituras acumuladas por uma cancela; retorna um resultado por placa distinta.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoEmissao>> emitirTicketsEmLote(@RequestBody List<Veiculo> veiculos) {
+        if (veiculos.size() > LIMITE_LOTE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(emissaoService.emitirEmLote(veiculos));
+    }
+
+    /**
+     * Tickets ativos de placas próximas à lida pela câmera da saída, da mais próxima à mais distante, para quando
+     * a leitura não encontra a placa exata. A distância conta 1 para cada troca entre O/0, I/1 ou B/8 e 2 para
+     * qualquer outro erro ({@link DistanciaDePlacas}).
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<List<Candidato>> buscarPorPlacaAproximada(@RequestParam String plate,
+                                                                    @RequestParam(defaultValue = "2") int maxDistance) {
+        if (maxDistance < 0 || maxDistance > DISTANCIA_MAXIMA_BUSCA) {
+            return ResponseEntity.badRequest().build();
+        }
+        String placa = plate.trim().toUpperCase(Locale.ROOT);
+        List<Candidato> candidatos = ticketRepository.findAtivosPorPlacaAproximada(placa, maxDistance, LIMITE_CANDIDATOS).stream()
+                .map(ticket -> new Candidato(DistanciaDePlacas.calcular(placa, ticket.getVeiculo().getPlaca()), ticket))
+                .toList();
+        return ResponseEntity.ok(candidatos);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Ticket> getTicket(@PathVariable String id) {
         return ticketRepository.findById(id)
@@ -43,6 +94,26 @@ public class TicketController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Quanto o ticket pagaria agora. A resposta pode ser guardada pelo cliente até o fim da hora cobrada, e uma
+     * consulta com {@code If-None-Match} da mesma cotação responde 304.
+     */
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<Cotacao> cotarTicket(@PathVariable String id,
+                                               @RequestHeader(value = "If-None-Match", required = false) List<String> etagsDoCliente) {
+        Optional<Cotacao> cotacao = cotacaoService.cotar(id);
+        if (cotacao.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        long segundosRestantes = Math.max(0, Duration.between(LocalDateTime.now(clock), cotacao.get().validaAte()).getSeconds());
+        CacheControl cacheControl = CacheControl.maxAge(segundosRestantes, TimeUnit.SECONDS).cachePrivate();
+        String etag = cotacao.get().etag();
+        if (corresponde(etag, etagsDoCliente)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(cotacao.get());
+    }
+
     @PutMapping("/{id}/pay")
     public ResponseEntity<Void> pagarTicket(@PathVariable String id) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow();
@@ -50,10 +121,16 @@ public class TicketController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Saída recusada responde 400 com o motivo, como as demais regras de negócio.
+     */
     @PutMapping("/{id}/exit")
-    public ResponseEntity<Void> processarSaida(@PathVariable String id) {
+    public ResponseEntity<String> processarSaida(@PathVariable String id) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow();
-        saidaService.processarSaida(ticket);
+        DecisaoSaida decisao = saidaService.registrarSaida(ticket);
+        if (!decisao.liberada()) {
+            return ResponseEntity.badRequest().body(decisao.mensagem(ticket));
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -71,4 +148,23 @@ public class TicketController {
         return ResponseEntity.ok().build();
     }
 
+    // If-None-Match usa a comparação fraca: W/"x" corresponde a "x", e * corresponde a qualquer representação
+    static boolean corresponde(String etag, List<String> etagsDoCliente) {
+        if (etagsDoCliente == null) {
+            return false;
+        }
+        for (String etagDoCliente : etagsDoCliente) {
+            String valor = etagDoCliente.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Candidato(int distancia, Ticket ticket) {
+    }
 }
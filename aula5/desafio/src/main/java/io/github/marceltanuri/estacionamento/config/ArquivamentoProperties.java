@@ -0,0 +1,19 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração do arquivamento de tickets finalizados, lida de {@code estacionamento.arquivamento.*}.
+ *
+ * @param idadeMinima     tempo desde a saída a partir do qual um ticket finalizado é arquivado
+ * @param tamanhoLote     tickets movidos por transação
+ * @param lotesPorRodada  máximo de lotes a cada execução
+ * @param intervalo       intervalo entre execuções
+ * @param pausaEntreLotes espera entre lotes de uma mesma execução
+ */
+@ConfigurationProperties(prefix = "estacionamento.arquivamento")
+public record ArquivamentoProperties(Duration idadeMinima, int tamanhoLote, int lotesPorRodada, Duration intervalo,
+                                     Duration pausaEntreLotes) {
+}
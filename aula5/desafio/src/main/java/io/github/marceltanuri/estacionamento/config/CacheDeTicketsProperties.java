@@ -0,0 +1,15 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cache de tickets por id, lida de {@code estacionamento.cache-tickets.*}.
+ *
+ * @param tamanhoMaximo tickets mantidos; acima disso sai o usado há mais tempo
+ * @param ttl           tempo máximo de um ticket no cache, que limita o atraso das alterações feitas por outras instâncias
+ */
+@ConfigurationProperties(prefix = "estacionamento.cache-tickets")
+public record CacheDeTicketsProperties(int tamanhoMaximo, Duration ttl) {
+}
@@ -1,50 +1,119 @@
 package io.github.marceltanuri.estacionamento.config;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.FuncionarioRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.ValidadorComprovante;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.*;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
+import io.github.marceltanuri.estacionamento.infrastructure.pagamento.OperadoraPagamentoSimulada;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties({TarifasProperties.class, PagamentosProperties.class, ArquivamentoProperties.class,
+        JournalProperties.class, OcupacaoProperties.class, VagasProperties.class, ExpiracaoProperties.class,
+        CacheDeTicketsProperties.class})
 public class DomainServiceConfig {
 
     @Bean
-    public EmissaoService emissaoService(TicketRepository ticketRepository, Clock clock) {
-        return new EmissaoService(ticketRepository, clock);
+    public EmissaoService emissaoService(TicketRepository ticketRepository, Clock clock, Ocupacao ocupacao,
+                                         AlocadorDeVagas alocadorDeVagas) {
+        return new EmissaoService(ticketRepository, clock, ocupacao, alocadorDeVagas);
+    }
+
+    // Os contadores e o mapa de vagas partem vazios e são recompostos pelo ReconciliadorDeOcupacao na inicialização
+    @Bean
+    public Ocupacao ocupacao(OcupacaoProperties ocupacao) {
+        return new Ocupacao(ocupacao.capacidade() != null ? ocupacao.capacidade() : Map.of());
+    }
+
+    @Bean
+    public AlocadorDeVagas alocadorDeVagas(VagasProperties vagas) {
+        return new AlocadorDeVagas(vagas.porNivel() != null ? vagas.porNivel() : Map.of());
     }
 
     @Bean
     public PagamentoService pagamentoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco,
-                                             TicketRepository ticketRepository, Clock clock) {
-        return new PagamentoService(operadora, calculadoraDePreco, ticketRepository, clock);
+                                             TicketRepository ticketRepository,
+                                             IntencaoPagamentoRepository intencaoPagamentoRepository, Clock clock,
+                                             ObjectProvider<AgendaDeExpiracoes> agendaDeExpiracoes) {
+        return new PagamentoService(operadora, calculadoraDePreco, ticketRepository, intencaoPagamentoRepository, clock,
+                agendaDeExpiracoes.getIfAvailable(AgendaDeExpiracoes::nenhuma));
     }
 
     @Bean
-    public SaidaService saidaService(TicketRepository ticketRepository, Clock clock) {
-        return new SaidaService(ticketRepository, clock);
+    public PagamentoAssincronoService pagamentoAssincronoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco,
+                                                                 TicketRepository ticketRepository,
+                                                                 IntencaoPagamentoRepository intencaoPagamentoRepository, Clock clock,
+                                                                 ExecutorService chamadasOperadora, PagamentosProperties pagamentos,
+                                                                 ObjectProvider<AgendaDeExpiracoes> agendaDeExpiracoes) {
+        return new PagamentoAssincronoService(operadora, calculadoraDePreco, ticketRepository, intencaoPagamentoRepository, clock,
+                chamadasOperadora, new PoliticaDeReenvio(pagamentos.maxTentativas(), pagamentos.timeout(), pagamentos.backoff()),
+                agendaDeExpiracoes.getIfAvailable(AgendaDeExpiracoes::nenhuma));
+    }
+
+    // Chamadas à operadora ficam fora dos workers para que uma chamada presa além do timeout possa ser abandonada.
+    // Uma chamada abandonada que ignora a interrupção continua ocupando sua thread, por isso o pool tem tamanho
+    // próprio e, sem fila, recusa novas chamadas quando todas as threads estão ocupadas em vez de enfileirá-las.
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService chamadasOperadora(PagamentosProperties pagamentos) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(pagamentos.maxChamadas(), pagamentos.maxChamadas(),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Sem o ExpiradorDeTolerancias (estacionamento.expiracao.habilitado=false) os tickets só expiram na saída
+    @Bean
+    public SaidaService saidaService(TicketRepository ticketRepository, Clock clock, Ocupacao ocupacao,
+                                     AlocadorDeVagas alocadorDeVagas, ObjectProvider<AgendaDeExpiracoes> agendaDeExpiracoes) {
+        return new SaidaService(ticketRepository, clock, ocupacao, alocadorDeVagas,
+                agendaDeExpiracoes.getIfAvailable(AgendaDeExpiracoes::nenhuma));
     }
 
     @Bean
     public IsencaoService isencaoService(TicketRepository ticketRepository, FuncionarioRepository funcionarioRepository,
-                                         ValidadorComprovante validadorComprovante) {
-        return new IsencaoService(ticketRepository, funcionarioRepository, validadorComprovante);
+                                         ValidadorComprovante validadorComprovante,
+                                         IntencaoPagamentoRepository intencaoPagamentoRepository,
+                                         ObjectProvider<AgendaDeExpiracoes> agendaDeExpiracoes) {
+        return new IsencaoService(ticketRepository, funcionarioRepository, validadorComprovante, intencaoPagamentoRepository,
+                agendaDeExpiracoes.getIfAvailable(AgendaDeExpiracoes::nenhuma));
+    }
+
+    @Bean
+    public CotacaoService cotacaoService(TicketRepository ticketRepository, CalculadoraDePreco calculadoraDePreco, Clock clock) {
+        return new CotacaoService(ticketRepository, calculadoraDePreco, clock);
+    }
+
+    @Bean
+    public CalculadoraDePreco calculadoraDePreco(TarifasProperties tarifasProperties) {
+        return new CalculadoraDePreco(tarifasProperties.tarifas());
     }
 
     @Bean
-    public CalculadoraDePreco calculadoraDePreco() {
-        return new CalculadoraDePreco();
+    public CalculadoraDePrecoEmLote calculadoraDePrecoEmLote(CalculadoraDePreco calculadoraDePreco) {
+        return new CalculadoraDePrecoEmLote(calculadoraDePreco);
     }
 
     @Bean
-    public OperadoraPagamento operadoraPagamento() {
-        return valor -> {
-        };
+    public OperadoraPagamento operadoraPagamento(@Value("${estacionamento.operadora.latencia-ms:0}") long latenciaMs,
+                                                 @Value("${estacionamento.operadora.taxa-falha:0}") double taxaDeFalha) {
+        return new OperadoraPagamentoSimulada(Duration.ofMillis(latenciaMs), taxaDeFalha);
     }
 
     @Bean
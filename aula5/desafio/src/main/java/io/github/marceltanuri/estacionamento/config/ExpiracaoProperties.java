@@ -0,0 +1,15 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração da expiração de pagamentos e isenções, lida de {@code estacionamento.expiracao.*}.
+ *
+ * @param tick        resolução dos prazos: um ticket expira até um tick depois do fim da tolerância
+ * @param tamanhoLote tickets expirados gravados por transação
+ */
+@ConfigurationProperties(prefix = "estacionamento.expiracao")
+public record ExpiracaoProperties(Duration tick, int tamanhoLote) {
+}
@@ -1,5 +1,8 @@
 package io.github.marceltanuri.estacionamento.api;
 
+import io.github.marceltanuri.estacionamento.domain.exception.DadoInvalidoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.EstacionamentoLotadoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -19,4 +22,29 @@ public class GlobalExceptionHandler {
         // O teste espera que o corpo da resposta seja apenas esta string.
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Dados do cliente recusados pela validação do domínio, como tarifas incompletas na troca de tarifas. As demais
+     * IllegalArgumentException indicam erro interno e não são tratadas aqui.
+     */
+    @ExceptionHandler(DadoInvalidoException.class)
+    public ResponseEntity<String> handleDadoInvalido(DadoInvalidoException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Duas operações disputaram o mesmo ticket e esta perdeu; o cliente deve consultar o ticket antes de repetir.
+     */
+    @ExceptionHandler(TicketAlteradoConcorrentementeException.class)
+    public ResponseEntity<String> handleTicketAlteradoConcorrentemente(TicketAlteradoConcorrentementeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Todas as vagas do tipo do veículo estão ocupadas; a emissão pode ser repetida quando alguma for liberada.
+     */
+    @ExceptionHandler(EstacionamentoLotadoException.class)
+    public ResponseEntity<String> handleEstacionamentoLotado(EstacionamentoLotadoException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuração do repositório de tickets em journal, lida de {@code estacionamento.journal.*}.
+ *
+ * @param habilitado           usa o journal no lugar do banco para os tickets
+ * @param diretorio            diretório do journal e do snapshot dos tickets ativos
+ * @param registrosPorSnapshot registros gravados entre um snapshot e o seguinte
+ * @param sincronizar          força cada registro para o disco antes de retornar, sobrevivendo também a quedas do sistema operacional
+ */
+@ConfigurationProperties(prefix = "estacionamento.journal")
+public record JournalProperties(boolean habilitado, Path diretorio, int registrosPorSnapshot, boolean sincronizar) {
+}
@@ -0,0 +1,17 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuração da ocupação do estacionamento, lida de {@code estacionamento.ocupacao.*}.
+ *
+ * @param capacidade              vagas por tipo de veículo; tipos ausentes não têm limite
+ * @param intervaloReconciliacao  intervalo entre as conferências dos contadores com os tickets ativos gravados
+ */
+@ConfigurationProperties(prefix = "estacionamento.ocupacao")
+public record OcupacaoProperties(Map<Veiculo.TipoVeiculo, Integer> capacidade, Duration intervaloReconciliacao) {
+}
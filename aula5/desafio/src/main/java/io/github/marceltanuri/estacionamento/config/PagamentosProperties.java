@@ -0,0 +1,21 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração dos pagamentos assíncronos, lida de {@code estacionamento.pagamentos.*}.
+ *
+ * @param workers           envios simultâneos à operadora
+ * @param maxChamadas       chamadas à operadora em andamento, contando as abandonadas por timeout que ainda não
+ *                          terminaram; acima disso o envio é recusado e reagendado como falha
+ * @param timeout           tempo limite de cada chamada à operadora
+ * @param maxTentativas     tentativas antes de o pagamento ser dado como falho
+ * @param backoff           espera antes da segunda tentativa, dobrada a cada nova falha
+ * @param intervaloDespacho intervalo entre buscas por pagamentos prontos para envio
+ */
+@ConfigurationProperties(prefix = "estacionamento.pagamentos")
+public record PagamentosProperties(int workers, int maxChamadas, Duration timeout, int maxTentativas, Duration backoff,
+                                   Duration intervaloDespacho) {
+}
@@ -0,0 +1,16 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Tarifa;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Tarifas por tipo de veículo, lidas de {@code estacionamento.tarifas.<TIPO>.*}.
+ * A validação acontece na criação da {@link io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco},
+ * impedindo a aplicação de subir com tarifas ausentes ou inválidas.
+ */
+@ConfigurationProperties(prefix = "estacionamento")
+public record TarifasProperties(Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+}
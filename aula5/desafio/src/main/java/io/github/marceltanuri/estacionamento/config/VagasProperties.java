@@ -0,0 +1,17 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapa de vagas físicas, lido de {@code estacionamento.vagas.*}.
+ *
+ * @param porNivel para cada tipo de veículo, a quantidade de vagas em cada nível, a partir do nível 1
+ *                 (o mais próximo da cancela); tipos ausentes são emitidos sem vaga
+ */
+@ConfigurationProperties(prefix = "estacionamento.vagas")
+public record VagasProperties(Map<Veiculo.TipoVeiculo, List<Integer>> porNivel) {
+}
@@ -0,0 +1,12 @@
+package io.github.marceltanuri.estacionamento.domain.exception;
+
+/**
+ * Dado recebido do cliente recusado pela validação do domínio, como uma placa fora do padrão, uma tarifa inválida
+ * ou um comprovante não reconhecido. É a única {@link IllegalArgumentException} que a API responde com 400; as
+ * demais indicam erro interno.
+ */
+public class DadoInvalidoException extends IllegalArgumentException {
+    public DadoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
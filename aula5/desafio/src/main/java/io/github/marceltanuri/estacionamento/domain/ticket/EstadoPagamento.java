@@ -0,0 +1,5 @@
+package io.github.marceltanuri.estacionamento.domain.ticket;
+
+public enum EstadoPagamento {
+    PENDENTE, PROCESSANDO, CONFIRMADO, FALHOU;
+}
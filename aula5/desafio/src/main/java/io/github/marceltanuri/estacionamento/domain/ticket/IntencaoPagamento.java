@@ -0,0 +1,119 @@
+package io.github.marceltanuri.estacionamento.domain.ticket;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pagamento solicitado para um ticket e ainda não necessariamente enviado à operadora.
+ * Enquanto aberta, a intenção é reenviada até ser confirmada ou esgotar as tentativas.
+ */
+public class IntencaoPagamento {
+
+    private String id;
+    private String ticketId;
+    private BigDecimal valor;
+    private EstadoPagamento estado;
+    private int tentativas;
+    private LocalDateTime proximaTentativa;
+    private String ultimoErro;
+    private LocalDateTime criadoEm;
+    private LocalDateTime confirmadoEm;
+
+    private IntencaoPagamento() {
+    }
+
+    public IntencaoPagamento(String id, String ticketId, BigDecimal valor, EstadoPagamento estado, int tentativas,
+                             LocalDateTime proximaTentativa, String ultimoErro, LocalDateTime criadoEm, LocalDateTime confirmadoEm) {
+        this.id = id;
+        this.ticketId = ticketId;
+        this.valor = valor;
+        this.estado = estado;
+        this.tentativas = tentativas;
+        this.proximaTentativa = proximaTentativa;
+        this.ultimoErro = ultimoErro;
+        this.criadoEm = criadoEm;
+        this.confirmadoEm = confirmadoEm;
+    }
+
+    public static IntencaoPagamento nova(String ticketId, BigDecimal valor, LocalDateTime agora) {
+        IntencaoPagamento intencao = new IntencaoPagamento();
+        intencao.ticketId = ticketId;
+        intencao.valor = valor;
+        intencao.estado = EstadoPagamento.PENDENTE;
+        intencao.proximaTentativa = agora;
+        intencao.criadoEm = agora;
+        return intencao;
+    }
+
+    public void confirmar(LocalDateTime agora) {
+        if (!isAberta()) {
+            throw new IllegalStateException("Pagamento com estado " + estado + " não pode ser confirmado.");
+        }
+        this.estado = EstadoPagamento.CONFIRMADO;
+        this.confirmadoEm = agora;
+        this.ultimoErro = null;
+    }
+
+    /**
+     * Registra a tentativa malsucedida e agenda a próxima.
+     */
+    public void reagendar(String motivo, LocalDateTime proximaTentativa) {
+        if (!isAberta()) {
+            throw new IllegalStateException("Pagamento com estado " + estado + " não pode ser reagendado.");
+        }
+        this.tentativas++;
+        this.estado = EstadoPagamento.PENDENTE;
+        this.ultimoErro = motivo;
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public void falhar(String motivo) {
+        if (!isAberta()) {
+            throw new IllegalStateException("Pagamento com estado " + estado + " não pode falhar.");
+        }
+        this.tentativas++;
+        this.estado = EstadoPagamento.FALHOU;
+        this.ultimoErro = motivo;
+        this.proximaTentativa = null;
+    }
+
+    public boolean isAberta() {
+        return estado == EstadoPagamento.PENDENTE || estado == EstadoPagamento.PROCESSANDO;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public EstadoPagamento getEstado() {
+        return estado;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getConfirmadoEm() {
+        return confirmadoEm;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.marceltanuri.estacionamento.domain.ticket;
 
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 
 import java.math.BigDecimal;
@@ -7,12 +8,17 @@ import java.time.LocalDateTime;
 
 public class Ticket {
 
+    private static final int LIMITE_PERMANENCIA_POS_PAGAMENTO_MINUTOS = 15;
+    private static final int LIMITE_PERMANENCIA_POS_ISENCAO_MINUTOS = 120;
+
     private String id;
     private Veiculo veiculo;
     private LocalDateTime entrada;
     private LocalDateTime saida;
     private LocalDateTime pagamento;
     private Status status;
+    private long versao;
+    private Vaga vaga;
 
     private Ticket() {
     }
@@ -26,6 +32,17 @@ public class Ticket {
         this.status = status;
     }
 
+    public Ticket(String id, Veiculo veiculo, LocalDateTime entrada, LocalDateTime saida, LocalDateTime pagamento, Status status, long versao) {
+        this(id, veiculo, entrada, saida, pagamento, status);
+        this.versao = versao;
+    }
+
+    public Ticket(String id, Veiculo veiculo, LocalDateTime entrada, LocalDateTime saida, LocalDateTime pagamento, Status status,
+                  long versao, Vaga vaga) {
+        this(id, veiculo, entrada, saida, pagamento, status, versao);
+        this.vaga = vaga;
+    }
+
     public static Ticket novo(Veiculo veiculo, LocalDateTime entrada) {
         Ticket ticket = new Ticket();
         ticket.veiculo = veiculo;
@@ -34,6 +51,16 @@ public class Ticket {
         return ticket;
     }
 
+    /**
+     * A vaga é atribuída na emissão, antes de o ticket ser gravado, e continua registrada depois da saída.
+     */
+    public void atribuirVaga(Vaga vaga) {
+        if (id != null) {
+            throw new IllegalStateException("A vaga só pode ser atribuída a um ticket ainda não emitido.");
+        }
+        this.vaga = vaga;
+    }
+
     public void pagar(LocalDateTime pagamento) {
         if (status != Status.PENDENTE) {
             throw new IllegalStateException("Ticket com status " + status + " não pode ser pago.");
@@ -56,6 +83,39 @@ public class Ticket {
         this.status = Status.TOLERANCIA_APOS_ISENCAO_EXPIRADO;
     }
 
+    /**
+     * Instante a partir do qual o ticket não sai mais sem novo pagamento: depois de mais de
+     * {@value #LIMITE_PERMANENCIA_POS_PAGAMENTO_MINUTOS} minutos completos desde o pagamento, ou de mais de
+     * {@value #LIMITE_PERMANENCIA_POS_ISENCAO_MINUTOS} minutos completos desde a entrada para tickets isentos.
+     *
+     * @return o fim da tolerância, ou {@code null} se o status do ticket não tiver prazo
+     */
+    public LocalDateTime fimDaTolerancia() {
+        return switch (status) {
+            case PAGO -> pagamento.plusMinutes(LIMITE_PERMANENCIA_POS_PAGAMENTO_MINUTOS + 1);
+            case ISENTO -> entrada.plusMinutes(LIMITE_PERMANENCIA_POS_ISENCAO_MINUTOS + 1);
+            default -> null;
+        };
+    }
+
+    /**
+     * Expira o pagamento ou a isenção se a tolerância tiver terminado até {@code agora}.
+     *
+     * @return {@code true} se o ticket foi expirado e precisa ser gravado
+     */
+    public boolean expirarToleranciaVencida(LocalDateTime agora) {
+        LocalDateTime fim = fimDaTolerancia();
+        if (fim == null || agora.isBefore(fim)) {
+            return false;
+        }
+        if (status == Status.PAGO) {
+            expirarPagamento();
+        } else {
+            expirarIsencao();
+        }
+        return true;
+    }
+
     public void finalizar(LocalDateTime saida) {
         if (status == Status.FINALIZADO) {
             throw new IllegalStateException("Ticket já finalizado.");
@@ -98,6 +158,18 @@ public class Ticket {
         return status;
     }
 
+    public Vaga getVaga() {
+        return vaga;
+    }
+
+    /**
+     * Versão lida do repositório; uma transição só é gravada se o ticket ainda estiver nesta versão.
+     * O repositório devolve o ticket gravado já na versão seguinte.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
     private void setStatus(Status status) {
         this.status = status;
     }
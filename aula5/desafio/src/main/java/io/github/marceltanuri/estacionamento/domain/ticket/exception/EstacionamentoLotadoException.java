@@ -0,0 +1,9 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.exception;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+
+public class EstacionamentoLotadoException extends RuntimeException {
+    public EstacionamentoLotadoException(Veiculo.TipoVeiculo tipo) {
+        super("Não há vagas livres para " + tipo + ".");
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.exception;
+
+public class TicketAlteradoConcorrentementeException extends RuntimeException {
+    public TicketAlteradoConcorrentementeException(String id) {
+        super("O ticket " + id + " foi alterado por outra operação. Consulte o ticket e tente novamente.");
+    }
+}
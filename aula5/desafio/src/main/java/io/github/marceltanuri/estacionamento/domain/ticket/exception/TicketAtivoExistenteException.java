@@ -0,0 +1,7 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.exception;
+
+public class TicketAtivoExistenteException extends RuntimeException {
+    public TicketAtivoExistenteException(String placa, Throwable cause) {
+        super("Já existe um ticket ativo para a placa " + placa + ".", cause);
+    }
+}
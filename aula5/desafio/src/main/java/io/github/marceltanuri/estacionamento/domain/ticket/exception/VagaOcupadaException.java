@@ -0,0 +1,9 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.exception;
+
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+
+public class VagaOcupadaException extends RuntimeException {
+    public VagaOcupadaException(Vaga vaga, Throwable cause) {
+        super("A vaga " + vaga.numero() + " do nível " + vaga.nivel() + " já está ocupada.", cause);
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.ports;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+
+/**
+ * Acompanha o fim da tolerância dos tickets pagos e isentos, para que expirem no prazo sem depender
+ * de o veículo chegar à saída.
+ */
+public interface AgendaDeExpiracoes {
+
+    /**
+     * Agenda a expiração conforme o status gravado do ticket, substituindo um agendamento anterior dele;
+     * para status sem prazo, apenas cancela o anterior.
+     */
+    void agendar(Ticket ticket);
+
+    void cancelar(Ticket ticket);
+
+    /**
+     * Agenda que não acompanha prazos: os tickets só expiram na saída.
+     */
+    static AgendaDeExpiracoes nenhuma() {
+        return new AgendaDeExpiracoes() {
+            @Override
+            public void agendar(Ticket ticket) {
+            }
+
+            @Override
+            public void cancelar(Ticket ticket) {
+            }
+        };
+    }
+}
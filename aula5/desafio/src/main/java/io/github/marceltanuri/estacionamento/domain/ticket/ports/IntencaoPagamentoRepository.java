@@ -0,0 +1,38 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.ports;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caixa de saída (outbox) dos pagamentos a enviar à operadora.
+ */
+public interface IntencaoPagamentoRepository {
+
+    /**
+     * Grava a intenção e uma nova versão do ticket na mesma transação: a intenção só é registrada
+     * se o ticket não tiver sido alterado desde que foi lido.
+     *
+     * @throws io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException
+     *         se o ticket tiver sido alterado por outra operação
+     */
+    IntencaoPagamento registrar(IntencaoPagamento intencao, Ticket ticket);
+
+    Optional<IntencaoPagamento> findById(String id);
+
+    /**
+     * Intenção do ticket que ainda está aberta ou já foi confirmada; intenções que falharam são ignoradas.
+     */
+    Optional<IntencaoPagamento> findVigentePorTicket(String ticketId);
+
+    /**
+     * Reserva até {@code limite} intenções abertas cuja próxima tentativa já venceu, marcando-as como
+     * PROCESSANDO até {@code reservaAte}. Uma reserva vencida (processo interrompido) volta a ser elegível.
+     */
+    List<IntencaoPagamento> reservarProntas(LocalDateTime agora, LocalDateTime reservaAte, int limite);
+
+    void atualizar(IntencaoPagamento intencao);
+}
@@ -4,4 +4,15 @@ import java.math.BigDecimal;
 
 public interface OperadoraPagamento {
     void pagar(BigDecimal valor);
-}
\ No newline at end of file
+
+    /**
+     * Devolve ao cliente uma cobrança já aprovada que não pôde ser registrada no ticket.
+     */
+    void estornar(BigDecimal valor);
+
+    /**
+     * Envio com chave de idempotência, usado pelos pagamentos assíncronos: uma tentativa repetida após
+     * timeout leva a mesma chave, para que a operadora não cobre duas vezes.
+     */
+    void pagar(BigDecimal valor, String chaveIdempotencia);
+}
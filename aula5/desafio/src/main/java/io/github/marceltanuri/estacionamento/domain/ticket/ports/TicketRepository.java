@@ -1,16 +1,79 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.ports;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TicketRepository {
 
+    /**
+     * @return o ticket gravado, com id e versão atualizados; o ticket recebido não é alterado
+     * @throws io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException
+     *         se o ticket for novo e já houver outro ticket ativo para a mesma placa
+     * @throws io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException
+     *         se o ticket for novo e sua vaga já estiver com outro ticket ativo, atribuída por outra instância
+     * @throws io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException
+     *         se o ticket já existir e tiver sido alterado por outra operação depois de lido
+     */
     Ticket save(Ticket ticket);
 
+    /**
+     * Grava tickets novos de uma só vez: se algum for recusado, por exemplo por já haver outro ticket
+     * ativo para a placa, nenhum é gravado e a recusa é sinalizada com {@link
+     * io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException} ou, se a vaga
+     * de um deles já estiver com outro ticket ativo, com {@link
+     * io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException}.
+     */
+    List<Ticket> saveAll(List<Ticket> tickets);
+
+    /**
+     * Grava de uma só vez as transições de tickets já existentes. Tickets alterados por outra operação depois de
+     * lidos ficam de fora, sem impedir a gravação dos demais.
+     *
+     * @return os tickets cujas transições foram gravadas, já na nova versão
+     */
+    List<Ticket> saveTransicoes(List<Ticket> tickets);
+
     Optional<Ticket> findById(String id);
 
     Optional<Ticket> findByVeiculoPlacaAndStatusNotFinalizado(String placa);
 
+    /**
+     * Tickets ativos das placas informadas, sem uma consulta por placa.
+     */
+    List<Ticket> findAtivosPorPlacas(Collection<String> placas);
+
+    /**
+     * Tickets ativos com os ids informados, em uma única consulta; ids de tickets finalizados ou inexistentes são ignorados.
+     */
+    List<Ticket> findAtivosPorIds(Collection<String> ids);
+
+    List<Ticket> findAtivosPorStatus(Collection<Status> status);
+
+    /**
+     * Tickets ativos cujas placas estão a até {@code distanciaMaxima} de {@code placa} pela
+     * {@link io.github.marceltanuri.estacionamento.domain.veiculo.DistanciaDePlacas}, para leituras erradas da câmera.
+     *
+     * @return do ticket de placa mais próxima ao de mais distante, no máximo {@code limite}
+     */
+    List<Ticket> findAtivosPorPlacaAproximada(String placa, int distanciaMaxima, int limite);
+
+    /**
+     * Quantidade de tickets ativos de cada tipo de veículo; tipos sem tickets ativos podem ficar de fora.
+     */
+    Map<Veiculo.TipoVeiculo, Long> contarAtivosPorTipo();
+
+    /**
+     * Vagas físicas dos tickets ativos, por tipo de veículo; tickets sem vaga ficam de fora.
+     */
+    Map<Veiculo.TipoVeiculo, List<Vaga>> vagasOcupadasPorTipo();
+
     void delete(Ticket ticket);
 
 
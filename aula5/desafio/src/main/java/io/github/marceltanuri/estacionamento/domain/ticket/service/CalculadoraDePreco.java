@@ -5,50 +5,74 @@ import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
 
+/**
+ * Calcula o preço da permanência em centavos, consultando tabelas pré-calculadas por tipo de veículo.
+ * A conversão para {@link BigDecimal} acontece apenas em {@link #calcular(Ticket, LocalDateTime)},
+ * que é o valor entregue à operadora de pagamento.
+ * <p>
+ * As tabelas podem ser substituídas em tempo de execução por {@link #atualizarTarifas(Map)}: a troca é
+ * uma única escrita volátil, então cada cálculo usa por inteiro as tabelas antigas ou as novas, sem bloqueio.
+ */
 public class CalculadoraDePreco {
 
-    private static final BigDecimal TARIFA_BASE_HORA_CARRO = new BigDecimal("10.00");
-    private static final BigDecimal TARIFA_ADICIONAL_HORA_CARRO = new BigDecimal("5.00");
-    private static final BigDecimal DIARIA_CARRO = new BigDecimal("50.00");
-    private static final BigDecimal TARIFA_BASE_HORA_MOTO = new BigDecimal("5.00");
-    private static final BigDecimal TARIFA_ADICIONAL_HORA_MOTO = new BigDecimal("2.50");
+    private volatile TabelasDePreco tabelas;
 
+    public CalculadoraDePreco(Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+        this.tabelas = TabelasDePreco.compilar(tarifas);
+    }
 
     public BigDecimal calcular(Ticket ticket, LocalDateTime dataHoraSaida) {
-        LocalDateTime entrada = ticket.getEntrada();
-        long horas = (long) Math.ceil(Duration.between(entrada, dataHoraSaida).toMinutes() / 60.0);
+        return BigDecimal.valueOf(calcularEmCentavos(ticket, dataHoraSaida), 2);
+    }
 
-        if (horas <= 0) {
-            horas = 1;
-        }
+    public long calcularEmCentavos(Ticket ticket, LocalDateTime dataHoraSaida) {
+        return tabelas.tabela(ticket.getVeiculo().getTipo()).precoDaPermanenciaEmCentavos(segundosDePermanencia(ticket, dataHoraSaida));
+    }
 
-        return switch (ticket.getVeiculo().getTipo()) {
-            case CARRO -> calcularPrecoCarro(horas);
-            case MOTO -> calcularPrecoMoto(horas);
-            default -> BigDecimal.ZERO;
-        };
+    /**
+     * Preço de uma saída em {@code agora} e até quando ele vale, calculados com as mesmas tabelas.
+     */
+    public Cotacao cotar(Ticket ticket, LocalDateTime agora) {
+        TabelaDePreco tabela = tabelas.tabela(ticket.getVeiculo().getTipo());
+        long segundos = segundosDePermanencia(ticket, agora);
+        return new Cotacao(ticket.getId(), ticket.getVersao(), BigDecimal.valueOf(tabela.precoDaPermanenciaEmCentavos(segundos), 2),
+                ticket.getEntrada().plusSeconds(tabela.fimDoPrecoEmSegundos(segundos)));
     }
 
-    private BigDecimal calcularPrecoCarro(long horas) {
-        if (horas > 8) {
-            return DIARIA_CARRO;
-        }
-        if (horas <= 2) {
-            return TARIFA_BASE_HORA_CARRO.multiply(BigDecimal.valueOf(horas));
-        }
-        return TARIFA_BASE_HORA_CARRO.multiply(BigDecimal.valueOf(2))
-                .add(TARIFA_ADICIONAL_HORA_CARRO.multiply(BigDecimal.valueOf(horas - 2)));
+    /**
+     * @param entradaEpochSegundos entrada em segundos desde a época (horário local tratado como UTC)
+     * @param saidaEpochSegundos   saída na mesma escala da entrada
+     */
+    public long calcularEmCentavos(Veiculo.TipoVeiculo tipo, long entradaEpochSegundos, long saidaEpochSegundos) {
+        return tabelas.tabela(tipo).precoDaPermanenciaEmCentavos(saidaEpochSegundos - entradaEpochSegundos);
     }
 
-    private BigDecimal calcularPrecoMoto(long horas) {
-        if (horas <= 2) {
-            return TARIFA_BASE_HORA_MOTO.multiply(BigDecimal.valueOf(horas));
+    /**
+     * Valida e compila as novas tarifas antes de publicá-las; em caso de erro as tarifas atuais são mantidas.
+     */
+    public void atualizarTarifas(Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+        this.tabelas = TabelasDePreco.compilar(tarifas);
+    }
+
+    public Map<Veiculo.TipoVeiculo, Tarifa> getTarifas() {
+        return tabelas.getTarifas();
+    }
+
+    TabelasDePreco tabelasVigentes() {
+        return tabelas;
+    }
+
+    private static long segundosDePermanencia(Ticket ticket, LocalDateTime dataHoraSaida) {
+        LocalDateTime entrada = ticket.getEntrada();
+        long segundos = dataHoraSaida.toEpochSecond(ZoneOffset.UTC) - entrada.toEpochSecond(ZoneOffset.UTC);
+        if (dataHoraSaida.getNano() < entrada.getNano()) {
+            segundos--;
         }
-        return TARIFA_BASE_HORA_MOTO.multiply(BigDecimal.valueOf(2))
-                .add(TARIFA_ADICIONAL_HORA_MOTO.multiply(BigDecimal.valueOf(horas - 2)));
+        return segundos;
     }
 
 }
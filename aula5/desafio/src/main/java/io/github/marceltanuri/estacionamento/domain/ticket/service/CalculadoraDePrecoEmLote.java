@@ -0,0 +1,120 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precifica muitos tickets de uma vez em relação a um mesmo instante de referência.
+ * <p>
+ * Os dados são recebidos em colunas (entradas e tipos em arrays paralelos) e o resultado é escrito
+ * em um array de centavos fornecido pelo chamador. Lotes grandes são divididos entre os núcleos
+ * com fork/join. Todo o lote é precificado com as mesmas tabelas, mesmo que as tarifas sejam
+ * atualizadas durante o cálculo.
+ */
+public class CalculadoraDePrecoEmLote {
+
+    static final int LIMIAR_PARALELISMO = 4096;
+
+    private final CalculadoraDePreco calculadoraDePreco;
+    private final ForkJoinPool pool;
+
+    public CalculadoraDePrecoEmLote(CalculadoraDePreco calculadoraDePreco) {
+        this(calculadoraDePreco, ForkJoinPool.commonPool());
+    }
+
+    public CalculadoraDePrecoEmLote(CalculadoraDePreco calculadoraDePreco, ForkJoinPool pool) {
+        this.calculadoraDePreco = calculadoraDePreco;
+        this.pool = pool;
+    }
+
+    /**
+     * @param tipos                tipo de veículo de cada ticket
+     * @param entradasEpochSegundos entrada de cada ticket em segundos desde a época (horário local tratado como UTC)
+     * @param referenciaEpochSegundos instante de referência na mesma escala das entradas
+     * @param resultadoCentavos    recebe o preço de cada ticket, na mesma posição da entrada
+     */
+    public void calcular(Veiculo.TipoVeiculo[] tipos, long[] entradasEpochSegundos, long referenciaEpochSegundos,
+                         long[] resultadoCentavos) {
+        if (tipos.length != entradasEpochSegundos.length || resultadoCentavos.length < entradasEpochSegundos.length) {
+            throw new IllegalArgumentException("Os arrays do lote devem ter o mesmo tamanho.");
+        }
+        TabelasDePreco tabelas = calculadoraDePreco.tabelasVigentes();
+        int quantidade = entradasEpochSegundos.length;
+        if (quantidade <= LIMIAR_PARALELISMO) {
+            calcularIntervalo(tabelas, tipos, entradasEpochSegundos, referenciaEpochSegundos, resultadoCentavos, 0, quantidade);
+            return;
+        }
+        pool.invoke(new TarefaDePrecificacao(tabelas, tipos, entradasEpochSegundos, referenciaEpochSegundos,
+                resultadoCentavos, 0, quantidade));
+    }
+
+    /**
+     * Precifica os tickets em relação ao instante de referência, com a mesma precisão de
+     * {@link CalculadoraDePreco#calcular(Ticket, LocalDateTime)}.
+     */
+    public long[] calcular(List<Ticket> tickets, LocalDateTime referencia) {
+        int quantidade = tickets.size();
+        Veiculo.TipoVeiculo[] tipos = new Veiculo.TipoVeiculo[quantidade];
+        long[] entradas = new long[quantidade];
+        long referenciaEpochSegundos = referencia.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < quantidade; i++) {
+            Ticket ticket = tickets.get(i);
+            LocalDateTime entrada = ticket.getEntrada();
+            tipos[i] = ticket.getVeiculo().getTipo();
+            entradas[i] = entrada.toEpochSecond(ZoneOffset.UTC);
+            // Frações de segundo da entrada maiores que as da referência reduzem um segundo completo
+            if (referencia.getNano() < entrada.getNano()) {
+                entradas[i]++;
+            }
+        }
+        long[] resultado = new long[quantidade];
+        calcular(tipos, entradas, referenciaEpochSegundos, resultado);
+        return resultado;
+    }
+
+    private static void calcularIntervalo(TabelasDePreco tabelas, Veiculo.TipoVeiculo[] tipos, long[] entradas,
+                                          long referencia, long[] resultado, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            resultado[i] = tabelas.tabela(tipos[i]).precoDaPermanenciaEmCentavos(referencia - entradas[i]);
+        }
+    }
+
+    private static final class TarefaDePrecificacao extends RecursiveAction {
+
+        private final TabelasDePreco tabelas;
+        private final Veiculo.TipoVeiculo[] tipos;
+        private final long[] entradas;
+        private final long referencia;
+        private final long[] resultado;
+        private final int inicio;
+        private final int fim;
+
+        private TarefaDePrecificacao(TabelasDePreco tabelas, Veiculo.TipoVeiculo[] tipos, long[] entradas, long referencia,
+                                     long[] resultado, int inicio, int fim) {
+            this.tabelas = tabelas;
+            this.tipos = tipos;
+            this.entradas = entradas;
+            this.referencia = referencia;
+            this.resultado = resultado;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= LIMIAR_PARALELISMO) {
+                calcularIntervalo(tabelas, tipos, entradas, referencia, resultado, inicio, fim);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaDePrecificacao(tabelas, tipos, entradas, referencia, resultado, inicio, meio),
+                    new TarefaDePrecificacao(tabelas, tipos, entradas, referencia, resultado, meio, fim));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Valor que o ticket pagaria agora, válido até {@code validaAte} (exclusive), quando começa a próxima hora cobrada,
+ * enquanto o ticket continuar na versão {@code versao}.
+ */
+public record Cotacao(String ticketId, long versao, BigDecimal valor, LocalDateTime validaAte) {
+
+    /**
+     * Identifica a versão do ticket, o valor e o período da cotação: muda sempre que um dos três muda.
+     */
+    public String etag() {
+        return "\"" + ticketId + "-" + versao + "-" + validaAte.toEpochSecond(ZoneOffset.UTC) + "-" + valor.unscaledValue() + "\"";
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cotações dos tickets pendentes, guardadas em memória por ticket até o fim da hora cobrada: consultas repetidas
+ * dentro da mesma hora não recalculam o preço. Uma troca de tarifas descarta as cotações.
+ * <p>
+ * Cada consulta relê o ticket e só aproveita a cotação da mesma versão, então qualquer alteração gravada no
+ * repositório (pelos endpoints, pela confirmação de um pagamento assíncrono, pelo expirador ou por outra instância)
+ * vale já na consulta seguinte, sem depender de quem alterou o ticket avisar este serviço.
+ * <p>
+ * O cache guarda até 10.000 cotações; cheio, descarta a consultada há mais tempo.
+ */
+public class CotacaoService {
+
+    private static final int MAXIMO_EM_CACHE = 10_000;
+
+    private final TicketRepository ticketRepository;
+    private final CalculadoraDePreco calculadoraDePreco;
+    private final Clock clock;
+    private final LinkedHashMap<String, CotacaoEmCache> cotacoes = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock trava = new ReentrantLock();
+
+    public CotacaoService(TicketRepository ticketRepository, CalculadoraDePreco calculadoraDePreco, Clock clock) {
+        this.ticketRepository = ticketRepository;
+        this.calculadoraDePreco = calculadoraDePreco;
+        this.clock = clock;
+    }
+
+    /**
+     * @return a cotação do ticket, ou vazio se ele não existir
+     * @throws IllegalStateException se o ticket não estiver pendente de pagamento
+     */
+    public Optional<Cotacao> cotar(String ticketId) {
+        Optional<Ticket> ticket = ticketRepository.findById(ticketId);
+        if (ticket.isEmpty()) {
+            remover(ticketId);
+            return Optional.empty();
+        }
+        if (ticket.get().getStatus() != Status.PENDENTE) {
+            remover(ticketId);
+            throw new IllegalStateException("Ticket com status " + ticket.get().getStatus() + " não pode ser pago.");
+        }
+
+        LocalDateTime agora = LocalDateTime.now(clock);
+        TabelasDePreco tabelas = calculadoraDePreco.tabelasVigentes();
+        CotacaoEmCache emCache = buscar(ticketId);
+        if (emCache != null && emCache.tabelas() == tabelas && emCache.cotacao().versao() == ticket.get().getVersao()
+                && agora.isBefore(emCache.cotacao().validaAte())) {
+            return Optional.of(emCache.cotacao());
+        }
+
+        Cotacao cotacao = calculadoraDePreco.cotar(ticket.get(), agora);
+        armazenar(ticketId, new CotacaoEmCache(cotacao, tabelas));
+        return Optional.of(cotacao);
+    }
+
+    // O get de um LinkedHashMap em ordem de acesso também o altera, então leituras e escritas passam pela trava
+    private CotacaoEmCache buscar(String ticketId) {
+        trava.lock();
+        try {
+            return cotacoes.get(ticketId);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void armazenar(String ticketId, CotacaoEmCache emCache) {
+        trava.lock();
+        try {
+            cotacoes.put(ticketId, emCache);
+            Iterator<String> maisAntigas = cotacoes.keySet().iterator();
+            while (cotacoes.size() > MAXIMO_EM_CACHE && maisAntigas.hasNext()) {
+                maisAntigas.next();
+                maisAntigas.remove();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void remover(String ticketId) {
+        trava.lock();
+        try {
+            cotacoes.remove(ticketId);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private record CotacaoEmCache(Cotacao cotacao, TabelasDePreco tabelas) {
+    }
+}
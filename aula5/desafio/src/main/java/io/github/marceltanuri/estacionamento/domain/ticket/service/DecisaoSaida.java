@@ -0,0 +1,33 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+
+/**
+ * Decisão da cancela de saída para um ticket. As recusas são parte do movimento normal da saída, então são
+ * devolvidas como código, e a mensagem só é montada por quem precisar exibi-la.
+ */
+public enum DecisaoSaida {
+
+    LIBERADA,
+    ANTES_DA_ENTRADA,
+    FORA_DO_HORARIO,
+    TOLERANCIA_EXPIRADA,
+    STATUS_NAO_LIBERA;
+
+    public boolean liberada() {
+        return this == LIBERADA;
+    }
+
+    /**
+     * @return o motivo da recusa, ou {@code null} se a saída foi liberada
+     */
+    public String mensagem(Ticket ticket) {
+        return switch (this) {
+            case LIBERADA -> null;
+            case ANTES_DA_ENTRADA -> "Ticket não pode ser finalizado antes da entrada.";
+            case FORA_DO_HORARIO -> "Ticket não pode ser finalizado fora do horário de funcionamento.";
+            case TOLERANCIA_EXPIRADA -> "Ticket não pode ser finalizado após o limite de tolerância. Necessário novo pagamento.";
+            case STATUS_NAO_LIBERA -> "Ticket com status " + ticket.getStatus() + " não pode ser finalizado.";
+        };
+    }
+}
@@ -1,33 +1,225 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.EstacionamentoLotadoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 
 import java.time.LocalDateTime;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Emite no máximo um ticket ativo por placa.
+ * <p>
+ * Emissões da mesma placa são serializadas por uma trava escolhida pelo hash da placa (travas listradas),
+ * sem bloquear placas diferentes. Entre instâncias da aplicação, a unicidade é garantida pelo repositório;
+ * quem perde a corrida recebe o ticket de quem venceu.
+ * <p>
+ * Na emissão em lote, as travas de todas as placas são tomadas em ordem crescente, evitando impasse
+ * com outros lotes, e o lote inteiro custa uma consulta e uma gravação em lote.
+ * <p>
+ * Cada ticket novo reserva uma vaga do seu tipo na {@link Ocupacao} antes de ser gravado; sem vaga,
+ * a emissão é recusada com {@link EstacionamentoLotadoException} (no lote, a placa fica {@code LOTADO}).
+ * O ticket também recebe a vaga física livre mais próxima da cancela, se o {@link AlocadorDeVagas} tiver uma.
+ * Cada instância só conhece as vagas que ela mesma entregou; se o repositório recusar a vaga com
+ * {@link VagaOcupadaException}, a emissão é refeita com a próxima vaga livre.
+ */
 public class EmissaoService {
 
+    private static final int QUANTIDADE_TRAVAS = 64;
+    private static final int MAX_TENTATIVAS_DE_VAGA = 3;
+
     private final TicketRepository ticketRepository;
     private final Clock clock;
+    private final Ocupacao ocupacao;
+    private final AlocadorDeVagas alocadorDeVagas;
+    private final ReentrantLock[] travas = new ReentrantLock[QUANTIDADE_TRAVAS];
 
     public EmissaoService(TicketRepository ticketRepository, Clock clock) {
+        this(ticketRepository, clock, Ocupacao.semLimite());
+    }
+
+    public EmissaoService(TicketRepository ticketRepository, Clock clock, Ocupacao ocupacao) {
+        this(ticketRepository, clock, ocupacao, AlocadorDeVagas.semVagas());
+    }
+
+    public EmissaoService(TicketRepository ticketRepository, Clock clock, Ocupacao ocupacao, AlocadorDeVagas alocadorDeVagas) {
         this.ticketRepository = ticketRepository;
         this.clock = clock;
+        this.ocupacao = ocupacao;
+        this.alocadorDeVagas = alocadorDeVagas;
+        for (int i = 0; i < QUANTIDADE_TRAVAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
     }
 
     public Ticket emitir(Veiculo veiculo) {
-        return ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(veiculo.getPlaca())
-                .orElseGet(() -> {
-                    try {
-                        Ticket novoTicket = Ticket.novo(veiculo, LocalDateTime.now(clock));
-                        return ticketRepository.save(novoTicket);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Erro ao emitir o ticket.", e);
-                    }
-                });
-    }
-
-}
\ No newline at end of file
+        ReentrantLock trava = travaDaPlaca(veiculo.getPlaca());
+        trava.lock();
+        try {
+            return ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(veiculo.getPlaca())
+                    .orElseGet(() -> emitirNovo(veiculo));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Emite os tickets de um lote de leituras de placa, como as reenviadas por uma cancela após perda de conexão.
+     * Placas repetidas no lote são consideradas uma vez; placas com ticket ativo recebem o ticket existente.
+     *
+     * @return um resultado por placa distinta, na ordem da primeira ocorrência no lote
+     */
+    public List<ResultadoEmissao> emitirEmLote(List<Veiculo> veiculos) {
+        Map<String, Veiculo> veiculosPorPlaca = new LinkedHashMap<>();
+        for (Veiculo veiculo : veiculos) {
+            veiculosPorPlaca.putIfAbsent(veiculo.getPlaca(), veiculo);
+        }
+        List<ReentrantLock> travasDoLote = travasEmOrdem(veiculosPorPlaca.keySet());
+        travasDoLote.forEach(ReentrantLock::lock);
+        try {
+            Map<String, Ticket> ativos = new HashMap<>();
+            for (Ticket ativo : ticketRepository.findAtivosPorPlacas(veiculosPorPlaca.keySet())) {
+                ativos.put(ativo.getVeiculo().getPlaca(), ativo);
+            }
+            LocalDateTime agora = LocalDateTime.now(clock);
+            List<Ticket> novos = new ArrayList<>();
+            for (Veiculo veiculo : veiculosPorPlaca.values()) {
+                if (!ativos.containsKey(veiculo.getPlaca()) && ocupacao.reservar(veiculo.getTipo())) {
+                    novos.add(novoTicketComVaga(veiculo, agora));
+                }
+            }
+            Map<String, Ticket> emitidos = gravarNovos(novos, ativos);
+
+            List<ResultadoEmissao> resultados = new ArrayList<>(veiculosPorPlaca.size());
+            for (String placa : veiculosPorPlaca.keySet()) {
+                Ticket emitido = emitidos.get(placa);
+                Ticket ativo = ativos.get(placa);
+                if (emitido != null) {
+                    resultados.add(new ResultadoEmissao(placa, ResultadoEmissao.Situacao.EMITIDO, emitido));
+                } else if (ativo != null) {
+                    resultados.add(new ResultadoEmissao(placa, ResultadoEmissao.Situacao.JA_ATIVO, ativo));
+                } else {
+                    resultados.add(new ResultadoEmissao(placa, ResultadoEmissao.Situacao.LOTADO, null));
+                }
+            }
+            return resultados;
+        } finally {
+            for (int i = travasDoLote.size() - 1; i >= 0; i--) {
+                travasDoLote.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Grava os novos tickets em lote, cujas vagas já foram reservadas. Se o lote for recusado por uma restrição
+     * (outra instância emitiu para uma das placas ou ocupou uma das vagas), as reservas são canceladas e ele é
+     * refeito item a item; as placas que já tinham ticket passam para {@code ativos}, e as que ficaram sem vaga não entram em
+     * nenhum dos dois. Outras falhas cancelam as reservas e são propagadas.
+     */
+    private Map<String, Ticket> gravarNovos(List<Ticket> novos, Map<String, Ticket> ativos) {
+        Map<String, Ticket> emitidos = new HashMap<>();
+        if (novos.isEmpty()) {
+            return emitidos;
+        }
+        try {
+            for (Ticket emitido : ticketRepository.saveAll(novos)) {
+                ocupacao.confirmar(emitido.getVeiculo().getTipo());
+                emitidos.put(emitido.getVeiculo().getPlaca(), emitido);
+            }
+        } catch (TicketAtivoExistenteException | VagaOcupadaException e) {
+            novos.forEach(this::desfazerReserva);
+            for (Ticket novo : novos) {
+                Veiculo veiculo = novo.getVeiculo();
+                Optional<Ticket> ativo = ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(veiculo.getPlaca());
+                if (ativo.isPresent()) {
+                    ativos.put(veiculo.getPlaca(), ativo.get());
+                    continue;
+                }
+                try {
+                    emitidos.put(veiculo.getPlaca(), emitirNovo(veiculo));
+                } catch (EstacionamentoLotadoException lotado) {
+                    // A placa fica sem ticket e o resultado do lote a informa como LOTADO
+                }
+            }
+        } catch (RuntimeException e) {
+            novos.forEach(this::desfazerReserva);
+            throw e;
+        }
+        return emitidos;
+    }
+
+    private Ticket emitirNovo(Veiculo veiculo) {
+        if (!ocupacao.reservar(veiculo.getTipo())) {
+            throw new EstacionamentoLotadoException(veiculo.getTipo());
+        }
+        LocalDateTime entrada = LocalDateTime.now(clock);
+        for (int tentativa = 1; ; tentativa++) {
+            Ticket novoTicket = novoTicketComVaga(veiculo, entrada);
+            try {
+                Ticket emitido = ticketRepository.save(novoTicket);
+                ocupacao.confirmar(veiculo.getTipo());
+                return emitido;
+            } catch (VagaOcupadaException e) {
+                // A vaga é de um ticket de outra instância: continua ocupada no alocador e a emissão tenta a próxima livre
+                if (tentativa == MAX_TENTATIVAS_DE_VAGA) {
+                    ocupacao.cancelar(veiculo.getTipo());
+                    throw new RuntimeException("Erro ao emitir o ticket.", e);
+                }
+            } catch (TicketAtivoExistenteException e) {
+                desfazerReserva(novoTicket);
+                return ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(veiculo.getPlaca())
+                        .orElseThrow(() -> new RuntimeException("Erro ao emitir o ticket.", e));
+            } catch (Exception e) {
+                desfazerReserva(novoTicket);
+                throw new RuntimeException("Erro ao emitir o ticket.", e);
+            }
+        }
+    }
+
+    private Ticket novoTicketComVaga(Veiculo veiculo, LocalDateTime entrada) {
+        Ticket novoTicket = Ticket.novo(veiculo, entrada);
+        alocadorDeVagas.alocar(veiculo.getTipo()).ifPresent(novoTicket::atribuirVaga);
+        return novoTicket;
+    }
+
+    // O ticket não foi gravado: a reserva na ocupação e a vaga física voltam a ficar livres
+    private void desfazerReserva(Ticket novoTicket) {
+        ocupacao.cancelar(novoTicket.getVeiculo().getTipo());
+        alocadorDeVagas.liberar(novoTicket.getVeiculo().getTipo(), novoTicket.getVaga());
+    }
+
+    private ReentrantLock travaDaPlaca(String placa) {
+        return travas[indiceDaTrava(placa)];
+    }
+
+    private List<ReentrantLock> travasEmOrdem(Iterable<String> placas) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (String placa : placas) {
+            indices.add(indiceDaTrava(placa));
+        }
+        List<ReentrantLock> emOrdem = new ArrayList<>(indices.size());
+        for (int indice : indices) {
+            emOrdem.add(travas[indice]);
+        }
+        return emOrdem;
+    }
+
+    private static int indiceDaTrava(String placa) {
+        int hash = placa.hashCode();
+        return (hash ^ (hash >>> 16)) & (QUANTIDADE_TRAVAS - 1);
+    }
+
+}
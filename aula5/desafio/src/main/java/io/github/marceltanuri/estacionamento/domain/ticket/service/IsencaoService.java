@@ -1,8 +1,12 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.domain.exception.DadoInvalidoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.FuncionarioRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.ValidadorComprovante;
 
@@ -11,29 +15,52 @@ public class IsencaoService {
     private final TicketRepository ticketRepository;
     private final FuncionarioRepository funcionarioRepository;
     private final ValidadorComprovante validadorComprovante;
+    private final IntencaoPagamentoRepository intencaoPagamentoRepository;
+    private final AgendaDeExpiracoes agendaDeExpiracoes;
 
-    public IsencaoService(TicketRepository ticketRepository, FuncionarioRepository funcionarioRepository, ValidadorComprovante validadorComprovante) {
+    public IsencaoService(TicketRepository ticketRepository, FuncionarioRepository funcionarioRepository, ValidadorComprovante validadorComprovante,
+                          IntencaoPagamentoRepository intencaoPagamentoRepository) {
+        this(ticketRepository, funcionarioRepository, validadorComprovante, intencaoPagamentoRepository, AgendaDeExpiracoes.nenhuma());
+    }
+
+    public IsencaoService(TicketRepository ticketRepository, FuncionarioRepository funcionarioRepository, ValidadorComprovante validadorComprovante,
+                          IntencaoPagamentoRepository intencaoPagamentoRepository, AgendaDeExpiracoes agendaDeExpiracoes) {
         this.ticketRepository = ticketRepository;
         this.funcionarioRepository = funcionarioRepository;
         this.validadorComprovante = validadorComprovante;
+        this.intencaoPagamentoRepository = intencaoPagamentoRepository;
+        this.agendaDeExpiracoes = agendaDeExpiracoes;
     }
 
+    /**
+     * @throws IllegalStateException se o ticket tiver um pagamento assíncrono aberto, que a operadora ainda pode aprovar
+     */
     public void isentarPorComprovanteDeCompra(Ticket ticket, String comprovante) {
         if (validadorComprovante.validar(comprovante)) {
+            recusarComPagamentoEmAndamento(ticket);
             ticket.isentar(Status.ISENTO);
             ticketRepository.save(ticket);
+            agendaDeExpiracoes.agendar(ticket);
         } else {
-            throw new IllegalArgumentException("Comprovante inválido.");
+            throw new DadoInvalidoException("Comprovante inválido.");
         }
     }
 
     public void isentarFuncionario(Ticket ticket) {
         if (funcionarioRepository.isFuncionario(ticket.getVeiculo().getPlaca())) {
+            recusarComPagamentoEmAndamento(ticket);
             ticket.isentar(Status.ISENTO_FUNCIONARIO);
             ticketRepository.save(ticket);
+            // Funcionários não têm prazo: desfaz o agendamento de uma isenção por comprovante anterior
+            agendaDeExpiracoes.agendar(ticket);
         } else {
-            throw new IllegalArgumentException("Placa não pertence a um funcionário.");
+            throw new DadoInvalidoException("Placa não pertence a um funcionário.");
         }
     }
 
-}
\ No newline at end of file
+    private void recusarComPagamentoEmAndamento(Ticket ticket) {
+        if (intencaoPagamentoRepository.findVigentePorTicket(ticket.getId()).filter(IntencaoPagamento::isAberta).isPresent()) {
+            throw new IllegalStateException("Ticket " + ticket.getId() + " já tem um pagamento em andamento.");
+        }
+    }
+}
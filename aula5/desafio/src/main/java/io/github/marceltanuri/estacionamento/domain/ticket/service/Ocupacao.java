@@ -0,0 +1,139 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo.TipoVeiculo;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Vagas ocupadas por tipo de veículo, mantidas em memória sem travas: um contador independente por tipo,
+ * alterado por compare-and-set, então cancelas de tipos diferentes não disputam o mesmo contador.
+ * <p>
+ * A vaga é reservada antes de gravar o ticket ({@link #reservar}) e a reserva só é aceita abaixo da capacidade,
+ * então emissões concorrentes não ultrapassam a capacidade. A reserva é depois confirmada ou cancelada, e a
+ * vaga é liberada quando o ticket é finalizado.
+ * <p>
+ * Tipos sem capacidade configurada não têm limite. Veículos sem tipo não são contados.
+ */
+public class Ocupacao {
+
+    private final Map<TipoVeiculo, Contador> contadores = new EnumMap<>(TipoVeiculo.class);
+
+    public Ocupacao(Map<TipoVeiculo, Integer> capacidades) {
+        for (TipoVeiculo tipo : TipoVeiculo.values()) {
+            contadores.put(tipo, new Contador(capacidades.getOrDefault(tipo, Integer.MAX_VALUE)));
+        }
+    }
+
+    public static Ocupacao semLimite() {
+        return new Ocupacao(Map.of());
+    }
+
+    /**
+     * @return {@code false} se todas as vagas do tipo estiverem ocupadas ou reservadas
+     */
+    public boolean reservar(TipoVeiculo tipo) {
+        if (tipo == null) {
+            return true;
+        }
+        Contador contador = contadores.get(tipo);
+        // Contada antes da vaga: uma reconciliação no meio da reserva conta a vaga a mais, nunca a menos
+        contador.emAndamento.incrementAndGet();
+        while (true) {
+            int ocupadas = contador.ocupadas.get();
+            if (ocupadas >= contador.capacidade) {
+                contador.emAndamento.decrementAndGet();
+                return false;
+            }
+            if (contador.ocupadas.compareAndSet(ocupadas, ocupadas + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A reserva virou um ticket gravado.
+     */
+    public void confirmar(TipoVeiculo tipo) {
+        if (tipo == null) {
+            return;
+        }
+        Contador contador = contadores.get(tipo);
+        contador.alteracoes.incrementAndGet();
+        contador.emAndamento.decrementAndGet();
+    }
+
+    /**
+     * A reserva não foi usada, por exemplo porque a placa já tinha ticket ativo.
+     */
+    public void cancelar(TipoVeiculo tipo) {
+        if (tipo == null) {
+            return;
+        }
+        Contador contador = contadores.get(tipo);
+        decrementarOcupadas(contador);
+        contador.emAndamento.decrementAndGet();
+    }
+
+    /**
+     * O ticket foi finalizado e o veículo deixou a vaga.
+     */
+    public void liberar(TipoVeiculo tipo) {
+        if (tipo == null) {
+            return;
+        }
+        Contador contador = contadores.get(tipo);
+        contador.alteracoes.incrementAndGet();
+        decrementarOcupadas(contador);
+    }
+
+    public int ocupadas(TipoVeiculo tipo) {
+        return contadores.get(tipo).ocupadas.get();
+    }
+
+    public int capacidade(TipoVeiculo tipo) {
+        return contadores.get(tipo).capacidade;
+    }
+
+    /**
+     * Substitui os contadores pela contagem de tickets ativos do repositório, somada às reservas em andamento.
+     * Um tipo em que algum ticket foi confirmado ou liberado durante a contagem fica para a próxima reconciliação,
+     * pois a contagem pode ou não incluir essa alteração.
+     *
+     * @return a correção aplicada em cada tipo reconciliado (zero quando o contador já estava certo)
+     */
+    public Map<TipoVeiculo, Integer> reconciliar(Supplier<Map<TipoVeiculo, Long>> contarAtivos) {
+        Map<TipoVeiculo, Long> alteracoesAntes = new EnumMap<>(TipoVeiculo.class);
+        contadores.forEach((tipo, contador) -> alteracoesAntes.put(tipo, contador.alteracoes.get()));
+        Map<TipoVeiculo, Long> ativos = contarAtivos.get();
+
+        Map<TipoVeiculo, Integer> correcoes = new EnumMap<>(TipoVeiculo.class);
+        contadores.forEach((tipo, contador) -> {
+            if (contador.alteracoes.get() != alteracoesAntes.get(tipo)) {
+                return;
+            }
+            int reconciliadas = (int) (ativos.getOrDefault(tipo, 0L) + contador.emAndamento.get());
+            int anteriores = contador.ocupadas.getAndSet(reconciliadas);
+            correcoes.put(tipo, reconciliadas - anteriores);
+        });
+        return correcoes;
+    }
+
+    private static void decrementarOcupadas(Contador contador) {
+        contador.ocupadas.getAndUpdate(ocupadas -> Math.max(0, ocupadas - 1));
+    }
+
+    private static final class Contador {
+        private final int capacidade;
+        private final AtomicInteger ocupadas = new AtomicInteger();
+        private final AtomicInteger emAndamento = new AtomicInteger();
+        private final AtomicLong alteracoes = new AtomicLong();
+
+        private Contador(int capacidade) {
+            this.capacidade = capacidade;
+        }
+    }
+}
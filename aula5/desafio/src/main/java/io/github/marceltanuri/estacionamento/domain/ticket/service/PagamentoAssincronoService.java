@@ -0,0 +1,173 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pagamento em duas etapas: {@link #solicitar(Ticket)} apenas registra a intenção na caixa de saída e
+ * retorna; {@link #processar(IntencaoPagamento)}, chamado por um worker, envia à operadora com tempo limite
+ * e, confirmado o pagamento, move o ticket para PAGO. Falhas são reagendadas conforme a {@link PoliticaDeReenvio}.
+ * Um pagamento aprovado para um ticket que deixou de estar pendente nesse meio-tempo é estornado.
+ */
+public class PagamentoAssincronoService {
+
+    private static final int MAX_CONFLITOS_NA_CONFIRMACAO = 3;
+
+    private final OperadoraPagamento operadora;
+    private final CalculadoraDePreco calculadoraDePreco;
+    private final TicketRepository ticketRepository;
+    private final IntencaoPagamentoRepository intencaoPagamentoRepository;
+    private final Clock clock;
+    private final ExecutorService chamadasOperadora;
+    private final PoliticaDeReenvio politica;
+    private final AgendaDeExpiracoes agendaDeExpiracoes;
+
+    public PagamentoAssincronoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco,
+                                      TicketRepository ticketRepository, IntencaoPagamentoRepository intencaoPagamentoRepository,
+                                      Clock clock, ExecutorService chamadasOperadora, PoliticaDeReenvio politica) {
+        this(operadora, calculadoraDePreco, ticketRepository, intencaoPagamentoRepository, clock, chamadasOperadora, politica,
+                AgendaDeExpiracoes.nenhuma());
+    }
+
+    public PagamentoAssincronoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco,
+                                      TicketRepository ticketRepository, IntencaoPagamentoRepository intencaoPagamentoRepository,
+                                      Clock clock, ExecutorService chamadasOperadora, PoliticaDeReenvio politica,
+                                      AgendaDeExpiracoes agendaDeExpiracoes) {
+        this.operadora = operadora;
+        this.calculadoraDePreco = calculadoraDePreco;
+        this.ticketRepository = ticketRepository;
+        this.intencaoPagamentoRepository = intencaoPagamentoRepository;
+        this.clock = clock;
+        this.chamadasOperadora = chamadasOperadora;
+        this.politica = politica;
+        this.agendaDeExpiracoes = agendaDeExpiracoes;
+    }
+
+    /**
+     * Registra a intenção de pagamento do ticket. Se ele já tiver uma intenção aberta ou confirmada, ela é
+     * retornada, de modo que repetir a solicitação não gera uma segunda cobrança.
+     */
+    public IntencaoPagamento solicitar(Ticket ticket) {
+        Optional<IntencaoPagamento> vigente = intencaoPagamentoRepository.findVigentePorTicket(ticket.getId());
+        if (vigente.isPresent()) {
+            return vigente.get();
+        }
+        if (ticket.getStatus() != Status.PENDENTE) {
+            throw new IllegalStateException("Ticket com status " + ticket.getStatus() + " não pode ser pago.");
+        }
+        LocalDateTime agora = LocalDateTime.now(clock);
+        IntencaoPagamento intencao = IntencaoPagamento.nova(ticket.getId(), calculadoraDePreco.calcular(ticket, agora), agora);
+        return intencaoPagamentoRepository.registrar(intencao, ticket);
+    }
+
+    public Optional<IntencaoPagamento> consultar(String id) {
+        return intencaoPagamentoRepository.findById(id);
+    }
+
+    /**
+     * Reserva as intenções prontas para envio pelo tempo de uma chamada mais uma margem igual;
+     * se o worker morrer no meio do envio, a intenção volta a ser elegível depois disso.
+     */
+    public List<IntencaoPagamento> reservarParaEnvio(int limite) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        return intencaoPagamentoRepository.reservarProntas(agora, agora.plus(politica.timeout().multipliedBy(2)), limite);
+    }
+
+    public void processar(IntencaoPagamento intencao) {
+        Ticket ticket = buscarTicket(intencao);
+        if (ticket.getStatus() != Status.PENDENTE) {
+            intencao.falhar("Ticket com status " + ticket.getStatus() + " não pode ser pago.");
+            intencaoPagamentoRepository.atualizar(intencao);
+            return;
+        }
+
+        Future<?> chamada;
+        try {
+            chamada = chamadasOperadora.submit(() -> operadora.pagar(intencao.getValor(), intencao.getId()));
+        } catch (RejectedExecutionException e) {
+            registrarFalha(intencao, "Limite de chamadas simultâneas à operadora atingido.");
+            return;
+        }
+        try {
+            chamada.get(politica.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            chamada.cancel(true);
+            registrarFalha(intencao, "Operadora não respondeu em " + politica.timeout().toMillis() + " ms.");
+            return;
+        } catch (ExecutionException e) {
+            registrarFalha(intencao, e.getCause().getMessage());
+            return;
+        } catch (InterruptedException e) {
+            // A reserva expira e a intenção é reenviada com a mesma chave de idempotência
+            chamada.cancel(true);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        confirmar(intencao);
+    }
+
+    private void confirmar(IntencaoPagamento intencao) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        for (int tentativa = 1; ; tentativa++) {
+            Ticket ticket = buscarTicket(intencao);
+            if (ticket.getStatus() != Status.PENDENTE) {
+                intencao.falhar(estornar(intencao, ticket));
+                break;
+            }
+            ticket.pagar(agora);
+            try {
+                ticketRepository.save(ticket);
+                agendaDeExpiracoes.agendar(ticket);
+                intencao.confirmar(agora);
+                break;
+            } catch (TicketAlteradoConcorrentementeException e) {
+                if (tentativa == MAX_CONFLITOS_NA_CONFIRMACAO) {
+                    throw e;
+                }
+            }
+        }
+        intencaoPagamentoRepository.atualizar(intencao);
+    }
+
+    // Ticket isento ou liberado enquanto a cobrança estava na operadora: devolve o valor já cobrado, como no pagamento síncrono
+    private String estornar(IntencaoPagamento intencao, Ticket ticket) {
+        String motivo = "Pagamento aprovado pela operadora, mas o ticket está com status " + ticket.getStatus() + ".";
+        try {
+            operadora.estornar(intencao.getValor());
+            return motivo + " Valor estornado.";
+        } catch (RuntimeException e) {
+            return motivo + " Falha no estorno (" + e.getMessage() + "). Necessária conciliação.";
+        }
+    }
+
+    private void registrarFalha(IntencaoPagamento intencao, String motivo) {
+        if (intencao.getTentativas() + 1 >= politica.maxTentativas()) {
+            intencao.falhar(motivo);
+        } else {
+            intencao.reagendar(motivo, LocalDateTime.now(clock).plus(politica.esperaApos(intencao.getTentativas() + 1)));
+        }
+        intencaoPagamentoRepository.atualizar(intencao);
+    }
+
+    private Ticket buscarTicket(IntencaoPagamento intencao) {
+        return ticketRepository.findById(intencao.getTicketId())
+                .orElseThrow(() -> new IllegalStateException("Ticket " + intencao.getTicketId() + " não encontrado."));
+    }
+}
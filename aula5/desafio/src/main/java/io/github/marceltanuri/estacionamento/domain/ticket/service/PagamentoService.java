@@ -1,10 +1,14 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.exception.FalhaPagamentoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Clock;
 
@@ -14,23 +18,57 @@ public class PagamentoService {
     private final OperadoraPagamento operadora;
     private final CalculadoraDePreco calculadoraDePreco;
     private final TicketRepository ticketRepository;
+    private final IntencaoPagamentoRepository intencaoPagamentoRepository;
     private final Clock clock;
+    private final AgendaDeExpiracoes agendaDeExpiracoes;
 
 
-    public PagamentoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco, TicketRepository ticketRepository, Clock clock) {
+    public PagamentoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco, TicketRepository ticketRepository,
+                            IntencaoPagamentoRepository intencaoPagamentoRepository, Clock clock) {
+        this(operadora, calculadoraDePreco, ticketRepository, intencaoPagamentoRepository, clock, AgendaDeExpiracoes.nenhuma());
+    }
+
+    public PagamentoService(OperadoraPagamento operadora, CalculadoraDePreco calculadoraDePreco, TicketRepository ticketRepository,
+                            IntencaoPagamentoRepository intencaoPagamentoRepository, Clock clock, AgendaDeExpiracoes agendaDeExpiracoes) {
         this.operadora = operadora;
         this.calculadoraDePreco = calculadoraDePreco;
         this.ticketRepository = ticketRepository;
+        this.intencaoPagamentoRepository = intencaoPagamentoRepository;
         this.clock = clock;
+        this.agendaDeExpiracoes = agendaDeExpiracoes;
     }
 
+    /**
+     * Cobra e grava o pagamento. Se a transição não puder ser gravada depois da cobrança, por exemplo porque
+     * outra operação alterou o ticket, o valor é estornado antes de a falha ser propagada. Tickets com pagamento
+     * assíncrono aberto ou confirmado são recusados, pois a operadora poderia cobrá-los duas vezes.
+     */
     public void pagar(Ticket ticket) {
+        if (intencaoPagamentoRepository.findVigentePorTicket(ticket.getId()).isPresent()) {
+            throw new IllegalStateException("Ticket " + ticket.getId() + " já tem um pagamento em andamento.");
+        }
+        BigDecimal valor;
         try {
-            operadora.pagar(calculadoraDePreco.calcular(ticket, LocalDateTime.now(clock)));
-            ticket.pagar(LocalDateTime.now(clock));
-            ticketRepository.save(ticket);
+            valor = calculadoraDePreco.calcular(ticket, LocalDateTime.now(clock));
+            operadora.pagar(valor);
         } catch (Exception e) {
             throw new FalhaPagamentoException(e);
         }
+        try {
+            ticket.pagar(LocalDateTime.now(clock));
+            ticketRepository.save(ticket);
+        } catch (RuntimeException e) {
+            estornar(valor, e);
+            throw e instanceof TicketAlteradoConcorrentementeException ? e : new FalhaPagamentoException(e);
+        }
+        agendaDeExpiracoes.agendar(ticket);
+    }
+
+    private void estornar(BigDecimal valor, RuntimeException motivo) {
+        try {
+            operadora.estornar(valor);
+        } catch (RuntimeException falha) {
+            motivo.addSuppressed(falha);
+        }
     }
 }
\ No newline at end of file
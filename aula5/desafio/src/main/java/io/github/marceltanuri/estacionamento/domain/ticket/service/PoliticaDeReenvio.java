@@ -0,0 +1,32 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Como os pagamentos assíncronos são enviados à operadora: tempo limite por chamada,
+ * número máximo de tentativas e espera inicial entre elas, dobrada a cada nova falha.
+ */
+public record PoliticaDeReenvio(int maxTentativas, Duration timeout, Duration backoffInicial) {
+
+    public PoliticaDeReenvio {
+        Objects.requireNonNull(timeout, "O timeout não pode ser nulo.");
+        Objects.requireNonNull(backoffInicial, "O backoff não pode ser nulo.");
+        if (maxTentativas < 1) {
+            throw new IllegalArgumentException("O número máximo de tentativas deve ser positivo.");
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("O timeout deve ser positivo.");
+        }
+        if (backoffInicial.isNegative()) {
+            throw new IllegalArgumentException("O backoff não pode ser negativo.");
+        }
+    }
+
+    /**
+     * @param tentativasRealizadas tentativas já malsucedidas, incluindo a atual
+     */
+    public Duration esperaApos(int tentativasRealizadas) {
+        return backoffInicial.multipliedBy(1L << Math.min(tentativasRealizadas - 1, 20));
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+
+/**
+ * Resultado da emissão em lote para uma placa: o ticket emitido agora, o que já estava ativo, ou nenhum
+ * quando não havia vaga para o tipo do veículo.
+ */
+public record ResultadoEmissao(String placa, Situacao situacao, Ticket ticket) {
+
+    public enum Situacao {
+        EMITIDO, JA_ATIVO, LOTADO
+    }
+}
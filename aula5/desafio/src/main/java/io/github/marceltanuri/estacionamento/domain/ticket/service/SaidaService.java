@@ -1,8 +1,10 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
 
 
 import java.time.Duration;
@@ -12,58 +14,96 @@ import java.time.LocalTime;
 public class SaidaService {
 
     private static final int TOLERANCIA_MINUTOS = 15;
-    private static final int LIMITE_PERMANENCIA_POS_PAGAMENTO_MINUTOS = 15;
-    private static final int LIMITE_PERMANENCIA_POS_ISENCAO_MINUTOS = 120;
     private static final LocalTime HORARIO_DE_ABERTURA = LocalTime.of(8, 0);
     private static final LocalTime HORARIO_DE_FECHAMENTO = LocalTime.of(22, 0);
     private final TicketRepository ticketRepository;
     private final java.time.Clock clock;
+    private final Ocupacao ocupacao;
+    private final AlocadorDeVagas alocadorDeVagas;
+    private final AgendaDeExpiracoes agendaDeExpiracoes;
 
     public SaidaService(TicketRepository ticketRepository, java.time.Clock clock) {
+        this(ticketRepository, clock, Ocupacao.semLimite());
+    }
+
+    public SaidaService(TicketRepository ticketRepository, java.time.Clock clock, Ocupacao ocupacao) {
+        this(ticketRepository, clock, ocupacao, AlocadorDeVagas.semVagas());
+    }
+
+    public SaidaService(TicketRepository ticketRepository, java.time.Clock clock, Ocupacao ocupacao, AlocadorDeVagas alocadorDeVagas) {
+        this(ticketRepository, clock, ocupacao, alocadorDeVagas, AgendaDeExpiracoes.nenhuma());
+    }
+
+    public SaidaService(TicketRepository ticketRepository, java.time.Clock clock, Ocupacao ocupacao, AlocadorDeVagas alocadorDeVagas,
+                        AgendaDeExpiracoes agendaDeExpiracoes) {
         this.ticketRepository = ticketRepository;
         this.clock = clock;
+        this.ocupacao = ocupacao;
+        this.alocadorDeVagas = alocadorDeVagas;
+        this.agendaDeExpiracoes = agendaDeExpiracoes;
     }
 
+    /**
+     * Finaliza o ticket se a saída for liberada.
+     *
+     * @throws IllegalStateException com o motivo, se a saída for recusada
+     */
     public void processarSaida(Ticket ticket) {
+        DecisaoSaida decisao = registrarSaida(ticket);
+        if (!decisao.liberada()) {
+            throw new IllegalStateException(decisao.mensagem(ticket));
+        }
+    }
+
+    /**
+     * Decide a saída no horário atual e a aplica: finaliza o ticket liberado, ou grava a expiração de uma
+     * tolerância vencida. As demais recusas não alteram o ticket.
+     */
+    public DecisaoSaida registrarSaida(Ticket ticket) {
         LocalDateTime dataHoraSaida = LocalDateTime.now(clock);
+        DecisaoSaida decisao = decidir(ticket, dataHoraSaida);
+        if (decisao == DecisaoSaida.LIBERADA) {
+            ticket.finalizar(dataHoraSaida);
+            ticketRepository.save(ticket);
+            ocupacao.liberar(ticket.getVeiculo().getTipo());
+            alocadorDeVagas.liberar(ticket.getVeiculo().getTipo(), ticket.getVaga());
+            agendaDeExpiracoes.cancelar(ticket);
+        } else if (decisao == DecisaoSaida.TOLERANCIA_EXPIRADA) {
+            // Normalmente a AgendaDeExpiracoes já expirou o ticket; a verificação cobre o intervalo entre dois ticks dela
+            ticket.expirarToleranciaVencida(dataHoraSaida);
+            ticketRepository.save(ticket);
+            agendaDeExpiracoes.cancelar(ticket);
+        }
+        return decisao;
+    }
+
+    /**
+     * Decide a saída do ticket em {@code dataHoraSaida}, sem alterá-lo.
+     */
+    public static DecisaoSaida decidir(Ticket ticket, LocalDateTime dataHoraSaida) {
         if (dataHoraSaida.isBefore(ticket.getEntrada())) {
-            throw new IllegalStateException("Ticket não pode ser finalizado antes da entrada.");
+            return DecisaoSaida.ANTES_DA_ENTRADA;
         }
 
         if (dataHoraSaida.toLocalTime().isBefore(HORARIO_DE_ABERTURA) || dataHoraSaida.toLocalTime().isAfter(HORARIO_DE_FECHAMENTO)) {
             if (ticket.getStatus() != Status.ISENTO_FUNCIONARIO) {
-                throw new IllegalStateException("Ticket não pode ser finalizado fora do horário de funcionamento.");
-            }
-        }
-
-        if (ticket.getStatus() == Status.PAGO) {
-            long minutosAposPagamento = Duration.between(ticket.getPagamento(), dataHoraSaida).toMinutes();
-            if (minutosAposPagamento > LIMITE_PERMANENCIA_POS_PAGAMENTO_MINUTOS) {
-                ticket.expirarPagamento();
-                ticketRepository.save(ticket);
-                throw new IllegalStateException("Ticket não pode ser finalizado após o limite de tolerância. Necessário novo pagamento.");
+                return DecisaoSaida.FORA_DO_HORARIO;
             }
         }
 
-        if (ticket.getStatus() == Status.ISENTO) {
-            long minutosAposIsencao = Duration.between(ticket.getEntrada(), dataHoraSaida).toMinutes();
-            if (minutosAposIsencao > LIMITE_PERMANENCIA_POS_ISENCAO_MINUTOS) {
-                ticket.expirarIsencao();
-                ticketRepository.save(ticket);
-                throw new IllegalStateException("Ticket não pode ser finalizado após o limite de tolerância. Necessário novo pagamento.");
-            }
+        LocalDateTime fimDaTolerancia = ticket.fimDaTolerancia();
+        if (fimDaTolerancia != null && !dataHoraSaida.isBefore(fimDaTolerancia)) {
+            return DecisaoSaida.TOLERANCIA_EXPIRADA;
         }
 
         if (isPeriodoTolerancia(ticket, dataHoraSaida) || ticket.getStatus() == Status.ISENTO || ticket.getStatus() == Status.ISENTO_FUNCIONARIO || ticket.getStatus() == Status.PAGO) {
-            ticket.finalizar(dataHoraSaida);
-            ticketRepository.save(ticket);
-            return;
+            return DecisaoSaida.LIBERADA;
         }
 
-        throw new IllegalStateException("Ticket com status " + ticket.getStatus() + " não pode ser finalizado.");
+        return DecisaoSaida.STATUS_NAO_LIBERA;
     }
 
-    private boolean isPeriodoTolerancia(Ticket ticket, LocalDateTime dataHoraSaida) {
+    private static boolean isPeriodoTolerancia(Ticket ticket, LocalDateTime dataHoraSaida) {
         long minutosEstacionado = Duration.between(ticket.getEntrada(), dataHoraSaida).toMinutes();
         return minutosEstacionado < TOLERANCIA_MINUTOS && ticket.getStatus() == Status.PENDENTE;
     }
@@ -0,0 +1,107 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+/**
+ * Tabela de preços pré-calculada de um tipo de veículo, em centavos.
+ * <p>
+ * O preço de cada quantidade de horas cobradas é calculado uma única vez na criação da tabela,
+ * até a hora em que a diária passa a valer. A partir daí o preço é constante (com diária)
+ * ou cresce linearmente pela tarifa adicional (sem diária).
+ */
+public final class TabelaDePreco {
+
+    private static final int HORAS_TABELADAS_SEM_DIARIA = 24;
+    private static final int SEGUNDOS_POR_MINUTO = 60;
+    private static final int MINUTOS_POR_HORA = 60;
+
+    private final long[] precoPorHora;
+    private final long tarifaAdicionalCentavos;
+    private final boolean limitadaPelaDiaria;
+    private final int toleranciaMinutos;
+
+    private TabelaDePreco(long[] precoPorHora, long tarifaAdicionalCentavos, boolean limitadaPelaDiaria, int toleranciaMinutos) {
+        this.precoPorHora = precoPorHora;
+        this.tarifaAdicionalCentavos = tarifaAdicionalCentavos;
+        this.limitadaPelaDiaria = limitadaPelaDiaria;
+        this.toleranciaMinutos = toleranciaMinutos;
+    }
+
+    public static TabelaDePreco compilar(Tarifa tarifa) {
+        int horasBase = tarifa.horasBase();
+        long tarifaBase = tarifa.tarifaBaseHoraEmCentavos();
+        long tarifaAdicional = tarifa.tarifaAdicionalHoraEmCentavos();
+        boolean comDiaria = tarifa.possuiDiaria();
+        long diaria = comDiaria ? tarifa.diariaEmCentavos() : 0;
+
+        int ultimaHora = comDiaria ? horaEmQueDiariaPassaAValer(horasBase, tarifaBase, tarifaAdicional, diaria)
+                : Math.max(horasBase, HORAS_TABELADAS_SEM_DIARIA);
+
+        long[] precoPorHora = new long[ultimaHora + 1];
+        for (int horas = 1; horas <= ultimaHora; horas++) {
+            long preco = precoLinear(horas, horasBase, tarifaBase, tarifaAdicional);
+            precoPorHora[horas] = comDiaria ? Math.min(preco, diaria) : preco;
+        }
+        return new TabelaDePreco(precoPorHora, tarifaAdicional, comDiaria, tarifa.toleranciaMinutos());
+    }
+
+    /**
+     * Preço em centavos para uma permanência em segundos: minutos completos dentro da tolerância
+     * não são cobrados; acima dela, as horas são arredondadas para cima com mínimo de uma hora.
+     */
+    public long precoDaPermanenciaEmCentavos(long segundosDePermanencia) {
+        long minutos = segundosDePermanencia / SEGUNDOS_POR_MINUTO;
+        if (toleranciaMinutos > 0 && minutos < toleranciaMinutos) {
+            return 0;
+        }
+        return precoEmCentavos(horasCobradas(minutos));
+    }
+
+    /**
+     * Permanência, em segundos, a partir da qual o preço de {@code segundosDePermanencia} pode mudar: o fim da
+     * tolerância ou o fim da hora cobrada. O preço é o mesmo durante todo o intervalo.
+     */
+    public long fimDoPrecoEmSegundos(long segundosDePermanencia) {
+        long minutos = segundosDePermanencia / SEGUNDOS_POR_MINUTO;
+        if (toleranciaMinutos > 0 && minutos < toleranciaMinutos) {
+            return (long) toleranciaMinutos * SEGUNDOS_POR_MINUTO;
+        }
+        // A hora cobrada inclui o seu último minuto completo, então o preço muda um minuto depois da hora cheia
+        return (horasCobradas(minutos) * MINUTOS_POR_HORA + 1) * SEGUNDOS_POR_MINUTO;
+    }
+
+    /**
+     * Preço em centavos para a quantidade de horas cobradas (mínimo de uma hora).
+     */
+    public long precoEmCentavos(long horas) {
+        int ultimaHora = precoPorHora.length - 1;
+        if (horas <= ultimaHora) {
+            return precoPorHora[(int) horas];
+        }
+        if (limitadaPelaDiaria) {
+            return precoPorHora[ultimaHora];
+        }
+        return precoPorHora[ultimaHora] + (horas - ultimaHora) * tarifaAdicionalCentavos;
+    }
+
+    static long horasCobradas(long minutos) {
+        if (minutos <= 0) {
+            return 1;
+        }
+        return (minutos + MINUTOS_POR_HORA - 1) / MINUTOS_POR_HORA;
+    }
+
+    private static long precoLinear(long horas, int horasBase, long tarifaBaseCentavos, long tarifaAdicionalCentavos) {
+        if (horas <= horasBase) {
+            return tarifaBaseCentavos * horas;
+        }
+        return tarifaBaseCentavos * horasBase + tarifaAdicionalCentavos * (horas - horasBase);
+    }
+
+    private static int horaEmQueDiariaPassaAValer(int horasBase, long tarifaBaseCentavos, long tarifaAdicionalCentavos, long diariaCentavos) {
+        int horas = 1;
+        while (precoLinear(horas, horasBase, tarifaBaseCentavos, tarifaAdicionalCentavos) < diariaCentavos
+                && (horas < horasBase || tarifaAdicionalCentavos > 0)) {
+            horas++;
+        }
+        return horas;
+    }
+}
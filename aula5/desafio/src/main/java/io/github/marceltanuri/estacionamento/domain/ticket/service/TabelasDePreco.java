@@ -0,0 +1,47 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.exception.DadoInvalidoException;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Conjunto imutável das tabelas de preço de todos os tipos de veículo, compilado a partir das tarifas.
+ * Exige uma tarifa para cada {@link Veiculo.TipoVeiculo}, para que nenhum tipo fique sem cobrança.
+ */
+public final class TabelasDePreco {
+
+    private final TabelaDePreco[] tabelas;
+    private final Map<Veiculo.TipoVeiculo, Tarifa> tarifas;
+
+    private TabelasDePreco(TabelaDePreco[] tabelas, Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+        this.tabelas = tabelas;
+        this.tarifas = tarifas;
+    }
+
+    public static TabelasDePreco compilar(Map<Veiculo.TipoVeiculo, Tarifa> tarifas) {
+        if (tarifas == null) {
+            throw new DadoInvalidoException("As tarifas não podem ser nulas.");
+        }
+        Veiculo.TipoVeiculo[] tipos = Veiculo.TipoVeiculo.values();
+        TabelaDePreco[] tabelas = new TabelaDePreco[tipos.length];
+        for (Veiculo.TipoVeiculo tipo : tipos) {
+            Tarifa tarifa = tarifas.get(tipo);
+            if (tarifa == null) {
+                throw new DadoInvalidoException("Tarifa não configurada para " + tipo + ".");
+            }
+            tabelas[tipo.ordinal()] = TabelaDePreco.compilar(tarifa);
+        }
+        return new TabelasDePreco(tabelas, Collections.unmodifiableMap(new EnumMap<>(tarifas)));
+    }
+
+    public TabelaDePreco tabela(Veiculo.TipoVeiculo tipo) {
+        return tabelas[tipo.ordinal()];
+    }
+
+    public Map<Veiculo.TipoVeiculo, Tarifa> getTarifas() {
+        return tarifas;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.exception.DadoInvalidoException;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Tabela de tarifas de um tipo de veículo.
+ *
+ * @param horasBase           quantidade de horas cobradas pela tarifa base
+ * @param tarifaBaseHora      valor de cada hora base
+ * @param tarifaAdicionalHora valor de cada hora além das horas base
+ * @param diaria              valor máximo cobrado pela permanência, ou {@code null} quando não há diária
+ * @param toleranciaMinutos   permanência, em minutos, que não é cobrada
+ */
+public record Tarifa(int horasBase, BigDecimal tarifaBaseHora, BigDecimal tarifaAdicionalHora, BigDecimal diaria,
+                     int toleranciaMinutos) {
+
+    public Tarifa {
+        Objects.requireNonNull(tarifaBaseHora, "A tarifa base não pode ser nula.");
+        Objects.requireNonNull(tarifaAdicionalHora, "A tarifa adicional não pode ser nula.");
+        if (horasBase < 0) {
+            throw new DadoInvalidoException("As horas base não podem ser negativas.");
+        }
+        if (toleranciaMinutos < 0) {
+            throw new DadoInvalidoException("A tolerância não pode ser negativa.");
+        }
+        validarValor(tarifaBaseHora, "tarifa base");
+        validarValor(tarifaAdicionalHora, "tarifa adicional");
+        if (diaria != null) {
+            validarValor(diaria, "diária");
+        }
+    }
+
+    public long tarifaBaseHoraEmCentavos() {
+        return emCentavos(tarifaBaseHora);
+    }
+
+    public long tarifaAdicionalHoraEmCentavos() {
+        return emCentavos(tarifaAdicionalHora);
+    }
+
+    public boolean possuiDiaria() {
+        return diaria != null;
+    }
+
+    public long diariaEmCentavos() {
+        return emCentavos(diaria);
+    }
+
+    private static void validarValor(BigDecimal valor, String descricao) {
+        if (valor.signum() < 0) {
+            throw new DadoInvalidoException("O valor da " + descricao + " não pode ser negativo.");
+        }
+        if (valor.stripTrailingZeros().scale() > 2) {
+            throw new DadoInvalidoException("O valor da " + descricao + " deve ter no máximo duas casas decimais.");
+        }
+    }
+
+    private static long emCentavos(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+}
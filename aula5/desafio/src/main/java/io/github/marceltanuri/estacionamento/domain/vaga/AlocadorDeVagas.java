@@ -0,0 +1,81 @@
+package io.github.marceltanuri.estacionamento.domain.vaga;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo.TipoVeiculo;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vagas físicas por nível e tipo de veículo. Cada tipo tem uma {@link ZonaDeVagas} por nível, e a alocação
+ * percorre os níveis a partir do térreo (nível 1), ficando com a vaga livre mais próxima da cancela.
+ * <p>
+ * O alocador só guarda quais vagas estão livres; a vaga de cada ticket é gravada com o ticket, e as vagas dos
+ * tickets ativos são marcadas de novo na inicialização com {@link #marcarOcupada}.
+ */
+public class AlocadorDeVagas {
+
+    private final Map<TipoVeiculo, ZonaDeVagas[]> zonasPorTipo = new EnumMap<>(TipoVeiculo.class);
+
+    /**
+     * @param vagasPorNivel para cada tipo, a quantidade de vagas em cada nível, do nível 1 em diante;
+     *                      tipos ausentes não recebem vaga
+     */
+    public AlocadorDeVagas(Map<TipoVeiculo, List<Integer>> vagasPorNivel) {
+        vagasPorNivel.forEach((tipo, niveis) -> zonasPorTipo.put(tipo,
+                niveis.stream().map(ZonaDeVagas::new).toArray(ZonaDeVagas[]::new)));
+    }
+
+    public static AlocadorDeVagas semVagas() {
+        return new AlocadorDeVagas(Map.of());
+    }
+
+    /**
+     * @return a vaga livre mais próxima da cancela, ou vazio se não houver vaga livre do tipo
+     */
+    public Optional<Vaga> alocar(TipoVeiculo tipo) {
+        ZonaDeVagas[] zonas = tipo == null ? null : zonasPorTipo.get(tipo);
+        if (zonas == null) {
+            return Optional.empty();
+        }
+        for (int nivel = 0; nivel < zonas.length; nivel++) {
+            int indice = zonas[nivel].ocupar();
+            if (indice >= 0) {
+                return Optional.of(new Vaga(nivel + 1, indice + 1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void liberar(TipoVeiculo tipo, Vaga vaga) {
+        ZonaDeVagas zona = zona(tipo, vaga);
+        if (zona != null) {
+            zona.liberar(vaga.numero() - 1);
+        }
+    }
+
+    /**
+     * @return {@code false} se a vaga não existir no mapa atual ou já estiver ocupada
+     */
+    public boolean marcarOcupada(TipoVeiculo tipo, Vaga vaga) {
+        ZonaDeVagas zona = zona(tipo, vaga);
+        return zona != null && zona.ocupar(vaga.numero() - 1);
+    }
+
+    public int livres(TipoVeiculo tipo) {
+        int livres = 0;
+        for (ZonaDeVagas zona : zonasPorTipo.getOrDefault(tipo, new ZonaDeVagas[0])) {
+            livres += zona.livres();
+        }
+        return livres;
+    }
+
+    private ZonaDeVagas zona(TipoVeiculo tipo, Vaga vaga) {
+        ZonaDeVagas[] zonas = tipo == null || vaga == null ? null : zonasPorTipo.get(tipo);
+        if (zonas == null || vaga.nivel() > zonas.length) {
+            return null;
+        }
+        return zonas[vaga.nivel() - 1];
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.marceltanuri.estacionamento.domain.vaga;
+
+/**
+ * Vaga física de um tipo de veículo: o nível e o número da vaga no nível, ambos a partir de 1.
+ * Números menores ficam mais perto da cancela.
+ */
+public record Vaga(int nivel, int numero) {
+
+    public Vaga {
+        if (nivel < 1 || numero < 1) {
+            throw new IllegalArgumentException("Vaga inválida: nível " + nivel + ", número " + numero + ".");
+        }
+    }
+}
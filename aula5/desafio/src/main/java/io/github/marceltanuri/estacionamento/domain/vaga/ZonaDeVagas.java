@@ -0,0 +1,87 @@
+package io.github.marceltanuri.estacionamento.domain.vaga;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Vagas de um tipo de veículo em um nível, em um mapa de bits com uma palavra atômica para cada 64 vagas
+ * (bit ligado = vaga ocupada). A vaga ocupada é sempre a livre de menor número, e ocupar ou liberar é um
+ * compare-and-set na palavra da vaga, sem travas.
+ */
+final class ZonaDeVagas {
+
+    private static final int BITS_POR_PALAVRA = Long.SIZE;
+    private static final long CHEIA = -1L;
+
+    private final int vagas;
+    private final AtomicLongArray palavras;
+
+    ZonaDeVagas(int vagas) {
+        if (vagas < 0) {
+            throw new IllegalArgumentException("Quantidade de vagas inválida: " + vagas);
+        }
+        this.vagas = vagas;
+        this.palavras = new AtomicLongArray((vagas + BITS_POR_PALAVRA - 1) / BITS_POR_PALAVRA);
+        int sobra = vagas % BITS_POR_PALAVRA;
+        if (sobra != 0) {
+            // Os bits além da última vaga ficam ocupados para sempre
+            palavras.set(palavras.length() - 1, CHEIA << sobra);
+        }
+    }
+
+    /**
+     * @return o índice (a partir de 0) da vaga ocupada agora, ou -1 se a zona estiver cheia
+     */
+    int ocupar() {
+        for (int i = 0; i < palavras.length(); i++) {
+            long palavra = palavras.get(i);
+            while (palavra != CHEIA) {
+                int bit = Long.numberOfTrailingZeros(~palavra);
+                long ocupada = palavra | (1L << bit);
+                long atual = palavras.compareAndExchange(i, palavra, ocupada);
+                if (atual == palavra) {
+                    return i * BITS_POR_PALAVRA + bit;
+                }
+                palavra = atual;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marca uma vaga específica como ocupada, como na recuperação das vagas dos tickets ativos.
+     *
+     * @return {@code false} se a vaga não existir na zona ou já estiver ocupada
+     */
+    boolean ocupar(int indice) {
+        if (indice < 0 || indice >= vagas) {
+            return false;
+        }
+        long bit = 1L << (indice % BITS_POR_PALAVRA);
+        long anterior = palavras.getAndUpdate(indice / BITS_POR_PALAVRA, palavra -> palavra | bit);
+        return (anterior & bit) == 0;
+    }
+
+    /**
+     * @return {@code false} se a vaga não existir na zona ou já estiver livre
+     */
+    boolean liberar(int indice) {
+        if (indice < 0 || indice >= vagas) {
+            return false;
+        }
+        long bit = 1L << (indice % BITS_POR_PALAVRA);
+        long anterior = palavras.getAndUpdate(indice / BITS_POR_PALAVRA, palavra -> palavra & ~bit);
+        return (anterior & bit) != 0;
+    }
+
+    int livres() {
+        int ocupadas = 0;
+        for (int i = 0; i < palavras.length(); i++) {
+            ocupadas += Long.bitCount(palavras.get(i));
+        }
+        return palavras.length() * BITS_POR_PALAVRA - ocupadas;
+    }
+
+    int vagas() {
+        return vagas;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+/**
+ * Distância de edição entre placas ponderada pelos erros de leitura das câmeras: trocar um símbolo pelo outro de
+ * um par confundível ({@code O/0}, {@code I/1}, {@code B/8}) custa {@value #CUSTO_CONFUSAO}; qualquer outra troca,
+ * inserção ou remoção custa {@value #CUSTO_EDICAO}.
+ * <p>
+ * Usada pelo {@link IndiceDePlacasAproximadas} para confirmar as placas que passam pelo filtro de bigramas.
+ */
+public final class DistanciaDePlacas {
+
+    public static final int CUSTO_CONFUSAO = 1;
+    public static final int CUSTO_EDICAO = 2;
+
+    private DistanciaDePlacas() {
+    }
+
+    public static int calcular(CharSequence a, CharSequence b) {
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j * CUSTO_EDICAO;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i * CUSTO_EDICAO;
+            char simbolo = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int troca = anterior[j - 1] + custoDaTroca(simbolo, b.charAt(j - 1));
+                int remocao = anterior[j] + CUSTO_EDICAO;
+                int insercao = atual[j - 1] + CUSTO_EDICAO;
+                atual[j] = Math.min(troca, Math.min(remocao, insercao));
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return anterior[b.length()];
+    }
+
+    static int custoDaTroca(char a, char b) {
+        if (a == b) {
+            return 0;
+        }
+        return confundiveis(a, b) || confundiveis(b, a) ? CUSTO_CONFUSAO : CUSTO_EDICAO;
+    }
+
+    private static boolean confundiveis(char letra, char digito) {
+        return (letra == 'O' && digito == '0') || (letra == 'I' && digito == '1') || (letra == 'B' && digito == '8');
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Índice das placas para encontrar as próximas de uma leitura da câmera pela {@link DistanciaDePlacas}.
+ * <p>
+ * Cada placa é indexada pelos seus pares de símbolos consecutivos (bigramas) depois de trocar O, I e B por 0, 1 e 8,
+ * então as confusões da câmera não alteram os bigramas. Uma placa a até {@code distanciaMaxima} da leitura difere
+ * dela em no máximo {@code distanciaMaxima / 2} edições além das confusões, e cada edição altera no máximo dois
+ * bigramas: só as placas que compartilham bigramas suficientes com a leitura têm a distância calculada.
+ * <p>
+ * Buscas concorrentes entre si; alterações exclusivas.
+ */
+public class IndiceDePlacasAproximadas {
+
+    private static final Comparator<Candidata> MAIS_PROXIMA = Comparator.comparingInt(Candidata::distancia)
+            .thenComparing(Candidata::placa);
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<String, Integer> posicoes = new HashMap<>();
+    private final List<String> placas = new ArrayList<>();
+    private final Deque<Integer> livres = new ArrayDeque<>();
+    private final Map<Integer, Posicoes> posicoesPorBigrama = new HashMap<>();
+
+    public void adicionar(String placa) {
+        trava.writeLock().lock();
+        try {
+            if (!posicoes.containsKey(placa)) {
+                inserir(placa);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(String placa) {
+        trava.writeLock().lock();
+        try {
+            Integer posicao = posicoes.remove(placa);
+            if (posicao == null) {
+                return;
+            }
+            for (int bigrama : bigramas(placa)) {
+                Posicoes doBigrama = posicoesPorBigrama.get(bigrama);
+                doBigrama.remover(posicao);
+                if (doBigrama.tamanho == 0) {
+                    posicoesPorBigrama.remove(bigrama);
+                }
+            }
+            placas.set(posicao, null);
+            livres.push(posicao);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui todas as placas do índice.
+     */
+    public void reconstruir(Collection<String> novas) {
+        trava.writeLock().lock();
+        try {
+            posicoes.clear();
+            placas.clear();
+            livres.clear();
+            posicoesPorBigrama.clear();
+            novas.stream().distinct().forEach(this::inserir);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return as placas a até {@code distanciaMaxima} de {@code placa}, da mais próxima à mais distante
+     * (empates em ordem alfabética), no máximo {@code limite}
+     */
+    public List<Candidata> buscar(String placa, int distanciaMaxima, int limite) {
+        return buscar(placa, distanciaMaxima, limite, indexada -> true);
+    }
+
+    /**
+     * Como {@link #buscar(String, int, int)}, considerando só as placas aceitas por {@code aceita}: o limite vale
+     * para as aceitas, então placas descartadas por quem consulta não tomam o lugar das demais.
+     */
+    public List<Candidata> buscar(String placa, int distanciaMaxima, int limite, Predicate<String> aceita) {
+        List<Candidata> candidatas = new ArrayList<>();
+        trava.readLock().lock();
+        try {
+            int[] daLeitura = bigramas(placa);
+            int minimoCompartilhado = daLeitura.length - 2 * (distanciaMaxima / DistanciaDePlacas.CUSTO_EDICAO);
+            if (minimoCompartilhado <= 0) {
+                for (String indexada : posicoes.keySet()) {
+                    adicionarSeProxima(candidatas, placa, indexada, distanciaMaxima, aceita);
+                }
+            } else {
+                // Cada busca conta no seu próprio vetor, já que as buscas correm em paralelo
+                int[] compartilhados = new int[placas.size()];
+                for (int bigrama : daLeitura) {
+                    Posicoes doBigrama = posicoesPorBigrama.get(bigrama);
+                    for (int i = 0; doBigrama != null && i < doBigrama.tamanho; i++) {
+                        int posicao = doBigrama.posicoes[i];
+                        if (++compartilhados[posicao] == minimoCompartilhado) {
+                            adicionarSeProxima(candidatas, placa, placas.get(posicao), distanciaMaxima, aceita);
+                        }
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        candidatas.sort(MAIS_PROXIMA);
+        return candidatas.size() > limite ? new ArrayList<>(candidatas.subList(0, limite)) : candidatas;
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return posicoes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public record Candidata(String placa, int distancia) {
+    }
+
+    private void inserir(String placa) {
+        int posicao;
+        if (livres.isEmpty()) {
+            posicao = placas.size();
+            placas.add(placa);
+        } else {
+            posicao = livres.pop();
+            placas.set(posicao, placa);
+        }
+        posicoes.put(placa, posicao);
+        for (int bigrama : bigramas(placa)) {
+            posicoesPorBigrama.computeIfAbsent(bigrama, b -> new Posicoes()).adicionar(posicao);
+        }
+    }
+
+    private static void adicionarSeProxima(List<Candidata> candidatas, String leitura, String placa, int distanciaMaxima,
+                                           Predicate<String> aceita) {
+        if (!aceita.test(placa)) {
+            return;
+        }
+        int distancia = DistanciaDePlacas.calcular(leitura, placa);
+        if (distancia <= distanciaMaxima) {
+            candidatas.add(new Candidata(placa, distancia));
+        }
+    }
+
+    private static int[] bigramas(String placa) {
+        int[] bigramas = new int[Math.max(0, placa.length() - 1)];
+        for (int i = 0; i < bigramas.length; i++) {
+            bigramas[i] = dobrar(placa.charAt(i)) << 16 | dobrar(placa.charAt(i + 1));
+        }
+        return bigramas;
+    }
+
+    // Símbolos que a câmera confunde passam a ser o mesmo símbolo
+    private static char dobrar(char simbolo) {
+        return switch (simbolo) {
+            case 'O' -> '0';
+            case 'I' -> '1';
+            case 'B' -> '8';
+            default -> simbolo;
+        };
+    }
+
+    private static final class Posicoes {
+        private int[] posicoes = new int[4];
+        private int tamanho;
+
+        private void adicionar(int posicao) {
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+
+        // Remove uma ocorrência; a ordem das posições não importa
+        private void remover(int posicao) {
+            for (int i = 0; i < tamanho; i++) {
+                if (posicoes[i] == posicao) {
+                    posicoes[i] = posicoes[--tamanho];
+                    return;
+                }
+            }
+        }
+    }
+}
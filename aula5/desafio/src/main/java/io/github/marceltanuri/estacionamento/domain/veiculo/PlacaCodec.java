@@ -0,0 +1,80 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+/**
+ * Converte placas do padrão Mercosul ({@code LLLNXNN}: três letras, um dígito, uma letra ou dígito e dois dígitos)
+ * em um código numérico e de volta, validando na mesma passada e sem alocar.
+ * <p>
+ * O código é um número em base mista (26, 26, 26, 10, 36, 10, 10), então ocupa de 0 a {@value #MAXIMO} e
+ * preserva a ordem alfabética das placas. A quinta posição usa os dígitos antes das letras, de modo que
+ * placas do padrão antigo ({@code ABC1234}) e suas versões Mercosul ({@code ABC1C34}) têm códigos distintos.
+ */
+public final class PlacaCodec {
+
+    public static final int TAMANHO = 7;
+    public static final long INVALIDA = -1;
+    public static final long MAXIMO = 26L * 26 * 26 * 10 * 36 * 10 * 10 - 1;
+
+    private PlacaCodec() {
+    }
+
+    /**
+     * @return o código da placa, ou {@link #INVALIDA} se ela não seguir o padrão Mercosul
+     */
+    public static long codificar(CharSequence placa) {
+        if (placa == null || placa.length() != TAMANHO) {
+            return INVALIDA;
+        }
+        long codigo = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            int valor = valor(i, placa.charAt(i));
+            if (valor < 0) {
+                return INVALIDA;
+            }
+            codigo = codigo * base(i) + valor;
+        }
+        return codigo;
+    }
+
+    public static boolean valida(CharSequence placa) {
+        return codificar(placa) != INVALIDA;
+    }
+
+    public static String decodificar(long codigo) {
+        if (codigo < 0 || codigo > MAXIMO) {
+            throw new IllegalArgumentException("Código de placa inválido: " + codigo);
+        }
+        char[] placa = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            int base = base(i);
+            placa[i] = simbolo(i, (int) (codigo % base));
+            codigo /= base;
+        }
+        return new String(placa);
+    }
+
+    private static int base(int posicao) {
+        return switch (posicao) {
+            case 0, 1, 2 -> 26;
+            case 4 -> 36;
+            default -> 10;
+        };
+    }
+
+    private static int valor(int posicao, char simbolo) {
+        boolean letra = simbolo >= 'A' && simbolo <= 'Z';
+        boolean digito = simbolo >= '0' && simbolo <= '9';
+        return switch (posicao) {
+            case 0, 1, 2 -> letra ? simbolo - 'A' : -1;
+            case 4 -> digito ? simbolo - '0' : letra ? 10 + simbolo - 'A' : -1;
+            default -> digito ? simbolo - '0' : -1;
+        };
+    }
+
+    private static char simbolo(int posicao, int valor) {
+        return switch (posicao) {
+            case 0, 1, 2 -> (char) ('A' + valor);
+            case 4 -> valor < 10 ? (char) ('0' + valor) : (char) ('A' + valor - 10);
+            default -> (char) ('0' + valor);
+        };
+    }
+}
@@ -1,12 +1,16 @@
 package io.github.marceltanuri.estacionamento.domain.veiculo;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.marceltanuri.estacionamento.domain.exception.DadoInvalidoException;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 @Entity
 public class Veiculo {
@@ -15,29 +19,42 @@ public class Veiculo {
     private String placa;
     @Enumerated(EnumType.STRING)
     private TipoVeiculo tipo;
-
-    private static final Pattern PLACA_PADRAO_MERCOSUL = Pattern.compile("[A-Z]{3}[0-9][A-Z0-9][0-9]{2}");
+    @Transient
+    private final long codigoPlaca;
 
     // Default constructor for JPA
     public Veiculo() {
+        this.codigoPlaca = PlacaCodec.INVALIDA;
     }
 
-    public Veiculo(String placa, TipoVeiculo tipo) {
+    // O JSON também passa por aqui, para que a placa seja validada e codificada
+    @JsonCreator
+    public Veiculo(@JsonProperty("placa") String placa, @JsonProperty("tipo") TipoVeiculo tipo) {
         Objects.requireNonNull(placa, "A placa não pode ser nula.");
         if (placa.isBlank()) {
-            throw new IllegalArgumentException("A placa não pode estar em branco.");
+            throw new DadoInvalidoException("A placa não pode estar em branco.");
         }
-        if (!PLACA_PADRAO_MERCOSUL.matcher(placa).matches()) {
-            throw new IllegalArgumentException("Placa inválida.");
+        long codigo = PlacaCodec.codificar(placa);
+        if (codigo == PlacaCodec.INVALIDA) {
+            throw new DadoInvalidoException("Placa inválida.");
         }
         this.placa = placa;
         this.tipo = tipo;
+        this.codigoPlaca = codigo;
     }
 
     public String getPlaca() {
         return placa;
     }
 
+    /**
+     * Código numérico da placa ({@link PlacaCodec}), calculado uma vez na construção, junto com a validação.
+     */
+    @JsonIgnore
+    public long getCodigoPlaca() {
+        return codigoPlaca;
+    }
+
     public TipoVeiculo getTipo() {
         return tipo;
     }
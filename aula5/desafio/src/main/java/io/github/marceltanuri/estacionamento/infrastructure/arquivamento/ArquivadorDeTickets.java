@@ -0,0 +1,85 @@
+package io.github.marceltanuri.estacionamento.infrastructure.arquivamento;
+
+import io.github.marceltanuri.estacionamento.config.ArquivamentoProperties;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.ArquivoDeTickets;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arquiva periodicamente os tickets finalizados há mais de {@code estacionamento.arquivamento.idade-minima}.
+ * Cada lote é uma transação curta, e a pausa entre lotes devolve a conexão e o banco às cancelas.
+ * Desligado com {@code estacionamento.arquivamento.habilitado=false}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "estacionamento.arquivamento", name = "habilitado", matchIfMissing = true)
+public class ArquivadorDeTickets {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivadorDeTickets.class);
+
+    private final ArquivoDeTickets arquivoDeTickets;
+    private final ArquivamentoProperties propriedades;
+    private final Clock clock;
+    private ScheduledExecutorService agendador;
+
+    public ArquivadorDeTickets(ArquivoDeTickets arquivoDeTickets, ArquivamentoProperties propriedades, Clock clock) {
+        this.arquivoDeTickets = arquivoDeTickets;
+        this.propriedades = propriedades;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "arquivador-de-tickets");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = propriedades.intervalo().toMillis();
+        agendador.scheduleWithFixedDelay(this::arquivar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * Arquiva lotes até esgotar os tickets elegíveis ou atingir {@code lotes-por-rodada}.
+     *
+     * @return quantidade de tickets arquivados nesta execução
+     */
+    int arquivar() {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        LocalDateTime finalizadosAntesDe = agora.minus(propriedades.idadeMinima());
+        int total = 0;
+        try {
+            for (int lote = 0; lote < propriedades.lotesPorRodada(); lote++) {
+                int arquivados = arquivoDeTickets.arquivarLote(finalizadosAntesDe, propriedades.tamanhoLote(), agora);
+                total += arquivados;
+                if (arquivados < propriedades.tamanhoLote()) {
+                    break;
+                }
+                Thread.sleep(propriedades.pausaEntreLotes().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Os lotes já gravados permanecem; o restante fica para a próxima execução
+            log.warn("Falha ao arquivar tickets finalizados.", e);
+        }
+        if (total > 0) {
+            log.info("{} tickets finalizados antes de {} arquivados.", total, finalizadosAntesDe);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,327 @@
+package io.github.marceltanuri.estacionamento.infrastructure.cache;
+
+import io.github.marceltanuri.estacionamento.config.CacheDeTicketsProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.TicketRepositoryImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de {@link #findById} na frente do {@link TicketRepositoryImpl}, limitado em tamanho (sai o ticket usado há
+ * mais tempo) e em tempo ({@code estacionamento.cache-tickets.ttl}). Consultas simultâneas do mesmo id ausente
+ * compartilham uma única leitura do banco. As demais consultas vão direto ao repositório.
+ * <p>
+ * Cada ticket gravado por este repositório substitui o do cache depois do commit; uma gravação recusada por
+ * conflito de versão, um rollback ou uma exclusão removem o ticket do cache, e a próxima consulta relê o banco.
+ * O cache guarda cópias e entrega cópias, então alterações de quem consultou não o atingem antes de gravadas.
+ * <p>
+ * Um acerto não bloqueia: os tickets ficam em um {@link ConcurrentHashMap}, e a ordem de uso, guardada à parte sob
+ * uma trava, só é atualizada quando a trava está livre, então sob disputa a remoção por tamanho é aproximada.
+ * Faltas, gravações e remoções passam pela trava.
+ * <p>
+ * Com várias instâncias, um ticket alterado por outra instância continua em cache na versão antiga até o ttl; uma
+ * gravação a partir dele é recusada por conflito de versão (409), e o ticket sai do cache para a próxima consulta.
+ * <p>
+ * Usado no lugar do banco direto salvo com {@code estacionamento.cache-tickets.habilitado=false}; com o journal
+ * habilitado os tickets ativos já estão em memória e o cache não é criado.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${estacionamento.cache-tickets.habilitado:true} and !${estacionamento.journal.habilitado:false}")
+public class TicketRepositoryComCache implements TicketRepository {
+
+    private final TicketRepository repositorio;
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier relogioNanos;
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Map<String, TicketEmCache> tickets = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Boolean> ordemDeUso = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Optional<Ticket>>> leiturasEmAndamento = new HashMap<>();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    @Autowired
+    public TicketRepositoryComCache(TicketRepositoryImpl repositorio, CacheDeTicketsProperties propriedades) {
+        this(repositorio, propriedades, System::nanoTime);
+    }
+
+    TicketRepositoryComCache(TicketRepository repositorio, CacheDeTicketsProperties propriedades, LongSupplier relogioNanos) {
+        this.repositorio = repositorio;
+        this.tamanhoMaximo = propriedades.tamanhoMaximo();
+        this.ttlNanos = propriedades.ttl().toNanos();
+        this.relogioNanos = relogioNanos;
+    }
+
+    @Override
+    public Optional<Ticket> findById(String id) {
+        TicketEmCache emCache = tickets.get(id);
+        if (emCache != null && valido(emCache)) {
+            acertos.increment();
+            registrarUso(id);
+            return Optional.of(copiar(emCache.ticket()));
+        }
+
+        CompletableFuture<Optional<Ticket>> leitura;
+        boolean lerAqui = false;
+        trava.lock();
+        try {
+            emCache = tickets.get(id);
+            if (emCache != null && valido(emCache)) {
+                acertos.increment();
+                ordemDeUso.get(id);
+                return Optional.of(copiar(emCache.ticket()));
+            }
+            if (emCache != null) {
+                remover(id);
+                remocoes.increment();
+            }
+            faltas.increment();
+            leitura = leiturasEmAndamento.get(id);
+            if (leitura == null) {
+                leitura = new CompletableFuture<>();
+                leiturasEmAndamento.put(id, leitura);
+                lerAqui = true;
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        if (lerAqui) {
+            ler(id, leitura);
+        }
+        try {
+            return leitura.join().map(TicketRepositoryComCache::copiar);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException falha ? falha : e;
+        }
+    }
+
+    @Override
+    public Ticket save(Ticket ticket) {
+        try {
+            Ticket gravado = repositorio.save(ticket);
+            aposGravar(List.of(gravado), Set.of());
+            return gravado;
+        } catch (RuntimeException e) {
+            // Conflito de versão ou falha: o ticket em cache pode estar desatualizado
+            if (ticket.getId() != null) {
+                invalidar(ticket.getId());
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Ticket> saveAll(List<Ticket> tickets) {
+        List<Ticket> gravados = repositorio.saveAll(tickets);
+        aposGravar(gravados, Set.of());
+        return gravados;
+    }
+
+    @Override
+    public List<Ticket> saveTransicoes(List<Ticket> tickets) {
+        Set<String> recusados = new HashSet<>();
+        tickets.forEach(ticket -> recusados.add(ticket.getId()));
+        try {
+            List<Ticket> gravados = repositorio.saveTransicoes(tickets);
+            gravados.forEach(ticket -> recusados.remove(ticket.getId()));
+            aposGravar(gravados, recusados);
+            return gravados;
+        } catch (RuntimeException e) {
+            recusados.forEach(this::invalidar);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Ticket ticket) {
+        try {
+            repositorio.delete(ticket);
+        } finally {
+            invalidar(ticket.getId());
+        }
+    }
+
+    @Override
+    public Optional<Ticket> findByVeiculoPlacaAndStatusNotFinalizado(String placa) {
+        return repositorio.findByVeiculoPlacaAndStatusNotFinalizado(placa);
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacas(Collection<String> placas) {
+        return repositorio.findAtivosPorPlacas(placas);
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorIds(Collection<String> ids) {
+        return repositorio.findAtivosPorIds(ids);
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorStatus(Collection<Status> status) {
+        return repositorio.findAtivosPorStatus(status);
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacaAproximada(String placa, int distanciaMaxima, int limite) {
+        return repositorio.findAtivosPorPlacaAproximada(placa, distanciaMaxima, limite);
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, Long> contarAtivosPorTipo() {
+        return repositorio.contarAtivosPorTipo();
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, List<Vaga>> vagasOcupadasPorTipo() {
+        return repositorio.vagasOcupadasPorTipo();
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(acertos.sum(), faltas.sum(), remocoes.sum(), tickets.size());
+    }
+
+    /**
+     * @param acertos  consultas respondidas pelo cache
+     * @param faltas   consultas que precisaram do banco, inclusive as que aproveitaram a leitura de outra
+     * @param remocoes tickets retirados do cache por tamanho ou por tempo
+     */
+    public record Estatisticas(long acertos, long faltas, long remocoes, int tamanho) {
+    }
+
+    private void ler(String id, CompletableFuture<Optional<Ticket>> leitura) {
+        Optional<Ticket> lido;
+        try {
+            lido = repositorio.findById(id);
+        } catch (RuntimeException e) {
+            trava.lock();
+            try {
+                leiturasEmAndamento.remove(id, leitura);
+            } finally {
+                trava.unlock();
+            }
+            leitura.completeExceptionally(e);
+            return;
+        }
+        trava.lock();
+        try {
+            // Uma gravação ou invalidação durante a leitura retira a leitura do mapa, e o resultado dela não é guardado
+            if (leiturasEmAndamento.remove(id, leitura) && lido.isPresent()) {
+                armazenar(lido.get());
+            }
+        } finally {
+            trava.unlock();
+        }
+        leitura.complete(lido.map(TicketRepositoryComCache::copiar));
+    }
+
+    // Dentro de uma transação o cache só recebe os tickets depois do commit; até lá, e em um rollback, eles ficam fora
+    private void aposGravar(List<Ticket> gravados, Set<String> recusados) {
+        List<Ticket> copias = gravados.stream().map(TicketRepositoryComCache::copiar).toList();
+        recusados.forEach(this::invalidar);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            copias.forEach(this::atualizar);
+            return;
+        }
+        copias.forEach(copia -> invalidar(copia.getId()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    copias.forEach(TicketRepositoryComCache.this::atualizar);
+                } else {
+                    copias.forEach(copia -> invalidar(copia.getId()));
+                }
+            }
+        });
+    }
+
+    private void atualizar(Ticket ticket) {
+        trava.lock();
+        try {
+            leiturasEmAndamento.remove(ticket.getId());
+            TicketEmCache anterior = tickets.get(ticket.getId());
+            if (anterior == null || anterior.ticket().getVersao() <= ticket.getVersao()) {
+                armazenar(ticket);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void invalidar(String id) {
+        trava.lock();
+        try {
+            leiturasEmAndamento.remove(id);
+            remover(id);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private boolean valido(TicketEmCache emCache) {
+        return relogioNanos.getAsLong() - emCache.armazenadoEm() < ttlNanos;
+    }
+
+    // Sob disputa o acerto não espera pela trava e apenas deixa de contar como uso recente
+    private void registrarUso(String id) {
+        if (trava.tryLock()) {
+            try {
+                ordemDeUso.get(id);
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    private void armazenar(Ticket ticket) {
+        long agora = relogioNanos.getAsLong();
+        tickets.put(ticket.getId(), new TicketEmCache(ticket, agora));
+        ordemDeUso.put(ticket.getId(), Boolean.TRUE);
+        Iterator<String> maisAntigos = ordemDeUso.keySet().iterator();
+        while (ordemDeUso.size() > tamanhoMaximo && maisAntigos.hasNext()) {
+            tickets.remove(maisAntigos.next());
+            maisAntigos.remove();
+            remocoes.increment();
+        }
+    }
+
+    private void remover(String id) {
+        tickets.remove(id);
+        ordemDeUso.remove(id);
+    }
+
+    private static Ticket copiar(Ticket ticket) {
+        return new Ticket(ticket.getId(), ticket.getVeiculo(), ticket.getEntrada(), ticket.getSaida(), ticket.getPagamento(),
+                ticket.getStatus(), ticket.getVersao(), ticket.getVaga());
+    }
+
+    private record TicketEmCache(Ticket ticket, long armazenadoEm) {
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.marceltanuri.estacionamento.infrastructure.dao;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.IntencaoPagamentoEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IntencaoPagamentoJpaRepository extends JpaRepository<IntencaoPagamentoEntity, String> {
+
+    Optional<IntencaoPagamentoEntity> findFirstByTicketIdAndEstadoIn(String ticketId, Collection<EstadoPagamento> estados);
+
+    List<IntencaoPagamentoEntity> findByEstadoInAndProximaTentativaLessThanEqualOrderByProximaTentativa(
+            Collection<EstadoPagamento> estados, LocalDateTime agora, Pageable pagina);
+
+    /**
+     * Reserva a intenção somente se ela ainda estiver como foi lida; com vários workers, apenas um vence.
+     *
+     * @return 1 se a reserva foi obtida
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update IntencaoPagamentoEntity i set i.estado = :reservado, i.proximaTentativa = :reservaAte "
+            + "where i.id = :id and i.estado = :estadoLido and i.proximaTentativa = :proximaTentativaLida")
+    int reservar(@Param("id") String id, @Param("estadoLido") EstadoPagamento estadoLido,
+                 @Param("proximaTentativaLida") LocalDateTime proximaTentativaLida,
+                 @Param("reservado") EstadoPagamento reservado, @Param("reservaAte") LocalDateTime reservaAte);
+
+    /**
+     * Grava o resultado de um envio em um único UPDATE, sem o SELECT que o merge da intenção destacada faria antes.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update IntencaoPagamentoEntity i set i.estado = :estado, i.tentativas = :tentativas, "
+            + "i.proximaTentativa = :proximaTentativa, i.ultimoErro = :ultimoErro, i.confirmadoEm = :confirmadoEm where i.id = :id")
+    int atualizarResultado(@Param("id") String id, @Param("estado") EstadoPagamento estado, @Param("tentativas") int tentativas,
+                           @Param("proximaTentativa") LocalDateTime proximaTentativa, @Param("ultimoErro") String ultimoErro,
+                           @Param("confirmadoEm") LocalDateTime confirmadoEm);
+}
@@ -0,0 +1,28 @@
+package io.github.marceltanuri.estacionamento.infrastructure.dao;
+
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketArquivadoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface TicketArquivadoJpaRepository extends JpaRepository<TicketArquivadoEntity, String> {
+
+    /**
+     * Copia os tickets finalizados informados da tabela operacional para o arquivo, sem carregá-los na aplicação.
+     *
+     * @return quantidade de tickets copiados
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into tickets_arquivo (id, veiculo_placa, entrada, saida, pagamento, status, versao, vaga_nivel, vaga_numero, arquivado_em) "
+            + "select id, veiculo_placa, entrada, saida, pagamento, status, versao, vaga_nivel, vaga_numero, :arquivadoEm from tickets "
+            + "where id in (:ids) and status = 'FINALIZADO'", nativeQuery = true)
+    int copiarDaTabelaOperacional(@Param("ids") Collection<String> ids, @Param("arquivadoEm") LocalDateTime arquivadoEm);
+}
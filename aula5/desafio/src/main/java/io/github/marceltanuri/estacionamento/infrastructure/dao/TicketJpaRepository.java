@@ -2,12 +2,71 @@ package io.github.marceltanuri.estacionamento.infrastructure.dao;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TicketJpaRepository extends JpaRepository<TicketEntity, String> {
-    Optional<TicketEntity> findByVeiculoPlacaAndStatusNot(String placa, Status status);
+    List<TicketEntity> findByStatusNot(Status status);
+
+    // placa_ativa só é preenchida enquanto o ticket não está FINALIZADO e tem índice único:
+    // as buscas por ela não percorrem o histórico de tickets finalizados da placa
+    @Query("select t from TicketEntity t join fetch t.veiculo where t.placaAtiva = :placa")
+    Optional<TicketEntity> findAtivoPorPlaca(@Param("placa") String placa);
+
+    @Query("select t from TicketEntity t join fetch t.veiculo where t.placaAtiva in :placas")
+    List<TicketEntity> findAtivosPorPlacas(@Param("placas") Collection<String> placas);
+
+    @Query("select t from TicketEntity t join fetch t.veiculo where t.placaAtiva is not null")
+    List<TicketEntity> findAtivos();
+
+    @Query("select t from TicketEntity t join fetch t.veiculo where t.id in :ids and t.placaAtiva is not null")
+    List<TicketEntity> findAtivosPorIds(@Param("ids") Collection<String> ids);
+
+    // Ativos nos status informados; a busca usa idx_tickets_status_saida, já que os ativos não têm saída
+    @Query("select t from TicketEntity t join fetch t.veiculo where t.status in :status and t.saida is null")
+    List<TicketEntity> findAtivosPorStatus(@Param("status") Collection<Status> status);
+
+    // Cada linha traz o tipo do veículo e a quantidade de tickets ativos daquele tipo
+    @Query("select v.tipo, count(t) from TicketEntity t join t.veiculo v where t.placaAtiva is not null group by v.tipo")
+    List<Object[]> contarAtivosPorTipo();
+
+    // Cada linha traz o tipo do veículo, o nível e o número da vaga de um ticket ativo
+    @Query("select v.tipo, t.vagaNivel, t.vagaNumero from TicketEntity t join t.veiculo v "
+            + "where t.placaAtiva is not null and t.vagaNivel is not null")
+    List<Object[]> findVagasDosAtivos();
+
+    /**
+     * Grava uma transição de estado em um único UPDATE, condicionado à versão lida.
+     *
+     * @return 1 se a transição foi gravada; 0 se o ticket foi alterado por outra operação
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TicketEntity t set t.status = :status, t.saida = :saida, t.pagamento = :pagamento, "
+            + "t.placaAtiva = :placaAtiva, t.vagaAtiva = :vagaAtiva, t.versao = t.versao + 1 where t.id = :id and t.versao = :versao")
+    int atualizarTransicao(@Param("id") String id, @Param("versao") long versao, @Param("status") Status status,
+                           @Param("saida") LocalDateTime saida, @Param("pagamento") LocalDateTime pagamento,
+                           @Param("placaAtiva") String placaAtiva, @Param("vagaAtiva") String vagaAtiva);
+
+    boolean existsByVagaAtiva(String vagaAtiva);
+
+    // Tickets a arquivar, dos finalizados há mais tempo para os mais recentes (idx_tickets_status_saida)
+    @Query("select t.id from TicketEntity t where t.status = :status and t.saida < :saida order by t.saida")
+    List<String> findIdsPorStatusComSaidaAntesDe(@Param("status") Status status, @Param("saida") LocalDateTime saida, Pageable lote);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TicketEntity t where t.id in :ids and t.status = :status")
+    int removerPorIdsEStatus(@Param("ids") Collection<String> ids, @Param("status") Status status);
 }
@@ -0,0 +1,9 @@
+package io.github.marceltanuri.estacionamento.infrastructure.dao;
+
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VeiculoJpaRepository extends JpaRepository<VeiculoEntity, String> {
+}
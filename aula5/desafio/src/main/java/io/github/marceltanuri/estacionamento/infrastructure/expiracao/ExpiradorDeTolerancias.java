@@ -0,0 +1,176 @@
+package io.github.marceltanuri.estacionamento.infrastructure.expiracao;
+
+import io.github.marceltanuri.estacionamento.config.ExpiracaoProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Expira pagamentos e isenções no fim da tolerância, sem esperar o veículo chegar à saída. Os prazos ficam em
+ * uma {@link RodaDeTempo} com resolução de {@code estacionamento.expiracao.tick}, então agendar e cancelar não
+ * dependem de quantos tickets estão pagos ou isentos.
+ * <p>
+ * A cada tick os tickets vencidos são relidos do repositório em uma única consulta por lote, e as expirações do
+ * lote são gravadas juntas; tickets alterados nesse meio-tempo ficam de fora, e quem os alterou os reagenda.
+ * Na inicialização os prazos são recompostos a partir dos tickets pagos e isentos gravados.
+ * Desligado com {@code estacionamento.expiracao.habilitado=false}; a saída continua expirando os tickets vencidos.
+ */
+@Component
+@ConditionalOnProperty(prefix = "estacionamento.expiracao", name = "habilitado", matchIfMissing = true)
+public class ExpiradorDeTolerancias implements AgendaDeExpiracoes {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiradorDeTolerancias.class);
+
+    private final TicketRepository ticketRepository;
+    private final ExpiracaoProperties propriedades;
+    private final Clock clock;
+    private final long milissegundosPorTick;
+    private final RodaDeTempo<String> roda;
+    private final ReentrantLock trava = new ReentrantLock();
+    private ScheduledExecutorService agendador;
+
+    public ExpiradorDeTolerancias(TicketRepository ticketRepository, ExpiracaoProperties propriedades, Clock clock) {
+        this.ticketRepository = ticketRepository;
+        this.propriedades = propriedades;
+        this.clock = clock;
+        this.milissegundosPorTick = Math.max(1, propriedades.tick().toMillis());
+        this.roda = new RodaDeTempo<>(tickAtual());
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        restaurar();
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "expirador-de-tolerancias");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::processarVencidos, milissegundosPorTick, milissegundosPorTick, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    @Override
+    public void agendar(Ticket ticket) {
+        LocalDateTime fim = ticket.fimDaTolerancia();
+        trava.lock();
+        try {
+            if (fim == null) {
+                roda.cancelar(ticket.getId());
+            } else {
+                roda.agendar(ticket.getId(), tickDoPrazo(fim));
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void cancelar(Ticket ticket) {
+        trava.lock();
+        try {
+            roda.cancelar(ticket.getId());
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * @return quantidade de prazos recompostos
+     */
+    int restaurar() {
+        List<Ticket> tickets = ticketRepository.findAtivosPorStatus(Set.of(Status.PAGO, Status.ISENTO));
+        tickets.forEach(this::agendar);
+        log.info("{} prazos de tolerância de tickets pagos e isentos agendados.", tickets.size());
+        return tickets.size();
+    }
+
+    /**
+     * Expira os tickets cujos prazos venceram até o tick atual.
+     *
+     * @return quantidade de tickets expirados
+     */
+    int processarVencidos() {
+        List<String> vencidos = new ArrayList<>();
+        trava.lock();
+        try {
+            roda.avancarAte(tickAtual(), vencidos::add);
+        } finally {
+            trava.unlock();
+        }
+        int expirados = 0;
+        for (int inicio = 0; inicio < vencidos.size(); inicio += propriedades.tamanhoLote()) {
+            expirados += expirarLote(vencidos.subList(inicio, Math.min(inicio + propriedades.tamanhoLote(), vencidos.size())));
+        }
+        if (expirados > 0) {
+            log.info("{} tickets expirados no fim da tolerância.", expirados);
+        }
+        return expirados;
+    }
+
+    private int expirarLote(List<String> ids) {
+        try {
+            LocalDateTime agora = LocalDateTime.now(clock);
+            List<Ticket> expirados = new ArrayList<>(ids.size());
+            for (Ticket ticket : ticketRepository.findAtivosPorIds(ids)) {
+                if (ticket.expirarToleranciaVencida(agora)) {
+                    expirados.add(ticket);
+                } else {
+                    // Pago de novo depois de agendado, ou relógio de outra instância adiantado
+                    agendar(ticket);
+                }
+            }
+            return expirados.isEmpty() ? 0 : ticketRepository.saveTransicoes(expirados).size();
+        } catch (RuntimeException e) {
+            // Os prazos do lote voltam para o próximo tick
+            log.warn("Falha ao expirar {} tickets vencidos.", ids.size(), e);
+            trava.lock();
+            try {
+                long proximo = roda.agora();
+                ids.forEach(id -> roda.agendar(id, proximo));
+            } finally {
+                trava.unlock();
+            }
+            return 0;
+        }
+    }
+
+    int pendentes() {
+        trava.lock();
+        try {
+            return roda.pendentes();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private long tickAtual() {
+        return clock.millis() / milissegundosPorTick;
+    }
+
+    // Arredonda para cima: o prazo nunca dispara antes do fim da tolerância
+    private long tickDoPrazo(LocalDateTime fim) {
+        long milissegundos = fim.atZone(clock.getZone()).toInstant().toEpochMilli();
+        return Math.floorDiv(milissegundos + milissegundosPorTick - 1, milissegundosPorTick);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.marceltanuri.estacionamento.infrastructure.expiracao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Roda de tempo hierárquica: {@value #NIVEIS} níveis de {@value #POSICOES} posições, cada nível com posições
+ * {@value #POSICOES} vezes maiores que as do anterior. Um prazo entra direto no nível mais baixo que o alcança e
+ * desce de nível conforme o tempo avança, até disparar no nível 0.
+ * <p>
+ * Agendar e cancelar custam O(1): cada posição é uma lista duplamente encadeada e cada chave aponta para o seu nó.
+ * O avanço custa O(1) por tick mais a redistribuição dos prazos que descem de nível, no máximo uma vez por nível.
+ * <p>
+ * Prazos mais distantes que o alcance da roda (63 posições do nível mais alto, pouco mais de 16 milhões de ticks)
+ * ficam na posição mais distante e voltam a ser agendados quando ela é redistribuída. Não é thread-safe.
+ *
+ * @param <K> chave do prazo; agendar uma chave já agendada substitui o prazo anterior
+ */
+public class RodaDeTempo<K> {
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int POSICOES = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = POSICOES - 1;
+    private static final int NIVEIS = 4;
+    private static final long ALCANCE = (long) MASCARA << (BITS_POR_NIVEL * (NIVEIS - 1));
+
+    private final Posicao[][] niveis = new Posicao[NIVEIS][POSICOES];
+    private final Map<K, No> nos = new HashMap<>();
+    private long agora;
+
+    /**
+     * @param inicio primeiro tick ainda não processado
+     */
+    public RodaDeTempo(long inicio) {
+        this.agora = inicio;
+        for (Posicao[] nivel : niveis) {
+            for (int i = 0; i < POSICOES; i++) {
+                nivel[i] = new Posicao();
+            }
+        }
+    }
+
+    /**
+     * Prazos já vencidos disparam no próximo avanço.
+     */
+    public void agendar(K chave, long tick) {
+        No no = nos.get(chave);
+        if (no != null) {
+            no.remover();
+        } else {
+            no = new No(chave);
+            nos.put(chave, no);
+        }
+        no.tick = tick;
+        inserir(no);
+    }
+
+    /**
+     * @return {@code false} se a chave não estava agendada
+     */
+    public boolean cancelar(K chave) {
+        No no = nos.remove(chave);
+        if (no == null) {
+            return false;
+        }
+        no.remover();
+        return true;
+    }
+
+    /**
+     * Processa os ticks até {@code tick}, inclusive, entregando a {@code vencido} as chaves dos prazos que dispararam.
+     * As chaves entregues deixam de estar agendadas.
+     */
+    @SuppressWarnings("unchecked")
+    public void avancarAte(long tick, Consumer<K> vencido) {
+        while (agora <= tick) {
+            int posicao = (int) (agora & MASCARA);
+            if (posicao == 0) {
+                redistribuir();
+            }
+            Posicao disparadas = niveis[0][posicao];
+            while (disparadas.primeiro != null) {
+                No no = disparadas.primeiro;
+                no.remover();
+                nos.remove(no.chave);
+                vencido.accept((K) no.chave);
+            }
+            agora++;
+        }
+    }
+
+    public int pendentes() {
+        return nos.size();
+    }
+
+    /**
+     * @return o próximo tick a ser processado
+     */
+    public long agora() {
+        return agora;
+    }
+
+    // Ao entrar em um novo bloco de um nível, a posição correspondente do nível de cima desce para os de baixo
+    private void redistribuir() {
+        for (int nivel = 1; nivel < NIVEIS; nivel++) {
+            int posicao = (int) ((agora >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+            Posicao descendo = niveis[nivel][posicao];
+            while (descendo.primeiro != null) {
+                No no = descendo.primeiro;
+                no.remover();
+                inserir(no);
+            }
+            if (posicao != 0) {
+                return;
+            }
+        }
+    }
+
+    // O nível é o mais baixo cujo bloco de cima contém o alvo, então o alvo nunca cai na posição corrente de um nível alto
+    private void inserir(No no) {
+        long alvo = Math.min(Math.max(no.tick, agora), agora + ALCANCE);
+        int nivel = 0;
+        while (nivel < NIVEIS - 1 && (alvo >>> (BITS_POR_NIVEL * (nivel + 1))) != (agora >>> (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        niveis[nivel][(int) ((alvo >>> (BITS_POR_NIVEL * nivel)) & MASCARA)].adicionar(no);
+    }
+
+    private static final class Posicao {
+        private No primeiro;
+
+        private void adicionar(No no) {
+            no.posicao = this;
+            no.proximo = primeiro;
+            if (primeiro != null) {
+                primeiro.anterior = no;
+            }
+            primeiro = no;
+        }
+    }
+
+    private static final class No {
+        private final Object chave;
+        private long tick;
+        private Posicao posicao;
+        private No anterior;
+        private No proximo;
+
+        private No(Object chave) {
+            this.chave = chave;
+        }
+
+        private void remover() {
+            if (anterior != null) {
+                anterior.proximo = proximo;
+            } else {
+                posicao.primeiro = proximo;
+            }
+            if (proximo != null) {
+                proximo.anterior = anterior;
+            }
+            anterior = null;
+            proximo = null;
+            posicao = null;
+        }
+    }
+}
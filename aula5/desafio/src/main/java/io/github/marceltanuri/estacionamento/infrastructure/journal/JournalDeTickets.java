@@ -0,0 +1,139 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Arquivo de registros de tamanho fixo ({@link RegistroTicket}), só com acréscimos, mapeado em memória em regiões
+ * de {@value #REGISTROS_POR_REGIAO} registros. O registro de sequência {@code n} fica na posição {@code n * 64}.
+ * <p>
+ * Um único escritor acrescenta registros; leitores concorrentes só enxergam registros abaixo de
+ * {@link #proximaSequencia()}, publicada depois que o registro está completo.
+ * <p>
+ * O arquivo não é compactado: cresce {@value RegistroTicket#TAMANHO} bytes por transição (cerca de 64 MB a cada
+ * milhão), e {@link #buscarUltimo(long)} percorre do fim até o registro do ticket, então consultar um ticket
+ * finalizado há muito tempo custa tanto quanto o histórico gravado depois dele.
+ */
+class JournalDeTickets implements Closeable {
+
+    static final String ARQUIVO = "tickets.journal";
+    static final int REGISTROS_POR_REGIAO = 1 << 20;
+
+    private static final long BYTES_POR_REGIAO = (long) REGISTROS_POR_REGIAO * RegistroTicket.TAMANHO;
+
+    private final FileChannel canal;
+    private final boolean sincronizar;
+    private final List<MappedByteBuffer> regioes = new CopyOnWriteArrayList<>();
+    private volatile long proximaSequencia;
+
+    JournalDeTickets(Path arquivo, boolean sincronizar) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sincronizar = sincronizar;
+    }
+
+    /**
+     * Reaplica os registros a partir da sequência informada até o primeiro registro inválido, que passa a ser
+     * o fim do journal: um registro interrompido por uma queda é sobrescrito pelo próximo acréscimo.
+     *
+     * @return quantos registros foram reaplicados
+     */
+    long recuperar(long aPartirDe, Consumer<RegistroTicket> aplicar) {
+        long sequencia = aPartirDe;
+        while (true) {
+            MappedByteBuffer regiao = regiao(sequencia);
+            RegistroTicket registro = RegistroTicket.ler(regiao, posicao(sequencia), sequencia);
+            if (registro == null) {
+                break;
+            }
+            aplicar.accept(registro);
+            sequencia++;
+        }
+        proximaSequencia = sequencia;
+        return sequencia - aPartirDe;
+    }
+
+    RegistroTicket anexar(RegistroTicket.Evento evento, long id, Ticket ticket, long versao) {
+        long sequencia = proximaSequencia;
+        RegistroTicket registro = RegistroTicket.de(sequencia, evento, id, ticket, versao);
+        MappedByteBuffer regiao = regiao(sequencia);
+        registro.escrever(regiao, posicao(sequencia));
+        if (sincronizar) {
+            regiao.force(posicao(sequencia), RegistroTicket.TAMANHO);
+        }
+        proximaSequencia = sequencia + 1;
+        return registro;
+    }
+
+    /**
+     * Último estado gravado de um ticket, procurado do fim do journal para o início.
+     * <p>
+     * Como os ids são emitidos em ordem crescente, a busca para ao passar por uma emissão de id menor:
+     * dali para trás não há registros do ticket procurado.
+     */
+    Optional<RegistroTicket> buscarUltimo(long id) {
+        for (long sequencia = proximaSequencia - 1; sequencia >= 0; sequencia--) {
+            MappedByteBuffer regiao = regiao(sequencia);
+            int posicao = posicao(sequencia);
+            if (RegistroTicket.idNaPosicao(regiao, posicao) == id) {
+                return Optional.ofNullable(RegistroTicket.ler(regiao, posicao, sequencia));
+            }
+            if (RegistroTicket.emissaoAnteriorA(regiao, posicao, id)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    long proximaSequencia() {
+        return proximaSequencia;
+    }
+
+    /**
+     * Força para o disco os registros ainda só na memória mapeada; sem efeito com {@code sincronizar},
+     * em que cada registro já foi forçado ao ser acrescentado.
+     */
+    void forcar() {
+        if (!sincronizar) {
+            regioes.forEach(MappedByteBuffer::force);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        forcar();
+        canal.close();
+    }
+
+    private MappedByteBuffer regiao(long sequencia) {
+        int indice = (int) (sequencia / REGISTROS_POR_REGIAO);
+        if (indice < regioes.size()) {
+            return regioes.get(indice);
+        }
+        synchronized (regioes) {
+            try {
+                // Mapear além do fim estende o arquivo, com zeros, que não passam na verificação do checksum
+                while (regioes.size() <= indice) {
+                    regioes.add(canal.map(FileChannel.MapMode.READ_WRITE, regioes.size() * BYTES_POR_REGIAO, BYTES_POR_REGIAO));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao mapear o journal de tickets.", e);
+            }
+            return regioes.get(indice);
+        }
+    }
+
+    private static int posicao(long sequencia) {
+        return (int) (sequencia % REGISTROS_POR_REGIAO) * RegistroTicket.TAMANHO;
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.PlacaCodec;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Estado completo de um ticket depois de uma transição, em um registro de {@value #TAMANHO} bytes:
+ * <pre>
+ *  0 crc32c dos bytes 4 a 63   24 id (GeradorSnowflake)
+ *  4 sequência no journal      32 código da placa (PlacaCodec)
+ * 12 evento                    40 entrada
+ * 13 status                    48 saída
+ * 14 tipo do veículo           56 pagamento
+ * 15 nível da vaga (até 255)
+ * 16 número da vaga
+ * 20 versão (até {@link Integer#MAX_VALUE})
+ * </pre>
+ * Datas são gravadas em nanossegundos desde 1970 (UTC do {@link LocalDateTime}), e {@link Long#MIN_VALUE} representa
+ * a data ausente. Nível zero indica ticket sem vaga, como nos registros gravados antes de haver vagas, em que os
+ * bytes 15 a 19 eram zeros de preenchimento e da versão.
+ */
+record RegistroTicket(long sequencia, Evento evento, long id, long codigoPlaca, Veiculo.TipoVeiculo tipoVeiculo,
+                      Status status, long versao, LocalDateTime entrada, LocalDateTime saida, LocalDateTime pagamento,
+                      Vaga vaga) {
+
+    static final int TAMANHO = 64;
+
+    private static final long SEM_DATA = Long.MIN_VALUE;
+    private static final int NIVEL_MAXIMO = 255;
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+    private static final Evento[] EVENTOS = Evento.values();
+    private static final Status[] STATUS = Status.values();
+    private static final Veiculo.TipoVeiculo[] TIPOS = Veiculo.TipoVeiculo.values();
+
+    enum Evento {
+        EMITIDO, PAGO, ISENTO, PAGAMENTO_EXPIRADO, ISENCAO_EXPIRADA, FINALIZADO, REMOVIDO;
+
+        static Evento daTransicaoPara(Status status) {
+            return switch (status) {
+                case PENDENTE -> EMITIDO;
+                case PAGO -> PAGO;
+                case ISENTO, ISENTO_FUNCIONARIO -> ISENTO;
+                case TOLERANCIA_APOS_PAGAMENTO_EXPIRADO -> PAGAMENTO_EXPIRADO;
+                case TOLERANCIA_APOS_ISENCAO_EXPIRADO -> ISENCAO_EXPIRADA;
+                case FINALIZADO -> FINALIZADO;
+            };
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException se a versão ou o nível da vaga não couberem nos campos do registro
+     */
+    static RegistroTicket de(long sequencia, Evento evento, long id, Ticket ticket, long versao) {
+        if (versao < 0 || versao > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Versão " + versao + " do ticket " + ticket.getId() + " não cabe no registro do journal.");
+        }
+        if (ticket.getVaga() != null && ticket.getVaga().nivel() > NIVEL_MAXIMO) {
+            throw new IllegalArgumentException("Nível " + ticket.getVaga().nivel() + " da vaga não cabe no registro do journal.");
+        }
+        Veiculo veiculo = ticket.getVeiculo();
+        return new RegistroTicket(sequencia, evento, id, veiculo.getCodigoPlaca(), veiculo.getTipo(), ticket.getStatus(), versao,
+                ticket.getEntrada(), ticket.getSaida(), ticket.getPagamento(), ticket.getVaga());
+    }
+
+    boolean ativo() {
+        return evento != Evento.REMOVIDO && status != Status.FINALIZADO;
+    }
+
+    Ticket paraTicket() {
+        return new Ticket(GeradorSnowflake.codificar(id), new Veiculo(PlacaCodec.decodificar(codigoPlaca), tipoVeiculo),
+                entrada, saida, pagamento, status, versao, vaga);
+    }
+
+    void escrever(ByteBuffer destino, int posicao) {
+        destino.putLong(posicao + 4, sequencia);
+        destino.put(posicao + 12, (byte) evento.ordinal());
+        destino.put(posicao + 13, (byte) status.ordinal());
+        destino.put(posicao + 14, (byte) tipoVeiculo.ordinal());
+        destino.put(posicao + 15, (byte) (vaga == null ? 0 : vaga.nivel()));
+        destino.putInt(posicao + 16, vaga == null ? 0 : vaga.numero());
+        destino.putInt(posicao + 20, (int) versao);
+        destino.putLong(posicao + 24, id);
+        destino.putLong(posicao + 32, codigoPlaca);
+        destino.putLong(posicao + 40, nanos(entrada));
+        destino.putLong(posicao + 48, nanos(saida));
+        destino.putLong(posicao + 56, nanos(pagamento));
+        // O checksum é escrito por último: um registro interrompido no meio não é reconhecido na recuperação
+        destino.putInt(posicao, checksum(destino, posicao));
+    }
+
+    /**
+     * @return o registro na posição, ou {@code null} se o checksum não conferir ou a sequência não for a esperada
+     *         (registro incompleto ou ainda não gravado)
+     */
+    static RegistroTicket ler(ByteBuffer origem, int posicao, long sequenciaEsperada) {
+        if (origem.getInt(posicao) != checksum(origem, posicao) || origem.getLong(posicao + 4) != sequenciaEsperada) {
+            return null;
+        }
+        return new RegistroTicket(sequenciaEsperada, EVENTOS[origem.get(posicao + 12)], origem.getLong(posicao + 24),
+                origem.getLong(posicao + 32), TIPOS[origem.get(posicao + 14)], STATUS[origem.get(posicao + 13)],
+                origem.getInt(posicao + 20), data(origem.getLong(posicao + 40)), data(origem.getLong(posicao + 48)),
+                data(origem.getLong(posicao + 56)), vaga(origem.get(posicao + 15), origem.getInt(posicao + 16)));
+    }
+
+    /**
+     * Lê só o evento e o id, sem montar o registro, para as buscas que percorrem o journal.
+     */
+    static boolean emissaoAnteriorA(ByteBuffer origem, int posicao, long id) {
+        return origem.get(posicao + 12) == Evento.EMITIDO.ordinal() && origem.getLong(posicao + 24) < id;
+    }
+
+    static long idNaPosicao(ByteBuffer origem, int posicao) {
+        return origem.getLong(posicao + 24);
+    }
+
+    private static int checksum(ByteBuffer buffer, int posicao) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(posicao + 4, TAMANHO - 4));
+        return (int) crc.getValue();
+    }
+
+    private static Vaga vaga(byte nivel, int numero) {
+        return nivel == 0 ? null : new Vaga(Byte.toUnsignedInt(nivel), numero);
+    }
+
+    private static long nanos(LocalDateTime data) {
+        if (data == null) {
+            return SEM_DATA;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * NANOS_POR_SEGUNDO + data.getNano();
+    }
+
+    private static LocalDateTime data(long nanos) {
+        if (nanos == SEM_DATA) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_POR_SEGUNDO), (int) Math.floorMod(nanos, NANOS_POR_SEGUNDO),
+                ZoneOffset.UTC);
+    }
+}
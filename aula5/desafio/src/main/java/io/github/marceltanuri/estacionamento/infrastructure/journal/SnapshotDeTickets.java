@@ -0,0 +1,88 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot dos tickets ativos: a sequência do journal a partir da qual a recuperação continua, o maior id já
+ * emitido e os registros ativos naquele ponto, seguidos de um checksum do arquivo inteiro.
+ * <p>
+ * É gravado em um arquivo temporário e movido sobre o anterior, então uma queda durante a gravação
+ * mantém o snapshot anterior.
+ */
+final class SnapshotDeTickets {
+
+    static final String ARQUIVO = "ativos.snapshot";
+
+    private static final int MAGICO = 0x54434b31;
+    private static final int CABECALHO = 4 + 8 + 8 + 4;
+
+    record Conteudo(long proximaSequencia, long maiorId, List<RegistroTicket> ativos) {
+    }
+
+    private SnapshotDeTickets() {
+    }
+
+    static void gravar(Path diretorio, long proximaSequencia, long maiorId, Collection<RegistroTicket> ativos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CABECALHO + ativos.size() * RegistroTicket.TAMANHO + 4);
+        buffer.putInt(MAGICO).putLong(proximaSequencia).putLong(maiorId).putInt(ativos.size());
+        int posicao = CABECALHO;
+        for (RegistroTicket ativo : ativos) {
+            ativo.escrever(buffer, posicao);
+            posicao += RegistroTicket.TAMANHO;
+        }
+        buffer.putInt(posicao, checksum(buffer, posicao));
+
+        Path temporario = diretorio.resolve(ARQUIVO + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return o conteúdo do snapshot, ou vazio se não houver snapshot
+     * @throws IllegalStateException se o snapshot estiver corrompido
+     */
+    static Optional<Conteudo> ler(Path diretorio) throws IOException {
+        Path arquivo = diretorio.resolve(ARQUIVO);
+        if (!Files.exists(arquivo)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        if (buffer.capacity() < CABECALHO + 4 || buffer.getInt(0) != MAGICO) {
+            throw new IllegalStateException("Snapshot de tickets ativos em formato desconhecido: " + arquivo);
+        }
+        int quantidade = buffer.getInt(20);
+        int fim = CABECALHO + quantidade * RegistroTicket.TAMANHO;
+        if (quantidade < 0 || buffer.capacity() != fim + 4 || buffer.getInt(fim) != checksum(buffer, fim)) {
+            throw new IllegalStateException("Snapshot de tickets ativos corrompido: " + arquivo);
+        }
+        List<RegistroTicket> ativos = new ArrayList<>(quantidade);
+        for (int posicao = CABECALHO; posicao < fim; posicao += RegistroTicket.TAMANHO) {
+            ativos.add(RegistroTicket.ler(buffer, posicao, buffer.getLong(posicao + 4)));
+        }
+        return Optional.of(new Conteudo(buffer.getLong(4), buffer.getLong(12), ativos));
+    }
+
+    private static int checksum(ByteBuffer buffer, int tamanho) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, tamanho));
+        return (int) crc.getValue();
+    }
+}
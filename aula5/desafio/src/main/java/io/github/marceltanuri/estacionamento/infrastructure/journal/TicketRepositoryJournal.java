@@ -0,0 +1,355 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import io.github.marceltanuri.estacionamento.config.JournalProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.IndiceDePlacasAproximadas;
+import io.github.marceltanuri.estacionamento.domain.veiculo.PlacaCodec;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Repositório de tickets sem servidor de banco, para controladores de cancela: cada transição produzida pelos
+ * métodos do {@link Ticket} é acrescentada ao {@link JournalDeTickets} com o estado completo do ticket, e os
+ * tickets ativos ficam em memória.
+ * <p>
+ * A cada {@code estacionamento.journal.registros-por-snapshot} registros os ativos são gravados em um
+ * {@link SnapshotDeTickets}. Na inicialização só os registros posteriores ao último snapshot são reaplicados,
+ * então o tempo de recuperação não cresce com o histórico. Tickets finalizados são lidos do próprio journal,
+ * que por isso não é truncado depois do snapshot e cresce com o histórico (ver {@link JournalDeTickets}).
+ * <p>
+ * As gravações são serializadas por uma trava; as consultas de tickets ativos não a tomam.
+ * Uma emissão em lote interrompida por uma queda pode ficar gravada em parte.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "estacionamento.journal", name = "habilitado", havingValue = "true")
+public class TicketRepositoryJournal implements TicketRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketRepositoryJournal.class);
+
+    private final Path diretorio;
+    private final int registrosPorSnapshot;
+    private final GeradorSnowflake geradorDeIds;
+    private final JournalDeTickets journal;
+    private final Map<Long, RegistroTicket> ativosPorId = new ConcurrentHashMap<>();
+    private final Map<Long, RegistroTicket> ativosPorPlaca = new ConcurrentHashMap<>();
+    private final IndiceDePlacasAproximadas placasAtivas = new IndiceDePlacasAproximadas();
+    private final ReentrantLock trava = new ReentrantLock();
+    private final long registrosReaplicados;
+    private long maiorId;
+    private long registrosDesdeSnapshot;
+
+    public TicketRepositoryJournal(JournalProperties journalProperties, GeradorSnowflake geradorDeIds) throws IOException {
+        this.diretorio = journalProperties.diretorio();
+        this.registrosPorSnapshot = journalProperties.registrosPorSnapshot();
+        this.geradorDeIds = geradorDeIds;
+        long inicio = System.nanoTime();
+        Files.createDirectories(diretorio);
+        long aPartirDe = carregarSnapshot();
+        this.journal = new JournalDeTickets(diretorio.resolve(JournalDeTickets.ARQUIVO), journalProperties.sincronizar());
+        this.registrosReaplicados = journal.recuperar(aPartirDe, this::aplicar);
+        this.registrosDesdeSnapshot = registrosReaplicados;
+        log.info("Journal de tickets recuperado em {} ms: {} tickets ativos, {} registros reaplicados após o snapshot.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), ativosPorId.size(), registrosReaplicados);
+    }
+
+    @Override
+    public Ticket save(Ticket ticket) {
+        trava.lock();
+        try {
+            Ticket salvo = ticket.getId() == null ? emitir(ticket).paraTicket() : gravarTransicao(ticket);
+            gravarSnapshotSeNecessario();
+            return salvo;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Valida todas as placas antes de gravar o primeiro registro, para que uma recusa não deixe o lote pela metade.
+     */
+    @Override
+    public List<Ticket> saveAll(List<Ticket> tickets) {
+        trava.lock();
+        try {
+            Set<Long> placas = new HashSet<>();
+            for (Ticket ticket : tickets) {
+                long placa = ticket.getVeiculo().getCodigoPlaca();
+                if (ativosPorPlaca.containsKey(placa) || !placas.add(placa)) {
+                    throw new TicketAtivoExistenteException(ticket.getVeiculo().getPlaca(), null);
+                }
+            }
+            List<Ticket> salvos = new ArrayList<>(tickets.size());
+            for (Ticket ticket : tickets) {
+                salvos.add(emitir(ticket).paraTicket());
+            }
+            gravarSnapshotSeNecessario();
+            return salvos;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public List<Ticket> saveTransicoes(List<Ticket> tickets) {
+        trava.lock();
+        try {
+            List<Ticket> gravados = new ArrayList<>(tickets.size());
+            for (Ticket ticket : tickets) {
+                try {
+                    gravados.add(gravarTransicao(ticket));
+                } catch (TicketAlteradoConcorrentementeException e) {
+                    // Fica de fora do lote, como no repositório em banco
+                }
+            }
+            gravarSnapshotSeNecessario();
+            return gravados;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Ticket> findById(String id) {
+        long numero = numeroDoId(id);
+        if (numero < 0) {
+            return Optional.empty();
+        }
+        RegistroTicket ativo = ativosPorId.get(numero);
+        if (ativo != null) {
+            return Optional.of(ativo.paraTicket());
+        }
+        return journal.buscarUltimo(numero)
+                .filter(registro -> registro.evento() != RegistroTicket.Evento.REMOVIDO)
+                .map(RegistroTicket::paraTicket);
+    }
+
+    @Override
+    public Optional<Ticket> findByVeiculoPlacaAndStatusNotFinalizado(String placa) {
+        return Optional.ofNullable(ativosPorPlaca.get(PlacaCodec.codificar(placa))).map(RegistroTicket::paraTicket);
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacas(Collection<String> placas) {
+        List<Ticket> ativos = new ArrayList<>();
+        for (String placa : placas) {
+            RegistroTicket ativo = ativosPorPlaca.get(PlacaCodec.codificar(placa));
+            if (ativo != null) {
+                ativos.add(ativo.paraTicket());
+            }
+        }
+        return ativos;
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorIds(Collection<String> ids) {
+        List<Ticket> ativos = new ArrayList<>();
+        for (String id : ids) {
+            long numero = numeroDoId(id);
+            RegistroTicket ativo = numero < 0 ? null : ativosPorId.get(numero);
+            if (ativo != null) {
+                ativos.add(ativo.paraTicket());
+            }
+        }
+        return ativos;
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorStatus(Collection<Status> status) {
+        List<Ticket> ativos = new ArrayList<>();
+        for (RegistroTicket ativo : ativosPorId.values()) {
+            if (status.contains(ativo.status())) {
+                ativos.add(ativo.paraTicket());
+            }
+        }
+        return ativos;
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorPlacaAproximada(String placa, int distanciaMaxima, int limite) {
+        List<Ticket> ativos = new ArrayList<>();
+        for (IndiceDePlacasAproximadas.Candidata candidata : placasAtivas.buscar(placa, distanciaMaxima, limite,
+                indexada -> ativosPorPlaca.containsKey(PlacaCodec.codificar(indexada)))) {
+            RegistroTicket ativo = ativosPorPlaca.get(PlacaCodec.codificar(candidata.placa()));
+            if (ativo != null) {
+                ativos.add(ativo.paraTicket());
+            }
+        }
+        return ativos;
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, Long> contarAtivosPorTipo() {
+        Map<Veiculo.TipoVeiculo, Long> ativos = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        for (RegistroTicket ativo : ativosPorId.values()) {
+            ativos.merge(ativo.tipoVeiculo(), 1L, Long::sum);
+        }
+        return ativos;
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, List<Vaga>> vagasOcupadasPorTipo() {
+        Map<Veiculo.TipoVeiculo, List<Vaga>> vagas = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        for (RegistroTicket ativo : ativosPorId.values()) {
+            if (ativo.vaga() != null) {
+                vagas.computeIfAbsent(ativo.tipoVeiculo(), tipo -> new ArrayList<>()).add(ativo.vaga());
+            }
+        }
+        return vagas;
+    }
+
+    @Override
+    public void delete(Ticket ticket) {
+        trava.lock();
+        try {
+            long id = numeroDoId(ticket.getId());
+            Optional<RegistroTicket> atual = id < 0 ? Optional.empty() : Optional.ofNullable(ativosPorId.get(id)).or(() -> journal.buscarUltimo(id));
+            atual.filter(registro -> registro.evento() != RegistroTicket.Evento.REMOVIDO)
+                    .ifPresent(registro -> anexar(RegistroTicket.Evento.REMOVIDO, id, registro.paraTicket(), registro.versao() + 1));
+            gravarSnapshotSeNecessario();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Registros reaplicados do journal na última inicialização, depois do snapshot.
+     */
+    public long registrosReaplicadosNaRecuperacao() {
+        return registrosReaplicados;
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        trava.lock();
+        try {
+            gravarSnapshot();
+            journal.close();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private RegistroTicket emitir(Ticket ticket) {
+        if (ativosPorPlaca.containsKey(ticket.getVeiculo().getCodigoPlaca())) {
+            throw new TicketAtivoExistenteException(ticket.getVeiculo().getPlaca(), null);
+        }
+        // Ids crescentes mesmo que o relógio volte entre execuções: a busca no journal depende dessa ordem
+        long id = Math.max(geradorDeIds.proximoNumero(), maiorId + 1);
+        return anexar(RegistroTicket.Evento.EMITIDO, id, ticket, 0);
+    }
+
+    private Ticket gravarTransicao(Ticket ticket) {
+        long id = numeroDoId(ticket.getId());
+        RegistroTicket atual = id < 0 ? null : ativosPorId.get(id);
+        if (atual == null || atual.versao() != ticket.getVersao()) {
+            throw new TicketAlteradoConcorrentementeException(ticket.getId());
+        }
+        return anexar(RegistroTicket.Evento.daTransicaoPara(ticket.getStatus()), id, ticket, ticket.getVersao() + 1).paraTicket();
+    }
+
+    private RegistroTicket anexar(RegistroTicket.Evento evento, long id, Ticket ticket, long versao) {
+        RegistroTicket registro = journal.anexar(evento, id, ticket, versao);
+        aplicar(registro);
+        registrosDesdeSnapshot++;
+        return registro;
+    }
+
+    private void aplicar(RegistroTicket registro) {
+        maiorId = Math.max(maiorId, registro.id());
+        if (registro.ativo()) {
+            RegistroTicket anterior = ativosPorId.put(registro.id(), registro);
+            if (anterior != null && anterior.codigoPlaca() != registro.codigoPlaca()) {
+                removerPlaca(anterior);
+            }
+            if (ativosPorPlaca.put(registro.codigoPlaca(), registro) == null) {
+                placasAtivas.adicionar(PlacaCodec.decodificar(registro.codigoPlaca()));
+            }
+        } else {
+            ativosPorId.remove(registro.id());
+            removerPlaca(registro);
+        }
+    }
+
+    private void removerPlaca(RegistroTicket registro) {
+        ativosPorPlaca.computeIfPresent(registro.codigoPlaca(), (placa, ativo) -> {
+            if (ativo.id() != registro.id()) {
+                return ativo;
+            }
+            placasAtivas.remover(PlacaCodec.decodificar(placa));
+            return null;
+        });
+    }
+
+    private long carregarSnapshot() throws IOException {
+        Optional<SnapshotDeTickets.Conteudo> snapshot;
+        try {
+            snapshot = SnapshotDeTickets.ler(diretorio);
+        } catch (IllegalStateException e) {
+            log.warn("{} O journal será reaplicado desde o início.", e.getMessage());
+            return 0;
+        }
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+        snapshot.get().ativos().forEach(this::aplicar);
+        maiorId = Math.max(maiorId, snapshot.get().maiorId());
+        return snapshot.get().proximaSequencia();
+    }
+
+    private void gravarSnapshotSeNecessario() {
+        if (registrosDesdeSnapshot < registrosPorSnapshot) {
+            return;
+        }
+        try {
+            gravarSnapshot();
+        } catch (IOException e) {
+            // Os registros já estão no journal; a próxima recuperação apenas reaplica mais registros
+            log.warn("Falha ao gravar o snapshot de tickets ativos.", e);
+        }
+    }
+
+    private void gravarSnapshot() throws IOException {
+        // O snapshot dispensa a reaplicação dos registros anteriores, então eles precisam estar no disco antes dele
+        journal.forcar();
+        SnapshotDeTickets.gravar(diretorio, journal.proximaSequencia(), maiorId, ativosPorId.values());
+        registrosDesdeSnapshot = 0;
+    }
+
+    private static long numeroDoId(String id) {
+        if (id == null || id.length() != GeradorSnowflake.TAMANHO) {
+            return -1;
+        }
+        try {
+            return GeradorSnowflake.decodificar(id);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
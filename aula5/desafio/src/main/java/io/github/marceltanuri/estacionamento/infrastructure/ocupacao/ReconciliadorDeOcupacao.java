@@ -0,0 +1,102 @@
+package io.github.marceltanuri.estacionamento.infrastructure.ocupacao;
+
+import io.github.marceltanuri.estacionamento.config.OcupacaoProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.Ocupacao;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acerta os contadores da {@link Ocupacao} com a contagem de tickets ativos do repositório: uma vez na
+ * inicialização, antes de a aplicação aceitar emissões, e depois a cada
+ * {@code estacionamento.ocupacao.intervalo-reconciliacao}, corrigindo o que outras instâncias emitiram ou finalizaram.
+ * <p>
+ * Na inicialização também marca no {@link AlocadorDeVagas} as vagas gravadas nos tickets ativos.
+ */
+@Component
+public class ReconciliadorDeOcupacao {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliadorDeOcupacao.class);
+
+    private final Ocupacao ocupacao;
+    private final AlocadorDeVagas alocadorDeVagas;
+    private final TicketRepository ticketRepository;
+    private final OcupacaoProperties propriedades;
+    private ScheduledExecutorService agendador;
+
+    public ReconciliadorDeOcupacao(Ocupacao ocupacao, AlocadorDeVagas alocadorDeVagas, TicketRepository ticketRepository,
+                                   OcupacaoProperties propriedades) {
+        this.ocupacao = ocupacao;
+        this.alocadorDeVagas = alocadorDeVagas;
+        this.ticketRepository = ticketRepository;
+        this.propriedades = propriedades;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        restaurarVagas();
+        reconciliar();
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "reconciliador-de-ocupacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = propriedades.intervaloReconciliacao().toMillis();
+        agendador.scheduleWithFixedDelay(this::reconciliar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * @return quantidade de vagas marcadas como ocupadas
+     */
+    int restaurarVagas() {
+        int marcadas = 0;
+        for (Map.Entry<Veiculo.TipoVeiculo, List<Vaga>> vagas : ticketRepository.vagasOcupadasPorTipo().entrySet()) {
+            for (Vaga vaga : vagas.getValue()) {
+                if (alocadorDeVagas.marcarOcupada(vagas.getKey(), vaga)) {
+                    marcadas++;
+                } else {
+                    // Vaga fora do mapa atual ou gravada em dois tickets ativos
+                    log.warn("Vaga {} de {} de um ticket ativo não pôde ser marcada como ocupada.", vaga, vagas.getKey());
+                }
+            }
+        }
+        log.info("{} vagas de tickets ativos marcadas como ocupadas.", marcadas);
+        return marcadas;
+    }
+
+    /**
+     * @return a correção aplicada a cada tipo reconciliado, ou vazio se a contagem falhar
+     */
+    Map<Veiculo.TipoVeiculo, Integer> reconciliar() {
+        try {
+            Map<Veiculo.TipoVeiculo, Integer> correcoes = ocupacao.reconciliar(ticketRepository::contarAtivosPorTipo);
+            correcoes.forEach((tipo, correcao) -> {
+                if (correcao != 0) {
+                    log.info("Ocupação de {} corrigida em {} vagas: {} ocupadas.", tipo, correcao, ocupacao.ocupadas(tipo));
+                }
+            });
+            return correcoes;
+        } catch (RuntimeException e) {
+            // Os contadores continuam valendo até a próxima execução
+            log.warn("Falha ao reconciliar a ocupação com os tickets ativos.", e);
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.marceltanuri.estacionamento.infrastructure.pagamento;
+
+import io.github.marceltanuri.estacionamento.config.PagamentosProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoAssincronoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Busca periodicamente na caixa de saída os pagamentos prontos para envio e os distribui entre os workers.
+ * Só reserva quantos pagamentos houver workers livres, deixando os demais disponíveis para outras instâncias.
+ * Desligado com {@code estacionamento.pagamentos.despacho-habilitado=false}, a instância apenas registra pagamentos.
+ */
+@Component
+@ConditionalOnProperty(prefix = "estacionamento.pagamentos", name = "despacho-habilitado", matchIfMissing = true)
+public class DespachanteDePagamentos {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachanteDePagamentos.class);
+
+    private final PagamentoAssincronoService pagamentoAssincronoService;
+    private final PagamentosProperties propriedades;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private ScheduledExecutorService agendador;
+    private ExecutorService workers;
+
+    public DespachanteDePagamentos(PagamentoAssincronoService pagamentoAssincronoService, PagamentosProperties propriedades) {
+        this.pagamentoAssincronoService = pagamentoAssincronoService;
+        this.propriedades = propriedades;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        workers = Executors.newFixedThreadPool(propriedades.workers(), threads("pagamento-worker-"));
+        agendador = Executors.newSingleThreadScheduledExecutor(threads("pagamento-despachante-"));
+        long intervalo = propriedades.intervaloDespacho().toMillis();
+        agendador.scheduleWithFixedDelay(this::despachar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    void despachar() {
+        try {
+            int livres = propriedades.workers() - emAndamento.get();
+            if (livres <= 0) {
+                return;
+            }
+            for (IntencaoPagamento intencao : pagamentoAssincronoService.reservarParaEnvio(livres)) {
+                emAndamento.incrementAndGet();
+                workers.execute(() -> processar(intencao));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao buscar pagamentos para envio.", e);
+        }
+    }
+
+    private void processar(IntencaoPagamento intencao) {
+        try {
+            pagamentoAssincronoService.processar(intencao);
+        } catch (RuntimeException e) {
+            // A reserva expira e o pagamento é reenviado na próxima rodada
+            log.error("Falha ao processar o pagamento {} do ticket {}.", intencao.getId(), intencao.getTicketId(), e);
+        } finally {
+            emAndamento.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory threads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
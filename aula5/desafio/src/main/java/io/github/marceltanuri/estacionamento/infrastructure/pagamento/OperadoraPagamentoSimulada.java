@@ -0,0 +1,68 @@
+package io.github.marceltanuri.estacionamento.infrastructure.pagamento;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operadora de pagamento fictícia. A latência configurável bloqueia a thread chamadora como
+ * uma operadora real faria, e a taxa de falha recusa aleatoriamente uma fração das cobranças,
+ * permitindo reproduzir em testes uma operadora lenta ou instável.
+ */
+public class OperadoraPagamentoSimulada implements OperadoraPagamento {
+
+    private final Duration latencia;
+    private final double taxaDeFalha;
+
+    public OperadoraPagamentoSimulada(Duration latencia) {
+        this(latencia, 0.0);
+    }
+
+    public OperadoraPagamentoSimulada(Duration latencia, double taxaDeFalha) {
+        if (latencia.isNegative()) {
+            throw new IllegalArgumentException("A latência da operadora não pode ser negativa.");
+        }
+        if (taxaDeFalha < 0.0 || taxaDeFalha > 1.0) {
+            throw new IllegalArgumentException("A taxa de falha da operadora deve estar entre 0 e 1.");
+        }
+        this.latencia = latencia;
+        this.taxaDeFalha = taxaDeFalha;
+    }
+
+    @Override
+    public void pagar(BigDecimal valor) {
+        aguardarLatencia();
+        if (taxaDeFalha > 0.0 && ThreadLocalRandom.current().nextDouble() < taxaDeFalha) {
+            throw new IllegalStateException("Pagamento recusado pela operadora.");
+        }
+    }
+
+    /**
+     * A chave é ignorada: a simulação não guarda cobranças, então não há o que deduplicar.
+     */
+    @Override
+    public void pagar(BigDecimal valor, String chaveIdempotencia) {
+        pagar(valor);
+    }
+
+    /**
+     * Estornos nunca são recusados.
+     */
+    @Override
+    public void estornar(BigDecimal valor) {
+        aguardarLatencia();
+    }
+
+    private void aguardarLatencia() {
+        if (!latencia.isZero()) {
+            try {
+                Thread.sleep(latencia.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Pagamento interrompido.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.marceltanuri.estacionamento.infrastructure.persistence;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pagamentos_outbox", indexes = {
+        @Index(name = "idx_pagamentos_outbox_estado_proxima", columnList = "estado, proxima_tentativa"),
+        @Index(name = "idx_pagamentos_outbox_ticket", columnList = "ticket_id")
+})
+public class IntencaoPagamentoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private String ticketId;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal valor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoPagamento estado;
+
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "confirmado_em")
+    private LocalDateTime confirmadoEm;
+
+    public IntencaoPagamentoEntity() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public EstadoPagamento getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoPagamento estado) {
+        this.estado = estado;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(LocalDateTime proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public LocalDateTime getConfirmadoEm() {
+        return confirmadoEm;
+    }
+
+    public void setConfirmadoEm(LocalDateTime confirmadoEm) {
+        this.confirmadoEm = confirmadoEm;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.marceltanuri.estacionamento.infrastructure.persistence;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ticket finalizado movido da tabela operacional pelo arquivamento; gravado apenas por
+ * {@code TicketArquivadoJpaRepository#copiarDaTabelaOperacional} e somente lido pela aplicação.
+ */
+@Entity
+@Table(name = "tickets_arquivo", indexes = {
+        @Index(name = "idx_tickets_arquivo_veiculo_entrada", columnList = "veiculo_placa, entrada"),
+        @Index(name = "idx_tickets_arquivo_saida", columnList = "saida")
+})
+public class TicketArquivadoEntity {
+
+    @Id
+    private String id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "veiculo_placa", nullable = false)
+    private VeiculoEntity veiculo;
+
+    @Column(nullable = false)
+    private LocalDateTime entrada;
+
+    @Column(nullable = false)
+    private LocalDateTime saida;
+
+    private LocalDateTime pagamento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private Long versao;
+
+    @Column(name = "vaga_nivel")
+    private Integer vagaNivel;
+
+    @Column(name = "vaga_numero")
+    private Integer vagaNumero;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private LocalDateTime arquivadoEm;
+
+    public TicketArquivadoEntity() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public VeiculoEntity getVeiculo() {
+        return veiculo;
+    }
+
+    public LocalDateTime getEntrada() {
+        return entrada;
+    }
+
+    public LocalDateTime getSaida() {
+        return saida;
+    }
+
+    public LocalDateTime getPagamento() {
+        return pagamento;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public Integer getVagaNivel() {
+        return vagaNivel;
+    }
+
+    public Integer getVagaNumero() {
+        return vagaNumero;
+    }
+
+    public LocalDateTime getArquivadoEm() {
+        return arquivadoEm;
+    }
+}
@@ -3,31 +3,46 @@ package io.github.marceltanuri.estacionamento.infrastructure.persistence;
 import jakarta.persistence.*;
 import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
 import io.github.marceltanuri.estacionamento.domain.ticket.Status; // Domain Status enum
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import jakarta.persistence.Id;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", uniqueConstraints = {
+        @UniqueConstraint(name = TicketEntity.UK_PLACA_ATIVA, columnNames = "placa_ativa"),
+        @UniqueConstraint(name = TicketEntity.UK_VAGA_ATIVA, columnNames = "vaga_ativa")
+}, indexes = {
+        @Index(name = "idx_tickets_veiculo_entrada", columnList = "veiculo_placa, entrada"),
+        @Index(name = "idx_tickets_entrada", columnList = "entrada"),
+        @Index(name = "idx_tickets_saida", columnList = "saida")
+})
 public class TicketEntity {
 
+    public static final String UK_PLACA_ATIVA = "uk_tickets_placa_ativa";
+    public static final String UK_VAGA_ATIVA = "uk_tickets_vaga_ativa";
+
+    // Atribuído pelo repositório (GeradorSnowflake); tickets anteriores mantêm o UUID com que foram gravados
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @ManyToOne(optional = false, cascade = CascadeType.PERSIST)
+    // O veículo é gravado separadamente pelo repositório, pois pode já existir de visitas anteriores
+    @ManyToOne(optional = false)
     @JoinColumn(name = "veiculo_placa", nullable = false)
     private VeiculoEntity veiculo;
 
@@ -42,6 +57,24 @@ public class TicketEntity {
     @Column(nullable = false)
     private Status status;
 
+    // Placa enquanto o ticket não for FINALIZADO e nulo depois; a restrição única garante um único ticket ativo por placa
+    @Column(name = "placa_ativa")
+    private String placaAtiva;
+
+    // Vaga física atribuída na emissão; nulas quando o ticket foi emitido sem vaga
+    @Column(name = "vaga_nivel")
+    private Integer vagaNivel;
+
+    @Column(name = "vaga_numero")
+    private Integer vagaNumero;
+
+    // Como placa_ativa: preenchida pelo mapeador com a vaga do ticket enquanto ele não está FINALIZADO
+    @Column(name = "vaga_ativa")
+    private String vagaAtiva;
+
+    @Version
+    private Long versao;
+
     public TicketEntity() {
     }
 
@@ -51,6 +84,23 @@ public class TicketEntity {
         this.status = status;
     }
 
+    @PrePersist
+    @PreUpdate
+    void atualizarPlacaAtiva() {
+        this.placaAtiva = placaAtiva(status, veiculo == null ? null : veiculo.getPlaca());
+        if (status == Status.FINALIZADO) {
+            this.vagaAtiva = null;
+        }
+    }
+
+    public static String placaAtiva(Status status, String placa) {
+        return status == Status.FINALIZADO ? null : placa;
+    }
+
+    public static String vagaAtiva(Status status, Veiculo.TipoVeiculo tipo, Vaga vaga) {
+        return status == Status.FINALIZADO || vaga == null ? null : tipo + "-" + vaga.nivel() + "-" + vaga.numero();
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -99,4 +149,40 @@ public class TicketEntity {
     public void setStatus(Status status) {
         this.status = status;
     }
+
+    public String getPlacaAtiva() {
+        return placaAtiva;
+    }
+
+    public Integer getVagaNivel() {
+        return vagaNivel;
+    }
+
+    public void setVagaNivel(Integer vagaNivel) {
+        this.vagaNivel = vagaNivel;
+    }
+
+    public Integer getVagaNumero() {
+        return vagaNumero;
+    }
+
+    public void setVagaNumero(Integer vagaNumero) {
+        this.vagaNumero = vagaNumero;
+    }
+
+    public String getVagaAtiva() {
+        return vagaAtiva;
+    }
+
+    public void setVagaAtiva(String vagaAtiva) {
+        this.vagaAtiva = vagaAtiva;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
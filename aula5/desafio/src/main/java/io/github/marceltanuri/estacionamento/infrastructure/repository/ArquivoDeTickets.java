@@ -0,0 +1,48 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketArquivadoJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move tickets finalizados da tabela operacional {@code tickets} para {@code tickets_arquivo}.
+ */
+@Component
+public class ArquivoDeTickets {
+
+    private final TicketJpaRepository ticketJpaRepository;
+    private final TicketArquivadoJpaRepository ticketArquivadoJpaRepository;
+
+    public ArquivoDeTickets(TicketJpaRepository ticketJpaRepository, TicketArquivadoJpaRepository ticketArquivadoJpaRepository) {
+        this.ticketJpaRepository = ticketJpaRepository;
+        this.ticketArquivadoJpaRepository = ticketArquivadoJpaRepository;
+    }
+
+    /**
+     * Move, em uma transação curta, até {@code tamanhoDoLote} tickets finalizados antes de {@code finalizadosAntesDe},
+     * começando pelos mais antigos. Tickets finalizados não mudam mais nem ocupam {@code placa_ativa},
+     * então o lote não disputa linhas com as emissões e transições das cancelas.
+     *
+     * @return quantidade de tickets arquivados; menor que o lote quando não há mais tickets elegíveis
+     */
+    @Transactional
+    public int arquivarLote(LocalDateTime finalizadosAntesDe, int tamanhoDoLote, LocalDateTime arquivadoEm) {
+        List<String> ids = ticketJpaRepository.findIdsPorStatusComSaidaAntesDe(Status.FINALIZADO, finalizadosAntesDe,
+                PageRequest.of(0, tamanhoDoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copiados = ticketArquivadoJpaRepository.copiarDaTabelaOperacional(ids, arquivadoEm);
+        int removidos = ticketJpaRepository.removerPorIdsEStatus(ids, Status.FINALIZADO);
+        if (copiados != removidos) {
+            throw new IllegalStateException("Arquivamento inconsistente: " + copiados + " tickets copiados e " + removidos + " removidos.");
+        }
+        return removidos;
+    }
+}
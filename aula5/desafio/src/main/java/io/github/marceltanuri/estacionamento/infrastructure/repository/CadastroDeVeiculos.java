@@ -0,0 +1,71 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Veículos sabidamente gravados na tabela {@code veiculos}, com o tipo gravado, para que a emissão de um veículo
+ * recorrente não precise consultar o banco. Limitado a {@code estacionamento.cache-veiculos.tamanho-maximo}
+ * placas; acima disso sai a placa usada há mais tempo.
+ * <p>
+ * Veículos nunca são alterados nem excluídos depois de gravados, então uma placa registrada continua válida em
+ * qualquer instância. O registro só acontece depois do commit que gravou ou leu o veículo.
+ */
+@Component
+public class CadastroDeVeiculos {
+
+    private final Map<String, Veiculo.TipoVeiculo> tiposPorPlaca;
+
+    public CadastroDeVeiculos(@Value("${estacionamento.cache-veiculos.tamanho-maximo:100000}") int tamanhoMaximo) {
+        this.tiposPorPlaca = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Veiculo.TipoVeiculo> maisAntigo) {
+                return size() > tamanhoMaximo;
+            }
+        };
+    }
+
+    /**
+     * @return o tipo gravado do veículo, ou vazio se a placa não é conhecida
+     */
+    public Optional<Veiculo.TipoVeiculo> tipo(String placa) {
+        synchronized (tiposPorPlaca) {
+            return Optional.ofNullable(tiposPorPlaca.get(placa));
+        }
+    }
+
+    /**
+     * Registra o veículo ao fim da transação corrente, se ela for confirmada, ou imediatamente fora de transação.
+     */
+    public void registrar(Veiculo veiculo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guardar(veiculo);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guardar(veiculo);
+            }
+        });
+    }
+
+    public int tamanho() {
+        synchronized (tiposPorPlaca) {
+            return tiposPorPlaca.size();
+        }
+    }
+
+    private void guardar(Veiculo veiculo) {
+        synchronized (tiposPorPlaca) {
+            tiposPorPlaca.put(veiculo.getPlaca(), veiculo.getTipo());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera ids de tickets ordenados pelo tempo, sem ida ao banco: 41 bits de milissegundos desde {@link #EPOCA},
+ * 10 bits do nó ({@code estacionamento.ids.no}, distinto em cada instância) e 12 bits de sequência.
+ * <p>
+ * O id é gravado como texto de {@value #TAMANHO} caracteres em base32 de Crockford, de largura fixa, para que a
+ * ordem do texto seja a ordem de geração e a coluna continue aceitando os UUIDs dos tickets antigos.
+ * Se a sequência de um milissegundo se esgota, ou o relógio volta, o gerador avança sobre o milissegundo
+ * seguinte em vez de esperar ou repetir ids.
+ */
+@Component
+public class GeradorSnowflake {
+
+    public static final Instant EPOCA = Instant.parse("2025-01-01T00:00:00Z");
+    public static final int TAMANHO = 13;
+
+    static final int BITS_NO = 10;
+    static final int BITS_SEQUENCIA = 12;
+    static final int MAXIMO_NO = (1 << BITS_NO) - 1;
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private final Clock clock;
+    private final long no;
+    // Milissegundo (relativo à época) e sequência do último id, em uma única palavra atualizada por CAS
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public GeradorSnowflake(Clock clock, @Value("${estacionamento.ids.no:0}") int no) {
+        if (no < 0 || no > MAXIMO_NO) {
+            throw new IllegalArgumentException("O nó do gerador de ids deve estar entre 0 e " + MAXIMO_NO + ".");
+        }
+        this.clock = clock;
+        this.no = no;
+    }
+
+    public String proximo() {
+        return codificar(proximoNumero());
+    }
+
+    public long proximoNumero() {
+        while (true) {
+            long anterior = ultimo.get();
+            long agora = clock.instant().toEpochMilli() - EPOCA.toEpochMilli();
+            long proximo = agora > anterior >>> BITS_SEQUENCIA ? agora << BITS_SEQUENCIA : anterior + 1;
+            if (ultimo.compareAndSet(anterior, proximo)) {
+                return (proximo >>> BITS_SEQUENCIA) << (BITS_NO + BITS_SEQUENCIA)
+                        | no << BITS_SEQUENCIA
+                        | proximo & MASCARA_SEQUENCIA;
+            }
+        }
+    }
+
+    public static String codificar(long numero) {
+        char[] texto = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            texto[i] = ALFABETO[(int) (numero & 31)];
+            numero >>>= 5;
+        }
+        return new String(texto);
+    }
+
+    public static long decodificar(String id) {
+        long numero = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            numero = numero << 5 | indiceNoAlfabeto(id.charAt(i));
+        }
+        return numero;
+    }
+
+    private static int indiceNoAlfabeto(char simbolo) {
+        for (int i = 0; i < ALFABETO.length; i++) {
+            if (ALFABETO[i] == simbolo) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Id fora do alfabeto do gerador: " + simbolo);
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.veiculo.IndiceDePlacasAproximadas;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos tickets ativos (não finalizados), por placa.
+ * <p>
+ * As entradas são chaveadas pelo texto da placa: o {@code String} de cada veículo guarda o próprio hash,
+ * então a consulta não codifica a placa nem aloca uma chave.
+ * <p>
+ * Guarda cópias dos tickets e devolve uma nova cópia a cada consulta, para que alterações feitas
+ * pelos serviços no ticket retornado não modifiquem o índice sem passar pelo repositório.
+ * <p>
+ * O repositório altera o índice por {@link #atualizarAoConfirmar} e {@link #removerAoConfirmar}, então uma transação
+ * desfeita não deixa no índice tickets ou transições que nunca foram gravados. Como confirmações concorrentes podem
+ * chegar fora de ordem, uma versão mais antiga do mesmo ticket não substitui a indexada.
+ * <p>
+ * As placas ativas ficam também em um {@link IndiceDePlacasAproximadas}, alterado junto com o mapa de cada placa,
+ * para as buscas por placas aproximadas. As alterações de um ticket correm em paralelo entre si, e a reconstrução
+ * troca o mapa e as placas aproximadas de uma vez, sem alterações intercaladas.
+ */
+@Component
+public class IndiceTicketsAtivos {
+
+    private final Map<String, Ticket> ativosPorPlaca = new ConcurrentHashMap<>();
+    private final IndiceDePlacasAproximadas placasAtivas = new IndiceDePlacasAproximadas();
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    public Optional<Ticket> buscarPorPlaca(String placa) {
+        return Optional.ofNullable(ativosPorPlaca.get(placa)).map(IndiceTicketsAtivos::copiar);
+    }
+
+    /**
+     * Tickets ativos de placas a até {@code distanciaMaxima} de {@code placa}, da mais próxima à mais distante.
+     */
+    public List<Ticket> buscarPorPlacaAproximada(String placa, int distanciaMaxima, int limite) {
+        List<Ticket> encontrados = new ArrayList<>();
+        for (IndiceDePlacasAproximadas.Candidata candidata : placasAtivas.buscar(placa, distanciaMaxima, limite, ativosPorPlaca::containsKey)) {
+            // A placa ainda pode sair do pátio entre a busca no índice e a leitura do mapa
+            buscarPorPlaca(candidata.placa()).ifPresent(encontrados::add);
+        }
+        return encontrados;
+    }
+
+    public void atualizar(Ticket ticket) {
+        String placa = ticket.getVeiculo().getPlaca();
+        if (ticket.getStatus() == Status.FINALIZADO) {
+            remover(ticket);
+            return;
+        }
+        trava.readLock().lock();
+        try {
+            ativosPorPlaca.compute(placa, (p, atual) -> {
+                if (atual == null) {
+                    placasAtivas.adicionar(p);
+                } else if (Objects.equals(atual.getId(), ticket.getId()) && atual.getVersao() > ticket.getVersao()) {
+                    return atual;
+                }
+                return copiar(ticket);
+            });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atualiza o índice ao fim da transação corrente, se ela for confirmada, ou imediatamente fora de transação.
+     */
+    public void atualizarAoConfirmar(Ticket ticket) {
+        Ticket gravado = copiar(ticket);
+        aoConfirmar(() -> atualizar(gravado));
+    }
+
+    /**
+     * Remove o ticket ao fim da transação corrente, se ela for confirmada, ou imediatamente fora de transação.
+     */
+    public void removerAoConfirmar(Ticket ticket) {
+        Ticket removido = copiar(ticket);
+        aoConfirmar(() -> remover(removido));
+    }
+
+    public void remover(Ticket ticket) {
+        trava.readLock().lock();
+        try {
+            ativosPorPlaca.computeIfPresent(ticket.getVeiculo().getPlaca(), (p, atual) -> {
+                if (!Objects.equals(atual.getId(), ticket.getId())) {
+                    return atual;
+                }
+                placasAtivas.remover(p);
+                return null;
+            });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public void reconstruir(Collection<Ticket> ticketsAtivos) {
+        Map<String, Ticket> novos = new HashMap<>();
+        for (Ticket ticket : ticketsAtivos) {
+            novos.put(ticket.getVeiculo().getPlaca(), copiar(ticket));
+        }
+        trava.writeLock().lock();
+        try {
+            ativosPorPlaca.keySet().retainAll(novos.keySet());
+            ativosPorPlaca.putAll(novos);
+            placasAtivas.reconstruir(novos.keySet());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        return ativosPorPlaca.size();
+    }
+
+    /**
+     * Compara o índice com os tickets ativos lidos do banco e descreve cada divergência encontrada.
+     */
+    public List<String> divergencias(Collection<Ticket> ticketsAtivosNoBanco) {
+        List<String> divergencias = new ArrayList<>();
+        Map<String, Ticket> noBanco = new HashMap<>();
+        for (Ticket ticket : ticketsAtivosNoBanco) {
+            noBanco.put(ticket.getVeiculo().getPlaca(), ticket);
+        }
+        for (Map.Entry<String, Ticket> entrada : noBanco.entrySet()) {
+            String divergencia = comparar(entrada.getKey(), ativosPorPlaca.get(entrada.getKey()), entrada.getValue());
+            if (divergencia != null) {
+                divergencias.add(divergencia);
+            }
+        }
+        for (String placa : ativosPorPlaca.keySet()) {
+            if (!noBanco.containsKey(placa)) {
+                divergencias.add("Placa " + placa + " ativa no índice mas não no banco.");
+            }
+        }
+        return divergencias;
+    }
+
+    static String comparar(String placa, Ticket noIndice, Ticket noBanco) {
+        if (noIndice == null && noBanco == null) {
+            return null;
+        }
+        if (noIndice == null) {
+            return "Placa " + placa + " ativa no banco (ticket " + noBanco.getId() + ") mas não no índice.";
+        }
+        if (noBanco == null) {
+            return "Placa " + placa + " ativa no índice (ticket " + noIndice.getId() + ") mas não no banco.";
+        }
+        if (!Objects.equals(noIndice.getId(), noBanco.getId()) || noIndice.getStatus() != noBanco.getStatus()
+                || !Objects.equals(noIndice.getPagamento(), noBanco.getPagamento()) || noIndice.getVersao() != noBanco.getVersao()
+                || !Objects.equals(noIndice.getVaga(), noBanco.getVaga())) {
+            return "Placa " + placa + " com ticket " + noIndice.getId() + "/" + noIndice.getStatus() + " no índice e "
+                    + noBanco.getId() + "/" + noBanco.getStatus() + " no banco.";
+        }
+        return null;
+    }
+
+    private static void aoConfirmar(Runnable alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alteracao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alteracao.run();
+            }
+        });
+    }
+
+    private static Ticket copiar(Ticket ticket) {
+        return new Ticket(ticket.getId(), ticket.getVeiculo(), ticket.getEntrada(), ticket.getSaida(),
+                ticket.getPagamento(), ticket.getStatus(), ticket.getVersao(), ticket.getVaga());
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.IntencaoPagamentoEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class IntencaoPagamentoMapper {
+
+    public IntencaoPagamentoEntity toEntity(IntencaoPagamento intencao) {
+        if (intencao == null) {
+            return null;
+        }
+        IntencaoPagamentoEntity entity = new IntencaoPagamentoEntity();
+        entity.setId(intencao.getId());
+        entity.setTicketId(intencao.getTicketId());
+        entity.setValor(intencao.getValor());
+        entity.setEstado(intencao.getEstado());
+        entity.setTentativas(intencao.getTentativas());
+        entity.setProximaTentativa(intencao.getProximaTentativa());
+        entity.setUltimoErro(intencao.getUltimoErro());
+        entity.setCriadoEm(intencao.getCriadoEm());
+        entity.setConfirmadoEm(intencao.getConfirmadoEm());
+        return entity;
+    }
+
+    public IntencaoPagamento toDomain(IntencaoPagamentoEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new IntencaoPagamento(
+                entity.getId(),
+                entity.getTicketId(),
+                entity.getValor(),
+                entity.getEstado(),
+                entity.getTentativas(),
+                entity.getProximaTentativa(),
+                entity.getUltimoErro(),
+                entity.getCriadoEm(),
+                entity.getConfirmadoEm()
+        );
+    }
+
+    public Optional<IntencaoPagamento> toDomainOptional(Optional<IntencaoPagamentoEntity> entityOptional) {
+        return entityOptional.map(this::toDomain);
+    }
+}
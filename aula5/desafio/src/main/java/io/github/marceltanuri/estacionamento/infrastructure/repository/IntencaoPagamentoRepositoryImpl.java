@@ -0,0 +1,81 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.IntencaoPagamentoJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.IntencaoPagamentoEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+public class IntencaoPagamentoRepositoryImpl implements IntencaoPagamentoRepository {
+
+    private static final Set<EstadoPagamento> ABERTAS = EnumSet.of(EstadoPagamento.PENDENTE, EstadoPagamento.PROCESSANDO);
+    private static final Set<EstadoPagamento> VIGENTES = EnumSet.of(EstadoPagamento.PENDENTE, EstadoPagamento.PROCESSANDO, EstadoPagamento.CONFIRMADO);
+
+    private final IntencaoPagamentoJpaRepository intencaoPagamentoJpaRepository;
+    private final TicketRepository ticketRepository;
+    private final IntencaoPagamentoMapper intencaoPagamentoMapper;
+
+    public IntencaoPagamentoRepositoryImpl(IntencaoPagamentoJpaRepository intencaoPagamentoJpaRepository,
+                                           TicketRepository ticketRepository, IntencaoPagamentoMapper intencaoPagamentoMapper) {
+        this.intencaoPagamentoJpaRepository = intencaoPagamentoJpaRepository;
+        this.ticketRepository = ticketRepository;
+        this.intencaoPagamentoMapper = intencaoPagamentoMapper;
+    }
+
+    /**
+     * O ticket é gravado por último: o índice de tickets ativos só é atualizado depois que a intenção já foi inserida.
+     */
+    @Override
+    @Transactional
+    public IntencaoPagamento registrar(IntencaoPagamento intencao, Ticket ticket) {
+        IntencaoPagamentoEntity salva = intencaoPagamentoJpaRepository.save(intencaoPagamentoMapper.toEntity(intencao));
+        ticketRepository.save(ticket);
+        return intencaoPagamentoMapper.toDomain(salva);
+    }
+
+    @Override
+    public Optional<IntencaoPagamento> findById(String id) {
+        return intencaoPagamentoMapper.toDomainOptional(intencaoPagamentoJpaRepository.findById(id));
+    }
+
+    @Override
+    public Optional<IntencaoPagamento> findVigentePorTicket(String ticketId) {
+        return intencaoPagamentoMapper.toDomainOptional(intencaoPagamentoJpaRepository.findFirstByTicketIdAndEstadoIn(ticketId, VIGENTES));
+    }
+
+    @Override
+    public List<IntencaoPagamento> reservarProntas(LocalDateTime agora, LocalDateTime reservaAte, int limite) {
+        List<IntencaoPagamentoEntity> prontas = intencaoPagamentoJpaRepository
+                .findByEstadoInAndProximaTentativaLessThanEqualOrderByProximaTentativa(ABERTAS, agora, PageRequest.of(0, limite));
+        List<IntencaoPagamento> reservadas = new ArrayList<>(prontas.size());
+        for (IntencaoPagamentoEntity pronta : prontas) {
+            int reservada = intencaoPagamentoJpaRepository.reservar(pronta.getId(), pronta.getEstado(), pronta.getProximaTentativa(),
+                    EstadoPagamento.PROCESSANDO, reservaAte);
+            if (reservada == 1) {
+                pronta.setEstado(EstadoPagamento.PROCESSANDO);
+                pronta.setProximaTentativa(reservaAte);
+                reservadas.add(intencaoPagamentoMapper.toDomain(pronta));
+            }
+        }
+        return reservadas;
+    }
+
+    @Override
+    public void atualizar(IntencaoPagamento intencao) {
+        intencaoPagamentoJpaRepository.atualizarResultado(intencao.getId(), intencao.getEstado(), intencao.getTentativas(),
+                intencao.getProximaTentativa(), intencao.getUltimoErro(), intencao.getConfirmadoEm());
+    }
+}
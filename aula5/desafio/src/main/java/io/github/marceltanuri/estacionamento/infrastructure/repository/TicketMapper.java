@@ -1,7 +1,9 @@
 package io.github.marceltanuri.estacionamento.infrastructure.repository;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketArquivadoEntity;
 import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketEntity;
 import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
 import org.springframework.stereotype.Component;
@@ -28,10 +30,39 @@ public class TicketMapper {
         entity.setSaida(domainTicket.getSaida());
         entity.setPagamento(domainTicket.getPagamento());
         entity.setStatus(domainTicket.getStatus());
+        if (domainTicket.getVaga() != null) {
+            entity.setVagaNivel(domainTicket.getVaga().nivel());
+            entity.setVagaNumero(domainTicket.getVaga().numero());
+            entity.setVagaAtiva(TicketEntity.vagaAtiva(domainTicket.getStatus(), domainTicket.getVeiculo().getTipo(), domainTicket.getVaga()));
+        }
+        entity.setVersao(domainTicket.getId() == null ? null : domainTicket.getVersao());
         return entity;
     }
 
     public Ticket toDomain(TicketEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return toDomain(entity, veiculoMapper.toDomain(entity.getVeiculo()));
+    }
+
+    /**
+     * Usa o veículo informado em vez do da entidade, que pode ser uma referência não carregada do veículo.
+     */
+    public Ticket toDomain(TicketEntity entity, Veiculo veiculo) {
+        return new Ticket(
+                entity.getId(),
+                veiculo,
+                entity.getEntrada(),
+                entity.getSaida(),
+                entity.getPagamento(),
+                entity.getStatus(),
+                entity.getVersao() == null ? 0 : entity.getVersao(),
+                entity.getVagaNivel() == null ? null : new Vaga(entity.getVagaNivel(), entity.getVagaNumero())
+        );
+    }
+
+    public Ticket toDomain(TicketArquivadoEntity entity) {
         if (entity == null) {
             return null;
         }
@@ -41,7 +72,9 @@ public class TicketMapper {
                 entity.getEntrada(),
                 entity.getSaida(),
                 entity.getPagamento(),
-                entity.getStatus()
+                entity.getStatus(),
+                entity.getVersao() == null ? 0 : entity.getVersao(),
+                entity.getVagaNivel() == null ? null : new Vaga(entity.getVagaNivel(), entity.getVagaNumero())
         );
     }
 
@@ -2,44 +2,399 @@ package io.github.marceltanuri.estacionamento.infrastructure.repository;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketArquivadoJpaRepository;
 import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.VeiculoJpaRepository;
 import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketEntity;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 public class TicketRepositoryImpl implements TicketRepository {
 
+    private static final Logger log = LoggerFactory.getLogger(TicketRepositoryImpl.class);
+
     private final TicketJpaRepository ticketJpaRepository;
+    private final VeiculoJpaRepository veiculoJpaRepository;
+    private final TicketArquivadoJpaRepository ticketArquivadoJpaRepository;
+    private final EntityManager entityManager;
     private final TicketMapper ticketMapper;
+    private final IndiceTicketsAtivos indiceTicketsAtivos;
+    private final CadastroDeVeiculos cadastroDeVeiculos;
+    private final GeradorSnowflake geradorDeIds;
+    private final boolean verificarIndice;
+    private final TransactionTemplate transacao;
 
-    public TicketRepositoryImpl(TicketJpaRepository ticketJpaRepository, TicketMapper ticketMapper) {
+    public TicketRepositoryImpl(TicketJpaRepository ticketJpaRepository, VeiculoJpaRepository veiculoJpaRepository,
+                                TicketArquivadoJpaRepository ticketArquivadoJpaRepository, EntityManager entityManager,
+                                TicketMapper ticketMapper, IndiceTicketsAtivos indiceTicketsAtivos,
+                                CadastroDeVeiculos cadastroDeVeiculos, GeradorSnowflake geradorDeIds,
+                                @Value("${estacionamento.indice-ativos.verificacao:false}") boolean verificarIndice,
+                                PlatformTransactionManager transactionManager) {
         this.ticketJpaRepository = ticketJpaRepository;
+        this.veiculoJpaRepository = veiculoJpaRepository;
+        this.ticketArquivadoJpaRepository = ticketArquivadoJpaRepository;
+        this.entityManager = entityManager;
         this.ticketMapper = ticketMapper;
+        this.indiceTicketsAtivos = indiceTicketsAtivos;
+        this.cadastroDeVeiculos = cadastroDeVeiculos;
+        this.geradorDeIds = geradorDeIds;
+        this.verificarIndice = verificarIndice;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void reconstruirIndice() {
+        indiceTicketsAtivos.reconstruir(buscarAtivosNoBanco());
+        log.info("Índice de tickets ativos reconstruído com {} tickets.", indiceTicketsAtivos.tamanho());
     }
 
+    /**
+     * Tickets novos são inseridos; nos existentes apenas a transição de estado é gravada, em um único
+     * UPDATE condicionado à versão do ticket, sem o SELECT que o merge faria antes.
+     * <p>
+     * A inserção consulta o veículo e grava veículo e ticket na mesma transação: com o veículo gerenciado,
+     * o Hibernate não precisa de outro SELECT para saber se a referência do ticket já está gravada. Um veículo
+     * do {@link CadastroDeVeiculos} nem é consultado: o ticket é inserido com uma referência ao veículo.
+     */
     @Override
     public Ticket save(Ticket ticket) {
+        if (ticket.getId() != null) {
+            return gravarTransicao(ticket);
+        }
         TicketEntity ticketEntity = ticketMapper.toEntity(ticket);
-        TicketEntity savedEntity = ticketJpaRepository.save(ticketEntity);
-        return ticketMapper.toDomain(savedEntity);
+        ticketEntity.setId(geradorDeIds.proximo());
+        Ticket savedTicket;
+        try {
+            savedTicket = transacao.execute(status -> inserir(ticketEntity));
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirConflitoDeEmissao(ticket, e);
+        }
+        indiceTicketsAtivos.atualizarAoConfirmar(savedTicket);
+        return savedTicket;
+    }
+
+    /**
+     * Busca os veículos fora do {@link CadastroDeVeiculos} em uma consulta e insere veículos e tickets novos com {@code persist},
+     * que o Hibernate agrupa em lotes JDBC ({@code hibernate.jdbc.batch_size}). Os tickets só entram no índice
+     * depois do commit, para que uma violação de restrição ou um rollback não deixe tickets inexistentes no índice.
+     * Como em {@link #save}, a violação de restrição é traduzida para a exceção de domínio correspondente.
+     */
+    @Override
+    public List<Ticket> saveAll(List<Ticket> tickets) {
+        try {
+            return transacao.execute(status -> inserirLote(tickets));
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirConflitoDeLote(tickets, e);
+        }
     }
 
+    private List<Ticket> inserirLote(List<Ticket> tickets) {
+        Map<String, Veiculo> veiculos = new HashMap<>();
+        Map<String, VeiculoEntity> entidadesDeVeiculos = new HashMap<>();
+        Set<String> desconhecidas = new LinkedHashSet<>();
+        for (Ticket ticket : tickets) {
+            String placa = ticket.getVeiculo().getPlaca();
+            if (veiculos.containsKey(placa) || desconhecidas.contains(placa)) {
+                continue;
+            }
+            Optional<Veiculo.TipoVeiculo> tipo = cadastroDeVeiculos.tipo(placa);
+            if (tipo.isPresent()) {
+                veiculos.put(placa, new Veiculo(placa, tipo.get()));
+                entidadesDeVeiculos.put(placa, entityManager.getReference(VeiculoEntity.class, placa));
+            } else {
+                desconhecidas.add(placa);
+            }
+        }
+        if (!desconhecidas.isEmpty()) {
+            for (VeiculoEntity existente : veiculoJpaRepository.findAllById(desconhecidas)) {
+                veiculos.put(existente.getPlaca(), new Veiculo(existente.getPlaca(), existente.getTipo()));
+                entidadesDeVeiculos.put(existente.getPlaca(), existente);
+            }
+        }
+        List<TicketEntity> entidades = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            TicketEntity entidade = ticketMapper.toEntity(ticket);
+            entidade.setId(geradorDeIds.proximo());
+            String placa = entidade.getVeiculo().getPlaca();
+            VeiculoEntity veiculo = entidadesDeVeiculos.get(placa);
+            if (veiculo == null) {
+                veiculo = entidade.getVeiculo();
+                entityManager.persist(veiculo);
+                entidadesDeVeiculos.put(placa, veiculo);
+                veiculos.put(placa, new Veiculo(placa, veiculo.getTipo()));
+            }
+            entidade.setVeiculo(veiculo);
+            entityManager.persist(entidade);
+            entidades.add(entidade);
+        }
+        // Como em inserir, o flush pelo repositório traduz violações de restrição para DataIntegrityViolationException
+        ticketJpaRepository.flush();
+        veiculos.values().forEach(cadastroDeVeiculos::registrar);
+        List<Ticket> salvos = entidades.stream()
+                .map(entidade -> ticketMapper.toDomain(entidade, veiculos.get(entidade.getVeiculo().getPlaca())))
+                .toList();
+        salvos.forEach(indiceTicketsAtivos::atualizarAoConfirmar);
+        return salvos;
+    }
+
+    /**
+     * Executa um UPDATE condicionado à versão por ticket, todos na mesma transação, então o lote custa um único
+     * commit. O índice é atualizado depois do commit (o da transação externa, se houver), só com as transições gravadas.
+     */
+    @Override
+    public List<Ticket> saveTransicoes(List<Ticket> tickets) {
+        List<Ticket> gravados = transacao.execute(status -> {
+            List<Ticket> atualizados = new ArrayList<>(tickets.size());
+            for (Ticket ticket : tickets) {
+                if (atualizarTransicao(ticket) == 1) {
+                    atualizados.add(naVersaoSeguinte(ticket));
+                }
+            }
+            return atualizados;
+        });
+        gravados.forEach(indiceTicketsAtivos::atualizarAoConfirmar);
+        return gravados;
+    }
+
+    /**
+     * Procura primeiro na tabela operacional e, se não encontrar, entre os tickets arquivados.
+     */
     @Override
     public Optional<Ticket> findById(String id) {
-        return ticketMapper.toDomainOptional(ticketJpaRepository.findById(id));
+        Optional<Ticket> operacional = ticketMapper.toDomainOptional(ticketJpaRepository.findById(id));
+        if (operacional.isPresent()) {
+            return operacional;
+        }
+        return ticketArquivadoJpaRepository.findById(id).map(ticketMapper::toDomain);
     }
 
+    /**
+     * Responde pelo índice em memória, sem ir ao banco. No modo de verificação
+     * ({@code estacionamento.indice-ativos.verificacao=true}) consulta também o banco,
+     * registra qualquer divergência, corrige o índice e devolve o resultado do banco.
+     */
     @Override
     public Optional<Ticket> findByVeiculoPlacaAndStatusNotFinalizado(String placa) {
-        return ticketMapper.toDomainOptional(ticketJpaRepository.findByVeiculoPlacaAndStatusNot(placa, Status.FINALIZADO));
+        Optional<Ticket> doIndice = indiceTicketsAtivos.buscarPorPlaca(placa);
+        if (!verificarIndice) {
+            return doIndice;
+        }
+        Optional<Ticket> doBanco = ticketMapper.toDomainOptional(ticketJpaRepository.findAtivoPorPlaca(placa));
+        String divergencia = IndiceTicketsAtivos.comparar(placa, doIndice.orElse(null), doBanco.orElse(null));
+        if (divergencia != null) {
+            log.warn("Índice de tickets ativos divergente do banco: {}", divergencia);
+            doIndice.ifPresent(indiceTicketsAtivos::remover);
+            doBanco.ifPresent(indiceTicketsAtivos::atualizar);
+        }
+        return doBanco;
+    }
+
+    /**
+     * Como {@link #findByVeiculoPlacaAndStatusNotFinalizado(String)}, responde pelo índice; só o modo de
+     * verificação consulta o banco, em uma consulta para todas as placas.
+     */
+    @Override
+    public List<Ticket> findAtivosPorPlacas(Collection<String> placas) {
+        List<Ticket> doIndice = new ArrayList<>();
+        for (String placa : placas) {
+            indiceTicketsAtivos.buscarPorPlaca(placa).ifPresent(doIndice::add);
+        }
+        if (!verificarIndice || placas.isEmpty()) {
+            return doIndice;
+        }
+        Map<String, Ticket> doBanco = new HashMap<>();
+        for (TicketEntity entidade : ticketJpaRepository.findAtivosPorPlacas(placas)) {
+            Ticket ativo = ticketMapper.toDomain(entidade);
+            doBanco.put(ativo.getVeiculo().getPlaca(), ativo);
+        }
+        for (String placa : placas) {
+            Ticket indexado = indiceTicketsAtivos.buscarPorPlaca(placa).orElse(null);
+            String divergencia = IndiceTicketsAtivos.comparar(placa, indexado, doBanco.get(placa));
+            if (divergencia != null) {
+                log.warn("Índice de tickets ativos divergente do banco: {}", divergencia);
+                if (indexado != null) {
+                    indiceTicketsAtivos.remover(indexado);
+                }
+                if (doBanco.containsKey(placa)) {
+                    indiceTicketsAtivos.atualizar(doBanco.get(placa));
+                }
+            }
+        }
+        return List.copyOf(doBanco.values());
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return ticketJpaRepository.findAtivosPorIds(ids).stream()
+                .map(ticketMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<Ticket> findAtivosPorStatus(Collection<Status> status) {
+        return ticketJpaRepository.findAtivosPorStatus(status).stream()
+                .map(ticketMapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Responde pelo índice em memória, sem ir ao banco.
+     */
+    @Override
+    public List<Ticket> findAtivosPorPlacaAproximada(String placa, int distanciaMaxima, int limite) {
+        return indiceTicketsAtivos.buscarPorPlacaAproximada(placa, distanciaMaxima, limite);
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, Long> contarAtivosPorTipo() {
+        Map<Veiculo.TipoVeiculo, Long> ativos = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        for (Object[] linha : ticketJpaRepository.contarAtivosPorTipo()) {
+            if (linha[0] != null) {
+                ativos.put((Veiculo.TipoVeiculo) linha[0], (Long) linha[1]);
+            }
+        }
+        return ativos;
+    }
+
+    @Override
+    public Map<Veiculo.TipoVeiculo, List<Vaga>> vagasOcupadasPorTipo() {
+        Map<Veiculo.TipoVeiculo, List<Vaga>> vagas = new EnumMap<>(Veiculo.TipoVeiculo.class);
+        for (Object[] linha : ticketJpaRepository.findVagasDosAtivos()) {
+            if (linha[0] != null) {
+                vagas.computeIfAbsent((Veiculo.TipoVeiculo) linha[0], tipo -> new ArrayList<>())
+                        .add(new Vaga((Integer) linha[1], (Integer) linha[2]));
+            }
+        }
+        return vagas;
     }
 
     @Override
     public void delete(Ticket ticket) {
-        TicketEntity ticketEntity = ticketMapper.toEntity(ticket);
-        ticketJpaRepository.delete(ticketEntity);
+        ticketJpaRepository.deleteById(ticket.getId());
+        indiceTicketsAtivos.removerAoConfirmar(ticket);
+    }
+
+    /**
+     * Compara todo o índice de tickets ativos com o banco.
+     *
+     * @return a descrição de cada divergência; vazia quando o índice está consistente
+     */
+    public List<String> verificarConsistenciaDoIndice() {
+        return indiceTicketsAtivos.divergencias(buscarAtivosNoBanco());
+    }
+
+    private Ticket gravarTransicao(Ticket ticket) {
+        if (atualizarTransicao(ticket) == 0) {
+            throw new TicketAlteradoConcorrentementeException(ticket.getId());
+        }
+        Ticket gravado = naVersaoSeguinte(ticket);
+        indiceTicketsAtivos.atualizarAoConfirmar(gravado);
+        return gravado;
+    }
+
+    private static Ticket naVersaoSeguinte(Ticket ticket) {
+        return new Ticket(ticket.getId(), ticket.getVeiculo(), ticket.getEntrada(), ticket.getSaida(), ticket.getPagamento(),
+                ticket.getStatus(), ticket.getVersao() + 1, ticket.getVaga());
+    }
+
+    private int atualizarTransicao(Ticket ticket) {
+        return ticketJpaRepository.atualizarTransicao(ticket.getId(), ticket.getVersao(), ticket.getStatus(),
+                ticket.getSaida(), ticket.getPagamento(), TicketEntity.placaAtiva(ticket.getStatus(), ticket.getVeiculo().getPlaca()),
+                TicketEntity.vagaAtiva(ticket.getStatus(), ticket.getVeiculo().getTipo(), ticket.getVaga()));
+    }
+
+    private Ticket inserir(TicketEntity ticketEntity) {
+        String placa = ticketEntity.getVeiculo().getPlaca();
+        Veiculo veiculo;
+        Optional<Veiculo.TipoVeiculo> tipoCadastrado = cadastroDeVeiculos.tipo(placa);
+        if (tipoCadastrado.isPresent()) {
+            veiculo = new Veiculo(placa, tipoCadastrado.get());
+            ticketEntity.setVeiculo(entityManager.getReference(VeiculoEntity.class, placa));
+        } else {
+            Optional<VeiculoEntity> cadastrado = veiculoJpaRepository.findById(placa);
+            if (cadastrado.isPresent()) {
+                ticketEntity.setVeiculo(cadastrado.get());
+            } else {
+                entityManager.persist(ticketEntity.getVeiculo());
+            }
+            veiculo = new Veiculo(placa, ticketEntity.getVeiculo().getTipo());
+        }
+        // O flush pelo repositório traduz violações de restrição para DataIntegrityViolationException
+        Ticket inserido = ticketMapper.toDomain(ticketJpaRepository.saveAndFlush(ticketEntity), veiculo);
+        cadastroDeVeiculos.registrar(veiculo);
+        return inserido;
+    }
+
+    /**
+     * Se a violação foi causada por outro ticket ativo da mesma placa (restrição de placa ativa),
+     * atualiza o índice com o ticket vencedor e sinaliza o conflito ao domínio. Se foi causada por um ticket
+     * ativo de outra instância na mesma vaga (restrição de vaga ativa), sinaliza a vaga ocupada.
+     */
+    private RuntimeException traduzirConflitoDeEmissao(Ticket ticket, DataIntegrityViolationException e) {
+        String placa = ticket.getVeiculo().getPlaca();
+        Optional<Ticket> ativo = ticketMapper.toDomainOptional(ticketJpaRepository.findAtivoPorPlaca(placa));
+        if (ativo.isPresent() && !ativo.get().getId().equals(ticket.getId())) {
+            indiceTicketsAtivos.atualizar(ativo.get());
+            return new TicketAtivoExistenteException(placa, e);
+        }
+        String vagaAtiva = TicketEntity.vagaAtiva(ticket.getStatus(), ticket.getVeiculo().getTipo(), ticket.getVaga());
+        if (vagaAtiva != null && ticketJpaRepository.existsByVagaAtiva(vagaAtiva)) {
+            return new VagaOcupadaException(ticket.getVaga(), e);
+        }
+        return e;
+    }
+
+    // O lote foi desfeito inteiro: um ticket ativo para alguma das placas só pode ser de outra instância
+    private RuntimeException traduzirConflitoDeLote(List<Ticket> tickets, DataIntegrityViolationException e) {
+        Set<String> placas = new LinkedHashSet<>();
+        tickets.forEach(ticket -> placas.add(ticket.getVeiculo().getPlaca()));
+        List<Ticket> ativos = ticketJpaRepository.findAtivosPorPlacas(placas).stream()
+                .map(ticketMapper::toDomain)
+                .toList();
+        if (!ativos.isEmpty()) {
+            ativos.forEach(indiceTicketsAtivos::atualizar);
+            return new TicketAtivoExistenteException(ativos.get(0).getVeiculo().getPlaca(), e);
+        }
+        for (Ticket ticket : tickets) {
+            String vagaAtiva = TicketEntity.vagaAtiva(ticket.getStatus(), ticket.getVeiculo().getTipo(), ticket.getVaga());
+            if (vagaAtiva != null && ticketJpaRepository.existsByVagaAtiva(vagaAtiva)) {
+                return new VagaOcupadaException(ticket.getVaga(), e);
+            }
+        }
+        return e;
+    }
+
+    private List<Ticket> buscarAtivosNoBanco() {
+        return ticketJpaRepository.findAtivos().stream()
+                .map(ticketMapper::toDomain)
+                .toList();
     }
 }
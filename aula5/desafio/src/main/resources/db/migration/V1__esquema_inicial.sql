@@ -0,0 +1,45 @@
+-- Esquema que o Hibernate gerava a partir das entidades até a adoção das migrações
+
+create table veiculos (
+    placa varchar(255) not null,
+    tipo  varchar(255) check (tipo in ('CAMINHAO', 'CARRO', 'MOTO')),
+    primary key (placa)
+);
+
+-- Mapeada pela entidade de domínio Veiculo; mantida para a validação do esquema
+create table veiculo (
+    placa varchar(255) not null,
+    tipo  varchar(255) check (tipo in ('CAMINHAO', 'CARRO', 'MOTO')),
+    primary key (placa)
+);
+
+create table tickets (
+    id            varchar(255) not null,
+    veiculo_placa varchar(255) not null,
+    entrada       timestamp(6) not null,
+    saida         timestamp(6),
+    pagamento     timestamp(6),
+    status        varchar(255) not null check (status in ('PENDENTE', 'PAGO', 'ISENTO', 'ISENTO_FUNCIONARIO',
+        'TOLERANCIA_APOS_PAGAMENTO_EXPIRADO', 'TOLERANCIA_APOS_ISENCAO_EXPIRADO', 'FINALIZADO')),
+    placa_ativa   varchar(255),
+    versao        bigint,
+    primary key (id),
+    constraint uk_tickets_placa_ativa unique (placa_ativa),
+    constraint fk_tickets_veiculo foreign key (veiculo_placa) references veiculos (placa)
+);
+
+create table pagamentos_outbox (
+    id                varchar(255)   not null,
+    ticket_id         varchar(255)   not null,
+    valor             numeric(12, 2) not null,
+    estado            varchar(255)   not null check (estado in ('PENDENTE', 'PROCESSANDO', 'CONFIRMADO', 'FALHOU')),
+    tentativas        integer        not null,
+    proxima_tentativa timestamp(6),
+    ultimo_erro       varchar(500),
+    criado_em         timestamp(6)   not null,
+    confirmado_em     timestamp(6),
+    primary key (id)
+);
+
+create index idx_pagamentos_outbox_estado_proxima on pagamentos_outbox (estado, proxima_tentativa);
+create index idx_pagamentos_outbox_ticket on pagamentos_outbox (ticket_id);
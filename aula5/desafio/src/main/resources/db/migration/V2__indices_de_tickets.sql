@@ -0,0 +1,10 @@
+-- O ticket ativo de uma placa é buscado por placa_ativa, já coberta pela restrição única
+-- uk_tickets_placa_ativa: a coluna só é preenchida enquanto o ticket não está FINALIZADO, então o índice
+-- faz o papel de um índice parcial e não cresce com o histórico.
+
+-- Histórico de uma placa, do mais recente para o mais antigo
+create index idx_tickets_veiculo_entrada on tickets (veiculo_placa, entrada);
+
+-- Relatórios por período de entrada e de saída
+create index idx_tickets_entrada on tickets (entrada);
+create index idx_tickets_saida on tickets (saida);
@@ -0,0 +1,20 @@
+-- Tickets finalizados há mais tempo que estacionamento.arquivamento.idade-minima saem da tabela operacional
+-- e ficam aqui, consultados apenas por id e por relatórios históricos.
+create table tickets_arquivo (
+    id            varchar(255) not null,
+    veiculo_placa varchar(255) not null,
+    entrada       timestamp(6) not null,
+    saida         timestamp(6) not null,
+    pagamento     timestamp(6),
+    status        varchar(255) not null check (status = 'FINALIZADO'),
+    versao        bigint,
+    arquivado_em  timestamp(6) not null,
+    primary key (id),
+    constraint fk_tickets_arquivo_veiculo foreign key (veiculo_placa) references veiculos (placa)
+);
+
+create index idx_tickets_arquivo_veiculo_entrada on tickets_arquivo (veiculo_placa, entrada);
+create index idx_tickets_arquivo_saida on tickets_arquivo (saida);
+
+-- Seleção dos lotes a arquivar: tickets finalizados em ordem de saída
+create index idx_tickets_status_saida on tickets (status, saida);
@@ -0,0 +1,4 @@
+-- Vaga física atribuída na emissão (nível e número, a partir de 1); nula para tickets emitidos sem vaga.
+-- As vagas dos tickets ativos são lidas na inicialização para recompor o mapa de vagas livres.
+alter table tickets add column vaga_nivel integer;
+alter table tickets add column vaga_numero integer;
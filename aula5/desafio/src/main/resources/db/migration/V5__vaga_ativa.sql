@@ -0,0 +1,9 @@
+-- Vaga do ticket ativo (tipo, nível e número, como CARRO-1-3); como placa_ativa, só é preenchida enquanto o
+-- ticket não está FINALIZADO, e a restrição única impede que duas instâncias entreguem a mesma vaga.
+alter table tickets add column vaga_ativa varchar(255);
+
+update tickets t
+set vaga_ativa = (select v.tipo from veiculos v where v.placa = t.veiculo_placa) || '-' || t.vaga_nivel || '-' || t.vaga_numero
+where t.status <> 'FINALIZADO' and t.vaga_nivel is not null;
+
+alter table tickets add constraint uk_tickets_vaga_ativa unique (vaga_ativa);
@@ -0,0 +1,4 @@
+-- Vaga física dos tickets arquivados, copiada da tabela operacional; nula para tickets emitidos sem vaga e para
+-- os arquivados antes desta migração, que já saíram da tabela operacional.
+alter table tickets_arquivo add column vaga_nivel integer;
+alter table tickets_arquivo add column vaga_numero integer;
@@ -0,0 +1,122 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.marceltanuri.estacionamento.EstacionamentoApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara throughput e latência p99 do pagamento com a operadora levando 200 ms, primeiro no modelo
+ * padrão de platform threads do Tomcat e depois com o perfil virtual-threads.
+ * Executar com {@code mvn test -Pcarga} em uma JVM 21 ou superior.
+ */
+@Tag("carga")
+class CargaPagamentoVirtualThreadsTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaPagamentoVirtualThreadsTest.class);
+
+    private static final int LATENCIA_OPERADORA_MS = 200;
+    private static final int CLIENTES = 400;
+    private static final int PAGAMENTOS = 2000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Deve pagar com maior throughput e menor p99 em virtual threads quando a operadora é lenta")
+    void deveCompararPlatformThreadsComVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads exigem Java 21.");
+
+        Resultado platformThreads = medir("platform");
+        Resultado virtualThreads = medir("virtual-threads");
+
+        log.info("platform: {} pagamentos/s, p99 {} ms", String.format("%.1f", platformThreads.throughput()), platformThreads.p99Ms());
+        log.info("virtual-threads: {} pagamentos/s, p99 {} ms", String.format("%.1f", virtualThreads.throughput()), virtualThreads.p99Ms());
+
+        assertTrue(virtualThreads.throughput() > platformThreads.throughput(), () -> "throughput " + virtualThreads + " x " + platformThreads);
+        assertTrue(virtualThreads.p99Ms() < platformThreads.p99Ms(), () -> "p99 " + virtualThreads + " x " + platformThreads);
+    }
+
+    private Resultado medir(String perfil) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(EstacionamentoApplication.class)
+                .profiles(perfil)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:carga-" + perfil,
+                        "estacionamento.operadora.latencia-ms=" + LATENCIA_OPERADORA_MS,
+                        "logging.level.root=WARN",
+                        "logging.level." + CargaPagamentoVirtualThreadsTest.class.getName() + "=INFO")
+                .run()) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/tickets";
+            List<String> ids = emitirTickets(base);
+            return pagarConcorrentemente(base, ids);
+        }
+    }
+
+    private List<String> emitirTickets(String base) throws Exception {
+        List<String> ids = new ArrayList<>(PAGAMENTOS);
+        for (int i = 0; i < PAGAMENTOS; i++) {
+            String placa = String.format("CRG%d%c%02d", i % 10, (char) ('A' + (i / 10) % 26), i / 260);
+            HttpRequest emissao = HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"placa\":\"" + placa + "\",\"tipo\":\"CARRO\"}"))
+                    .build();
+            HttpResponse<String> resposta = httpClient.send(emissao, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, resposta.statusCode(), resposta.body());
+            JsonNode ticket = objectMapper.readTree(resposta.body());
+            ids.add(ticket.get("id").asText());
+        }
+        return ids;
+    }
+
+    private Resultado pagarConcorrentemente(String base, List<String> ids) throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        try {
+            List<Future<Long>> latencias = new ArrayList<>(ids.size());
+            long inicio = System.nanoTime();
+            for (String id : ids) {
+                latencias.add(clientes.submit(() -> {
+                    HttpRequest pagamento = HttpRequest.newBuilder(URI.create(base + "/" + id + "/pay"))
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long enviado = System.nanoTime();
+                    HttpResponse<Void> resposta = httpClient.send(pagamento, HttpResponse.BodyHandlers.discarding());
+                    assertEquals(200, resposta.statusCode());
+                    return System.nanoTime() - enviado;
+                }));
+            }
+            long[] latenciasNanos = new long[latencias.size()];
+            for (int i = 0; i < latenciasNanos.length; i++) {
+                latenciasNanos[i] = latencias.get(i).get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            Arrays.sort(latenciasNanos);
+            long p99 = latenciasNanos[(int) Math.ceil(latenciasNanos.length * 0.99) - 1];
+            return new Resultado(latenciasNanos.length / segundos, p99 / 1_000_000);
+        } finally {
+            clientes.shutdownNow();
+        }
+    }
+
+    private record Resultado(double throughput, long p99Ms) {
+    }
+}
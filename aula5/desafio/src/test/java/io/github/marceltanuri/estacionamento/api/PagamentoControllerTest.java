@@ -0,0 +1,127 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Fluxo completo do pagamento assíncrono com a operadora simulada lenta e instável:
+ * a solicitação retorna de imediato e o pagamento é confirmado pelos workers após reenvios.
+ */
+@SpringBootTest(properties = {
+        "estacionamento.operadora.latencia-ms=20",
+        "estacionamento.operadora.taxa-falha=0.3",
+        "estacionamento.pagamentos.max-tentativas=15",
+        "estacionamento.pagamentos.backoff=10ms",
+        "estacionamento.pagamentos.intervalo-despacho=20ms"
+})
+@AutoConfigureMockMvc
+class PagamentoControllerTest {
+
+    private static final long PRAZO_CONFIRMACAO_MS = 15_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmissaoService emissaoService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Test
+    @DisplayName("Deve aceitar o pagamento de imediato e confirmá-lo de forma assíncrona")
+    void deveConfirmarPagamentoAssincrono() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("ASY1A23", Veiculo.TipoVeiculo.CARRO));
+
+        String location = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.estado").value("PENDENTE"))
+                .andExpect(jsonPath("$.ticketId").value(ticket.getId()))
+                .andReturn().getResponse().getHeader("Location");
+
+        JsonNode pagamento = aguardarConclusao(location);
+        assertEquals("CONFIRMADO", pagamento.get("estado").asText());
+        assertEquals(Status.PAGO, ticketRepository.findById(ticket.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a mesma intenção quando o pagamento for solicitado novamente")
+    void deveSerIdempotente() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("ASY2B34", Veiculo.TipoVeiculo.MOTO));
+
+        String primeira = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+        String repetidaAntesDaConclusao = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andReturn().getResponse().getHeader("Location");
+        assertEquals("CONFIRMADO", aguardarConclusao(primeira).get("estado").asText());
+        String repetidaAposConfirmacao = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Location");
+
+        assertEquals(primeira, repetidaAntesDaConclusao);
+        assertEquals(primeira, repetidaAposConfirmacao);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 para pagamento de outro ticket")
+    void deveRetornarNotFoundParaPagamentoDeOutroTicket() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("ASY3C45", Veiculo.TipoVeiculo.CARRO));
+        String location = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andReturn().getResponse().getHeader("Location");
+        String pagamentoId = location.substring(location.lastIndexOf('/') + 1);
+
+        mockMvc.perform(get("/tickets/{id}/payments/{pagamentoId}", "outro-ticket", pagamentoId))
+                .andExpect(status().isNotFound());
+        aguardarConclusao(location);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o pagamento síncrono de ticket com pagamento assíncrono solicitado")
+    void deveRecusarPagamentoSincronoComIntencaoVigente() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("ASY4D56", Veiculo.TipoVeiculo.CARRO));
+        String location = mockMvc.perform(post("/tickets/{id}/payments", ticket.getId()))
+                .andReturn().getResponse().getHeader("Location");
+
+        mockMvc.perform(put("/tickets/{id}/pay", ticket.getId()))
+                .andExpect(status().isBadRequest());
+        assertEquals("CONFIRMADO", aguardarConclusao(location).get("estado").asText());
+    }
+
+    private JsonNode aguardarConclusao(String location) throws Exception {
+        long limite = System.currentTimeMillis() + PRAZO_CONFIRMACAO_MS;
+        while (true) {
+            JsonNode pagamento = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String estado = pagamento.get("estado").asText();
+            if (!estado.equals("PENDENTE") && !estado.equals("PROCESSANDO")) {
+                return pagamento;
+            }
+            if (System.currentTimeMillis() > limite) {
+                fail("Pagamento ainda " + estado + " após " + PRAZO_CONFIRMACAO_MS + " ms.");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
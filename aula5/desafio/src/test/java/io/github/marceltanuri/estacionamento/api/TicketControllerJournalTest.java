@@ -0,0 +1,19 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Os mesmos cenários de {@link TicketControllerTest}, com os tickets gravados no journal em vez do banco.
+ */
+class TicketControllerJournalTest extends TicketControllerTest {
+
+    @DynamicPropertySource
+    static void habilitarJournal(DynamicPropertyRegistry propriedades) throws IOException {
+        propriedades.add("estacionamento.journal.habilitado", () -> "true");
+        propriedades.add("estacionamento.journal.diretorio", Files.createTempDirectory("journal-tickets")::toString);
+    }
+}
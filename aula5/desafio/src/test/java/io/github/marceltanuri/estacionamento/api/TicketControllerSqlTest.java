@@ -0,0 +1,178 @@
+package io.github.marceltanuri.estacionamento.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.marceltanuri.estacionamento.config.RelogioDeTeste;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo.TipoVeiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.sql.ContadorDeSql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.marceltanuri.estacionamento.infrastructure.sql.OrcamentoDeSql.noMaximo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de comandos SQL de cada endpoint de tickets. Um mapeamento que passe a gerar consultas extras
+ * (N+1, merge com SELECT, regravação do veículo) reprova o build e mostra o SQL executado.
+ */
+@SpringBootTest(properties = {ContadorDeSql.PROPRIEDADE, "estacionamento.pagamentos.despacho-habilitado=false"})
+@AutoConfigureMockMvc
+@Import(RelogioDeTeste.class)
+class TicketControllerSqlTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 1, 1, 10, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmissaoService emissaoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        RelogioDeTeste.parar(clock, AGORA);
+    }
+
+    @Test
+    @DisplayName("POST /tickets com veículo novo: consulta e insere o veículo e insere o ticket")
+    void emissaoDeVeiculoNovo() throws Exception {
+        noMaximo(3, "POST /tickets (veículo novo)", () -> mockMvc.perform(emitir("ORC1A11")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /tickets com veículo recorrente: o veículo vem do cadastro em memória e nunca é regravado")
+    void emissaoDeVeiculoRecorrente() throws Exception {
+        Ticket anterior = emissaoService.emitir(new Veiculo("ORC2B22", TipoVeiculo.CARRO));
+        pagamentoService.pagar(anterior);
+        mockMvc.perform(put("/tickets/{id}/exit", anterior.getId())).andExpect(status().isOk());
+
+        noMaximo(1, "POST /tickets (veículo recorrente)", () -> mockMvc.perform(emitir("ORC2B22")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /tickets com veículo já no pátio: respondido pelo índice de tickets ativos")
+    void emissaoDeVeiculoJaNoPatio() throws Exception {
+        emissaoService.emitir(new Veiculo("ORC3C33", TipoVeiculo.CARRO));
+
+        noMaximo(0, "POST /tickets (já no pátio)", () -> mockMvc.perform(emitir("ORC3C33")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /tickets/batch: a quantidade de comandos não cresce com o tamanho do lote")
+    void emissaoEmLote() throws Exception {
+        List<Veiculo> leituras = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            leituras.add(new Veiculo(String.format("LTE%d%c%02d", i % 10, (char) ('A' + i % 26), i), TipoVeiculo.CARRO));
+        }
+        String corpo = objectMapper.writeValueAsString(leituras);
+
+        noMaximo(3, "POST /tickets/batch (50 veículos)", () -> mockMvc.perform(post("/tickets/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /tickets/batch com veículos já no pátio: respondido pelo índice, sem SQL")
+    void emissaoEmLoteJaNoPatio() throws Exception {
+        emissaoService.emitir(new Veiculo("LTP1A11", TipoVeiculo.CARRO));
+        emissaoService.emitir(new Veiculo("LTP2B22", TipoVeiculo.MOTO));
+        String corpo = objectMapper.writeValueAsString(List.of(
+                new Veiculo("LTP1A11", TipoVeiculo.CARRO), new Veiculo("LTP2B22", TipoVeiculo.MOTO)));
+
+        noMaximo(0, "POST /tickets/batch (já no pátio)", () -> mockMvc.perform(post("/tickets/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("GET /tickets/{id}: ticket e veículo em uma única consulta")
+    void consulta() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("ORC4D44", TipoVeiculo.CARRO)).getId();
+
+        noMaximo(1, "GET /tickets/{id}", () -> mockMvc.perform(get("/tickets/{id}", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("GET /tickets/{id} repetido: respondido pelo cache de tickets")
+    void consultaRepetida() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("ORC4D45", TipoVeiculo.CARRO)).getId();
+        mockMvc.perform(get("/tickets/{id}", id)).andExpect(status().isOk());
+
+        noMaximo(0, "GET /tickets/{id} (repetido)", () -> mockMvc.perform(get("/tickets/{id}", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("PUT /tickets/{id}/pay: lê o ticket, procura pagamento assíncrono vigente e grava a transição")
+    void pagamento() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("ORC5E55", TipoVeiculo.CARRO)).getId();
+
+        noMaximo(3, "PUT /tickets/{id}/pay", () -> mockMvc.perform(put("/tickets/{id}/pay", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("PUT /tickets/{id}/exit: lê o ticket e grava a transição")
+    void saida() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("ORC6F66", TipoVeiculo.CARRO));
+        pagamentoService.pagar(ticket);
+
+        noMaximo(2, "PUT /tickets/{id}/exit", () -> mockMvc.perform(put("/tickets/{id}/exit", ticket.getId())).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("PUT /tickets/{id}/exempt-by-receipt: lê o ticket, confere o pagamento em andamento e grava a transição")
+    void isencaoPorComprovante() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("ORC7G77", TipoVeiculo.CARRO)).getId();
+
+        noMaximo(3, "PUT /tickets/{id}/exempt-by-receipt", () -> mockMvc.perform(put("/tickets/{id}/exempt-by-receipt", id)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("COMPROVANTE_VALIDO")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("PUT /tickets/{id}/exempt-employee: lê o ticket, confere o pagamento em andamento e grava a transição")
+    void isencaoDeFuncionario() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("GJK8D74", TipoVeiculo.CARRO)).getId();
+
+        noMaximo(3, "PUT /tickets/{id}/exempt-employee", () -> mockMvc.perform(put("/tickets/{id}/exempt-employee", id)).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("POST /tickets/{id}/payments: lê o ticket, procura a intenção vigente e grava intenção e ticket")
+    void solicitacaoDePagamento() throws Exception {
+        String id = emissaoService.emitir(new Veiculo("ORC9H99", TipoVeiculo.CARRO)).getId();
+
+        noMaximo(4, "POST /tickets/{id}/payments", () -> mockMvc.perform(post("/tickets/{id}/payments", id)).andExpect(status().isAccepted()));
+    }
+
+    private RequestBuilder emitir(String placa) throws Exception {
+        return post("/tickets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Veiculo(placa, TipoVeiculo.CARRO)));
+    }
+}
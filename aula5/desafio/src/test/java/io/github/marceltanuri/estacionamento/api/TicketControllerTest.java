@@ -1,6 +1,7 @@
 package io.github.marceltanuri.estacionamento.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.marceltanuri.estacionamento.config.RelogioDeTeste;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
@@ -12,24 +13,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean; // Importação necessária
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Clock;
-import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content; // Importação adicionada
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// O relógio é um mock congelado; o despacho de pagamentos assíncronos não participa destes cenários
+@SpringBootTest(properties = "estacionamento.pagamentos.despacho-habilitado=false")
 @AutoConfigureMockMvc
+@Import(RelogioDeTeste.class)
 class TicketControllerTest {
 
     @Autowired
@@ -44,8 +48,8 @@ class TicketControllerTest {
     @Autowired
     private TicketRepository ticketRepository;
 
-    // Substitui o bean Clock de produção por um mock controlável
-    @MockBean 
+    // Mock controlável que substitui o bean Clock de produção
+    @Autowired
     private Clock clock;
 
     private final String PLACA_CARRO = "ABC1B23";
@@ -58,9 +62,7 @@ class TicketControllerTest {
      * Helper para configurar o Mock do Clock para um horário específico.
      */
     private void setupMockClock(LocalDateTime dateTime) {
-        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
-        when(clock.instant()).thenReturn(instant);
-        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        RelogioDeTeste.parar(clock, dateTime);
     }
 
     @BeforeEach
@@ -102,6 +104,15 @@ class TicketControllerTest {
                 .andExpect(jsonPath("$.entrada").exists());
     }
 
+    @Test
+    @DisplayName("Deve recusar a emissão para placa fora do padrão Mercosul")
+    void shouldRejectInvalidPlate() throws Exception {
+        mockMvc.perform(post("/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"placa\":\"ABC-123\",\"tipo\":\"CARRO\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Deve emitir ticket com sucesso para um veículo tipo MOTO")
     void shouldEmitTicketSuccessfullyForMotorcycle() throws Exception {
@@ -116,6 +127,30 @@ class TicketControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDENTE"));
     }
 
+    @Test
+    @DisplayName("Deve emitir em lote, retornando um resultado por placa distinta")
+    void shouldEmitTicketsInBatch() throws Exception {
+        Ticket jaNoPatio = emissaoService.emitir(new Veiculo("BAT1A11", TipoVeiculo.CARRO));
+        List<Veiculo> leituras = List.of(
+                new Veiculo("BAT1A11", TipoVeiculo.CARRO),
+                new Veiculo("BAT2B22", TipoVeiculo.MOTO),
+                new Veiculo("BAT2B22", TipoVeiculo.MOTO),
+                new Veiculo("BAT3C33", TipoVeiculo.CAMINHAO));
+
+        mockMvc.perform(post("/tickets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(leituras)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].placa").value("BAT1A11"))
+                .andExpect(jsonPath("$[0].situacao").value("JA_ATIVO"))
+                .andExpect(jsonPath("$[0].ticket.id").value(jaNoPatio.getId()))
+                .andExpect(jsonPath("$[1].situacao").value("EMITIDO"))
+                .andExpect(jsonPath("$[1].ticket.veiculo.tipo").value("MOTO"))
+                .andExpect(jsonPath("$[2].placa").value("BAT3C33"))
+                .andExpect(jsonPath("$[2].situacao").value("EMITIDO"));
+    }
+
     @Test
     @DisplayName("Deve buscar um ticket pelo ID")
     void shouldGetTicketById() throws Exception {
@@ -138,6 +173,62 @@ class TicketControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Deve encontrar o ticket ativo por uma leitura da câmera com O/0 e B/8 trocados, até a saída")
+    void shouldLookUpActiveTicketByMisreadPlate() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("BOI1Q10", TipoVeiculo.CARRO));
+
+        mockMvc.perform(get("/tickets/lookup").param("plate", "80i1q10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].distancia").value(2))
+                .andExpect(jsonPath("$[0].ticket.id").value(ticket.getId()));
+        mockMvc.perform(get("/tickets/lookup").param("plate", "80I1Q10").param("maxDistance", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].ticket.id", not(hasItem(ticket.getId()))));
+        mockMvc.perform(get("/tickets/lookup").param("plate", "80I1Q10").param("maxDistance", "9"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/tickets/" + ticket.getId() + "/pay")).andExpect(status().isOk());
+        mockMvc.perform(put("/tickets/" + ticket.getId() + "/exit")).andExpect(status().isOk());
+        mockMvc.perform(get("/tickets/lookup").param("plate", "80I1Q10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].ticket.id", not(hasItem(ticket.getId()))));
+    }
+
+    @Test
+    @DisplayName("Deve cotar o ticket até o fim da hora cobrada, com ETag, e recusar a cotação depois do pagamento")
+    void shouldQuoteTicketUntilEndOfBilledHour() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("COT1A23", TipoVeiculo.CARRO));
+        setupMockClock(DEFAULT_TIME.plusMinutes(30));
+
+        String etag = mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor").value(10.00))
+                .andExpect(jsonPath("$.validaAte").value("2025-01-01T11:01:00"))
+                .andExpect(header().string("Cache-Control", "max-age=1860, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        setupMockClock(DEFAULT_TIME.plusMinutes(61));
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor").value(20.00))
+                .andExpect(header().string("ETag", not(etag)));
+
+        setupMockClock(DEFAULT_TIME.plusMinutes(90));
+        String segundaHora = mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote").header("If-None-Match", segundaHora))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote").header("If-None-Match", "\"outra\", W/" + segundaHora))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/tickets/" + ticket.getId() + "/pay")).andExpect(status().isOk());
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/quote"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Ticket com status PAGO não pode ser pago."));
+        mockMvc.perform(get("/tickets/nao-existe/quote")).andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Deve processar a saída de um veículo com ticket pago")
     void shouldProcessExitWithPaidTicket() throws Exception {
@@ -164,6 +255,18 @@ class TicketControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Deve recusar com 400 um comprovante de compra inválido")
+    void shouldRejectInvalidReceipt() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("PQR7G79", TipoVeiculo.CARRO));
+
+        mockMvc.perform(put("/tickets/" + ticket.getId() + "/exempt-by-receipt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("COMPROVANTE_FALSO"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Comprovante inválido."));
+    }
+
     @Test
     @DisplayName("Deve isentar um ticket de funcionário")
     void shouldExemptEmployeeTicket() throws Exception {
@@ -220,4 +323,25 @@ class TicketControllerTest {
                 .andExpect(status().isOk());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve atribuir a vaga mais próxima e informar as vagas ocupadas e livres por tipo a cada emissão")
+    void shouldReportOccupancyPerVehicleType() throws Exception {
+        int ocupadasAntes = objectMapper.readTree(mockMvc.perform(get("/ocupacao"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).path("CAMINHAO").path("ocupadas").asInt();
+
+        mockMvc.perform(post("/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Veiculo("OCU1P23", TipoVeiculo.CAMINHAO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vaga.nivel").value(1))
+                .andExpect(jsonPath("$.vaga.numero").value(ocupadasAntes + 1));
+
+        mockMvc.perform(get("/ocupacao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.CAMINHAO.ocupadas").value(ocupadasAntes + 1))
+                .andExpect(jsonPath("$.CAMINHAO.capacidade").value(50))
+                .andExpect(jsonPath("$.CAMINHAO.livres").value(50 - ocupadasAntes - 1));
+    }
+}
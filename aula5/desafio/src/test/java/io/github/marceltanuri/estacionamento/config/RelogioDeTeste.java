@@ -0,0 +1,43 @@
+package io.github.marceltanuri.estacionamento.config;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Relógio mock para os testes com contexto do Spring. Ao contrário de um {@code @MockBean}, já nasce parado em
+ * {@link #INICIO}, então os beans que leem o relógio na inicialização (como o expirador de tolerâncias) não veem
+ * o instante zero.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class RelogioDeTeste {
+
+    public static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 10, 0, 0);
+
+    @Bean
+    @Primary
+    Clock relogioDeTeste() {
+        Clock clock = mock(Clock.class, withSettings().stubOnly());
+        parar(clock, INICIO);
+        return clock;
+    }
+
+    /**
+     * Para o relógio em {@code dataHora}, com {@code instant()} e {@code millis()} coerentes entre si.
+     */
+    public static void parar(Clock clock, LocalDateTime dataHora) {
+        Instant instante = dataHora.atZone(ZoneId.systemDefault()).toInstant();
+        when(clock.instant()).thenReturn(instante);
+        when(clock.millis()).thenReturn(instante.toEpochMilli());
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+    }
+}
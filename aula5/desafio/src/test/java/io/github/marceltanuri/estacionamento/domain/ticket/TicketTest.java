@@ -174,4 +174,30 @@ class TicketTest {
         assertTrue(exception.getMessage().contains("não pode ser isentado"));
         assertEquals(Status.FINALIZADO, ticket.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve expirar o pagamento somente a partir do fim da tolerância")
+    void deveExpirarPagamentoNoFimDaTolerancia() {
+        Ticket ticket = Ticket.novo(veiculo, entrada);
+        LocalDateTime pagamento = entrada.plusHours(1);
+        ticket.pagar(pagamento);
+
+        assertEquals(pagamento.plusMinutes(16), ticket.fimDaTolerancia());
+        assertFalse(ticket.expirarToleranciaVencida(pagamento.plusMinutes(15).plusSeconds(59)));
+        assertEquals(Status.PAGO, ticket.getStatus());
+        assertTrue(ticket.expirarToleranciaVencida(pagamento.plusMinutes(16)));
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, ticket.getStatus());
+        assertNull(ticket.fimDaTolerancia());
+    }
+
+    @Test
+    @DisplayName("Deve contar a tolerância da isenção a partir da entrada")
+    void deveExpirarIsencaoNoFimDaTolerancia() {
+        Ticket ticket = Ticket.novo(veiculo, entrada);
+        ticket.isentar(Status.ISENTO);
+
+        assertEquals(entrada.plusMinutes(121), ticket.fimDaTolerancia());
+        assertTrue(ticket.expirarToleranciaVencida(entrada.plusMinutes(121)));
+        assertEquals(Status.TOLERANCIA_APOS_ISENCAO_EXPIRADO, ticket.getStatus());
+    }
+}
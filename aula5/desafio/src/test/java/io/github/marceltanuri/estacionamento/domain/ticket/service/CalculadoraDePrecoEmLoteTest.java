@@ -0,0 +1,70 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculadoraDePrecoEmLoteTest {
+
+    private CalculadoraDePreco calculadoraDePreco;
+    private CalculadoraDePrecoEmLote calculadoraEmLote;
+    private final LocalDateTime REFERENCIA = LocalDateTime.of(2025, 11, 26, 18, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        calculadoraDePreco = new CalculadoraDePreco(TarifasConfiguradas.carregar());
+        calculadoraEmLote = new CalculadoraDePrecoEmLote(calculadoraDePreco);
+    }
+
+    @Test
+    @DisplayName("Deve precificar um lote grande em paralelo com o mesmo resultado do cálculo individual")
+    void devePrecificarLoteGrandeComMesmoResultadoIndividual() {
+        int quantidade = CalculadoraDePrecoEmLote.LIMIAR_PARALELISMO * 4 + 123;
+        Veiculo.TipoVeiculo[] tipos = new Veiculo.TipoVeiculo[quantidade];
+        long[] entradas = new long[quantidade];
+        List<Ticket> tickets = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            tipos[i] = Veiculo.TipoVeiculo.values()[i % Veiculo.TipoVeiculo.values().length];
+            LocalDateTime entrada = REFERENCIA.minusSeconds(i * 37L);
+            entradas[i] = entrada.toEpochSecond(ZoneOffset.UTC);
+            tickets.add(Ticket.novo(new Veiculo("ABC1234", tipos[i]), entrada));
+        }
+        long[] resultado = new long[quantidade];
+
+        calculadoraEmLote.calcular(tipos, entradas, REFERENCIA.toEpochSecond(ZoneOffset.UTC), resultado);
+
+        for (int i = 0; i < quantidade; i++) {
+            assertEquals(calculadoraDePreco.calcularEmCentavos(tickets.get(i), REFERENCIA), resultado[i], "Posição " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve precificar lista de tickets respeitando frações de segundo da entrada")
+    void devePrecificarListaDeTicketsComFracoesDeSegundo() {
+        Ticket umaHoraExata = Ticket.novo(new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO),
+                REFERENCIA.minusHours(1).minusSeconds(60).plusNanos(500_000_000));
+        Ticket tresHoras = Ticket.novo(new Veiculo("XYZ5678", Veiculo.TipoVeiculo.MOTO), REFERENCIA.minusHours(2).minusMinutes(1));
+
+        long[] resultado = calculadoraEmLote.calcular(List.of(umaHoraExata, tresHoras), REFERENCIA);
+
+        // 1h 00min 59.5s: 60 minutos completos, cobrado como 1h
+        assertArrayEquals(new long[]{10_00, 12_50}, resultado);
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar arrays de tamanhos diferentes")
+    void naoDeveAceitarArraysDeTamanhosDiferentes() {
+        assertThrows(IllegalArgumentException.class, () -> calculadoraEmLote.calcular(
+                new Veiculo.TipoVeiculo[2], new long[3], 0, new long[3]));
+    }
+}
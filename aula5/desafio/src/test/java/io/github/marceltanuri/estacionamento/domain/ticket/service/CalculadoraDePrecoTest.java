@@ -1,15 +1,22 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CalculadoraDePrecoTest {
 
@@ -18,7 +25,7 @@ class CalculadoraDePrecoTest {
 
     @BeforeEach
     void setUp() {
-        calculadoraDePreco = new CalculadoraDePreco();
+        calculadoraDePreco = new CalculadoraDePreco(TarifasConfiguradas.carregar());
         entryTime = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
     }
 
@@ -125,4 +132,117 @@ class CalculadoraDePrecoTest {
         assertEquals(new BigDecimal("10.00"), precoBeforeEntry); // Minimum 1 hour charge
     }
 
+    @ParameterizedTest
+    @EnumSource(value = Veiculo.TipoVeiculo.class, names = {"CARRO", "MOTO"})
+    @DisplayName("Deve produzir o mesmo preço do cálculo em BigDecimal para permanências de 0 a 48 horas")
+    void deveManterPrecoDoCalculoOriginal(Veiculo.TipoVeiculo tipo) {
+        Ticket ticket = Ticket.novo(new Veiculo("ABC1234", tipo), entryTime.plusNanos(500_000_000));
+
+        for (int segundos = -3600; segundos <= 48 * 3600; segundos += 17) {
+            LocalDateTime exitTime = entryTime.plusSeconds(segundos);
+
+            assertEquals(calculoOriginal(ticket, exitTime), calculadoraDePreco.calcular(ticket, exitTime),
+                    "Divergência para " + tipo + " com saída em " + exitTime);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve considerar apenas minutos completos, inclusive com frações de segundo")
+    void deveConsiderarApenasMinutosCompletos() {
+        Veiculo veiculo = new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO);
+        Ticket ticket = Ticket.novo(veiculo, entryTime.plusNanos(900_000_000));
+
+        // 2h 00min 59.6s: ainda 120 minutos completos, cobrado como 2h
+        assertEquals(new BigDecimal("20.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(2).plusSeconds(60).plusNanos(500_000_000)));
+        // 2h 01min 00.1s: 121 minutos completos, cobrado como 3h
+        assertEquals(new BigDecimal("25.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(2).plusSeconds(61)));
+    }
+
+    @Test
+    @DisplayName("Deve cobrar caminhão pela sua própria tabela, limitada pela diária")
+    void deveCalcularPrecoCaminhao() {
+        Ticket ticket = Ticket.novo(new Veiculo("CAM1A23", Veiculo.TipoVeiculo.CAMINHAO), entryTime);
+
+        assertEquals(new BigDecimal("40.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(1).plusMinutes(30)));
+        assertEquals(new BigDecimal("50.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(3)));
+        assertEquals(new BigDecimal("100.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(30)));
+    }
+
+    @Test
+    @DisplayName("Deve cotar o preço atual válido até o fim da tolerância ou da hora cobrada")
+    void deveCotarAteOFimDaHoraCobrada() {
+        Map<Veiculo.TipoVeiculo, Tarifa> tarifas = new EnumMap<>(TarifasConfiguradas.carregar());
+        tarifas.put(Veiculo.TipoVeiculo.CARRO, new Tarifa(2, new BigDecimal("10.00"), new BigDecimal("5.00"), new BigDecimal("50.00"), 15));
+        CalculadoraDePreco calculadora = new CalculadoraDePreco(tarifas);
+        Ticket ticket = Ticket.novo(new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), entryTime);
+
+        Cotacao naTolerancia = calculadora.cotar(ticket, entryTime.plusMinutes(14).plusSeconds(59));
+        Cotacao primeiraHora = calculadora.cotar(ticket, entryTime.plusMinutes(15));
+        Cotacao terceiraHora = calculadora.cotar(ticket, entryTime.plusHours(2).plusMinutes(1));
+
+        assertEquals(new BigDecimal("0.00"), naTolerancia.valor());
+        assertEquals(entryTime.plusMinutes(15), naTolerancia.validaAte());
+        assertEquals(new BigDecimal("10.00"), primeiraHora.valor());
+        assertEquals(entryTime.plusMinutes(61), primeiraHora.validaAte());
+        assertEquals(calculadora.calcular(ticket, entryTime.plusMinutes(60).plusSeconds(59)), primeiraHora.valor());
+        assertEquals(new BigDecimal("25.00"), terceiraHora.valor());
+        assertEquals(entryTime.plusMinutes(181), terceiraHora.validaAte());
+    }
+
+    @Test
+    @DisplayName("Não deve cobrar permanência dentro da tolerância da tarifa")
+    void naoDeveCobrarDentroDaTolerancia() {
+        Map<Veiculo.TipoVeiculo, Tarifa> tarifas = new EnumMap<>(TarifasConfiguradas.carregar());
+        tarifas.put(Veiculo.TipoVeiculo.CARRO, new Tarifa(2, new BigDecimal("10.00"), new BigDecimal("5.00"), new BigDecimal("50.00"), 15));
+        CalculadoraDePreco calculadora = new CalculadoraDePreco(tarifas);
+        Ticket ticket = Ticket.novo(new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), entryTime);
+
+        assertEquals(new BigDecimal("0.00"), calculadora.calcular(ticket, entryTime.plusMinutes(14).plusSeconds(59)));
+        assertEquals(new BigDecimal("10.00"), calculadora.calcular(ticket, entryTime.plusMinutes(15)));
+    }
+
+    @Test
+    @DisplayName("Deve passar a usar as novas tarifas após a atualização")
+    void deveAtualizarTarifas() {
+        Ticket ticket = Ticket.novo(new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), entryTime);
+        Map<Veiculo.TipoVeiculo, Tarifa> tarifas = new EnumMap<>(TarifasConfiguradas.carregar());
+        tarifas.put(Veiculo.TipoVeiculo.CARRO, new Tarifa(1, new BigDecimal("12.00"), new BigDecimal("6.00"), null, 0));
+
+        calculadoraDePreco.atualizarTarifas(tarifas);
+
+        assertEquals(new BigDecimal("24.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(3)));
+        assertEquals(tarifas, calculadoraDePreco.getTarifas());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tarifas sem todos os tipos de veículo e manter as atuais")
+    void deveRejeitarTarifasIncompletas() {
+        Ticket ticket = Ticket.novo(new Veiculo("CAM1A23", Veiculo.TipoVeiculo.CAMINHAO), entryTime);
+        Map<Veiculo.TipoVeiculo, Tarifa> semCaminhao = new EnumMap<>(TarifasConfiguradas.carregar());
+        semCaminhao.remove(Veiculo.TipoVeiculo.CAMINHAO);
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> calculadoraDePreco.atualizarTarifas(semCaminhao));
+
+        assertEquals("Tarifa não configurada para CAMINHAO.", thrown.getMessage());
+        assertEquals(new BigDecimal("40.00"), calculadoraDePreco.calcular(ticket, entryTime.plusHours(2)));
+    }
+
+    // Cálculo anterior às tabelas pré-calculadas, mantido como referência de equivalência
+    private static BigDecimal calculoOriginal(Ticket ticket, LocalDateTime dataHoraSaida) {
+        long horas = (long) Math.ceil(Duration.between(ticket.getEntrada(), dataHoraSaida).toMinutes() / 60.0);
+        if (horas <= 0) {
+            horas = 1;
+        }
+        return switch (ticket.getVeiculo().getTipo()) {
+            case CARRO -> horas > 8 ? new BigDecimal("50.00") : horas <= 2
+                    ? new BigDecimal("10.00").multiply(BigDecimal.valueOf(horas))
+                    : new BigDecimal("20.00").add(new BigDecimal("5.00").multiply(BigDecimal.valueOf(horas - 2)));
+            case MOTO -> horas <= 2
+                    ? new BigDecimal("5.00").multiply(BigDecimal.valueOf(horas))
+                    : new BigDecimal("10.00").add(new BigDecimal("2.50").multiply(BigDecimal.valueOf(horas - 2)));
+            default -> throw new IllegalArgumentException("Sem cálculo de referência para " + ticket.getVeiculo().getTipo());
+        };
+    }
+
 }
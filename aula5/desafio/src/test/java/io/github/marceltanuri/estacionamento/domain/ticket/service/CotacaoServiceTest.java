@@ -0,0 +1,121 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CotacaoServiceTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private Clock clock;
+
+    private final CalculadoraDePreco calculadoraDePreco = new CalculadoraDePreco(TarifasConfiguradas.carregar());
+    private CotacaoService cotacaoService;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        cotacaoService = new CotacaoService(ticketRepository, calculadoraDePreco, clock);
+        ticket = new Ticket("cotado", new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), ENTRADA, null, null, Status.PENDENTE);
+        when(ticketRepository.findById("cotado")).thenReturn(Optional.of(ticket));
+    }
+
+    @Test
+    @DisplayName("Deve responder as consultas da mesma hora cobrada sem recalcular o preço")
+    void deveReaproveitarCotacaoDaMesmaHora() {
+        ajustarRelogio(ENTRADA.plusMinutes(5));
+        Cotacao primeira = cotacaoService.cotar("cotado").orElseThrow();
+        ajustarRelogio(ENTRADA.plusMinutes(60).plusSeconds(59));
+        Cotacao ultimaDaHora = cotacaoService.cotar("cotado").orElseThrow();
+
+        assertSame(primeira, ultimaDaHora);
+        assertEquals(new BigDecimal("10.00"), primeira.valor());
+        assertEquals(ENTRADA.plusMinutes(61), primeira.validaAte());
+
+        ajustarRelogio(ENTRADA.plusMinutes(61));
+        Cotacao segundaHora = cotacaoService.cotar("cotado").orElseThrow();
+        assertEquals(new BigDecimal("20.00"), segundaHora.valor());
+        assertNotEquals(primeira.etag(), segundaHora.etag());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a cotação consultada há mais tempo quando o cache estiver cheio")
+    void deveDescartarCotacaoMenosRecenteComCacheCheio() {
+        ajustarRelogio(ENTRADA.plusMinutes(5));
+        when(ticketRepository.findById(startsWith("outro-"))).thenAnswer(invocacao -> Optional.of(new Ticket(invocacao.getArgument(0),
+                new Veiculo("XYZ9876", Veiculo.TipoVeiculo.MOTO), ENTRADA, null, null, Status.PENDENTE)));
+        Cotacao cotado = cotacaoService.cotar("cotado").orElseThrow();
+        Cotacao maisAntiga = cotacaoService.cotar("outro-0").orElseThrow();
+        for (int i = 1; i < 9_999; i++) {
+            cotacaoService.cotar("outro-" + i);
+        }
+
+        assertSame(cotado, cotacaoService.cotar("cotado").orElseThrow());
+        cotacaoService.cotar("outro-9999");
+
+        assertSame(cotado, cotacaoService.cotar("cotado").orElseThrow());
+        assertNotSame(maisAntiga, cotacaoService.cotar("outro-0").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular a cotação depois de uma troca de tarifas ou de uma alteração do ticket")
+    void deveDescartarCotacaoAposTrocaDeTarifasOuAlteracao() {
+        ajustarRelogio(ENTRADA.plusMinutes(5));
+        cotacaoService.cotar("cotado");
+
+        Map<Veiculo.TipoVeiculo, Tarifa> tarifas = new EnumMap<>(TarifasConfiguradas.carregar());
+        tarifas.put(Veiculo.TipoVeiculo.CARRO, new Tarifa(2, new BigDecimal("12.00"), new BigDecimal("6.00"), null, 0));
+        calculadoraDePreco.atualizarTarifas(tarifas);
+        assertEquals(new BigDecimal("12.00"), cotacaoService.cotar("cotado").orElseThrow().valor());
+
+        ticket.pagar(ENTRADA.plusMinutes(6));
+        IllegalStateException recusa = assertThrows(IllegalStateException.class, () -> cotacaoService.cotar("cotado"));
+        assertEquals("Ticket com status PAGO não pode ser pago.", recusa.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular a cotação quando o ticket for gravado em outra versão por quem não usa o serviço")
+    void deveRecalcularCotacaoDeOutraVersao() {
+        ajustarRelogio(ENTRADA.plusMinutes(5));
+        Cotacao primeira = cotacaoService.cotar("cotado").orElseThrow();
+        assertSame(primeira, cotacaoService.cotar("cotado").orElseThrow());
+
+        Ticket regravado = new Ticket("cotado", ticket.getVeiculo(), ENTRADA, null, null, Status.PENDENTE, 1);
+        when(ticketRepository.findById("cotado")).thenReturn(Optional.of(regravado));
+        Cotacao novaVersao = cotacaoService.cotar("cotado").orElseThrow();
+
+        assertEquals(1, novaVersao.versao());
+        assertEquals(primeira.valor(), novaVersao.valor());
+        assertNotEquals(primeira.etag(), novaVersao.etag());
+    }
+
+    private void ajustarRelogio(LocalDateTime agora) {
+        when(clock.instant()).thenReturn(agora.atZone(ZoneId.systemDefault()).toInstant());
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.CadastroDeVeiculos;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.IndiceTicketsAtivos;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.RelogioDoSistema;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.TicketMapper;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.TicketRepositoryImpl;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.VeiculoMapper;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara milhares de emissões paralelas para placas repetidas contra o banco real (H2).
+ * Duas instâncias de {@link EmissaoService} simulam duas instâncias da aplicação,
+ * cujas travas não se enxergam e dependem da restrição de placa ativa do banco.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TicketRepositoryImpl.class, TicketMapper.class, VeiculoMapper.class, IndiceTicketsAtivos.class, CadastroDeVeiculos.class, GeradorSnowflake.class, RelogioDoSistema.class})
+class EmissaoServiceConcorrenciaTest {
+
+    private static final int EMISSOES = 2000;
+    private static final int PLACAS = 40;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TicketRepositoryImpl ticketRepository;
+
+    @Autowired
+    private TicketJpaRepository ticketJpaRepository;
+
+    @BeforeEach
+    void sincronizarIndice() {
+        // O contexto é compartilhado com testes transacionais, cujo rollback não alcança o índice
+        ticketRepository.reconstruirIndice();
+    }
+
+    @AfterEach
+    void limparBanco() {
+        // Sem transação de teste não há rollback automático
+        ticketJpaRepository.deleteAll();
+        ticketRepository.reconstruirIndice();
+    }
+
+    @Test
+    @DisplayName("Deve emitir um único ticket ativo por placa sob emissões concorrentes")
+    void deveEmitirUmUnicoTicketAtivoPorPlaca() throws Exception {
+        EmissaoService[] instancias = {
+                new EmissaoService(ticketRepository, Clock.systemDefaultZone()),
+                new EmissaoService(ticketRepository, Clock.systemDefaultZone())
+        };
+        Map<String, Set<String>> idsPorPlaca = new ConcurrentHashMap<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> resultados = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < EMISSOES; i++) {
+                EmissaoService emissaoService = instancias[i % instancias.length];
+                Veiculo veiculo = new Veiculo(String.format("CON%dA%02d", (i / 7) % 10, i % PLACAS), Veiculo.TipoVeiculo.CARRO);
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    Ticket ticket = emissaoService.emitir(veiculo);
+                    idsPorPlaca.computeIfAbsent(veiculo.getPlaca(), p -> ConcurrentHashMap.newKeySet()).add(ticket.getId());
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, Long> ativosPorPlaca = ticketJpaRepository.findByStatusNot(Status.FINALIZADO).stream()
+                .collect(Collectors.groupingBy(t -> t.getVeiculo().getPlaca(), Collectors.counting()));
+        assertFalse(ativosPorPlaca.isEmpty());
+        ativosPorPlaca.forEach((placa, quantidade) -> assertEquals(1L, quantidade, "Tickets ativos para " + placa));
+        idsPorPlaca.forEach((placa, ids) -> assertEquals(1, ids.size(), "Tickets retornados para " + placa));
+        assertEquals(ativosPorPlaca.keySet(), idsPorPlaca.keySet());
+        assertEquals(ticketJpaRepository.count(), ativosPorPlaca.size());
+        assertEquals(List.of(), ticketRepository.verificarConsistenciaDoIndice());
+    }
+
+    @Test
+    @DisplayName("Deve emitir novo ticket para veículo que retorna após ter saído")
+    void deveEmitirNovoTicketParaVeiculoQueRetorna() {
+        EmissaoService emissaoService = new EmissaoService(ticketRepository, Clock.systemDefaultZone());
+        Veiculo veiculo = new Veiculo("RET1A23", Veiculo.TipoVeiculo.CARRO);
+        Ticket primeiraVisita = emissaoService.emitir(veiculo);
+        primeiraVisita.finalizar(primeiraVisita.getEntrada().plusMinutes(10));
+        ticketRepository.save(primeiraVisita);
+
+        Ticket segundaVisita = emissaoService.emitir(veiculo);
+
+        assertNotEquals(primeiraVisita.getId(), segundaVisita.getId());
+        TicketEntity finalizado = ticketJpaRepository.findById(primeiraVisita.getId()).orElseThrow();
+        assertNull(finalizado.getPlacaAtiva());
+        assertEquals("RET1A23", ticketJpaRepository.findById(segundaVisita.getId()).orElseThrow().getPlacaAtiva());
+    }
+}
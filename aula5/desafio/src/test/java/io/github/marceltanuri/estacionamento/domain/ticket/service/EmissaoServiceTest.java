@@ -1,7 +1,12 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.EstacionamentoLotadoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 
@@ -11,12 +16,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,6 +40,12 @@ class EmissaoServiceTest {
     @Mock
     private Clock clock;
 
+    @Spy
+    private Ocupacao ocupacao = Ocupacao.semLimite();
+
+    @Spy
+    private AlocadorDeVagas alocadorDeVagas = AlocadorDeVagas.semVagas();
+
     @InjectMocks
     private EmissaoService emissaoService;
 
@@ -85,4 +99,141 @@ class EmissaoServiceTest {
         assertEquals(existingTicket.getStatus(), result.getStatus());
         verify(ticketRepository, never()).save(any(Ticket.class));
     }
+
+    @Test
+    @DisplayName("Deve retornar o ticket de quem venceu a corrida quando outra emissão gravar primeiro")
+    void deveRetornarTicketVencedorEmCasoDeConflito() {
+        // GIVEN
+        Veiculo veiculo = new Veiculo("XYZ9876", Veiculo.TipoVeiculo.CARRO);
+        Ticket ticketVencedor = new Ticket("vencedor", veiculo, FIXED_DATE_TIME, null, null, Status.PENDENTE);
+        when(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(veiculo.getPlaca()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(ticketVencedor));
+        when(ticketRepository.save(any(Ticket.class))).thenThrow(new TicketAtivoExistenteException(veiculo.getPlaca(), null));
+
+        // WHEN
+        Ticket result = emissaoService.emitir(veiculo);
+
+        // THEN
+        assertEquals("vencedor", result.getId());
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("Deve emitir lote com uma consulta e uma gravação, ignorando placas repetidas e mantendo tickets ativos")
+    void deveEmitirLoteComUmaConsultaEUmaGravacao() {
+        // GIVEN
+        Veiculo ativo = new Veiculo("AAA1A11", Veiculo.TipoVeiculo.CARRO);
+        Veiculo novo = new Veiculo("BBB2B22", Veiculo.TipoVeiculo.MOTO);
+        Ticket ticketAtivo = new Ticket("ativo", ativo, FIXED_DATE_TIME.minusHours(1), null, null, Status.PENDENTE);
+        when(ticketRepository.findAtivosPorPlacas(argThat(placas -> List.copyOf(placas).equals(List.of("AAA1A11", "BBB2B22")))))
+                .thenReturn(List.of(ticketAtivo));
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocacao -> {
+            List<Ticket> novos = invocacao.getArgument(0);
+            return novos.stream().map(t -> new Ticket("novo-" + t.getVeiculo().getPlaca(), t.getVeiculo(), t.getEntrada(),
+                    null, null, t.getStatus())).toList();
+        });
+
+        // WHEN
+        List<ResultadoEmissao> resultados = emissaoService.emitirEmLote(List.of(ativo, novo, novo, ativo));
+
+        // THEN
+        assertEquals(2, resultados.size());
+        assertEquals(new ResultadoEmissao("AAA1A11", ResultadoEmissao.Situacao.JA_ATIVO, ticketAtivo), resultados.get(0));
+        assertEquals("BBB2B22", resultados.get(1).placa());
+        assertEquals(ResultadoEmissao.Situacao.EMITIDO, resultados.get(1).situacao());
+        assertEquals("novo-BBB2B22", resultados.get(1).ticket().getId());
+        assertEquals(FIXED_DATE_TIME, resultados.get(1).ticket().getEntrada());
+        verify(ticketRepository, times(1)).saveAll(argThat(novos -> novos.size() == 1));
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("Deve refazer o lote item a item quando a gravação em lote for recusada")
+    void deveRefazerLoteItemAItemQuandoGravacaoEmLoteFalhar() {
+        // GIVEN
+        Veiculo concorrente = new Veiculo("CCC3C33", Veiculo.TipoVeiculo.CARRO);
+        Veiculo novo = new Veiculo("DDD4D44", Veiculo.TipoVeiculo.CARRO);
+        Ticket ticketConcorrente = new Ticket("outra-instancia", concorrente, FIXED_DATE_TIME, null, null, Status.PENDENTE);
+        when(ticketRepository.findAtivosPorPlacas(anyCollection())).thenReturn(List.of());
+        when(ticketRepository.saveAll(anyList())).thenThrow(new TicketAtivoExistenteException("CCC3C33", null));
+        when(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("CCC3C33")).thenReturn(Optional.of(ticketConcorrente));
+        when(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("DDD4D44")).thenReturn(Optional.empty());
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // WHEN
+        List<ResultadoEmissao> resultados = emissaoService.emitirEmLote(List.of(concorrente, novo));
+
+        // THEN
+        assertEquals(ResultadoEmissao.Situacao.JA_ATIVO, resultados.get(0).situacao());
+        assertEquals("outra-instancia", resultados.get(0).ticket().getId());
+        assertEquals(ResultadoEmissao.Situacao.EMITIDO, resultados.get(1).situacao());
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("Deve propagar falhas do lote que não sejam de restrição, liberando as vagas reservadas")
+    void devePropagarFalhaDoLoteQueNaoSejaDeRestricao() {
+        // GIVEN
+        Ocupacao duasVagasDeCarro = new Ocupacao(Map.of(Veiculo.TipoVeiculo.CARRO, 2));
+        EmissaoService emissao = new EmissaoService(ticketRepository, FIXED_CLOCK, duasVagasDeCarro);
+        when(ticketRepository.findAtivosPorPlacas(anyCollection())).thenReturn(List.of());
+        when(ticketRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Conexão perdida"));
+
+        // WHEN
+        assertThrows(IllegalStateException.class, () -> emissao.emitirEmLote(List.of(
+                new Veiculo("EEE5E55", Veiculo.TipoVeiculo.CARRO), new Veiculo("FFF6F66", Veiculo.TipoVeiculo.CARRO))));
+
+        // THEN
+        assertEquals(0, duasVagasDeCarro.ocupadas(Veiculo.TipoVeiculo.CARRO));
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("Deve tentar a próxima vaga livre quando a vaga atribuída já estiver com ticket de outra instância")
+    void deveTentarProximaVagaQuandoVagaEstiverOcupada() {
+        // GIVEN
+        AlocadorDeVagas tresVagas = new AlocadorDeVagas(Map.of(Veiculo.TipoVeiculo.CARRO, List.of(3)));
+        Ocupacao dezVagas = new Ocupacao(Map.of(Veiculo.TipoVeiculo.CARRO, 10));
+        EmissaoService emissao = new EmissaoService(ticketRepository, FIXED_CLOCK, dezVagas, tresVagas);
+        when(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("GGG7G77")).thenReturn(Optional.empty());
+        when(ticketRepository.save(argThat(t -> t != null && t.getVaga().numero() == 1)))
+                .thenThrow(new VagaOcupadaException(new Vaga(1, 1), null));
+        when(ticketRepository.save(argThat(t -> t != null && t.getVaga().numero() == 2)))
+                .thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // WHEN
+        Ticket emitido = emissao.emitir(new Veiculo("GGG7G77", Veiculo.TipoVeiculo.CARRO));
+
+        // THEN
+        assertEquals(new Vaga(1, 2), emitido.getVaga());
+        assertEquals(1, tresVagas.livres(Veiculo.TipoVeiculo.CARRO));
+        assertEquals(1, dezVagas.ocupadas(Veiculo.TipoVeiculo.CARRO));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a emissão sem vaga para o tipo do veículo, inclusive no lote")
+    void deveRecusarEmissaoSemVaga() {
+        // GIVEN
+        Ocupacao umaVagaDeCarro = new Ocupacao(Map.of(Veiculo.TipoVeiculo.CARRO, 1));
+        EmissaoService emissao = new EmissaoService(ticketRepository, FIXED_CLOCK, umaVagaDeCarro);
+        when(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(anyString())).thenReturn(Optional.empty());
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+        when(ticketRepository.findAtivosPorPlacas(anyCollection())).thenReturn(List.of());
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // WHEN
+        emissao.emitir(new Veiculo("VAG1A11", Veiculo.TipoVeiculo.CARRO));
+        List<ResultadoEmissao> lote = emissao.emitirEmLote(List.of(new Veiculo("VAG2B22", Veiculo.TipoVeiculo.CARRO),
+                new Veiculo("VAG3C33", Veiculo.TipoVeiculo.MOTO)));
+
+        // THEN
+        assertThrows(EstacionamentoLotadoException.class, () -> emissao.emitir(new Veiculo("VAG4D44", Veiculo.TipoVeiculo.CARRO)));
+        assertEquals(ResultadoEmissao.Situacao.LOTADO, lote.get(0).situacao());
+        assertNull(lote.get(0).ticket());
+        assertEquals(ResultadoEmissao.Situacao.EMITIDO, lote.get(1).situacao());
+        assertEquals(1, umaVagaDeCarro.ocupadas(Veiculo.TipoVeiculo.CARRO));
+        assertEquals(1, umaVagaDeCarro.ocupadas(Veiculo.TipoVeiculo.MOTO));
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
+    }
 }
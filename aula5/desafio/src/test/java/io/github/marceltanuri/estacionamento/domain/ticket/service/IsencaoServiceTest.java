@@ -1,8 +1,12 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.FuncionarioRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.ValidadorComprovante;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
@@ -14,7 +18,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +34,10 @@ class IsencaoServiceTest {
     private FuncionarioRepository funcionarioRepository;
     @Mock
     private ValidadorComprovante validadorComprovante;
+    @Mock
+    private IntencaoPagamentoRepository intencaoPagamentoRepository;
+    @Mock
+    private AgendaDeExpiracoes agendaDeExpiracoes;
 
     @InjectMocks
     private IsencaoService isencaoService;
@@ -105,4 +115,20 @@ class IsencaoServiceTest {
         assertEquals(Status.PENDENTE, ticketNaoFuncionario.getStatus());
         verify(ticketRepository, never()).save(any(Ticket.class));
     }
+
+    @Test
+    @DisplayName("Não deve isentar ticket com pagamento assíncrono em andamento")
+    void naoDeveIsentarComPagamentoEmAndamento() {
+        Ticket emitido = new Ticket("t1", veiculo, FIXED_ENTRY_TIME, null, null, Status.PENDENTE);
+        when(validadorComprovante.validar("comprovante123")).thenReturn(true);
+        when(intencaoPagamentoRepository.findVigentePorTicket("t1")).thenReturn(Optional.of(new IntencaoPagamento("p1", "t1",
+                new BigDecimal("10.00"), EstadoPagamento.PROCESSANDO, 0, FIXED_ENTRY_TIME, null, FIXED_ENTRY_TIME, null)));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                isencaoService.isentarPorComprovanteDeCompra(emitido, "comprovante123"));
+
+        assertEquals("Ticket t1 já tem um pagamento em andamento.", thrown.getMessage());
+        assertEquals(Status.PENDENTE, emitido.getStatus());
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
 }
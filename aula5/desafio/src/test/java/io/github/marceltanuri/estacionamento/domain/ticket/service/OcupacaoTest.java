@@ -0,0 +1,103 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo.TipoVeiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OcupacaoTest {
+
+    @Test
+    @DisplayName("Deve aceitar reservas concorrentes só até a capacidade do tipo")
+    void deveAceitarReservasConcorrentesAteACapacidade() throws Exception {
+        Ocupacao ocupacao = new Ocupacao(Map.of(TipoVeiculo.CARRO, 100, TipoVeiculo.MOTO, 10));
+        AtomicInteger aceitas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                TipoVeiculo tipo = i % 2 == 0 ? TipoVeiculo.CARRO : TipoVeiculo.MOTO;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    if (ocupacao.reservar(tipo)) {
+                        aceitas.incrementAndGet();
+                        ocupacao.confirmar(tipo);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(110, aceitas.get());
+        assertEquals(100, ocupacao.ocupadas(TipoVeiculo.CARRO));
+        assertEquals(10, ocupacao.ocupadas(TipoVeiculo.MOTO));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a vaga ao cancelar a reserva ou liberar o ticket")
+    void deveDevolverAVagaAoCancelarOuLiberar() {
+        Ocupacao ocupacao = new Ocupacao(Map.of(TipoVeiculo.CAMINHAO, 1));
+
+        assertTrue(ocupacao.reservar(TipoVeiculo.CAMINHAO));
+        assertFalse(ocupacao.reservar(TipoVeiculo.CAMINHAO));
+        ocupacao.cancelar(TipoVeiculo.CAMINHAO);
+        assertTrue(ocupacao.reservar(TipoVeiculo.CAMINHAO));
+        ocupacao.confirmar(TipoVeiculo.CAMINHAO);
+        ocupacao.liberar(TipoVeiculo.CAMINHAO);
+
+        assertEquals(0, ocupacao.ocupadas(TipoVeiculo.CAMINHAO));
+        assertTrue(ocupacao.reservar(null));
+        assertEquals(Integer.MAX_VALUE, ocupacao.capacidade(TipoVeiculo.CARRO));
+    }
+
+    @Test
+    @DisplayName("Deve reconciliar com os ativos gravados somando as reservas em andamento")
+    void deveReconciliarSomandoReservasEmAndamento() {
+        Ocupacao ocupacao = new Ocupacao(Map.of(TipoVeiculo.CARRO, 50));
+        ocupacao.reservar(TipoVeiculo.CARRO);
+
+        Map<TipoVeiculo, Integer> correcoes = ocupacao.reconciliar(() -> Map.of(TipoVeiculo.CARRO, 30L, TipoVeiculo.MOTO, 4L));
+
+        assertEquals(30, correcoes.get(TipoVeiculo.CARRO));
+        assertEquals(4, correcoes.get(TipoVeiculo.MOTO));
+        assertEquals(0, correcoes.get(TipoVeiculo.CAMINHAO));
+        assertEquals(31, ocupacao.ocupadas(TipoVeiculo.CARRO));
+        ocupacao.confirmar(TipoVeiculo.CARRO);
+        assertEquals(31, ocupacao.ocupadas(TipoVeiculo.CARRO));
+    }
+
+    @Test
+    @DisplayName("Deve deixar para a próxima reconciliação o tipo alterado durante a contagem")
+    void deveIgnorarTipoAlteradoDuranteAContagem() {
+        Ocupacao ocupacao = new Ocupacao(Map.of());
+        ocupacao.reservar(TipoVeiculo.MOTO);
+        ocupacao.confirmar(TipoVeiculo.MOTO);
+
+        Map<TipoVeiculo, Integer> correcoes = ocupacao.reconciliar(() -> {
+            // Uma saída gravada enquanto a contagem era feita: a contagem pode ou não tê-la visto
+            ocupacao.liberar(TipoVeiculo.MOTO);
+            return Map.of(TipoVeiculo.MOTO, 1L, TipoVeiculo.CARRO, 2L);
+        });
+
+        assertFalse(correcoes.containsKey(TipoVeiculo.MOTO));
+        assertEquals(0, ocupacao.ocupadas(TipoVeiculo.MOTO));
+        assertEquals(2, ocupacao.ocupadas(TipoVeiculo.CARRO));
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PagamentoAssincronoServiceTest {
+
+    @Mock
+    private OperadoraPagamento operadoraPagamento;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private IntencaoPagamentoRepository intencaoPagamentoRepository;
+
+    private final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+    private final LocalDateTime AGORA = LocalDateTime.of(2025, 11, 25, 12, 30, 0);
+    private final Veiculo veiculo = new Veiculo("ABC1D23", Veiculo.TipoVeiculo.CARRO);
+
+    private ExecutorService chamadasOperadora;
+    private PagamentoAssincronoService pagamentoAssincronoService;
+
+    @BeforeEach
+    void setUp() {
+        chamadasOperadora = Executors.newSingleThreadExecutor();
+        Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        pagamentoAssincronoService = new PagamentoAssincronoService(operadoraPagamento, new CalculadoraDePreco(TarifasConfiguradas.carregar()), ticketRepository,
+                intencaoPagamentoRepository, clock, chamadasOperadora,
+                new PoliticaDeReenvio(3, Duration.ofMillis(100), Duration.ofSeconds(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        chamadasOperadora.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve registrar a intenção de pagamento com o valor calculado sem chamar a operadora")
+    void deveRegistrarIntencaoSemChamarOperadora() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        when(intencaoPagamentoRepository.registrar(any(IntencaoPagamento.class), eq(ticket))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        IntencaoPagamento intencao = pagamentoAssincronoService.solicitar(ticket);
+
+        assertEquals(EstadoPagamento.PENDENTE, intencao.getEstado());
+        assertEquals(new BigDecimal("25.00"), intencao.getValor());
+        assertEquals(AGORA, intencao.getProximaTentativa());
+        assertEquals(Status.PENDENTE, ticket.getStatus());
+        verifyNoInteractions(operadoraPagamento);
+    }
+
+    @Test
+    @DisplayName("Deve retornar a intenção vigente em vez de registrar outra para o mesmo ticket")
+    void deveRetornarIntencaoAbertaExistente() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        IntencaoPagamento existente = intencao(EstadoPagamento.PROCESSANDO, 0);
+        when(intencaoPagamentoRepository.findVigentePorTicket("t1")).thenReturn(Optional.of(existente));
+
+        assertSame(existente, pagamentoAssincronoService.solicitar(ticket));
+        verify(intencaoPagamentoRepository, never()).registrar(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a solicitação de pagamento de ticket que não está pendente")
+    void deveRejeitarSolicitacaoDeTicketNaoPendente() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.ISENTO);
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> pagamentoAssincronoService.solicitar(ticket));
+
+        assertEquals("Ticket com status ISENTO não pode ser pago.", erro.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve confirmar o pagamento e marcar o ticket como pago quando a operadora aprovar")
+    void deveConfirmarPagamentoAprovado() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        when(ticketRepository.findById("t1")).thenReturn(Optional.of(ticket));
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 0);
+
+        pagamentoAssincronoService.processar(intencao);
+
+        assertEquals(EstadoPagamento.CONFIRMADO, intencao.getEstado());
+        assertEquals(AGORA, intencao.getConfirmadoEm());
+        assertEquals(Status.PAGO, ticket.getStatus());
+        assertEquals(AGORA, ticket.getPagamento());
+        verify(operadoraPagamento).pagar(new BigDecimal("15.00"), "p1");
+        verify(ticketRepository).save(ticket);
+        verify(intencaoPagamentoRepository).atualizar(intencao);
+    }
+
+    @Test
+    @DisplayName("Deve estornar a cobrança aprovada quando o ticket foi isento durante o envio")
+    void deveEstornarCobrancaDeTicketIsentoDuranteOEnvio() {
+        when(ticketRepository.findById("t1")).thenReturn(
+                Optional.of(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE)),
+                Optional.of(new Ticket("t1", veiculo, ENTRADA, null, null, Status.ISENTO, 1)));
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 0);
+
+        pagamentoAssincronoService.processar(intencao);
+
+        verify(operadoraPagamento).pagar(new BigDecimal("15.00"), "p1");
+        verify(operadoraPagamento).estornar(new BigDecimal("15.00"));
+        verify(ticketRepository, never()).save(any());
+        assertEquals(EstadoPagamento.FALHOU, intencao.getEstado());
+        assertEquals("Pagamento aprovado pela operadora, mas o ticket está com status ISENTO. Valor estornado.", intencao.getUltimoErro());
+        verify(intencaoPagamentoRepository).atualizar(intencao);
+    }
+
+    @Test
+    @DisplayName("Deve reagendar com backoff quando a operadora não responder dentro do tempo limite")
+    void deveReagendarAposTimeout() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        when(ticketRepository.findById("t1")).thenReturn(Optional.of(ticket));
+        doAnswer(invocacao -> {
+            Thread.sleep(5_000);
+            return null;
+        }).when(operadoraPagamento).pagar(any(BigDecimal.class), anyString());
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 1);
+
+        pagamentoAssincronoService.processar(intencao);
+
+        assertEquals(EstadoPagamento.PENDENTE, intencao.getEstado());
+        assertEquals(2, intencao.getTentativas());
+        assertEquals(AGORA.plusSeconds(2), intencao.getProximaTentativa());
+        assertEquals("Operadora não respondeu em 100 ms.", intencao.getUltimoErro());
+        assertEquals(Status.PENDENTE, ticket.getStatus());
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar sem chamar a operadora quando todas as chamadas estão ocupadas")
+    void deveReagendarQuandoChamadasEstaoOcupadas() {
+        ThreadPoolExecutor lotado = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch liberar = new CountDownLatch(1);
+        lotado.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        PagamentoAssincronoService servico = new PagamentoAssincronoService(operadoraPagamento, new CalculadoraDePreco(TarifasConfiguradas.carregar()),
+                ticketRepository, intencaoPagamentoRepository, clock, lotado,
+                new PoliticaDeReenvio(3, Duration.ofMillis(100), Duration.ofSeconds(1)));
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        when(ticketRepository.findById("t1")).thenReturn(Optional.of(ticket));
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 0);
+
+        try {
+            servico.processar(intencao);
+        } finally {
+            liberar.countDown();
+            lotado.shutdownNow();
+        }
+
+        assertEquals(EstadoPagamento.PENDENTE, intencao.getEstado());
+        assertEquals(1, intencao.getTentativas());
+        assertEquals("Limite de chamadas simultâneas à operadora atingido.", intencao.getUltimoErro());
+        verifyNoInteractions(operadoraPagamento);
+        verify(intencaoPagamentoRepository).atualizar(intencao);
+    }
+
+    @Test
+    @DisplayName("Deve marcar o pagamento como falho ao esgotar as tentativas")
+    void deveFalharAoEsgotarTentativas() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE);
+        when(ticketRepository.findById("t1")).thenReturn(Optional.of(ticket));
+        doThrow(new IllegalStateException("Pagamento recusado pela operadora."))
+                .when(operadoraPagamento).pagar(any(BigDecimal.class), anyString());
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 2);
+
+        pagamentoAssincronoService.processar(intencao);
+
+        assertEquals(EstadoPagamento.FALHOU, intencao.getEstado());
+        assertEquals(3, intencao.getTentativas());
+        assertEquals("Pagamento recusado pela operadora.", intencao.getUltimoErro());
+        verify(intencaoPagamentoRepository).atualizar(intencao);
+    }
+
+    @Test
+    @DisplayName("Não deve cobrar quando o ticket deixou de estar pendente antes do envio")
+    void naoDeveCobrarTicketQueDeixouDeEstarPendente() {
+        Ticket ticket = new Ticket("t1", veiculo, ENTRADA, null, null, Status.ISENTO_FUNCIONARIO);
+        when(ticketRepository.findById("t1")).thenReturn(Optional.of(ticket));
+        IntencaoPagamento intencao = intencao(EstadoPagamento.PROCESSANDO, 0);
+
+        pagamentoAssincronoService.processar(intencao);
+
+        assertEquals(EstadoPagamento.FALHOU, intencao.getEstado());
+        verifyNoInteractions(operadoraPagamento);
+    }
+
+    private IntencaoPagamento intencao(EstadoPagamento estado, int tentativas) {
+        return new IntencaoPagamento("p1", "t1", new BigDecimal("15.00"), estado, tentativas, AGORA, null, AGORA, null);
+    }
+}
@@ -1,7 +1,12 @@
 package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
+import io.github.marceltanuri.estacionamento.domain.ticket.EstadoPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.IntencaoPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
 import io.github.marceltanuri.estacionamento.domain.ticket.exception.FalhaPagamentoException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
@@ -18,6 +23,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +39,11 @@ class PagamentoServiceTest {
     @Mock
     private TicketRepository ticketRepository;
     @Mock
+    private IntencaoPagamentoRepository intencaoPagamentoRepository;
+    @Mock
     private Clock clock;
+    @Mock
+    private AgendaDeExpiracoes agendaDeExpiracoes;
 
     @InjectMocks
     private PagamentoService pagamentoService;
@@ -47,8 +57,8 @@ class PagamentoServiceTest {
     void setUp() {
         Veiculo veiculo = new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO);
         ticket = Ticket.novo(veiculo, FIXED_ENTRY_TIME);
-        when(clock.instant()).thenReturn(FIXED_PAYMENT_CLOCK.instant());
-        when(clock.getZone()).thenReturn(FIXED_PAYMENT_CLOCK.getZone());
+        lenient().when(clock.instant()).thenReturn(FIXED_PAYMENT_CLOCK.instant());
+        lenient().when(clock.getZone()).thenReturn(FIXED_PAYMENT_CLOCK.getZone());
     }
 
     @Test
@@ -67,6 +77,7 @@ class PagamentoServiceTest {
         assertEquals(FIXED_PAYMENT_TIME, ticket.getPagamento());
         verify(operadoraPagamento, times(1)).pagar(valorCobranca);
         verify(ticketRepository, times(1)).save(ticket);
+        verify(agendaDeExpiracoes).agendar(ticket);
     }
 
     @Test
@@ -86,6 +97,35 @@ class PagamentoServiceTest {
         assertNull(ticket.getPagamento());
         verify(operadoraPagamento, times(1)).pagar(valorCobranca);
         verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(agendaDeExpiracoes, never()).agendar(any(Ticket.class));
         //assertTrue(thrown.getMessage().contains("Erro ao processar pagamento"));
     }
+
+    @Test
+    @DisplayName("Deve estornar a cobrança se o ticket foi alterado por outra operação antes de gravar o pagamento.")
+    void deveEstornarSeTicketFoiAlteradoConcorrentemente() {
+        BigDecimal valorCobranca = new BigDecimal("25.00");
+        when(calculadoraDePreco.calcular(any(Ticket.class), any(LocalDateTime.class))).thenReturn(valorCobranca);
+        when(ticketRepository.save(ticket)).thenThrow(new TicketAlteradoConcorrentementeException("t1"));
+
+        assertThrows(TicketAlteradoConcorrentementeException.class, () -> pagamentoService.pagar(ticket));
+
+        verify(operadoraPagamento).pagar(valorCobranca);
+        verify(operadoraPagamento).estornar(valorCobranca);
+        verify(agendaDeExpiracoes, never()).agendar(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("Não deve cobrar ticket que já tem um pagamento assíncrono em andamento.")
+    void naoDeveCobrarTicketComPagamentoAssincronoEmAndamento() {
+        IntencaoPagamento intencao = new IntencaoPagamento("p1", ticket.getId(), new BigDecimal("25.00"),
+                EstadoPagamento.PROCESSANDO, 0, FIXED_PAYMENT_TIME, null, FIXED_PAYMENT_TIME, null);
+        when(intencaoPagamentoRepository.findVigentePorTicket(ticket.getId())).thenReturn(Optional.of(intencao));
+
+        assertThrows(IllegalStateException.class, () -> pagamentoService.pagar(ticket));
+
+        assertEquals(io.github.marceltanuri.estacionamento.domain.ticket.Status.PENDENTE, ticket.getStatus());
+        verifyNoInteractions(operadoraPagamento);
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
 }
@@ -2,7 +2,10 @@ package io.github.marceltanuri.estacionamento.domain.ticket.service;
 
 import io.github.marceltanuri.estacionamento.domain.ticket.Status;
 import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.AgendaDeExpiracoes;
 import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.vaga.AlocadorDeVagas;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
 import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -32,6 +36,15 @@ class SaidaServiceTest {
     @Mock
     private java.time.Clock clock;
 
+    @Spy
+    private Ocupacao ocupacao = Ocupacao.semLimite();
+
+    @Spy
+    private AlocadorDeVagas alocadorDeVagas = AlocadorDeVagas.semVagas();
+
+    @Mock
+    private AgendaDeExpiracoes agendaDeExpiracoes;
+
     @InjectMocks
     private SaidaService saidaService;
 
@@ -245,4 +258,58 @@ class SaidaServiceTest {
         assertNull(ticket.getSaida());
         verify(ticketRepository, never()).save(any(Ticket.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve liberar a vaga física do ticket ao finalizá-lo")
+    void deveLiberarVagaAoFinalizar() {
+        // GIVEN
+        setupClock(FIXED_ENTRY_TIME.plusMinutes(60));
+        Ticket comVaga = new Ticket("com-vaga", veiculo, FIXED_ENTRY_TIME, null, null, Status.ISENTO, 0, new Vaga(2, 7));
+
+        // WHEN
+        saidaService.processarSaida(comVaga);
+
+        // THEN
+        assertEquals(Status.FINALIZADO, comVaga.getStatus());
+        verify(alocadorDeVagas).liberar(Veiculo.TipoVeiculo.CARRO, new Vaga(2, 7));
+        verify(ocupacao).liberar(Veiculo.TipoVeiculo.CARRO);
+    }
+
+    @Test
+    @DisplayName("Deve decidir a saída sem alterar o ticket, com um código para cada recusa")
+    void deveDecidirSaidaSemAlterarTicket() {
+        LocalDateTime pagamento = FIXED_ENTRY_TIME.plusHours(1);
+        Ticket pago = new Ticket("pago", veiculo, FIXED_ENTRY_TIME, null, pagamento, Status.PAGO);
+
+        assertEquals(DecisaoSaida.LIBERADA, SaidaService.decidir(pago, pagamento.plusMinutes(15)));
+        assertEquals(DecisaoSaida.TOLERANCIA_EXPIRADA, SaidaService.decidir(pago, pagamento.plusMinutes(16)));
+        assertEquals(DecisaoSaida.ANTES_DA_ENTRADA, SaidaService.decidir(pago, FIXED_ENTRY_TIME.minusMinutes(1)));
+        assertEquals(DecisaoSaida.FORA_DO_HORARIO, SaidaService.decidir(pago, LocalDateTime.of(2025, 11, 25, 22, 1, 0)));
+        assertEquals(DecisaoSaida.LIBERADA, SaidaService.decidir(ticket, FIXED_ENTRY_TIME.plusMinutes(14)));
+        assertEquals(DecisaoSaida.STATUS_NAO_LIBERA, SaidaService.decidir(ticket, FIXED_ENTRY_TIME.plusMinutes(15)));
+        assertEquals(Status.PAGO, pago.getStatus());
+        assertEquals(Status.PENDENTE, ticket.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a recusa como código, gravando apenas a expiração da tolerância vencida")
+    void deveRegistrarRecusasSemExcecao() {
+        // GIVEN
+        LocalDateTime pagamento = FIXED_ENTRY_TIME.plusHours(1);
+        Ticket pago = new Ticket("pago", veiculo, FIXED_ENTRY_TIME, null, pagamento, Status.PAGO);
+        setupClock(pagamento.plusMinutes(30));
+
+        // WHEN
+        DecisaoSaida pendente = saidaService.registrarSaida(ticket);
+        DecisaoSaida expirado = saidaService.registrarSaida(pago);
+
+        // THEN
+        assertEquals(DecisaoSaida.STATUS_NAO_LIBERA, pendente);
+        assertEquals("Ticket com status PENDENTE não pode ser finalizado.", pendente.mensagem(ticket));
+        assertEquals(DecisaoSaida.TOLERANCIA_EXPIRADA, expirado);
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, pago.getStatus());
+        verify(ticketRepository, never()).save(ticket);
+        verify(ticketRepository).save(pago);
+        verify(agendaDeExpiracoes).cancelar(pago);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.marceltanuri.estacionamento.domain.ticket.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TarifaTest {
+
+    @Test
+    @DisplayName("Deve converter os valores da tarifa para centavos")
+    void deveConverterValoresParaCentavos() {
+        Tarifa tarifa = new Tarifa(2, new BigDecimal("10"), new BigDecimal("2.5"), new BigDecimal("50.00"), 0);
+
+        assertEquals(10_00, tarifa.tarifaBaseHoraEmCentavos());
+        assertEquals(2_50, tarifa.tarifaAdicionalHoraEmCentavos());
+        assertEquals(50_00, tarifa.diariaEmCentavos());
+        assertTrue(tarifa.possuiDiaria());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar valores negativos")
+    void naoDeveAceitarValoresNegativos() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new Tarifa(2, new BigDecimal("-1.00"), new BigDecimal("5.00"), null, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                new Tarifa(-1, new BigDecimal("10.00"), new BigDecimal("5.00"), null, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                new Tarifa(2, new BigDecimal("10.00"), new BigDecimal("5.00"), null, -15));
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar frações de centavo")
+    void naoDeveAceitarFracoesDeCentavo() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                new Tarifa(2, new BigDecimal("10.00"), new BigDecimal("5.005"), null, 0));
+
+        assertEquals("O valor da tarifa adicional deve ter no máximo duas casas decimais.", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar tarifa sem valores obrigatórios")
+    void naoDeveAceitarTarifaSemValores() {
+        assertThrows(NullPointerException.class, () -> new Tarifa(2, null, new BigDecimal("5.00"), null, 0));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.marceltanuri.estacionamento.domain.vaga;
+
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo.TipoVeiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlocadorDeVagasTest {
+
+    @Test
+    @DisplayName("Deve alocar a vaga livre mais próxima da cancela, passando ao nível seguinte quando o anterior encher")
+    void deveAlocarAVagaMaisProxima() {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(Map.of(TipoVeiculo.CARRO, List.of(2, 70)));
+
+        assertEquals(new Vaga(1, 1), alocador.alocar(TipoVeiculo.CARRO).orElseThrow());
+        assertEquals(new Vaga(1, 2), alocador.alocar(TipoVeiculo.CARRO).orElseThrow());
+        assertEquals(new Vaga(2, 1), alocador.alocar(TipoVeiculo.CARRO).orElseThrow());
+        alocador.liberar(TipoVeiculo.CARRO, new Vaga(1, 2));
+        assertEquals(new Vaga(1, 2), alocador.alocar(TipoVeiculo.CARRO).orElseThrow());
+
+        assertEquals(69, alocador.livres(TipoVeiculo.CARRO));
+        assertEquals(Optional.empty(), alocador.alocar(TipoVeiculo.MOTO));
+        assertEquals(Optional.empty(), alocador.alocar(null));
+    }
+
+    @Test
+    @DisplayName("Deve recusar alocação com todas as vagas ocupadas, sem usar bits além da última vaga")
+    void deveRecusarAlocacaoSemVagaLivre() {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(Map.of(TipoVeiculo.MOTO, List.of(65)));
+        for (int i = 1; i <= 65; i++) {
+            assertEquals(new Vaga(1, i), alocador.alocar(TipoVeiculo.MOTO).orElseThrow());
+        }
+
+        assertTrue(alocador.alocar(TipoVeiculo.MOTO).isEmpty());
+        assertEquals(0, alocador.livres(TipoVeiculo.MOTO));
+    }
+
+    @Test
+    @DisplayName("Deve marcar as vagas recuperadas como ocupadas e ignorar as que não existem no mapa")
+    void deveMarcarVagasRecuperadas() {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(Map.of(TipoVeiculo.CAMINHAO, List.of(3)));
+
+        assertTrue(alocador.marcarOcupada(TipoVeiculo.CAMINHAO, new Vaga(1, 1)));
+        assertFalse(alocador.marcarOcupada(TipoVeiculo.CAMINHAO, new Vaga(1, 1)));
+        assertFalse(alocador.marcarOcupada(TipoVeiculo.CAMINHAO, new Vaga(1, 4)));
+        assertFalse(alocador.marcarOcupada(TipoVeiculo.CAMINHAO, new Vaga(2, 1)));
+        assertFalse(alocador.marcarOcupada(TipoVeiculo.CARRO, new Vaga(1, 1)));
+
+        assertEquals(new Vaga(1, 2), alocador.alocar(TipoVeiculo.CAMINHAO).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Deve entregar cada vaga a uma única cancela sob alocações concorrentes")
+    void deveAlocarVagasDistintasSobConcorrencia() throws Exception {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(Map.of(TipoVeiculo.CARRO, List.of(300, 300)));
+        Set<Vaga> alocadas = ConcurrentHashMap.newKeySet();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<Optional<Vaga>>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 700; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return alocador.alocar(TipoVeiculo.CARRO);
+                }));
+            }
+            largada.countDown();
+            int semVaga = 0;
+            for (Future<Optional<Vaga>> resultado : resultados) {
+                Optional<Vaga> vaga = resultado.get();
+                if (vaga.isPresent()) {
+                    assertTrue(alocadas.add(vaga.get()), () -> "Vaga entregue duas vezes: " + vaga.get());
+                } else {
+                    semVaga++;
+                }
+            }
+            assertEquals(100, semVaga);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(600, alocadas.size());
+        assertEquals(0, alocador.livres(TipoVeiculo.CARRO));
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistanciaDePlacasTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "ABC1D23, ABC1D23, 0",
+            "ABC1D23, A8C1D23, 1",
+            "OBI1D23, 081ID23, 4",
+            "ABC1D23, ABC1E23, 2",
+            "ABC1D23, ABC1D2, 2",
+            "ABC1D23, XBC1D23, 2"})
+    @DisplayName("Deve pesar as trocas entre símbolos confundíveis pela metade das demais edições")
+    void devePesarAsConfusoesDaCamera(String a, String b, int distancia) {
+        assertEquals(distancia, DistanciaDePlacas.calcular(a, b));
+        assertEquals(distancia, DistanciaDePlacas.calcular(b, a));
+    }
+}
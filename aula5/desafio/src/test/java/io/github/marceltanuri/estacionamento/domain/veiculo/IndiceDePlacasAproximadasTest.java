@@ -0,0 +1,105 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceDePlacasAproximadasTest {
+
+    @Test
+    @DisplayName("Deve devolver as placas próximas da leitura, da mais próxima à mais distante")
+    void deveBuscarAsPlacasProximas() {
+        IndiceDePlacasAproximadas indice = new IndiceDePlacasAproximadas();
+        List.of("OBI1D23", "OBI1D28", "QBI1D23", "XYZ9Z99").forEach(indice::adicionar);
+
+        List<IndiceDePlacasAproximadas.Candidata> candidatas = indice.buscar("0BI1D23", 2, 5);
+
+        assertEquals(List.of(new IndiceDePlacasAproximadas.Candidata("OBI1D23", 1), new IndiceDePlacasAproximadas.Candidata("QBI1D23", 2)), candidatas);
+        assertEquals(List.of(new IndiceDePlacasAproximadas.Candidata("OBI1D23", 1)), indice.buscar("0BI1D23", 2, 1));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o limite só às placas aceitas por quem consulta")
+    void deveFiltrarAntesDeLimitar() {
+        IndiceDePlacasAproximadas indice = new IndiceDePlacasAproximadas();
+        List.of("OBI1D23", "OBI1D28", "QBI1D23").forEach(indice::adicionar);
+
+        List<IndiceDePlacasAproximadas.Candidata> candidatas = indice.buscar("0BI1D23", 2, 1, placa -> !placa.equals("OBI1D23"));
+
+        assertEquals(List.of(new IndiceDePlacasAproximadas.Candidata("QBI1D23", 2)), candidatas);
+    }
+
+    @Test
+    @DisplayName("Deve deixar de encontrar a placa removida e voltar a encontrá-la quando adicionada de novo")
+    void deveRemoverEReadicionarPlacas() {
+        IndiceDePlacasAproximadas indice = new IndiceDePlacasAproximadas();
+        indice.adicionar("ABC1D23");
+        indice.adicionar("ABC1D28");
+
+        indice.remover("ABC1D23");
+        assertEquals(List.of("ABC1D28"), placas(indice.buscar("ABC1D23", 2, 5)));
+        assertEquals(1, indice.tamanho());
+
+        indice.adicionar("ABC1D23");
+        assertEquals(List.of("ABC1D23", "ABC1D28"), placas(indice.buscar("ABC1D23", 2, 5)));
+        assertEquals(2, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar as mesmas placas que a comparação com todas, mesmo depois de muitas remoções")
+    void deveConcordarComAComparacaoComTodas() {
+        Random aleatorio = new Random(7);
+        Set<String> ativas = new LinkedHashSet<>();
+        IndiceDePlacasAproximadas indice = new IndiceDePlacasAproximadas();
+        for (int i = 0; i < 5_000; i++) {
+            String placa = placaAleatoria(aleatorio);
+            if (aleatorio.nextInt(3) == 0 && !ativas.isEmpty()) {
+                String removida = ativas.iterator().next();
+                ativas.remove(removida);
+                indice.remover(removida);
+            } else {
+                ativas.add(placa);
+                indice.adicionar(placa);
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String leitura = placaAleatoria(aleatorio);
+            List<IndiceDePlacasAproximadas.Candidata> esperadas = new ArrayList<>();
+            for (String placa : ativas) {
+                int distancia = DistanciaDePlacas.calcular(leitura, placa);
+                if (distancia <= 4) {
+                    esperadas.add(new IndiceDePlacasAproximadas.Candidata(placa, distancia));
+                }
+            }
+            esperadas.sort(Comparator.comparingInt(IndiceDePlacasAproximadas.Candidata::distancia).thenComparing(IndiceDePlacasAproximadas.Candidata::placa));
+
+            assertEquals(esperadas, indice.buscar(leitura, 4, Integer.MAX_VALUE));
+        }
+        assertEquals(ativas.size(), indice.tamanho());
+    }
+
+    // Alfabeto reduzido, com os símbolos confundíveis, para que as placas fiquem próximas umas das outras
+    private static String placaAleatoria(Random aleatorio) {
+        String letras = "ABIOQ";
+        String digitos = "01238";
+        char[] placa = new char[PlacaCodec.TAMANHO];
+        for (int i = 0; i < placa.length; i++) {
+            String simbolos = i < 3 || (i == 4 && aleatorio.nextBoolean()) ? letras : digitos;
+            placa[i] = simbolos.charAt(aleatorio.nextInt(simbolos.length()));
+        }
+        return new String(placa);
+    }
+
+    private static List<String> placas(List<IndiceDePlacasAproximadas.Candidata> candidatas) {
+        return candidatas.stream().map(IndiceDePlacasAproximadas.Candidata::placa).toList();
+    }
+}
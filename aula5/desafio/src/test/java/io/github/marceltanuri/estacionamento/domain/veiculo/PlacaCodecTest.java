@@ -0,0 +1,59 @@
+package io.github.marceltanuri.estacionamento.domain.veiculo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacaCodecTest {
+
+    private static final Pattern PLACA_PADRAO_MERCOSUL = Pattern.compile("[A-Z]{3}[0-9][A-Z0-9][0-9]{2}");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"AAA0000", "ABC1D23", "ABC1234", "XYZ9Z99", "ZZZ9999"})
+    @DisplayName("Deve decodificar o código de volta na mesma placa")
+    void deveDecodificarNaMesmaPlaca(String placa) {
+        long codigo = PlacaCodec.codificar(placa);
+
+        assertTrue(codigo >= 0 && codigo <= PlacaCodec.MAXIMO);
+        assertEquals(placa, PlacaCodec.decodificar(codigo));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "ABC123", "ABC12345", "abc1d23", "1BC1D23", "ABCAD23", "ABC1-23", "ABC1D2Z", "ÁBC1D23"})
+    @DisplayName("Deve rejeitar placas fora do padrão Mercosul")
+    void deveRejeitarPlacasForaDoPadrao(String placa) {
+        assertEquals(PlacaCodec.INVALIDA, PlacaCodec.codificar(placa));
+        assertFalse(PlacaCodec.valida(placa));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente as placas aceitas pela expressão regular do padrão Mercosul")
+    void deveConcordarComAExpressaoRegular() {
+        String simbolos = "09AZaz-/ ";
+        char[] placa = "ABC1D23".toCharArray();
+        for (int posicao = 0; posicao < placa.length; posicao++) {
+            char original = placa[posicao];
+            for (char simbolo : simbolos.toCharArray()) {
+                placa[posicao] = simbolo;
+                String texto = new String(placa);
+                assertEquals(PLACA_PADRAO_MERCOSUL.matcher(texto).matches(), PlacaCodec.valida(texto), texto);
+            }
+            placa[posicao] = original;
+        }
+        assertFalse(PlacaCodec.valida(null));
+    }
+
+    @Test
+    @DisplayName("Deve preservar a ordem alfabética das placas e distinguir o padrão antigo do Mercosul")
+    void devePreservarOrdemDasPlacas() {
+        assertTrue(PlacaCodec.codificar("ABC1234") < PlacaCodec.codificar("ABC1C34"));
+        assertTrue(PlacaCodec.codificar("ABC1Z99") < PlacaCodec.codificar("ABC2000"));
+        assertTrue(PlacaCodec.codificar("ABZ9Z99") < PlacaCodec.codificar("ACA0000"));
+        assertThrows(IllegalArgumentException.class, () -> PlacaCodec.decodificar(PlacaCodec.MAXIMO + 1));
+    }
+}
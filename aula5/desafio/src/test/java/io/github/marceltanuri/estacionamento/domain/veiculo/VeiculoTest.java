@@ -4,6 +4,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class VeiculoTest {
@@ -29,4 +30,11 @@ public class VeiculoTest {
             new Veiculo(placa, Veiculo.TipoVeiculo.CARRO);
         });
     }
+
+    @Test
+    void deveGuardarCodigoDaPlaca() {
+        Veiculo veiculo = new Veiculo("ABC1D23", Veiculo.TipoVeiculo.CARRO);
+
+        assertEquals(PlacaCodec.codificar("ABC1D23"), veiculo.getCodigoPlaca());
+    }
 }
@@ -0,0 +1,56 @@
+package io.github.marceltanuri.estacionamento.infrastructure.arquivamento;
+
+import io.github.marceltanuri.estacionamento.config.ArquivamentoProperties;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.ArquivoDeTickets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArquivadorDeTicketsTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+
+    @Mock
+    private ArquivoDeTickets arquivoDeTickets;
+
+    private ArquivadorDeTickets arquivador;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        ArquivamentoProperties propriedades = new ArquivamentoProperties(Duration.ofDays(30), 2, 3, Duration.ofMinutes(10), Duration.ZERO);
+        arquivador = new ArquivadorDeTickets(arquivoDeTickets, propriedades, clock);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a execução no primeiro lote incompleto")
+    void deveEncerrarNoPrimeiroLoteIncompleto() {
+        when(arquivoDeTickets.arquivarLote(AGORA.minusDays(30), 2, AGORA)).thenReturn(2, 1);
+
+        assertEquals(3, arquivador.arquivar());
+        verify(arquivoDeTickets, times(2)).arquivarLote(any(), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("Deve limitar a quantidade de lotes por execução")
+    void deveLimitarLotesPorExecucao() {
+        when(arquivoDeTickets.arquivarLote(any(), eq(2), any())).thenReturn(2);
+
+        assertEquals(6, arquivador.arquivar());
+        verify(arquivoDeTickets, times(3)).arquivarLote(any(), eq(2), any());
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.marceltanuri.estacionamento.infrastructure.cache;
+
+import io.github.marceltanuri.estacionamento.config.CacheDeTicketsProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketRepositoryComCacheTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private TicketRepositoryComCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TicketRepositoryComCache(ticketRepository, new CacheDeTicketsProperties(2, Duration.ofSeconds(30)), nanos::get);
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler o banco só na primeira consulta e entregar cópias do ticket em cache")
+    void deveResponderConsultasRepetidasPeloCache() {
+        when(ticketRepository.findById("1")).thenReturn(Optional.of(ticket("1", Status.PENDENTE, 0)));
+
+        Ticket primeiro = cache.findById("1").orElseThrow();
+        primeiro.pagar(ENTRADA.plusHours(1));
+        Ticket segundo = cache.findById("1").orElseThrow();
+
+        assertEquals(Status.PENDENTE, segundo.getStatus());
+        assertNotSame(primeiro, segundo);
+        verify(ticketRepository, times(1)).findById("1");
+        assertEquals(new TicketRepositoryComCache.Estatisticas(1, 1, 0, 1), cache.estatisticas());
+    }
+
+    @Test
+    @DisplayName("Deve guardar o ticket gravado e descartá-lo quando a gravação é recusada por conflito de versão")
+    void deveAtualizarNaGravacaoEInvalidarNoConflito() {
+        Ticket pago = ticket("1", Status.PAGO, 1);
+        when(ticketRepository.save(any())).thenReturn(pago)
+                .thenThrow(new TicketAlteradoConcorrentementeException("1"));
+        when(ticketRepository.findById("1")).thenReturn(Optional.of(ticket("1", Status.FINALIZADO, 2)));
+
+        cache.save(pago);
+        assertEquals(Status.PAGO, cache.findById("1").orElseThrow().getStatus());
+        verify(ticketRepository, never()).findById("1");
+
+        assertThrows(TicketAlteradoConcorrentementeException.class, () -> cache.save(ticket("1", Status.PAGO, 1)));
+        assertEquals(Status.FINALIZADO, cache.findById("1").orElseThrow().getStatus());
+        verify(ticketRepository, times(1)).findById("1");
+    }
+
+    @Test
+    @DisplayName("Deve descartar os tickets recusados nas transições e os excluídos")
+    void deveInvalidarTransicoesRecusadasEExclusoes() {
+        when(ticketRepository.findById(any())).thenAnswer(invocacao ->
+                Optional.of(ticket(invocacao.getArgument(0), Status.PAGO, 1)));
+        cache.findById("1");
+        cache.findById("2");
+        when(ticketRepository.saveTransicoes(any())).thenReturn(List.of(ticket("1", Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, 2)));
+
+        cache.saveTransicoes(List.of(ticket("1", Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, 1), ticket("2", Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, 1)));
+
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, cache.findById("1").orElseThrow().getStatus());
+        assertEquals(Status.PAGO, cache.findById("2").orElseThrow().getStatus());
+        verify(ticketRepository, times(1)).findById("1");
+        verify(ticketRepository, times(2)).findById("2");
+
+        cache.delete(ticket("1", Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, 2));
+        cache.findById("1");
+        verify(ticketRepository, times(2)).findById("1");
+    }
+
+    @Test
+    @DisplayName("Deve guardar o ticket só depois do commit e descartá-lo no rollback")
+    void deveRespeitarATransacao() {
+        when(ticketRepository.findById("1")).thenReturn(Optional.of(ticket("1", Status.PENDENTE, 0)));
+        cache.findById("1");
+        when(ticketRepository.save(any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.save(ticket("1", Status.PAGO, 1));
+        cache.findById("1");
+        verify(ticketRepository, times(2)).findById("1");
+        concluir(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(Status.PENDENTE, cache.findById("1").orElseThrow().getStatus());
+        verify(ticketRepository, times(3)).findById("1");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.save(ticket("1", Status.PAGO, 1));
+        concluir(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(Status.PAGO, cache.findById("1").orElseThrow().getStatus());
+        verify(ticketRepository, times(3)).findById("1");
+    }
+
+    @Test
+    @DisplayName("Deve remover o ticket usado há mais tempo acima do tamanho máximo e os que passaram do ttl")
+    void deveRemoverPorTamanhoEPorTempo() {
+        when(ticketRepository.findById(any())).thenAnswer(invocacao ->
+                Optional.of(ticket(invocacao.getArgument(0), Status.PENDENTE, 0)));
+
+        cache.findById("1");
+        cache.findById("2");
+        cache.findById("1");
+        cache.findById("3");
+        assertEquals(new TicketRepositoryComCache.Estatisticas(1, 3, 1, 2), cache.estatisticas());
+
+        cache.findById("1");
+        verify(ticketRepository, times(1)).findById("1");
+        cache.findById("2");
+        verify(ticketRepository, times(2)).findById("2");
+
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        cache.findById("1");
+        verify(ticketRepository, times(2)).findById("1");
+        assertEquals(3, cache.estatisticas().remocoes());
+    }
+
+    @Test
+    @DisplayName("Deve ler o banco uma única vez para consultas simultâneas do mesmo ticket ausente")
+    void deveCompartilharALeituraEntreConsultasSimultaneas() throws Exception {
+        CountDownLatch leituraIniciada = new CountDownLatch(1);
+        CountDownLatch liberarLeitura = new CountDownLatch(1);
+        when(ticketRepository.findById("1")).thenAnswer(invocacao -> {
+            leituraIniciada.countDown();
+            liberarLeitura.await();
+            return Optional.of(ticket("1", Status.PENDENTE, 0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Ticket>>> consultas = new ArrayList<>();
+            consultas.add(executor.submit(() -> cache.findById("1")));
+            assertTrue(leituraIniciada.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                consultas.add(executor.submit(() -> cache.findById("1")));
+            }
+            while (cache.estatisticas().faltas() < 8) {
+                Thread.onSpinWait();
+            }
+            liberarLeitura.countDown();
+
+            for (Future<Optional<Ticket>> consulta : consultas) {
+                assertEquals("1", consulta.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(ticketRepository, times(1)).findById("1");
+    }
+
+    private static void concluir(int status) {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(status));
+    }
+
+    private static Ticket ticket(String id, Status status, long versao) {
+        return new Ticket(id, new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), ENTRADA, null, null, status, versao, null);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.marceltanuri.estacionamento.infrastructure.expiracao;
+
+import io.github.marceltanuri.estacionamento.config.RelogioDeTeste;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Expiração de ponta a ponta: o pagamento agenda o prazo e o expirador, rodando em segundo plano, grava a
+ * expiração quando o relógio passa do fim da tolerância, sem nenhuma tentativa de saída.
+ */
+@SpringBootTest(properties = {"estacionamento.pagamentos.despacho-habilitado=false", "estacionamento.expiracao.tick=50ms"})
+@Import(RelogioDeTeste.class)
+class ExpiradorDeToleranciasIntegracaoTest {
+
+    private static final long PRAZO_EXPIRACAO_MS = 5_000;
+
+    @Autowired
+    private EmissaoService emissaoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @Test
+    @DisplayName("Deve expirar em segundo plano o pagamento cuja tolerância terminou")
+    void deveExpirarPagamentoNoFimDaTolerancia() throws Exception {
+        Ticket ticket = emissaoService.emitir(new Veiculo("EXP1A23", Veiculo.TipoVeiculo.CARRO));
+        pagamentoService.pagar(ticket);
+
+        RelogioDeTeste.parar(clock, RelogioDeTeste.INICIO.plusMinutes(15).plusSeconds(59));
+        Thread.sleep(200);
+        assertEquals(Status.PAGO, ticketRepository.findById(ticket.getId()).orElseThrow().getStatus());
+
+        RelogioDeTeste.parar(clock, RelogioDeTeste.INICIO.plusMinutes(16));
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, aguardarMudancaDe(ticket.getId(), Status.PAGO));
+    }
+
+    private Status aguardarMudancaDe(String id, Status inicial) throws InterruptedException {
+        long limite = System.currentTimeMillis() + PRAZO_EXPIRACAO_MS;
+        while (true) {
+            Status status = ticketRepository.findById(id).orElseThrow().getStatus();
+            if (status != inicial) {
+                return status;
+            }
+            if (System.currentTimeMillis() > limite) {
+                fail("Ticket ainda " + status + " após " + PRAZO_EXPIRACAO_MS + " ms.");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.marceltanuri.estacionamento.infrastructure.expiracao;
+
+import io.github.marceltanuri.estacionamento.config.ExpiracaoProperties;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.TicketRepository;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiradorDeToleranciasTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+    private static final LocalDateTime PAGAMENTO = ENTRADA.plusHours(1);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private final RelogioAjustavel relogio = new RelogioAjustavel(ENTRADA);
+    private final Map<String, Ticket> gravados = new HashMap<>();
+    private ExpiradorDeTolerancias expirador;
+
+    @BeforeEach
+    void setUp() {
+        expirador = new ExpiradorDeTolerancias(ticketRepository, new ExpiracaoProperties(Duration.ofSeconds(1), 2), relogio);
+    }
+
+    @Test
+    @DisplayName("Deve expirar o pagamento no fim da tolerância, gravando os vencidos em lotes")
+    void deveExpirarPagamentosNoFimDaTolerancia() {
+        lerTicketsGravados();
+        List<Ticket> pagos = List.of(gravar("1", Status.PAGO), gravar("2", Status.PAGO), gravar("3", Status.PAGO));
+        pagos.forEach(expirador::agendar);
+
+        relogio.ajustar(PAGAMENTO.plusMinutes(15).plusSeconds(59));
+        assertEquals(0, expirador.processarVencidos());
+        verify(ticketRepository, never()).findAtivosPorIds(any());
+
+        relogio.ajustar(PAGAMENTO.plusMinutes(16));
+        assertEquals(3, expirador.processarVencidos());
+        verify(ticketRepository, times(2)).saveTransicoes(anyList());
+        pagos.forEach(pago -> assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, gravados.get(pago.getId()).getStatus()));
+        assertEquals(0, expirador.pendentes());
+    }
+
+    @Test
+    @DisplayName("Não deve expirar tickets cancelados nem tickets já finalizados quando o prazo vence")
+    void naoDeveExpirarTicketsCanceladosOuFinalizados() {
+        lerTicketsGravados();
+        Ticket cancelado = gravar("1", Status.PAGO);
+        Ticket finalizado = gravar("2", Status.PAGO);
+        expirador.agendar(cancelado);
+        expirador.agendar(finalizado);
+        expirador.cancelar(cancelado);
+        finalizado.finalizar(PAGAMENTO.plusMinutes(5));
+
+        relogio.ajustar(PAGAMENTO.plusHours(1));
+        assertEquals(0, expirador.processarVencidos());
+        verify(ticketRepository, never()).saveTransicoes(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recompor na inicialização os prazos dos tickets pagos e isentos gravados")
+    void deveRestaurarPrazosGravados() {
+        Ticket isento = new Ticket("1", new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO), ENTRADA, null, null, Status.ISENTO);
+        when(ticketRepository.findAtivosPorStatus(anyCollection())).thenReturn(List.of(isento));
+        when(ticketRepository.findAtivosPorIds(anyCollection())).thenReturn(List.of(isento));
+        when(ticketRepository.saveTransicoes(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        assertEquals(1, expirador.restaurar());
+        relogio.ajustar(ENTRADA.plusMinutes(121));
+
+        assertEquals(1, expirador.processarVencidos());
+        assertEquals(Status.TOLERANCIA_APOS_ISENCAO_EXPIRADO, isento.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve tentar de novo no tick seguinte os vencidos de um lote que falhou")
+    void deveReagendarLoteQueFalhou() {
+        Ticket pago = gravar("1", Status.PAGO);
+        expirador.agendar(pago);
+        when(ticketRepository.findAtivosPorIds(anyCollection()))
+                .thenThrow(new IllegalStateException("Banco indisponível"))
+                .thenReturn(List.of(pago));
+        when(ticketRepository.saveTransicoes(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        relogio.ajustar(PAGAMENTO.plusMinutes(16));
+        assertEquals(0, expirador.processarVencidos());
+        assertEquals(1, expirador.pendentes());
+
+        relogio.ajustar(PAGAMENTO.plusMinutes(16).plusSeconds(1));
+        assertEquals(1, expirador.processarVencidos());
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO, pago.getStatus());
+    }
+
+    private Ticket gravar(String id, Status status) {
+        Ticket ticket = new Ticket(id, new Veiculo("ABC123" + id, Veiculo.TipoVeiculo.CARRO), ENTRADA, null, PAGAMENTO, status);
+        gravados.put(id, ticket);
+        return ticket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void lerTicketsGravados() {
+        lenient().when(ticketRepository.findAtivosPorIds(anyCollection())).thenAnswer(invocacao ->
+                ((Collection<String>) invocacao.getArgument(0)).stream()
+                        .map(gravados::get)
+                        .filter(Objects::nonNull)
+                        .filter(ticket -> ticket.getStatus() != Status.FINALIZADO)
+                        .toList());
+        lenient().when(ticketRepository.saveTransicoes(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+        private Instant agora;
+
+        private RelogioAjustavel(LocalDateTime agora) {
+            ajustar(agora);
+        }
+
+        private void ajustar(LocalDateTime agora) {
+            this.agora = agora.atZone(ZoneId.systemDefault()).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
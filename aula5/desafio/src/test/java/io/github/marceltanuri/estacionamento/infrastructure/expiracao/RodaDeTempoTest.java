@@ -0,0 +1,109 @@
+package io.github.marceltanuri.estacionamento.infrastructure.expiracao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RodaDeTempoTest {
+
+    @Test
+    @DisplayName("Deve disparar cada prazo exatamente no seu tick, em qualquer nível da roda")
+    void deveDispararNoTickExato() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(1_000);
+        long[] prazos = {1_000, 1_063, 1_064, 1_100, 5_095, 5_096, 263_143, 263_144, 2_000_000};
+        for (long prazo : prazos) {
+            roda.agendar("t" + prazo, prazo);
+        }
+
+        Map<String, Long> disparos = new HashMap<>();
+        for (long tick = 1_000; tick < 2_000_007; tick += 7) {
+            long atual = tick;
+            roda.avancarAte(tick, chave -> disparos.put(chave, atual));
+        }
+
+        for (long prazo : prazos) {
+            long disparo = disparos.get("t" + prazo);
+            assertTrue(disparo >= prazo && disparo < prazo + 7, "t" + prazo + " disparou em " + disparo);
+        }
+        assertEquals(0, roda.pendentes());
+    }
+
+    @Test
+    @DisplayName("Deve esquecer prazos cancelados e substituir o prazo de uma chave reagendada")
+    void deveCancelarESubstituir() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(0);
+        roda.agendar("cancelado", 10);
+        roda.agendar("adiado", 10);
+        roda.agendar("antecipado", 5_000);
+        assertTrue(roda.cancelar("cancelado"));
+        assertFalse(roda.cancelar("inexistente"));
+        roda.agendar("adiado", 5_000);
+        roda.agendar("antecipado", 10);
+
+        List<String> disparados = new ArrayList<>();
+        roda.avancarAte(4_999, disparados::add);
+        assertEquals(List.of("antecipado"), disparados);
+        roda.avancarAte(5_000, disparados::add);
+        assertEquals(List.of("antecipado", "adiado"), disparados);
+        assertEquals(0, roda.pendentes());
+    }
+
+    @Test
+    @DisplayName("Deve disparar no próximo avanço prazos já vencidos e, no tick certo, prazos além do alcance da roda")
+    void deveTratarPrazosVencidosEDistantes() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(100);
+        roda.agendar("vencido", 3);
+        long distante = 100 + (1L << 26);
+        roda.agendar("distante", distante);
+
+        List<String> disparados = new ArrayList<>();
+        roda.avancarAte(100, disparados::add);
+        assertEquals(List.of("vencido"), disparados);
+
+        roda.avancarAte(distante - 1, disparados::add);
+        assertEquals(1, roda.pendentes());
+        roda.avancarAte(distante, disparados::add);
+        assertEquals(List.of("vencido", "distante"), disparados);
+    }
+
+    @Test
+    @DisplayName("Deve disparar prazos aleatórios agendados e cancelados durante o avanço no tick certo")
+    void deveDispararPrazosAleatorios() {
+        Random aleatorio = new Random(42);
+        RodaDeTempo<Integer> roda = new RodaDeTempo<>(0);
+        Map<Integer, Long> esperados = new HashMap<>();
+        Map<Integer, Long> disparos = new HashMap<>();
+        int proximaChave = 0;
+        for (long tick = 0; tick < 300_000; tick++) {
+            if (aleatorio.nextInt(4) == 0) {
+                long prazo = tick + (long) Math.pow(2, aleatorio.nextDouble() * 20);
+                roda.agendar(proximaChave, prazo);
+                esperados.put(proximaChave++, prazo);
+            }
+            if (aleatorio.nextInt(8) == 0 && proximaChave > 0) {
+                int chave = aleatorio.nextInt(proximaChave);
+                if (roda.cancelar(chave)) {
+                    esperados.remove(chave);
+                }
+            }
+            long atual = tick;
+            roda.avancarAte(tick, chave -> disparos.put(chave, atual));
+        }
+
+        esperados.forEach((chave, prazo) -> {
+            if (prazo < 300_000) {
+                assertEquals(prazo, disparos.get(chave), "chave " + chave);
+            } else {
+                assertNull(disparos.get(chave), "chave " + chave);
+            }
+        });
+        assertEquals(esperados.size() - disparos.size(), roda.pendentes());
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroTicketTest {
+
+    private final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+    private final Ticket ticket = new Ticket(null, new Veiculo("REG1A23", Veiculo.TipoVeiculo.CARRO), ENTRADA, null, null,
+            Status.PENDENTE, 0, new Vaga(2, 40));
+
+    @Test
+    @DisplayName("Deve ler de volta o registro escrito")
+    void deveLerRegistroEscrito() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroTicket.TAMANHO);
+        RegistroTicket registro = RegistroTicket.de(5, RegistroTicket.Evento.EMITIDO, 42, ticket, Integer.MAX_VALUE);
+
+        registro.escrever(buffer, 0);
+
+        assertEquals(registro, RegistroTicket.ler(buffer, 0, 5));
+    }
+
+    @Test
+    @DisplayName("Deve recusar versão que não cabe no registro em vez de truncá-la")
+    void deveRecusarVersaoAcimaDoLimite() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RegistroTicket.de(0, RegistroTicket.Evento.PAGO, 42, ticket, Integer.MAX_VALUE + 1L));
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.marceltanuri.estacionamento.infrastructure.journal;
+
+import io.github.marceltanuri.estacionamento.config.JournalProperties;
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.IsencaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.SaidaService;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.repository.GeradorSnowflake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TicketRepositoryJournalTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 11, 25, 12, 0, 0);
+
+    @TempDir
+    private Path diretorio;
+
+    private final Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    private final List<TicketRepositoryJournal> abertos = new ArrayList<>();
+
+    @AfterEach
+    void fechar() throws IOException {
+        for (TicketRepositoryJournal repositorio : abertos) {
+            repositorio.fechar();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve percorrer emissão, pagamento, isenção e saída pelos serviços e recuperar o estado ao reabrir")
+    void devePercorrerOsServicosERecuperarAoReabrir() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(1_000);
+        EmissaoService emissao = new EmissaoService(repositorio, clock);
+        PagamentoService pagamento = new PagamentoService(mock(OperadoraPagamento.class), new CalculadoraDePreco(TarifasConfiguradas.carregar()), repositorio,
+                mock(IntencaoPagamentoRepository.class), clock);
+        IsencaoService isencao = new IsencaoService(repositorio, placa -> placa.equals("FUN1C00"), "OK"::equals, mock(IntencaoPagamentoRepository.class));
+        SaidaService saida = new SaidaService(repositorio, clock);
+
+        Ticket pago = emissao.emitir(new Veiculo("PAG1A00", Veiculo.TipoVeiculo.CARRO));
+        pagamento.pagar(pago);
+        Ticket finalizado = emissao.emitir(new Veiculo("SAI1B00", Veiculo.TipoVeiculo.MOTO));
+        isencao.isentarPorComprovanteDeCompra(finalizado, "OK");
+        saida.processarSaida(repositorio.findById(finalizado.getId()).orElseThrow());
+        Ticket funcionario = emissao.emitir(new Veiculo("FUN1C00", Veiculo.TipoVeiculo.CAMINHAO));
+        isencao.isentarFuncionario(funcionario);
+
+        TicketRepositoryJournal reaberto = reabrir(repositorio, 1_000);
+
+        Ticket pagoRecuperado = reaberto.findByVeiculoPlacaAndStatusNotFinalizado("PAG1A00").orElseThrow();
+        assertEquals(pago.getId(), pagoRecuperado.getId());
+        assertEquals(Status.PAGO, pagoRecuperado.getStatus());
+        assertEquals(AGORA, pagoRecuperado.getPagamento());
+        assertEquals(1, pagoRecuperado.getVersao());
+        assertEquals(Status.ISENTO_FUNCIONARIO, reaberto.findById(funcionario.getId()).orElseThrow().getStatus());
+        assertTrue(reaberto.findByVeiculoPlacaAndStatusNotFinalizado("SAI1B00").isEmpty());
+        Ticket finalizadoRecuperado = reaberto.findById(finalizado.getId()).orElseThrow();
+        assertEquals(Status.FINALIZADO, finalizadoRecuperado.getStatus());
+        assertEquals(AGORA, finalizadoRecuperado.getSaida());
+        assertEquals(Veiculo.TipoVeiculo.MOTO, finalizadoRecuperado.getVeiculo().getTipo());
+        assertEquals(2, reaberto.findAtivosPorPlacas(List.of("PAG1A00", "SAI1B00", "FUN1C00", "NAO1A00")).size());
+    }
+
+    @Test
+    @DisplayName("Deve recusar segundo ticket ativo da placa e transição sobre versão desatualizada")
+    void deveRecusarTicketAtivoExistenteETransicaoDesatualizada() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(1_000);
+        Veiculo veiculo = new Veiculo("CON1A00", Veiculo.TipoVeiculo.CARRO);
+        Ticket emitido = repositorio.save(Ticket.novo(veiculo, AGORA));
+
+        assertThrows(TicketAtivoExistenteException.class, () -> repositorio.save(Ticket.novo(veiculo, AGORA)));
+        assertThrows(TicketAtivoExistenteException.class, () -> repositorio.saveAll(List.of(
+                Ticket.novo(new Veiculo("LOT1A00", Veiculo.TipoVeiculo.CARRO), AGORA), Ticket.novo(veiculo, AGORA))));
+        assertTrue(repositorio.findByVeiculoPlacaAndStatusNotFinalizado("LOT1A00").isEmpty());
+
+        Ticket lidoPeloPagamento = repositorio.findById(emitido.getId()).orElseThrow();
+        Ticket lidoPelaIsencao = repositorio.findById(emitido.getId()).orElseThrow();
+        lidoPeloPagamento.pagar(AGORA);
+        repositorio.save(lidoPeloPagamento);
+        lidoPelaIsencao.isentar(Status.ISENTO);
+
+        assertThrows(TicketAlteradoConcorrentementeException.class, () -> repositorio.save(lidoPelaIsencao));
+        assertEquals(Status.PAGO, repositorio.findById(emitido.getId()).orElseThrow().getStatus());
+        assertTrue(repositorio.findById("nao-e-um-id").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar tickets ativos por placa aproximada, também depois de reabrir")
+    void deveEncontrarAtivosPorPlacaAproximada() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(1_000);
+        Ticket ativo = repositorio.save(Ticket.novo(new Veiculo("OIB1A00", Veiculo.TipoVeiculo.CARRO), AGORA));
+        Ticket finalizado = repositorio.save(Ticket.novo(new Veiculo("QIB1A00", Veiculo.TipoVeiculo.CARRO), AGORA));
+        finalizado.finalizar(AGORA.plusHours(1));
+        repositorio.save(finalizado);
+
+        assertEquals(List.of(ativo.getId()), repositorio.findAtivosPorPlacaAproximada("01B1A00", 3, 5).stream().map(Ticket::getId).toList());
+        TicketRepositoryJournal reaberto = reabrir(repositorio, 1_000);
+        assertEquals(List.of(ativo.getId()), reaberto.findAtivosPorPlacaAproximada("01B1A00", 3, 5).stream().map(Ticket::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar apenas os registros posteriores ao último snapshot")
+    void deveReaplicarApenasORestoAposOSnapshot() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(100);
+        List<String> historicos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Ticket ticket = repositorio.save(Ticket.novo(new Veiculo(String.format("HIS%04d", i), Veiculo.TipoVeiculo.CARRO), AGORA));
+            if (i % 10 != 0) {
+                ticket.finalizar(AGORA.plusHours(1));
+                repositorio.save(ticket);
+                historicos.add(ticket.getId());
+            }
+        }
+
+        // Sem fechar, como em uma queda: o que foi gravado depois do último snapshot vem do journal
+        TicketRepositoryJournal recuperado = abrir(100);
+
+        assertTrue(recuperado.registrosReaplicadosNaRecuperacao() < 100, () -> "Reaplicados: " + recuperado.registrosReaplicadosNaRecuperacao());
+        assertEquals(50, recuperado.findAtivosPorPlacas(todasAsPlacas(500)).size());
+        assertEquals(Status.FINALIZADO, recuperado.findById(historicos.get(0)).orElseThrow().getStatus());
+        assertEquals(Status.FINALIZADO, recuperado.findById(historicos.get(historicos.size() - 1)).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve descartar o registro interrompido no fim do journal e continuar gravando depois dele")
+    void deveDescartarRegistroInterrompido() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(1_000);
+        Ticket ticket = repositorio.save(Ticket.novo(new Veiculo("QUE1A00", Veiculo.TipoVeiculo.CARRO), AGORA));
+        ticket.pagar(AGORA);
+        repositorio.save(ticket);
+        try (FileChannel canal = FileChannel.open(diretorio.resolve(JournalDeTickets.ARQUIVO), StandardOpenOption.WRITE)) {
+            // Metade do segundo registro (o pagamento) sobrescrita, como uma gravação interrompida
+            canal.write(ByteBuffer.wrap(new byte[RegistroTicket.TAMANHO / 2]), RegistroTicket.TAMANHO + 20);
+        }
+
+        TicketRepositoryJournal recuperado = abrir(1_000);
+
+        Ticket pendente = recuperado.findById(ticket.getId()).orElseThrow();
+        assertEquals(Status.PENDENTE, pendente.getStatus());
+        assertEquals(1, recuperado.registrosReaplicadosNaRecuperacao());
+        pendente.isentar(Status.ISENTO);
+        recuperado.save(pendente);
+        assertEquals(Status.ISENTO, reabrir(recuperado, 1_000).findById(ticket.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve emitir um único ticket ativo por placa sob emissões concorrentes")
+    void deveEmitirUmUnicoTicketAtivoPorPlaca() throws Exception {
+        TicketRepositoryJournal repositorio = abrir(200);
+        EmissaoService[] instancias = {new EmissaoService(repositorio, clock), new EmissaoService(repositorio, clock)};
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<?>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                EmissaoService emissao = instancias[i % 2];
+                Veiculo veiculo = new Veiculo(String.format("CON%04d", i % 40), Veiculo.TipoVeiculo.CARRO);
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    ids.add(emissao.emitir(veiculo).getId());
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(40, ids.size());
+        assertEquals(40, reabrir(repositorio, 200).findAtivosPorPlacas(todasAsPlacasCon()).size());
+    }
+
+    @Test
+    @DisplayName("Deve recuperar a vaga dos tickets do journal e do snapshot")
+    void deveRecuperarVagasDosTickets() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(2);
+        Ticket carro = Ticket.novo(new Veiculo("VAG1A00", Veiculo.TipoVeiculo.CARRO), AGORA);
+        carro.atribuirVaga(new Vaga(3, 130));
+        String id = repositorio.save(carro).getId();
+        Ticket moto = Ticket.novo(new Veiculo("VAG2A00", Veiculo.TipoVeiculo.MOTO), AGORA);
+        moto.atribuirVaga(new Vaga(1, 2));
+        Ticket motoSalva = repositorio.save(moto);
+        motoSalva.pagar(AGORA);
+        repositorio.save(motoSalva);
+        repositorio.save(Ticket.novo(new Veiculo("VAG3A00", Veiculo.TipoVeiculo.CARRO), AGORA));
+
+        TicketRepositoryJournal recuperado = abrir(2);
+
+        assertEquals(new Vaga(3, 130), recuperado.findById(id).orElseThrow().getVaga());
+        assertEquals(1, recuperado.findById(motoSalva.getId()).orElseThrow().getVersao());
+        assertEquals(Map.of(Veiculo.TipoVeiculo.CARRO, List.of(new Vaga(3, 130)), Veiculo.TipoVeiculo.MOTO, List.of(new Vaga(1, 2))),
+                recuperado.vagasOcupadasPorTipo());
+    }
+
+    @Test
+    @DisplayName("Deve gravar as expirações de um lote sem os tickets alterados depois de lidos e recuperá-las ao reabrir")
+    void deveGravarTransicoesEmLote() throws IOException {
+        TicketRepositoryJournal repositorio = abrir(1_000);
+        List<String> ids = new ArrayList<>();
+        for (String placa : List.of("EXP1A00", "EXP2A00", "EXP3A00")) {
+            Ticket ticket = repositorio.save(Ticket.novo(new Veiculo(placa, Veiculo.TipoVeiculo.CARRO), AGORA));
+            ticket.pagar(AGORA);
+            ids.add(repositorio.save(ticket).getId());
+        }
+        List<Ticket> lidos = repositorio.findAtivosPorIds(ids);
+        Ticket alterado = repositorio.findById(ids.get(2)).orElseThrow();
+        alterado.finalizar(AGORA.plusMinutes(5));
+        repositorio.save(alterado);
+        lidos.forEach(Ticket::expirarPagamento);
+
+        assertEquals(2, repositorio.saveTransicoes(lidos).size());
+
+        TicketRepositoryJournal recuperado = reabrir(repositorio, 1_000);
+        assertEquals(2, recuperado.findAtivosPorStatus(Set.of(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO)).size());
+        assertEquals(List.of(ids.get(0), ids.get(1)), recuperado.findAtivosPorIds(ids).stream().map(Ticket::getId).toList());
+    }
+
+    private TicketRepositoryJournal abrir(int registrosPorSnapshot) throws IOException {
+        TicketRepositoryJournal repositorio = new TicketRepositoryJournal(
+                new JournalProperties(true, diretorio, registrosPorSnapshot, false), new GeradorSnowflake(Clock.systemUTC(), 0));
+        abertos.add(repositorio);
+        return repositorio;
+    }
+
+    private TicketRepositoryJournal reabrir(TicketRepositoryJournal repositorio, int registrosPorSnapshot) throws IOException {
+        abertos.remove(repositorio);
+        repositorio.fechar();
+        return abrir(registrosPorSnapshot);
+    }
+
+    private static List<String> todasAsPlacas(int quantidade) {
+        List<String> placas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            placas.add(String.format("HIS%04d", i));
+        }
+        return placas;
+    }
+
+    private static List<String> todasAsPlacasCon() {
+        List<String> placas = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            placas.add(String.format("CON%04d", i));
+        }
+        return placas;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketArquivadoJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({TicketRepositoryImpl.class, TicketMapper.class, VeiculoMapper.class, IndiceTicketsAtivos.class, CadastroDeVeiculos.class, GeradorSnowflake.class, RelogioDoSistema.class, ArquivoDeTickets.class})
+class ArquivoDeTicketsTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+    private static final LocalDateTime LIMITE = AGORA.minusDays(30);
+
+    @Autowired
+    private TicketRepositoryImpl ticketRepository;
+
+    @Autowired
+    private ArquivoDeTickets arquivoDeTickets;
+
+    @Autowired
+    private TicketJpaRepository ticketJpaRepository;
+
+    @Autowired
+    private TicketArquivadoJpaRepository ticketArquivadoJpaRepository;
+
+    @BeforeEach
+    void sincronizarIndice() {
+        ticketRepository.reconstruirIndice();
+    }
+
+    @Test
+    @DisplayName("Deve arquivar em lotes apenas os tickets finalizados antes do limite")
+    void deveArquivarEmLotesOsFinalizadosAntesDoLimite() {
+        Ticket antigo1 = finalizado("ARQ1A11", LIMITE.minusDays(10));
+        Ticket antigo2 = finalizado("ARQ2B22", LIMITE.minusDays(5));
+        Ticket antigo3 = finalizado("ARQ3C33", LIMITE.minusHours(1));
+        Ticket recente = finalizado("ARQ4D44", LIMITE.plusDays(1));
+        Ticket ativo = ticketRepository.save(Ticket.novo(new Veiculo("ARQ5E55", Veiculo.TipoVeiculo.CARRO), AGORA.minusHours(2)));
+
+        assertEquals(2, arquivoDeTickets.arquivarLote(LIMITE, 2, AGORA));
+        assertEquals(1, arquivoDeTickets.arquivarLote(LIMITE, 2, AGORA));
+        assertEquals(0, arquivoDeTickets.arquivarLote(LIMITE, 2, AGORA));
+
+        assertEquals(3, ticketArquivadoJpaRepository.count());
+        for (Ticket arquivado : new Ticket[]{antigo1, antigo2, antigo3}) {
+            assertTrue(ticketJpaRepository.findById(arquivado.getId()).isEmpty());
+            assertEquals(AGORA, ticketArquivadoJpaRepository.findById(arquivado.getId()).orElseThrow().getArquivadoEm());
+        }
+        assertTrue(ticketJpaRepository.findById(recente.getId()).isPresent());
+        assertTrue(ticketJpaRepository.findById(ativo.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar por id um ticket arquivado")
+    void deveEncontrarTicketArquivadoPorId() {
+        Ticket antigo = finalizado("ARQ6F66", LIMITE.minusDays(1), new Vaga(3, 12));
+
+        arquivoDeTickets.arquivarLote(LIMITE, 10, AGORA);
+
+        Ticket encontrado = ticketRepository.findById(antigo.getId()).orElseThrow();
+        assertEquals(Status.FINALIZADO, encontrado.getStatus());
+        assertEquals("ARQ6F66", encontrado.getVeiculo().getPlaca());
+        assertEquals(antigo.getEntrada(), encontrado.getEntrada());
+        assertEquals(antigo.getSaida(), encontrado.getSaida());
+        assertEquals(antigo.getPagamento(), encontrado.getPagamento());
+        assertEquals(new Vaga(3, 12), encontrado.getVaga());
+        assertTrue(ticketRepository.findById("inexistente").isEmpty());
+    }
+
+    private Ticket finalizado(String placa, LocalDateTime saida) {
+        return finalizado(placa, saida, null);
+    }
+
+    private Ticket finalizado(String placa, LocalDateTime saida, Vaga vaga) {
+        Ticket novo = Ticket.novo(new Veiculo(placa, Veiculo.TipoVeiculo.CARRO), saida.minusHours(2));
+        if (vaga != null) {
+            novo.atribuirVaga(vaga);
+        }
+        Ticket ticket = ticketRepository.save(novo);
+        ticket.pagar(saida.minusMinutes(10));
+        ticket = ticketRepository.save(ticket);
+        ticket.finalizar(saida);
+        return ticketRepository.save(ticket);
+    }
+}
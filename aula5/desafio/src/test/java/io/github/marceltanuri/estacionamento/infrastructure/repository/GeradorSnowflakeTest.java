@@ -0,0 +1,108 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorSnowflakeTest {
+
+    private static final Instant AGORA = Instant.parse("2025-11-25T13:00:00Z");
+
+    @Test
+    @DisplayName("Deve compor o id com o instante, o nó e a sequência em texto de largura fixa")
+    void deveComporIdComInstanteNoESequencia() {
+        GeradorSnowflake gerador = new GeradorSnowflake(Clock.fixed(AGORA, ZoneOffset.UTC), 37);
+
+        String id = gerador.proximo();
+        long numero = GeradorSnowflake.decodificar(id);
+
+        assertEquals(GeradorSnowflake.TAMANHO, id.length());
+        assertEquals(AGORA.toEpochMilli() - GeradorSnowflake.EPOCA.toEpochMilli(),
+                numero >>> (GeradorSnowflake.BITS_NO + GeradorSnowflake.BITS_SEQUENCIA));
+        assertEquals(37, (numero >>> GeradorSnowflake.BITS_SEQUENCIA) & GeradorSnowflake.MAXIMO_NO);
+        assertEquals(0, numero & ((1 << GeradorSnowflake.BITS_SEQUENCIA) - 1));
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids crescentes mesmo quando a sequência do milissegundo se esgota ou o relógio volta")
+    void deveGerarIdsCrescentesComRelogioParadoOuAtrasado() {
+        Clock[] relogio = {Clock.fixed(AGORA, ZoneOffset.UTC)};
+        GeradorSnowflake gerador = new GeradorSnowflake(new RelogioDelegado(relogio), 1);
+
+        String anterior = gerador.proximo();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                relogio[0] = Clock.fixed(AGORA.minusSeconds(5), ZoneOffset.UTC);
+            }
+            String atual = gerador.proximo();
+            assertTrue(atual.compareTo(anterior) > 0, atual + " não é maior que " + anterior);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids únicos entre threads concorrentes")
+    void deveGerarIdsUnicosEntreThreads() throws Exception {
+        GeradorSnowflake gerador = new GeradorSnowflake(Clock.systemUTC(), 0);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tarefas.add(threads.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(gerador.proximo());
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar nó fora dos 10 bits reservados")
+    void deveRejeitarNoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorSnowflake(Clock.systemUTC(), 1024));
+        assertThrows(IllegalArgumentException.class, () -> new GeradorSnowflake(Clock.systemUTC(), -1));
+    }
+
+    private static final class RelogioDelegado extends Clock {
+        private final Clock[] atual;
+
+        RelogioDelegado(Clock[] atual) {
+            this.atual = atual;
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return atual[0].instant();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceTicketsAtivosTest {
+
+    private IndiceTicketsAtivos indice;
+    private Veiculo veiculo;
+    private final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTicketsAtivos();
+        veiculo = new Veiculo("ABC1234", Veiculo.TipoVeiculo.CARRO);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar o ticket ativo pela placa")
+    void deveEncontrarTicketAtivoPelaPlaca() {
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE));
+
+        Ticket encontrado = indice.buscarPorPlaca("ABC1234").orElseThrow();
+
+        assertEquals("t1", encontrado.getId());
+        assertEquals(Status.PENDENTE, encontrado.getStatus());
+        assertTrue(indice.buscarPorPlaca("placa inválida").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve remover o ticket do índice quando for finalizado")
+    void deveRemoverTicketFinalizado() {
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PAGO));
+
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, ENTRADA.plusHours(1), null, Status.FINALIZADO));
+
+        assertTrue(indice.buscarPorPlaca("ABC1234").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve substituir o ticket indexado por uma versão mais antiga confirmada depois")
+    void naoDeveVoltarParaVersaoAntiga() {
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PAGO, 2));
+
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE, 1));
+
+        assertEquals(Status.PAGO, indice.buscarPorPlaca("ABC1234").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar o ticket ativo por uma leitura aproximada da placa enquanto ele estiver ativo")
+    void deveEncontrarTicketAtivoPorPlacaAproximada() {
+        Veiculo lidoComoOito = new Veiculo("BOB1D23", Veiculo.TipoVeiculo.CARRO);
+        indice.atualizar(new Ticket("t1", lidoComoOito, ENTRADA, null, null, Status.PENDENTE));
+        indice.atualizar(new Ticket("t2", veiculo, ENTRADA, null, null, Status.PENDENTE));
+
+        assertEquals(List.of("t1"), indice.buscarPorPlacaAproximada("80B1D23", 2, 5).stream().map(Ticket::getId).toList());
+
+        indice.atualizar(new Ticket("t1", lidoComoOito, ENTRADA, ENTRADA.plusHours(1), null, Status.FINALIZADO));
+        assertTrue(indice.buscarPorPlacaAproximada("80B1D23", 2, 5).isEmpty());
+
+        indice.reconstruir(List.of(new Ticket("t1", lidoComoOito, ENTRADA, null, null, Status.PAGO)));
+        assertEquals(List.of("t1"), indice.buscarPorPlacaAproximada("80B1D23", 2, 5).stream().map(Ticket::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Não deve remover o ticket ativo ao finalizar outro ticket da mesma placa")
+    void naoDeveRemoverTicketAtivoAoFinalizarOutroTicket() {
+        indice.atualizar(new Ticket("t2", veiculo, ENTRADA, null, null, Status.PENDENTE));
+
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, ENTRADA.plusHours(1), null, Status.FINALIZADO));
+
+        assertEquals("t2", indice.buscarPorPlaca("ABC1234").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Alterações no ticket retornado não devem modificar o índice")
+    void alteracoesNoTicketRetornadoNaoDevemModificarIndice() {
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE));
+
+        indice.buscarPorPlaca("ABC1234").orElseThrow().pagar(ENTRADA.plusHours(1));
+
+        assertEquals(Status.PENDENTE, indice.buscarPorPlaca("ABC1234").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o índice descartando placas que não estão mais ativas")
+    void deveReconstruirIndice() {
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE));
+        Veiculo outro = new Veiculo("XYZ5678", Veiculo.TipoVeiculo.MOTO);
+
+        indice.reconstruir(List.of(new Ticket("t2", outro, ENTRADA, null, null, Status.PENDENTE)));
+
+        assertTrue(indice.buscarPorPlaca("ABC1234").isEmpty());
+        assertEquals("t2", indice.buscarPorPlaca("XYZ5678").orElseThrow().getId());
+        assertEquals(1, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve apontar divergências entre o índice e o banco")
+    void deveApontarDivergencias() {
+        Veiculo outro = new Veiculo("XYZ5678", Veiculo.TipoVeiculo.MOTO);
+        Veiculo terceiro = new Veiculo("DEF9G87", Veiculo.TipoVeiculo.CARRO);
+        indice.atualizar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE));
+        indice.atualizar(new Ticket("t2", outro, ENTRADA, null, null, Status.PENDENTE));
+
+        List<String> divergencias = indice.divergencias(List.of(
+                new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE),
+                new Ticket("t2", outro, ENTRADA, null, ENTRADA.plusHours(1), Status.PAGO),
+                new Ticket("t3", terceiro, ENTRADA, null, null, Status.PENDENTE)));
+
+        assertEquals(2, divergencias.size());
+        assertTrue(indice.divergencias(List.of(
+                new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE),
+                new Ticket("t2", outro, ENTRADA, null, null, Status.PENDENTE))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve manter a vaga do ticket indexado e apontar divergência de vaga com o banco")
+    void deveManterVagaDoTicketIndexado() {
+        Vaga vaga = new Vaga(2, 5);
+        indice.atualizarAoConfirmar(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE, 0, vaga));
+
+        assertEquals(vaga, indice.buscarPorPlaca("ABC1234").orElseThrow().getVaga());
+        assertEquals(vaga, indice.buscarPorPlacaAproximada("A8C1234", 2, 5).get(0).getVaga());
+        assertTrue(indice.divergencias(List.of(new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE, 0, vaga))).isEmpty());
+        assertEquals(1, indice.divergencias(List.of(
+                new Ticket("t1", veiculo, ENTRADA, null, null, Status.PENDENTE, 0, new Vaga(2, 6)))).size());
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+
+/**
+ * Relógio para os testes de repositório, cujo contexto não carrega a configuração dos serviços de domínio.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class RelogioDoSistema {
+
+    @Bean
+    Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.config.TarifasConfiguradas;
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.IntencaoPagamentoRepository;
+import io.github.marceltanuri.estacionamento.domain.ticket.ports.OperadoraPagamento;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.CalculadoraDePreco;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.EmissaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.IsencaoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.PagamentoService;
+import io.github.marceltanuri.estacionamento.domain.ticket.service.SaidaService;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.VeiculoJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.VeiculoEntity;
+import io.github.marceltanuri.estacionamento.infrastructure.sql.ContadorDeSql;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Quantidade exata de comandos SQL de cada operação, lendo o ticket como o controller faz.
+ * Sem transação de teste, cada comando vai ao banco como em produção.
+ */
+@DataJpaTest(properties = ContadorDeSql.PROPRIEDADE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TicketRepositoryImpl.class, TicketMapper.class, VeiculoMapper.class, IndiceTicketsAtivos.class, CadastroDeVeiculos.class, GeradorSnowflake.class, RelogioDoSistema.class})
+class TicketRepositoryImplSqlTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2025, 11, 25, 10, 5, 0);
+
+    @Autowired
+    private TicketRepositoryImpl ticketRepository;
+
+    @Autowired
+    private TicketJpaRepository ticketJpaRepository;
+
+    @Autowired
+    private VeiculoJpaRepository veiculoJpaRepository;
+
+    private EmissaoService emissaoService;
+    private PagamentoService pagamentoService;
+    private IsencaoService isencaoService;
+    private SaidaService saidaService;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.reconstruirIndice();
+        Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        emissaoService = new EmissaoService(ticketRepository, clock);
+        pagamentoService = new PagamentoService(mock(OperadoraPagamento.class), new CalculadoraDePreco(TarifasConfiguradas.carregar()), ticketRepository,
+                mock(IntencaoPagamentoRepository.class), clock);
+        isencaoService = new IsencaoService(ticketRepository, placa -> true, comprovante -> true, mock(IntencaoPagamentoRepository.class));
+        saidaService = new SaidaService(ticketRepository, clock);
+    }
+
+    @AfterEach
+    void limparBanco() {
+        ticketJpaRepository.deleteAll();
+        veiculoJpaRepository.deleteAll();
+        ticketRepository.reconstruirIndice();
+    }
+
+    @Test
+    @DisplayName("Emissão de veículo novo: verifica o veículo, insere o veículo e insere o ticket")
+    void emissaoDeVeiculoNovo() {
+        List<String> sql = registrar(() -> emissaoService.emitir(new Veiculo("SQL1A11", Veiculo.TipoVeiculo.CARRO)));
+
+        assertComandos(sql, "select", "insert", "insert");
+    }
+
+    @Test
+    @DisplayName("Emissão de veículo recorrente: o veículo já está no cadastro e só o ticket é inserido")
+    void emissaoDeVeiculoRecorrente() {
+        Ticket anterior = emissaoService.emitir(new Veiculo("SQL2B22", Veiculo.TipoVeiculo.CARRO));
+        anterior.finalizar(AGORA);
+        ticketRepository.save(anterior);
+
+        List<String> sql = registrar(() -> emissaoService.emitir(new Veiculo("SQL2B22", Veiculo.TipoVeiculo.CARRO)));
+
+        assertComandos(sql, "insert");
+    }
+
+    @Test
+    @DisplayName("Emissão de veículo gravado fora do cadastro: verifica o veículo e insere o ticket")
+    void emissaoDeVeiculoGravadoForaDoCadastro() {
+        veiculoJpaRepository.save(new VeiculoEntity("SQL2B23", Veiculo.TipoVeiculo.MOTO));
+
+        List<String> sql = registrar(() -> emissaoService.emitir(new Veiculo("SQL2B23", Veiculo.TipoVeiculo.CARRO)));
+
+        assertComandos(sql, "select", "insert");
+    }
+
+    @Test
+    @DisplayName("Emissão de veículo já no pátio: respondida pelo índice, sem SQL")
+    void emissaoDeVeiculoJaNoPatio() {
+        emissaoService.emitir(new Veiculo("SQL3C33", Veiculo.TipoVeiculo.CARRO));
+
+        List<String> sql = registrar(() -> emissaoService.emitir(new Veiculo("SQL3C33", Veiculo.TipoVeiculo.CARRO)));
+
+        assertComandos(sql);
+    }
+
+    @Test
+    @DisplayName("Pagamento: lê o ticket e grava a transição em um único UPDATE")
+    void pagamento() {
+        String id = emissaoService.emitir(new Veiculo("SQL4D44", Veiculo.TipoVeiculo.CARRO)).getId();
+
+        List<String> sql = registrar(() -> pagamentoService.pagar(ticketRepository.findById(id).orElseThrow()));
+
+        assertComandos(sql, "select", "update");
+        assertEquals(Status.PAGO, ticketRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Isenção: lê o ticket e grava a transição em um único UPDATE")
+    void isencao() {
+        String id = emissaoService.emitir(new Veiculo("SQL5E55", Veiculo.TipoVeiculo.CARRO)).getId();
+
+        List<String> sql = registrar(() -> isencaoService.isentarPorComprovanteDeCompra(ticketRepository.findById(id).orElseThrow(), "COMPROVANTE"));
+
+        assertComandos(sql, "select", "update");
+        assertEquals(Status.ISENTO, ticketRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Saída: lê o ticket e grava a transição em um único UPDATE")
+    void saida() {
+        String id = emissaoService.emitir(new Veiculo("SQL6F66", Veiculo.TipoVeiculo.CARRO)).getId();
+
+        List<String> sql = registrar(() -> saidaService.processarSaida(ticketRepository.findById(id).orElseThrow()));
+
+        assertComandos(sql, "select", "update");
+        assertEquals(Status.FINALIZADO, ticketRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    private static List<String> registrar(Runnable operacao) {
+        ContadorDeSql.iniciar();
+        operacao.run();
+        return ContadorDeSql.encerrar();
+    }
+
+    private static void assertComandos(List<String> sql, String... esperados) {
+        List<String> comandos = sql.stream().map(comando -> comando.trim().split("\\s+")[0].toLowerCase()).toList();
+        assertEquals(List.of(esperados), comandos, () -> "SQL executado:\n" + String.join("\n", sql));
+    }
+}
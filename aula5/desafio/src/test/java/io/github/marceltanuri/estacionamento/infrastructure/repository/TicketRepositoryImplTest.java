@@ -0,0 +1,292 @@
+package io.github.marceltanuri.estacionamento.infrastructure.repository;
+
+import io.github.marceltanuri.estacionamento.domain.ticket.Status;
+import io.github.marceltanuri.estacionamento.domain.ticket.Ticket;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAlteradoConcorrentementeException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.TicketAtivoExistenteException;
+import io.github.marceltanuri.estacionamento.domain.ticket.exception.VagaOcupadaException;
+import io.github.marceltanuri.estacionamento.domain.vaga.Vaga;
+import io.github.marceltanuri.estacionamento.domain.veiculo.Veiculo;
+import io.github.marceltanuri.estacionamento.infrastructure.dao.TicketJpaRepository;
+import io.github.marceltanuri.estacionamento.infrastructure.persistence.TicketEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sem transação de teste, cada operação do repositório confirma a sua própria transação, como em produção,
+ * e o índice em memória recebe as alterações confirmadas.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TicketRepositoryImpl.class, TicketMapper.class, VeiculoMapper.class, IndiceTicketsAtivos.class, CadastroDeVeiculos.class, GeradorSnowflake.class, RelogioDoSistema.class})
+class TicketRepositoryImplTest {
+
+    @Autowired
+    private TicketRepositoryImpl ticketRepository;
+
+    @Autowired
+    private TicketJpaRepository ticketJpaRepository;
+
+    @Autowired
+    private IndiceTicketsAtivos indiceTicketsAtivos;
+
+    @Autowired
+    private CadastroDeVeiculos cadastroDeVeiculos;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime ENTRADA = LocalDateTime.of(2025, 11, 25, 10, 0, 0);
+
+    @BeforeEach
+    void sincronizarIndice() {
+        ticketRepository.reconstruirIndice();
+    }
+
+    // Os veículos ficam, como no cadastro em memória; os tickets apagados aqui não passam pelo índice
+    @AfterEach
+    void limparBanco() {
+        ticketJpaRepository.deleteAll();
+        ticketRepository.reconstruirIndice();
+    }
+
+    @Test
+    @DisplayName("Deve manter o índice de tickets ativos a cada transição salva")
+    void deveManterIndiceACadaTransicao() {
+        Ticket ticket = ticketRepository.save(Ticket.novo(new Veiculo("ABC1D23", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        assertEquals(ticket.getId(), ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("ABC1D23").orElseThrow().getId());
+
+        ticket.pagar(ENTRADA.plusHours(1));
+        ticket = ticketRepository.save(ticket);
+        assertEquals(Status.PAGO, ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("ABC1D23").orElseThrow().getStatus());
+        assertEquals(1, ticket.getVersao());
+
+        ticket.finalizar(ENTRADA.plusHours(1).plusMinutes(5));
+        ticketRepository.save(ticket);
+        assertTrue(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("ABC1D23").isEmpty());
+        assertTrue(ticketRepository.verificarConsistenciaDoIndice().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o índice a partir dos tickets ativos do banco")
+    void deveReconstruirIndiceAPartirDoBanco() {
+        Ticket ticket = ticketRepository.save(Ticket.novo(new Veiculo("XYZ9A87", Veiculo.TipoVeiculo.MOTO), ENTRADA));
+        TicketEntity gravadoForaDoRepositorio = ticketJpaRepository.findById(ticket.getId()).orElseThrow();
+        gravadoForaDoRepositorio.setStatus(Status.ISENTO);
+        ticketJpaRepository.saveAndFlush(gravadoForaDoRepositorio);
+
+        assertEquals(1, ticketRepository.verificarConsistenciaDoIndice().size());
+
+        ticketRepository.reconstruirIndice();
+
+        assertTrue(ticketRepository.verificarConsistenciaDoIndice().isEmpty());
+        assertEquals(Status.ISENTO, indiceTicketsAtivos.buscarPorPlaca("XYZ9A87").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar transição gravada sobre uma versão desatualizada do ticket")
+    void deveRejeitarTransicaoSobreVersaoDesatualizada() {
+        String id = ticketRepository.save(Ticket.novo(new Veiculo("CON1C23", Veiculo.TipoVeiculo.CARRO), ENTRADA)).getId();
+        Ticket lidoPeloPagamento = ticketRepository.findById(id).orElseThrow();
+        Ticket lidoPelaIsencao = ticketRepository.findById(id).orElseThrow();
+
+        lidoPeloPagamento.pagar(ENTRADA.plusHours(1));
+        ticketRepository.save(lidoPeloPagamento);
+        lidoPelaIsencao.isentar(Status.ISENTO);
+
+        assertThrows(TicketAlteradoConcorrentementeException.class, () -> ticketRepository.save(lidoPelaIsencao));
+        Ticket gravado = ticketRepository.findById(id).orElseThrow();
+        assertEquals(Status.PAGO, gravado.getStatus());
+        assertEquals(1, gravado.getVersao());
+        assertEquals(Status.PAGO, ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("CON1C23").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve gravar tickets em lote, reaproveitando veículos já cadastrados, e encontrá-los por placa")
+    void deveGravarEmLoteEEncontrarAtivosPorPlacas() {
+        Veiculo recorrente = new Veiculo("LOT1A11", Veiculo.TipoVeiculo.CARRO);
+        Ticket visitaAnterior = ticketRepository.save(Ticket.novo(recorrente, ENTRADA.minusDays(1)));
+        visitaAnterior.finalizar(ENTRADA.minusDays(1).plusHours(1));
+        ticketRepository.save(visitaAnterior);
+
+        List<Ticket> salvos = ticketRepository.saveAll(List.of(
+                Ticket.novo(recorrente, ENTRADA),
+                Ticket.novo(new Veiculo("LOT2B22", Veiculo.TipoVeiculo.MOTO), ENTRADA)));
+
+        assertEquals(2, salvos.size());
+        salvos.forEach(ticket -> assertNotNull(ticket.getId()));
+        List<Ticket> ativos = ticketRepository.findAtivosPorPlacas(List.of("LOT1A11", "LOT2B22", "LOT3C33"));
+        assertEquals(2, ativos.size());
+        assertEquals(salvos.get(0).getId(), ativos.stream().filter(t -> t.getVeiculo().getPlaca().equals("LOT1A11")).findFirst().orElseThrow().getId());
+        assertEquals(salvos.get(1).getId(), ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("LOT2B22").orElseThrow().getId());
+        assertTrue(ticketRepository.verificarConsistenciaDoIndice().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o lote inteiro com a exceção de domínio quando uma placa ou vaga já tiver ticket ativo")
+    void deveRecusarLoteComPlacaOuVagaJaAtiva() {
+        Ticket ativo = Ticket.novo(new Veiculo("REC1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        ativo.atribuirVaga(new Vaga(2, 3));
+        ticketRepository.save(ativo);
+        Ticket mesmaPlaca = Ticket.novo(new Veiculo("REC1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        Ticket mesmaVaga = Ticket.novo(new Veiculo("REC2B22", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        mesmaVaga.atribuirVaga(new Vaga(2, 3));
+        Ticket livre = Ticket.novo(new Veiculo("REC3C33", Veiculo.TipoVeiculo.MOTO), ENTRADA);
+
+        assertThrows(TicketAtivoExistenteException.class, () -> ticketRepository.saveAll(List.of(livre, mesmaPlaca)));
+        assertThrows(VagaOcupadaException.class, () -> ticketRepository.saveAll(List.of(livre, mesmaVaga)));
+
+        assertTrue(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("REC2B22").isEmpty());
+        assertTrue(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("REC3C33").isEmpty());
+        assertTrue(ticketRepository.verificarConsistenciaDoIndice().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve levar ao índice nem ao cadastro as gravações de uma transação desfeita")
+    void naoDeveAlterarIndiceNemCadastroComTransacaoDesfeita() {
+        Ticket pago = ticketRepository.save(Ticket.novo(new Veiculo("CAD3C33", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ticketRepository.save(Ticket.novo(new Veiculo("CAD1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+            ticketRepository.saveAll(List.of(Ticket.novo(new Veiculo("CAD2B22", Veiculo.TipoVeiculo.MOTO), ENTRADA)));
+            pago.pagar(ENTRADA.plusHours(1));
+            ticketRepository.save(pago);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(cadastroDeVeiculos.tipo("CAD1A11").isEmpty());
+        assertTrue(cadastroDeVeiculos.tipo("CAD2B22").isEmpty());
+        assertTrue(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("CAD1A11").isEmpty());
+        assertTrue(ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("CAD2B22").isEmpty());
+        assertEquals(Status.PENDENTE, ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("CAD3C33").orElseThrow().getStatus());
+        assertTrue(ticketRepository.verificarConsistenciaDoIndice().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve gravar tickets novos com ids ordenados pelo tempo e continuar encontrando tickets com UUID")
+    void deveGravarIdsOrdenadosEEncontrarTicketsComUuid() {
+        String uuid = UUID.randomUUID().toString();
+        Ticket primeiro = ticketRepository.save(Ticket.novo(new Veiculo("SNW1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.getEntityManager().createNativeQuery("insert into tickets (id, veiculo_placa, entrada, saida, status, versao) "
+                                + "values (?1, 'SNW1A11', ?2, ?3, 'FINALIZADO', 0)")
+                        .setParameter(1, uuid)
+                        .setParameter(2, ENTRADA.minusDays(1))
+                        .setParameter(3, ENTRADA.minusDays(1).plusHours(1))
+                        .executeUpdate());
+        Ticket segundo = ticketRepository.save(Ticket.novo(new Veiculo("SNW2B22", Veiculo.TipoVeiculo.MOTO), ENTRADA));
+
+        assertEquals(GeradorSnowflake.TAMANHO, primeiro.getId().length());
+        assertTrue(segundo.getId().compareTo(primeiro.getId()) > 0);
+        assertEquals(Status.FINALIZADO, ticketRepository.findById(uuid).orElseThrow().getStatus());
+        assertEquals("SNW1A11", ticketRepository.findById(primeiro.getId()).orElseThrow().getVeiculo().getPlaca());
+    }
+
+    @Test
+    @DisplayName("Deve contar os tickets ativos por tipo de veículo, sem os finalizados")
+    void deveContarAtivosPorTipo() {
+        ticketRepository.save(Ticket.novo(new Veiculo("CNT1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        ticketRepository.save(Ticket.novo(new Veiculo("CNT2B22", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        Ticket moto = ticketRepository.save(Ticket.novo(new Veiculo("CNT3C33", Veiculo.TipoVeiculo.MOTO), ENTRADA));
+        Ticket finalizado = ticketRepository.save(Ticket.novo(new Veiculo("CNT4D44", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        finalizado.finalizar(ENTRADA.plusHours(1));
+        ticketRepository.save(finalizado);
+        moto.pagar(ENTRADA.plusHours(1));
+        ticketRepository.save(moto);
+
+        Map<Veiculo.TipoVeiculo, Long> ativos = ticketRepository.contarAtivosPorTipo();
+
+        assertEquals(Map.of(Veiculo.TipoVeiculo.CARRO, 2L, Veiculo.TipoVeiculo.MOTO, 1L), ativos);
+    }
+
+    @Test
+    @DisplayName("Deve gravar a vaga do ticket e listar as vagas ocupadas pelos tickets ativos")
+    void deveGravarVagaEListarVagasOcupadas() {
+        Ticket carro = Ticket.novo(new Veiculo("VAG1A11", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        carro.atribuirVaga(new Vaga(2, 15));
+        Ticket moto = Ticket.novo(new Veiculo("VAG2B22", Veiculo.TipoVeiculo.MOTO), ENTRADA);
+        moto.atribuirVaga(new Vaga(1, 3));
+        Ticket saiu = Ticket.novo(new Veiculo("VAG3C33", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        saiu.atribuirVaga(new Vaga(1, 1));
+        ticketRepository.saveAll(List.of(carro, moto, saiu));
+        Ticket semVaga = ticketRepository.save(Ticket.novo(new Veiculo("VAG4D44", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        Ticket finalizado = ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado("VAG3C33").orElseThrow();
+        finalizado.finalizar(ENTRADA.plusHours(1));
+        ticketRepository.save(finalizado);
+
+        assertEquals(Map.of(Veiculo.TipoVeiculo.CARRO, List.of(new Vaga(2, 15)), Veiculo.TipoVeiculo.MOTO, List.of(new Vaga(1, 3))),
+                ticketRepository.vagasOcupadasPorTipo());
+        assertEquals(new Vaga(1, 1), ticketRepository.findById(finalizado.getId()).orElseThrow().getVaga());
+        assertNull(ticketRepository.findById(semVaga.getId()).orElseThrow().getVaga());
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma vaga já ocupada por outro ticket ativo e liberá-la quando ele for finalizado")
+    void deveRecusarVagaOcupadaPorTicketAtivo() {
+        Ticket primeiro = Ticket.novo(new Veiculo("VAG5E55", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        primeiro.atribuirVaga(new Vaga(1, 7));
+        primeiro = ticketRepository.save(primeiro);
+        Ticket mesmaVaga = Ticket.novo(new Veiculo("VAG6F66", Veiculo.TipoVeiculo.CARRO), ENTRADA);
+        mesmaVaga.atribuirVaga(new Vaga(1, 7));
+        Ticket outroTipo = Ticket.novo(new Veiculo("VAG7G77", Veiculo.TipoVeiculo.MOTO), ENTRADA);
+        outroTipo.atribuirVaga(new Vaga(1, 7));
+
+        assertThrows(VagaOcupadaException.class, () -> ticketRepository.save(mesmaVaga));
+        ticketRepository.save(outroTipo);
+        primeiro.finalizar(ENTRADA.plusHours(1));
+        ticketRepository.save(primeiro);
+
+        assertEquals(new Vaga(1, 7), ticketRepository.save(mesmaVaga).getVaga());
+    }
+
+    @Test
+    @DisplayName("Deve gravar as transições de um lote, deixando de fora os tickets alterados depois de lidos")
+    void deveGravarTransicoesEmLote() {
+        for (String placa : List.of("EXP1A11", "EXP2B22", "EXP3C33")) {
+            Ticket ticket = ticketRepository.save(Ticket.novo(new Veiculo(placa, Veiculo.TipoVeiculo.CARRO), ENTRADA));
+            ticket.pagar(ENTRADA.plusHours(1));
+            ticketRepository.save(ticket);
+        }
+        Ticket isento = ticketRepository.save(Ticket.novo(new Veiculo("EXP4D44", Veiculo.TipoVeiculo.CARRO), ENTRADA));
+        isento.isentar(Status.ISENTO);
+        ticketRepository.save(isento);
+
+        List<Ticket> pagos = ticketRepository.findAtivosPorStatus(List.of(Status.PAGO));
+        assertEquals(3, pagos.size());
+        List<Ticket> lidos = ticketRepository.findAtivosPorIds(pagos.stream().map(Ticket::getId).toList());
+        Ticket alterado = ticketRepository.findById(lidos.get(0).getId()).orElseThrow();
+        alterado.finalizar(ENTRADA.plusHours(1).plusMinutes(5));
+        ticketRepository.save(alterado);
+        lidos.forEach(Ticket::expirarPagamento);
+
+        List<Ticket> gravados = ticketRepository.saveTransicoes(lidos);
+
+        assertEquals(lidos.subList(1, 3).stream().map(Ticket::getId).toList(), gravados.stream().map(Ticket::getId).toList());
+        gravados.forEach(gravado -> assertEquals(2, gravado.getVersao()));
+        assertEquals(2, ticketRepository.findAtivosPorIds(pagos.stream().map(Ticket::getId).toList()).size());
+        assertEquals(Status.TOLERANCIA_APOS_PAGAMENTO_EXPIRADO,
+                ticketRepository.findByVeiculoPlacaAndStatusNotFinalizado(gravados.get(0).getVeiculo().getPlaca()).orElseThrow().getStatus());
+        assertEquals(List.of(isento.getId()), ticketRepository.findAtivosPorStatus(List.of(Status.ISENTO, Status.PAGO)).stream()
+                .map(Ticket::getId).toList());
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.marceltanuri.estacionamento.infrastructure.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra o SQL que o Hibernate prepara na thread corrente entre {@link #iniciar()} e {@link #encerrar()}.
+ * Ativado pela propriedade {@value #PROPRIEDADE}; restrito à thread do teste para ignorar
+ * consultas de workers em segundo plano.
+ */
+public class ContadorDeSql implements StatementInspector {
+
+    public static final String PROPRIEDADE =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.github.marceltanuri.estacionamento.infrastructure.sql.ContadorDeSql";
+
+    private static final ThreadLocal<List<String>> REGISTRADOS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> registrados = REGISTRADOS.get();
+        if (registrados != null) {
+            registrados.add(sql);
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        REGISTRADOS.set(new ArrayList<>());
+    }
+
+    public static List<String> encerrar() {
+        List<String> registrados = REGISTRADOS.get();
+        REGISTRADOS.remove();
+        return registrados == null ? List.of() : List.copyOf(registrados);
+    }
+}
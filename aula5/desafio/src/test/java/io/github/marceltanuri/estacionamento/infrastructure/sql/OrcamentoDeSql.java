@@ -0,0 +1,46 @@
+package io.github.marceltanuri.estacionamento.infrastructure.sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Orçamento de comandos SQL de uma operação: executa a chamada registrando o SQL da thread corrente
+ * e reprova o teste, listando os comandos executados, quando ela passa do limite declarado.
+ * Requer o {@link ContadorDeSql} ativo no contexto ({@link ContadorDeSql#PROPRIEDADE}).
+ */
+public final class OrcamentoDeSql {
+
+    @FunctionalInterface
+    public interface Chamada<T> {
+        T executar() throws Exception;
+    }
+
+    private OrcamentoDeSql() {
+    }
+
+    public static <T> T noMaximo(int comandos, String operacao, Chamada<T> chamada) throws Exception {
+        T resultado;
+        List<String> executados;
+        ContadorDeSql.iniciar();
+        try {
+            resultado = chamada.executar();
+        } finally {
+            executados = ContadorDeSql.encerrar();
+        }
+        if (executados.size() > comandos) {
+            fail(descrever(operacao, comandos, executados));
+        }
+        return resultado;
+    }
+
+    static String descrever(String operacao, int comandos, List<String> executados) {
+        StringBuilder descricao = new StringBuilder()
+                .append(operacao).append(" executou ").append(executados.size())
+                .append(" comandos SQL; o orçamento é de ").append(comandos).append(':');
+        for (int i = 0; i < executados.size(); i++) {
+            descricao.append(System.lineSeparator()).append(String.format("%3d. ", i + 1)).append(executados.get(i));
+        }
+        return descricao.toString();
+    }
+}